@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.annotations.Transform;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.plugins.TransformPluginType;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and runs the small pipelines used by the transform benchmarks: one or more injectors feed
+ * the transform under test and the output is counted in a dummy transform.
+ */
+public class BenchmarkPipeline {
+  public static final String INJECTOR_TRANSFORMNAME = "injector";
+  public static final String TEST_TRANSFORMNAME = "test";
+  public static final String DUMMY_TRANSFORMNAME = "dummy";
+
+  private static final String[] PLUGIN_CLASSES = {
+    "org.apache.hop.pipeline.transforms.injector.InjectorMeta",
+    "org.apache.hop.pipeline.transforms.dummy.DummyMeta",
+    "org.apache.hop.pipeline.transforms.sort.SortRowsMeta",
+    "org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta",
+    "org.apache.hop.pipeline.transforms.streamlookup.StreamLookupMeta",
+  };
+
+  private final PipelineMeta pipelineMeta;
+  private final TransformMeta testTransformMeta;
+
+  private BenchmarkPipeline(PipelineMeta pipelineMeta, TransformMeta testTransformMeta) {
+    this.pipelineMeta = pipelineMeta;
+    this.testTransformMeta = testTransformMeta;
+  }
+
+  /**
+   * Initialize the Hop environment once and make sure the benchmarked transforms are known to the
+   * plugin registry, even when they are only present in the classpath.
+   *
+   * @throws HopException in case the environment can't be initialized
+   */
+  public static synchronized void init() throws HopException {
+    HopEnvironment.init();
+    PluginRegistry registry = PluginRegistry.getInstance();
+    for (String className : PLUGIN_CLASSES) {
+      if (registry.findPluginWithId(TransformPluginType.class, pluginId(className)) == null) {
+        registry.registerPluginClass(className, TransformPluginType.class, Transform.class);
+      }
+    }
+  }
+
+  private static String pluginId(String className) {
+    try {
+      Transform annotation = Class.forName(className).getAnnotation(Transform.class);
+      return annotation == null ? className : annotation.id();
+    } catch (ClassNotFoundException e) {
+      return className;
+    }
+  }
+
+  /**
+   * Create a pipeline injector -> transform -> dummy
+   *
+   * @param transformMeta The metadata of the transform to benchmark
+   * @return the pipeline
+   */
+  public static BenchmarkPipeline create(ITransformMeta transformMeta) {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("benchmark");
+
+    TransformMeta injector = newTransformMeta(INJECTOR_TRANSFORMNAME, new InjectorMeta());
+    TransformMeta test = newTransformMeta(TEST_TRANSFORMNAME, transformMeta);
+    TransformMeta dummy = newTransformMeta(DUMMY_TRANSFORMNAME, new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(test);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, test));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(test, dummy));
+
+    return new BenchmarkPipeline(pipelineMeta, test);
+  }
+
+  /**
+   * Add an extra injector which feeds the transform under test, for example as an info stream.
+   *
+   * @param name The name of the extra injector transform
+   * @return The metadata of the extra injector
+   */
+  public TransformMeta addInjector(String name) {
+    TransformMeta injector = newTransformMeta(name, new InjectorMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, testTransformMeta));
+    return injector;
+  }
+
+  private static TransformMeta newTransformMeta(String name, ITransformMeta meta) {
+    String pluginId = PluginRegistry.getInstance().getPluginId(TransformPluginType.class, meta);
+    return new TransformMeta(pluginId, name, meta);
+  }
+
+  /**
+   * Run the pipeline once, injecting the given rows.
+   *
+   * @param inputs for every injector (by name) the rows to inject, in the order they are given
+   * @return the number of rows arriving in the dummy transform
+   * @throws HopException in case the pipeline fails
+   */
+  public long run(Input... inputs) throws HopException {
+    Pipeline pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setLogLevel(LogLevel.ERROR);
+    pipeline.prepareExecution();
+
+    final long[] count = new long[1];
+    pipeline
+        .getTransform(DUMMY_TRANSFORMNAME, 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                count[0]++;
+              }
+            });
+
+    List<RowProducer> producers = new ArrayList<>();
+    for (Input input : inputs) {
+      producers.add(pipeline.addRowProducer(input.injectorName, 0));
+    }
+
+    pipeline.startThreads();
+
+    for (int i = 0; i < inputs.length; i++) {
+      RowProducer producer = producers.get(i);
+      for (Object[] row : inputs[i].rows) {
+        while (!producer.putRowWait(inputs[i].rowMeta, row, 100, TimeUnit.MILLISECONDS)) {
+          // Don't wait forever on a pipeline that failed
+          if (pipeline.getErrors() > 0 || pipeline.isStopped()) {
+            pipeline.stopAll();
+            throw new HopException("Benchmark pipeline finished with errors");
+          }
+        }
+      }
+      producer.finished();
+    }
+
+    pipeline.waitUntilFinished();
+    if (pipeline.getErrors() > 0) {
+      throw new HopException("Benchmark pipeline finished with errors");
+    }
+    return count[0];
+  }
+
+  /**
+   * Gets pipelineMeta
+   *
+   * @return value of pipelineMeta
+   */
+  public PipelineMeta getPipelineMeta() {
+    return pipelineMeta;
+  }
+
+  /** The rows to inject into one injector transform */
+  public static class Input {
+    private final String injectorName;
+    private final IRowMeta rowMeta;
+    private final List<Object[]> rows;
+
+    public Input(String injectorName, IRowMeta rowMeta, List<Object[]> rows) {
+      this.injectorName = injectorName;
+      this.rowMeta = rowMeta;
+      this.rows = rows;
+    }
+  }
+
+  /**
+   * The layout of the generated rows: an integer key, a string key, a number and a free text
+   * column.
+   *
+   * @return The row metadata
+   */
+  public static IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("description"));
+    return rowMeta;
+  }
+
+  /**
+   * Generate rows for {@link #createRowMeta()} with the keys drawn from the given distribution.
+   *
+   * @param nrRows The number of rows
+   * @param keys The key generator
+   * @return The rows
+   */
+  public static List<Object[]> createRows(int nrRows, KeyDistribution keys) {
+    List<Object[]> rows = new ArrayList<>(nrRows);
+    for (int i = 0; i < nrRows; i++) {
+      long key = keys.next();
+      rows.add(new Object[] {key, "CODE-" + key, (double) (i % 1000) / 10.0, "Row number " + i});
+    }
+    return rows;
+  }
+}
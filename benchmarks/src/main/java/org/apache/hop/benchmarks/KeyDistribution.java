@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates keys in the range [0, cardinality) following a uniform or a Zipf distribution. The
+ * Zipf distribution mimics real data where a few keys (customers, products, ...) account for most
+ * of the rows. The generator is seeded so that every benchmark iteration sees the same data.
+ */
+public class KeyDistribution {
+  public static final String UNIFORM = "uniform";
+  public static final String ZIPF = "zipf";
+
+  private final Random random;
+  private final int cardinality;
+
+  /** Cumulative probabilities for the Zipf distribution, null for uniform */
+  private final double[] cumulative;
+
+  /**
+   * @param type {@link #UNIFORM} or {@link #ZIPF}
+   * @param cardinality The number of distinct keys
+   * @param seed The seed of the random generator
+   */
+  public KeyDistribution(String type, int cardinality, long seed) {
+    this.random = new Random(seed);
+    this.cardinality = cardinality;
+    if (ZIPF.equalsIgnoreCase(type)) {
+      cumulative = new double[cardinality];
+      double sum = 0;
+      for (int i = 0; i < cardinality; i++) {
+        sum += 1.0 / (i + 1);
+        cumulative[i] = sum;
+      }
+      for (int i = 0; i < cardinality; i++) {
+        cumulative[i] /= sum;
+      }
+    } else {
+      cumulative = null;
+    }
+  }
+
+  /** @return the next key */
+  public long next() {
+    if (cumulative == null) {
+      return random.nextInt(cardinality);
+    }
+    double p = random.nextDouble();
+    int index = Arrays.binarySearch(cumulative, p);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return Math.min(index, cardinality - 1);
+  }
+}
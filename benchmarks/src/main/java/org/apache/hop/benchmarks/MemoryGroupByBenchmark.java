@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.transforms.memgroupby.GAggregate;
+import org.apache.hop.pipeline.transforms.memgroupby.GGroup;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregating rows in memory with a low and a high number of groups. The Zipf distribution puts
+ * most rows in a few hot groups, which is what real data usually looks like.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoryGroupByBenchmark {
+
+  @Param({"200000"})
+  public int nrRows;
+
+  @Param({"100", "100000"})
+  public int nrGroups;
+
+  @Param({KeyDistribution.UNIFORM, KeyDistribution.ZIPF})
+  public String distribution;
+
+  private BenchmarkPipeline pipeline;
+  private IRowMeta rowMeta;
+  private List<Object[]> rows;
+
+  @Setup
+  public void setUp() throws Exception {
+    BenchmarkPipeline.init();
+
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.setGroups(Arrays.asList(new GGroup("id")));
+    meta.setAggregates(
+        Arrays.asList(
+            new GAggregate("total", "amount", MemoryGroupByMeta.GroupType.Sum, null),
+            new GAggregate("average", "amount", MemoryGroupByMeta.GroupType.Average, null),
+            new GAggregate("maximum", "amount", MemoryGroupByMeta.GroupType.Maximum, null),
+            new GAggregate("count", "id", MemoryGroupByMeta.GroupType.CountAll, null)));
+
+    pipeline = BenchmarkPipeline.create(meta);
+    rowMeta = BenchmarkPipeline.createRowMeta();
+    rows = BenchmarkPipeline.createRows(nrRows, new KeyDistribution(distribution, nrGroups, 42L));
+  }
+
+  @Benchmark
+  public long groupBy() throws Exception {
+    return pipeline.run(
+        new BenchmarkPipeline.Input(BenchmarkPipeline.INJECTOR_TRANSFORMNAME, rowMeta, rows));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Field lookups by name and row array growth, done for (almost) every row by most transforms. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMetaBenchmark {
+
+  @Param({"10", "100"})
+  public int nrFields;
+
+  private IRowMeta rowMeta;
+  private String firstField;
+  private String lastField;
+  private Object[] row;
+
+  @Setup
+  public void setUp() {
+    rowMeta = new RowMeta();
+    for (int i = 0; i < nrFields; i++) {
+      rowMeta.addValueMeta(new ValueMetaString("field_" + i));
+    }
+    firstField = "field_0";
+    lastField = "field_" + (nrFields - 1);
+    row = new Object[nrFields];
+  }
+
+  @Benchmark
+  public int indexOfFirstValue() {
+    return rowMeta.indexOfValue(firstField);
+  }
+
+  @Benchmark
+  public int indexOfLastValue() {
+    return rowMeta.indexOfValue(lastField);
+  }
+
+  @Benchmark
+  public int indexOfMissingValue() {
+    return rowMeta.indexOfValue("no_such_field");
+  }
+
+  /** Adding one value to a row, as done by every transform that adds a field */
+  @Benchmark
+  public Object[] resizeArrayByOne() {
+    return RowDataUtil.resizeArray(row, nrFields + 1);
+  }
+
+  /** Adding a value to a row which already has room for it */
+  @Benchmark
+  public Object[] resizeArrayWithinCapacity() {
+    return RowDataUtil.resizeArray(row, nrFields - 1);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.RingBufferRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passing rows over a hop: one thread puts rows in the row set while another one takes them out,
+ * like two transform threads do. The short timeouts make sure neither side hangs when the other
+ * one stops at the end of an iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RowSetBenchmark {
+  public static final String BLOCKING = "blocking";
+  public static final String RING_BUFFER = "ringBuffer";
+
+  @Param({BLOCKING, RING_BUFFER})
+  public String rowSetType;
+
+  @Param({"10000"})
+  public int rowSetSize;
+
+  private IRowSet rowSet;
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  @Setup
+  public void setUp() {
+    if (RING_BUFFER.equals(rowSetType)) {
+      rowSet = new RingBufferRowSet(rowSetSize);
+    } else {
+      rowSet = new BlockingRowSet(rowSetSize);
+    }
+    rowMeta = BenchmarkPipeline.createRowMeta();
+    row = new Object[] {1L, "CODE-1", 1.0, "Row number 1"};
+  }
+
+  @Benchmark
+  @Group("hop")
+  @GroupThreads(1)
+  public boolean put() {
+    return rowSet.putRowWait(rowMeta, row, 1, TimeUnit.MILLISECONDS);
+  }
+
+  @Benchmark
+  @Group("hop")
+  @GroupThreads(1)
+  public Object[] get() {
+    return rowSet.getRowWait(1, TimeUnit.MILLISECONDS);
+  }
+}
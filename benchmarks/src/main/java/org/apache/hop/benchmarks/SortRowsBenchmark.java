@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.transforms.sort.SortRowsMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting rows on an integer and a string key. With a sort size smaller than the number of rows
+ * the transform spills sorted chunks to temporary files and merges them back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortRowsBenchmark {
+
+  @Param({"200000"})
+  public int nrRows;
+
+  /** 1000000 sorts in memory, 20000 spills to disk */
+  @Param({"1000000", "20000"})
+  public String sortSize;
+
+  @Param({"false", "true"})
+  public boolean compressFiles;
+
+  private BenchmarkPipeline pipeline;
+  private IRowMeta rowMeta;
+  private List<Object[]> rows;
+
+  @Setup
+  public void setUp() throws Exception {
+    BenchmarkPipeline.init();
+
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.allocate(2);
+    meta.setFieldName(new String[] {"code", "id"});
+    meta.setAscending(new boolean[] {true, false});
+    meta.setCaseSensitive(new boolean[] {true, true});
+    meta.setSortSize(sortSize);
+    meta.setCompressFiles(compressFiles);
+
+    pipeline = BenchmarkPipeline.create(meta);
+    rowMeta = BenchmarkPipeline.createRowMeta();
+    rows =
+        BenchmarkPipeline.createRows(
+            nrRows, new KeyDistribution(KeyDistribution.UNIFORM, nrRows, 42L));
+  }
+
+  @Benchmark
+  public long sortRows() throws Exception {
+    return pipeline.run(
+        new BenchmarkPipeline.Input(BenchmarkPipeline.INJECTOR_TRANSFORMNAME, rowMeta, rows));
+  }
+}
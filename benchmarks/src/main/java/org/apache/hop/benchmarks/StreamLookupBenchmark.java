@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.streamlookup.StreamLookupMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up an integer key in a lookup stream. The lookup keys cover half of the key range so
+ * that roughly half of the lookups miss. The main stream keys are skewed or uniform.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamLookupBenchmark {
+  private static final String LOOKUP_TRANSFORMNAME = "lookup";
+
+  @Param({"200000"})
+  public int nrRows;
+
+  @Param({"1000", "100000"})
+  public int nrLookupRows;
+
+  @Param({KeyDistribution.UNIFORM, KeyDistribution.ZIPF})
+  public String distribution;
+
+  /** Keep the lookup data serialized (the default) or as plain rows */
+  @Param({"true", "false"})
+  public boolean memoryPreservation;
+
+  private BenchmarkPipeline pipeline;
+  private IRowMeta rowMeta;
+  private List<Object[]> rows;
+  private IRowMeta lookupRowMeta;
+  private List<Object[]> lookupRows;
+
+  @Setup
+  public void setUp() throws Exception {
+    BenchmarkPipeline.init();
+
+    StreamLookupMeta meta = new StreamLookupMeta();
+    meta.setDefault();
+    meta.allocate(1, 1);
+    meta.setKeystream(new String[] {"id"});
+    meta.setKeylookup(new String[] {"lookup_id"});
+    meta.setValue(new String[] {"lookup_name"});
+    meta.setValueName(new String[] {"name"});
+    meta.setValueDefault(new String[] {null});
+    meta.setValueDefaultType(new int[] {IValueMeta.TYPE_STRING});
+    meta.setMemoryPreservationActive(memoryPreservation);
+
+    pipeline = BenchmarkPipeline.create(meta);
+    TransformMeta lookup = pipeline.addInjector(LOOKUP_TRANSFORMNAME);
+    meta.getTransformIOMeta().getInfoStreams().get(0).setTransformMeta(lookup);
+    meta.getTransformIOMeta().getInfoStreams().get(0).setSubject(LOOKUP_TRANSFORMNAME);
+
+    rowMeta = BenchmarkPipeline.createRowMeta();
+    rows =
+        BenchmarkPipeline.createRows(
+            nrRows, new KeyDistribution(distribution, nrLookupRows * 2, 42L));
+
+    lookupRowMeta = new RowMeta();
+    lookupRowMeta.addValueMeta(new ValueMetaInteger("lookup_id"));
+    lookupRowMeta.addValueMeta(new ValueMetaString("lookup_name"));
+    lookupRows = new ArrayList<>(nrLookupRows);
+    for (long i = 0; i < nrLookupRows; i++) {
+      lookupRows.add(new Object[] {i * 2, "Name " + i});
+    }
+  }
+
+  /** The lookup rows are injected and finished before the main stream rows. */
+  @Benchmark
+  public long streamLookup() throws Exception {
+    return pipeline.run(
+        new BenchmarkPipeline.Input(LOOKUP_TRANSFORMNAME, lookupRowMeta, lookupRows),
+        new BenchmarkPipeline.Input(BenchmarkPipeline.INJECTOR_TRANSFORMNAME, rowMeta, rows));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/** Comparing, converting and formatting values: the inner loops of sorting, grouping and output. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueMetaBenchmark {
+
+  private IValueMeta stringMeta;
+  private IValueMeta integerMeta;
+  private IValueMeta numberMeta;
+  private IValueMeta dateMeta;
+
+  private String string1;
+  private String string2;
+  private Long integer1;
+  private Long integer2;
+  private Double number;
+  private Date date;
+  private String integerString;
+
+  @Setup
+  public void setUp() {
+    stringMeta = new ValueMetaString("string");
+    integerMeta = new ValueMetaInteger("integer");
+    numberMeta = new ValueMetaNumber("number");
+    numberMeta.setConversionMask("0.00");
+    dateMeta = new ValueMetaDate("date");
+    dateMeta.setConversionMask("yyyy/MM/dd HH:mm:ss");
+
+    string1 = "Customer 1234567";
+    string2 = "Customer 1234568";
+    integer1 = 1234567L;
+    integer2 = 1234568L;
+    number = 12345.678;
+    date = new Date(1_600_000_000_000L);
+    integerString = "1234567";
+  }
+
+  @Benchmark
+  public int compareStrings() throws HopValueException {
+    return stringMeta.compare(string1, string2);
+  }
+
+  @Benchmark
+  public int compareIntegers() throws HopValueException {
+    return integerMeta.compare(integer1, integer2);
+  }
+
+  @Benchmark
+  public Object convertStringToInteger() throws HopValueException {
+    return integerMeta.convertData(stringMeta, integerString);
+  }
+
+  @Benchmark
+  public Object convertIntegerToString() throws HopValueException {
+    return stringMeta.convertData(integerMeta, integer1);
+  }
+
+  @Benchmark
+  public String getStringOfInteger() throws HopValueException {
+    return integerMeta.getString(integer1);
+  }
+
+  @Benchmark
+  public String getStringOfNumber() throws HopValueException {
+    return numberMeta.getString(number);
+  }
+
+  @Benchmark
+  public String getStringOfDate() throws HopValueException {
+    return dateMeta.getString(date);
+  }
+}
@@ -129,6 +129,16 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
     return getRow();
   }
 
+  /** Only takes the rows left in the buffer currently being delivered. */
+  @Override
+  public int getRowsImmediate(Object[][] rows, int offset, int maxRows) {
+    int nrRows = 0;
+    while (nrRows < maxRows && outputBuffer != null && outputBuffer[getIndex] != null) {
+      rows[offset + nrRows++] = getRowWait(0, TimeUnit.MILLISECONDS);
+    }
+    return nrRows;
+  }
+
   @Override
   public Object[] getRowWait(long timeout, TimeUnit tu) {
     if (outputBuffer == null) {
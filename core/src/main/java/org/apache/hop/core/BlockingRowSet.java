@@ -19,6 +19,8 @@ package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -30,6 +32,9 @@ import java.util.concurrent.TimeUnit;
 public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
   private BlockingQueue<Object[]> queArray;
 
+  /** Re-used by the reading thread to take several rows from the queue in one go */
+  private List<Object[]> drainBuffer;
+
   private int timeoutPut;
   private int timeoutGet;
 
@@ -100,6 +105,20 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     return queArray.poll();
   }
 
+  /** Takes all the available rows while holding the lock of the queue only once. */
+  @Override
+  public int getRowsImmediate(Object[][] rows, int offset, int maxRows) {
+    if (drainBuffer == null) {
+      drainBuffer = new ArrayList<>();
+    }
+    int nrRows = queArray.drainTo(drainBuffer, maxRows);
+    for (int i = 0; i < nrRows; i++) {
+      rows[offset + i] = drainBuffer.get(i);
+    }
+    drainBuffer.clear();
+    return nrRows;
+  }
+
   /*
    * (non-Javadoc)
    *
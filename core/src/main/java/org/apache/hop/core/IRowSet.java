@@ -45,6 +45,28 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a number of rows to this rowset. If the buffer is full, wait (block) for a period of time
+   * defined in this call. The rows which didn't fit in the buffer in time are not added.
+   *
+   * @param rowMeta The description of the row data
+   * @param rows the array holding the rows
+   * @param offset the index of the first row in the array to add
+   * @param count the number of rows to add
+   * @param time The number of units of time
+   * @param tu The unit of time to use
+   * @return the number of rows successfully added to the rowset.
+   */
+  default int putRowsWait(
+      IRowMeta rowMeta, Object[][] rows, int offset, int count, long time, TimeUnit tu) {
+    for (int i = 0; i < count; i++) {
+      if (!putRowWait(rowMeta, rows[offset + i], time, tu)) {
+        return i;
+      }
+    }
+    return count;
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -60,6 +82,26 @@ public interface IRowSet {
    */
   Object[] getRowImmediate();
 
+  /**
+   * Get the rows which are available immediately, without waiting.
+   *
+   * @param rows the array to store the rows in
+   * @param offset the index in the array to store the first row at
+   * @param maxRows the maximum number of rows to get
+   * @return the number of rows stored in the array.
+   */
+  default int getRowsImmediate(Object[][] rows, int offset, int maxRows) {
+    int nrRows = 0;
+    while (nrRows < maxRows) {
+      Object[] row = getRowImmediate();
+      if (row == null) {
+        break;
+      }
+      rows[offset + nrRows++] = row;
+    }
+    return nrRows;
+  }
+
   /**
    * get the first row in the list immediately if it is available or wait until timeout
    *
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * Contains a buffer of rows without any locking. The buffer is a ring of fixed size with one
+ * cursor for the writing thread and one cursor for the reading thread. This only works correctly
+ * if exactly one thread puts rows into the row set and exactly one thread reads from it, which is
+ * the case for the hops between transform copies in a pipeline.
+ *
+ * <p>When the buffer is full (or empty) the waiting thread first spins for a short while, then
+ * yields and finally parks for short periods until the timeout expires.
+ */
+public class RingBufferRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 100;
+  private static final long PARK_NANOS = 50_000L;
+
+  private final Object[][] buffer;
+  private final int mask;
+  private final int capacity;
+
+  /** The position of the next row to write, owned by the producer */
+  private final Cursor tail;
+
+  /** The position of the next row to read, owned by the consumer */
+  private final Cursor head;
+
+  private int timeoutPut;
+  private int timeoutGet;
+
+  /**
+   * Create a new ring buffer with maxSize capacity.
+   *
+   * @param maxSize the maximum number of rows kept in the buffer
+   */
+  public RingBufferRowSet(int maxSize) {
+    super();
+
+    capacity = Math.max(1, maxSize);
+    int bufferSize = Integer.highestOneBit(capacity);
+    if (bufferSize < capacity) {
+      bufferSize <<= 1;
+    }
+    buffer = new Object[bufferSize][];
+    mask = bufferSize - 1;
+
+    tail = new Cursor();
+    head = new Cursor();
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+    if (rowData == null) {
+      return false;
+    }
+
+    long position = tail.get();
+    if (position - tail.cached >= capacity) {
+      tail.cached = head.get();
+      if (position - tail.cached >= capacity) {
+        long deadline = System.nanoTime() + tu.toNanos(time);
+        int tries = 0;
+        do {
+          if (!idle(tries++, deadline)) {
+            return false;
+          }
+          tail.cached = head.get();
+        } while (position - tail.cached >= capacity);
+      }
+    }
+
+    buffer[(int) position & mask] = rowData;
+    tail.lazySet(position + 1);
+    return true;
+  }
+
+  /** Waits until there is room for at least one row and then publishes as many rows as fit. */
+  @Override
+  public int putRowsWait(
+      IRowMeta rowMeta, Object[][] rows, int offset, int count, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+    if (count <= 0) {
+      return 0;
+    }
+
+    long position = tail.get();
+    if (position - tail.cached >= capacity) {
+      tail.cached = head.get();
+      if (position - tail.cached >= capacity) {
+        long deadline = System.nanoTime() + tu.toNanos(time);
+        int tries = 0;
+        do {
+          if (!idle(tries++, deadline)) {
+            return 0;
+          }
+          tail.cached = head.get();
+        } while (position - tail.cached >= capacity);
+      }
+    }
+
+    int nrRows = (int) Math.min(count, capacity - (position - tail.cached));
+    for (int i = 0; i < nrRows; i++) {
+      Object[] row = rows[offset + i];
+      if (row == null) {
+        nrRows = i;
+        break;
+      }
+      buffer[(int) (position + i) & mask] = row;
+    }
+    tail.lazySet(position + nrRows);
+    return nrRows;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    long position = head.get();
+    if (position >= head.cached) {
+      head.cached = tail.get();
+      if (position >= head.cached) {
+        return null;
+      }
+    }
+    return take(position);
+  }
+
+  @Override
+  public int getRowsImmediate(Object[][] rows, int offset, int maxRows) {
+    long position = head.get();
+    if (position + maxRows > head.cached) {
+      head.cached = tail.get();
+    }
+    int nrRows = (int) Math.min(maxRows, head.cached - position);
+    if (nrRows <= 0) {
+      return 0;
+    }
+    for (int i = 0; i < nrRows; i++) {
+      int index = (int) (position + i) & mask;
+      rows[offset + i] = buffer[index];
+      buffer[index] = null; // prevent any hold-up to GC
+    }
+    head.lazySet(position + nrRows);
+    return nrRows;
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    long position = head.get();
+    if (position >= head.cached) {
+      head.cached = tail.get();
+      if (position >= head.cached) {
+        long deadline = System.nanoTime() + tu.toNanos(timeout);
+        int tries = 0;
+        do {
+          if (!idle(tries++, deadline)) {
+            return null;
+          }
+          head.cached = tail.get();
+        } while (position >= head.cached);
+      }
+    }
+    return take(position);
+  }
+
+  private Object[] take(long position) {
+    int index = (int) position & mask;
+    Object[] row = buffer[index];
+    buffer[index] = null; // prevent any hold-up to GC
+    head.lazySet(position + 1);
+    return row;
+  }
+
+  /**
+   * Wait a little while for the other side to make progress: spin first, then yield and then park.
+   *
+   * @param tries the number of times we already waited
+   * @param deadline the System.nanoTime() after which we stop waiting
+   * @return false if the deadline passed or the thread was interrupted
+   */
+  private static boolean idle(int tries, long deadline) {
+    if (tries < SPIN_TRIES) {
+      Thread.onSpinWait();
+    } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+      if (Thread.currentThread().isInterrupted()) {
+        return false;
+      }
+    }
+    return System.nanoTime() - deadline < 0;
+  }
+
+  @Override
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0L, size);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(buffer, null);
+    long position = tail.get();
+    head.set(position);
+    head.cached = position;
+    tail.cached = position;
+    done.set(false);
+  }
+
+  /**
+   * A position in the ring buffer padded to its own cache line so that the producer and consumer
+   * don't invalidate each other's cache when moving forward. The cached field holds the last known
+   * value of the opposite cursor and is only accessed by the thread owning this cursor.
+   */
+  @SuppressWarnings("unused")
+  private static final class Cursor extends AtomicLong {
+    private static final long serialVersionUID = 1L;
+
+    long cached;
+    long p1;
+    long p2;
+    long p3;
+    long p4;
+    long p5;
+    long p6;
+  }
+}
@@ -93,6 +93,24 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
    */
   public static final String ATTRIBUTE_PRESERVE_RESERVED_WORD_CASE = "PRESERVE_RESERVED_WORD_CASE";
 
+  /** A flag to determine if the connections are taken from a connection pool */
+  public static final String ATTRIBUTE_USE_POOLING = "USE_POOLING";
+
+  /** The number of connections opened when the pool is created */
+  public static final String ATTRIBUTE_INITIAL_POOL_SIZE = "INITIAL_POOL_SIZE";
+
+  /** The maximum number of connections of the pool in use at the same time */
+  public static final String ATTRIBUTE_MAX_POOL_SIZE = "MAX_POOL_SIZE";
+
+  /** The number of seconds after which an unused connection of the pool is closed */
+  public static final String ATTRIBUTE_POOL_IDLE_TIMEOUT = "POOL_IDLE_TIMEOUT";
+
+  /** The query to validate a connection before it is taken from the pool */
+  public static final String ATTRIBUTE_POOL_VALIDATION_QUERY = "POOL_VALIDATION_QUERY";
+
+  /** The number of rows fetched per round trip when reading the result of a query */
+  public static final String ATTRIBUTE_FETCH_SIZE = "FETCH_SIZE";
+
   public static final String SEQUENCE_FOR_BATCH_ID = "SEQUENCE_FOR_BATCH_ID";
   public static final String AUTOINCREMENT_SQL_FOR_BATCH_ID = "AUTOINCREMENT_SQL_FOR_BATCH_ID";
 
@@ -1205,6 +1223,118 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
     attributes.put(ATTRIBUTE_PREFERRED_SCHEMA_NAME, preferredSchemaName);
   }
 
+  /**
+   * @return true if the connections are taken from a pool shared by all users of the connection
+   */
+  @Override
+  public boolean isUsingConnectionPool() {
+    return "Y".equalsIgnoreCase(getAttributeProperty(ATTRIBUTE_USE_POOLING, "N"));
+  }
+
+  /**
+   * @param usingPool Set to true to take the connections from a pool
+   */
+  @Override
+  public void setUsingConnectionPool(boolean usingPool) {
+    attributes.put(ATTRIBUTE_USE_POOLING, usingPool ? "Y" : "N");
+  }
+
+  /**
+   * @return the number of connections opened when the pool is created
+   */
+  @Override
+  public String getInitialPoolSize() {
+    return getAttributeProperty(ATTRIBUTE_INITIAL_POOL_SIZE);
+  }
+
+  /**
+   * @param initialPoolSize the number of connections opened when the pool is created
+   */
+  @Override
+  public void setInitialPoolSize(String initialPoolSize) {
+    attributes.put(ATTRIBUTE_INITIAL_POOL_SIZE, initialPoolSize);
+  }
+
+  /**
+   * @return the maximum number of connections in use at the same time
+   */
+  @Override
+  public String getMaximumPoolSize() {
+    return getAttributeProperty(ATTRIBUTE_MAX_POOL_SIZE);
+  }
+
+  /**
+   * @param maximumPoolSize the maximum number of connections in use at the same time
+   */
+  @Override
+  public void setMaximumPoolSize(String maximumPoolSize) {
+    attributes.put(ATTRIBUTE_MAX_POOL_SIZE, maximumPoolSize);
+  }
+
+  /**
+   * @return the number of seconds after which an unused connection is closed
+   */
+  @Override
+  public String getPoolIdleTimeout() {
+    return getAttributeProperty(ATTRIBUTE_POOL_IDLE_TIMEOUT);
+  }
+
+  /**
+   * @param poolIdleTimeout the number of seconds after which an unused connection is closed
+   */
+  @Override
+  public void setPoolIdleTimeout(String poolIdleTimeout) {
+    attributes.put(ATTRIBUTE_POOL_IDLE_TIMEOUT, poolIdleTimeout);
+  }
+
+  /**
+   * @return the query to validate a connection before it is taken from the pool
+   */
+  @Override
+  public String getPoolValidationQuery() {
+    return getAttributeProperty(ATTRIBUTE_POOL_VALIDATION_QUERY);
+  }
+
+  /**
+   * @param poolValidationQuery the query to validate a connection taken from the pool
+   */
+  @Override
+  public void setPoolValidationQuery(String poolValidationQuery) {
+    attributes.put(ATTRIBUTE_POOL_VALIDATION_QUERY, poolValidationQuery);
+  }
+
+  /**
+   * @return the number of rows fetched per round trip, empty for the default
+   */
+  @Override
+  public String getFetchSize() {
+    return getAttributeProperty(ATTRIBUTE_FETCH_SIZE);
+  }
+
+  /**
+   * @param fetchSize the number of rows fetched per round trip, empty for the default
+   */
+  @Override
+  public void setFetchSize(String fetchSize) {
+    attributes.put(ATTRIBUTE_FETCH_SIZE, fetchSize);
+  }
+
+  /**
+   * @return 0: leave the fetch size of the JDBC driver unless a maximum number of rows is set
+   */
+  @Override
+  public int getDefaultFetchSize() {
+    return 0;
+  }
+
+  /**
+   * @return false: most JDBC drivers stream results without a transaction
+   */
+  @Override
+  public boolean needsTransactionToStreamResults() {
+    return false;
+  }
+
   /**
    * Verifies on the specified database connection if an index exists on the fields with the
    * specified name.
@@ -1362,6 +1492,23 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
     return true;
   }
 
+  /**
+   * @return true if the database can insert several rows with one INSERT INTO ... VALUES (...),
+   *     (...) statement
+   */
+  @Override
+  public boolean isSupportsMultiRowInsert() {
+    return false;
+  }
+
+  /**
+   * @return The maximum number of parameters of a prepared statement, <=0 means: no known limit
+   */
+  @Override
+  public int getMaxPreparedStatementParameters() {
+    return 0;
+  }
+
   /**
    * Get the SQL to insert a new empty unknown record in a dimension.
    *
@@ -29,6 +29,7 @@ import org.apache.hop.core.IProgressMonitor;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.map.DatabaseConnectionMap;
+import org.apache.hop.core.database.util.ConnectionPoolUtil;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -152,6 +153,9 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
   private int nrExecutedCommits;
 
+  /** True if auto-commit was disabled by openQuery() to stream the results with a cursor */
+  private boolean streamingTransaction;
+
   private static List<IValueMeta> valueMetaPluginClasses;
 
   static {
@@ -340,8 +344,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    * Open the database connection. The algorithm is:
    *
    * <ol>
-   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection's datasource is
-   *       looked up in the pool
+   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection is taken from
+   *       the pool of the connection, see {@link ConnectionPoolUtil}
    *   <li>otherwise, the connection is established via {@linkplain DriverManager}
    * </ol>
    *
@@ -451,10 +455,10 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
               url += ";instanceName=" + instance;
             }
           }
-          connection = DriverManager.getConnection(url, properties);
+          connection = getConnection(classname, plugin, url, properties);
         } else {
           // Perhaps the username is in the URL or no username is required...
-          connection = DriverManager.getConnection(url, properties);
+          connection = getConnection(classname, plugin, url, properties);
         }
       } else {
         if (!Utils.isEmpty(username)) {
@@ -464,7 +468,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
           properties.put("password", password);
         }
 
-        connection = DriverManager.getConnection(url, properties);
+        connection = getConnection(classname, plugin, url, properties);
       }
     } catch (Exception e) {
       throw new HopDatabaseException(
@@ -472,6 +476,26 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
   }
 
+  /**
+   * Get a new connection from the driver or take one from the connection pool if pooling is
+   * enabled. Closing a pooled connection returns it to the pool.
+   */
+  private Connection getConnection(
+      String classname, IPlugin plugin, String url, Properties properties)
+      throws HopException, SQLException {
+    if (databaseMeta.isUsingConnectionPool()) {
+      return ConnectionPoolUtil.getConnection(
+          log,
+          this,
+          databaseMeta,
+          classname,
+          PluginRegistry.getInstance().getClassLoader(plugin),
+          url,
+          properties);
+    }
+    return DriverManager.getConnection(url, properties);
+  }
+
   /**
    * close() and disconnect() are the same.
    */
@@ -924,6 +948,27 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
   }
 
+  /**
+   * Sets the values of one of the rows of a statement which inserts several rows at once.
+   *
+   * @param rowMeta the layout of the row
+   * @param data the row
+   * @param ps the prepared statement
+   * @param rowNr the number of the row in the statement, 0-based
+   * @throws HopDatabaseException in case a value can't be set
+   */
+  public void setValuesOfRow(IRowMeta rowMeta, Object[] data, PreparedStatement ps, int rowNr)
+      throws HopDatabaseException {
+    int offset = rowNr * rowMeta.size();
+    for (int i = 0; i < rowMeta.size(); i++) {
+      try {
+        setValue(ps, rowMeta.getValueMeta(i), data[i], offset + i + 1);
+      } catch (HopDatabaseException e) {
+        throw new HopDatabaseException("offending row : " + rowMeta, e);
+      }
+    }
+  }
+
   /**
    * Sets the values of the preparedStatement pstmt.
    *
@@ -1040,6 +1085,22 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   }
 
   public String getInsertStatement(String schemaName, String tableName, IRowMeta fields) {
+    return getInsertStatement(schemaName, tableName, fields, 1);
+  }
+
+  /**
+   * Get an INSERT statement which inserts several rows at once, with a list of placeholders per
+   * row: INSERT INTO table (a, b) VALUES (?, ?), (?, ?), ... Only use more than one row if the
+   * database supports it, see {@link DatabaseMeta#supportsMultiRowInsert()}.
+   *
+   * @param schemaName the schema name
+   * @param tableName the table name
+   * @param fields the fields of a row
+   * @param nrRows the number of rows to insert with the statement
+   * @return the INSERT statement
+   */
+  public String getInsertStatement(
+      String schemaName, String tableName, IRowMeta fields, int nrRows) {
     StringBuilder ins = new StringBuilder(128);
 
     String schemaTable = databaseMeta.getQuotedSchemaTableCombination(this, schemaName, tableName);
@@ -1063,16 +1124,22 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
       ins.append(databaseMeta.quoteField(name));
     }
     ins.append(")");
-    ins.append(" VALUES (");
+    ins.append(" VALUES ");
 
     // Add placeholders...
-    for (int i = 0; i < fields.size(); i++) {
-      if (i > 0) {
+    for (int r = 0; r < nrRows; r++) {
+      if (r > 0) {
         ins.append(", ");
       }
-      ins.append(" ?");
+      ins.append('(');
+      for (int i = 0; i < fields.size(); i++) {
+        if (i > 0) {
+          ins.append(", ");
+        }
+        ins.append(" ?");
+      }
+      ins.append(')');
     }
-    ins.append(')');
 
     return ins.toString();
   }
@@ -1524,10 +1591,12 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
       String sql, IRowMeta params, Object[] data, int fetchMode, boolean lazyConversion)
       throws HopDatabaseException {
     ResultSet res;
+    boolean transactionStarted = false;
 
     // Create a Statement
     try {
       log.snap(Metrics.METRIC_DATABASE_OPEN_QUERY_START, databaseMeta.getName());
+      transactionStarted = startStreamingTransaction();
       if (params != null) {
         log.snap(Metrics.METRIC_DATABASE_PREPARE_SQL_START, databaseMeta.getName());
         pstmt =
@@ -1541,7 +1610,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
         if (canWeSetFetchSize(pstmt)) {
           int maxRows = pstmt.getMaxRows();
-          int fs = Const.FETCH_SIZE <= maxRows ? maxRows : Const.FETCH_SIZE;
+          int fs = getFetchSize(maxRows);
           if (databaseMeta.isMySqlVariant()) {
             setMysqlFetchSize(pstmt, fs, maxRows);
           } else {
@@ -1563,8 +1632,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
         selStmt = connection.createStatement();
         log.snap(Metrics.METRIC_DATABASE_CREATE_SQL_STOP, databaseMeta.getName());
         if (canWeSetFetchSize(selStmt)) {
-          int fs =
-              Const.FETCH_SIZE <= selStmt.getMaxRows() ? selStmt.getMaxRows() : Const.FETCH_SIZE;
+          int fs = getFetchSize(selStmt.getMaxRows());
           if (databaseMeta.getIDatabase().isMySqlVariant() && databaseMeta.isStreamingResults()) {
             selStmt.setFetchSize(Integer.MIN_VALUE);
           } else {
@@ -1588,8 +1656,14 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
       //
       rowMeta = getRowInfo(res.getMetaData(), databaseMeta.isMySqlVariant(), lazyConversion);
     } catch (SQLException ex) {
+      if (transactionStarted) {
+        abortStreamingTransaction();
+      }
       throw new HopDatabaseException("An error occurred executing SQL: " + Const.CR + sql, ex);
     } catch (Exception e) {
+      if (transactionStarted) {
+        abortStreamingTransaction();
+      }
       throw new HopDatabaseException("An error occurred executing SQL:" + Const.CR + sql, e);
     } finally {
       log.snap(Metrics.METRIC_DATABASE_OPEN_QUERY_STOP, databaseMeta.getName());
@@ -1601,10 +1675,92 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   private boolean canWeSetFetchSize(Statement statement) throws SQLException {
     return databaseMeta.isFetchSizeSupported()
         && (statement.getMaxRows() > 0
-            || databaseMeta.getIDatabase().isPostgresVariant()
+            || getConfiguredFetchSize() > 0
             || (databaseMeta.isMySqlVariant() && databaseMeta.isStreamingResults()));
   }
 
+  /**
+   * @return the fetch size of the connection or else the default of the database type, 0 if
+   *     neither is set
+   */
+  private int getConfiguredFetchSize() {
+    int fetchSize = Const.toInt(resolve(databaseMeta.getFetchSize()), -1);
+    if (fetchSize < 0) {
+      fetchSize = databaseMeta.getIDatabase().getDefaultFetchSize();
+    }
+    return fetchSize;
+  }
+
+  /**
+   * @param maxRows the maximum number of rows of the statement or 0 if there is no maximum
+   * @return the number of rows to fetch per round trip, never more than needed for the maximum
+   */
+  private int getFetchSize(int maxRows) {
+    int fetchSize = getConfiguredFetchSize();
+    if (fetchSize <= 0) {
+      fetchSize = Const.FETCH_SIZE;
+    }
+    return maxRows > 0 && maxRows < fetchSize ? maxRows : fetchSize;
+  }
+
+  /**
+   * Some drivers, like PostgreSQL, only use a cursor to stream a result with auto-commit disabled.
+   * Otherwise the whole result is read in memory before the first row is returned. The transaction
+   * is ended and auto-commit is enabled again in closeQuery(), getOneRow() or when opening the
+   * query fails. Shared connections are left alone since their transaction is handled by the
+   * pipeline.
+   *
+   * @return true if a transaction was started for this query
+   */
+  private boolean startStreamingTransaction() throws SQLException {
+    if (databaseMeta.getIDatabase().needsTransactionToStreamResults()
+        && databaseMeta.isStreamingResults()
+        && Utils.isEmpty(connectionGroup)
+        && !streamingTransaction
+        && connection.getAutoCommit()) {
+      connection.setAutoCommit(false);
+      streamingTransaction = true;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Commit or roll back the transaction started for a streamed query and enable auto-commit again.
+   * A failed commit is rolled back.
+   *
+   * @param commit true to commit the transaction, false to roll it back
+   */
+  private void endStreamingTransaction(boolean commit) throws SQLException {
+    if (!streamingTransaction) {
+      return;
+    }
+    streamingTransaction = false;
+    try {
+      if (commit) {
+        try {
+          connection.commit();
+        } catch (SQLException e) {
+          connection.rollback();
+          throw e;
+        }
+      } else {
+        connection.rollback();
+      }
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /** Roll back the transaction of a failed streamed query without hiding the original error. */
+  private void abortStreamingTransaction() {
+    try {
+      endStreamingTransaction(false);
+    } catch (SQLException e) {
+      log.logError("Unable to roll back the transaction of the query", e);
+    }
+  }
+
   public ResultSet openQuery(PreparedStatement ps, IRowMeta params, Object[] data)
       throws HopDatabaseException {
     ResultSet res;
@@ -1619,7 +1775,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
       if (canWeSetFetchSize(ps)) {
         int maxRows = ps.getMaxRows();
-        int fs = Const.FETCH_SIZE <= maxRows ? maxRows : Const.FETCH_SIZE;
+        int fs = getFetchSize(maxRows);
         // mysql have some restriction on fetch size assignment
         if (databaseMeta.isMySqlVariant()) {
           setMysqlFetchSize(ps, fs, maxRows);
@@ -2283,6 +2439,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
         pstmt.close();
         pstmt = null;
       }
+      endStreamingTransaction(true);
     } catch (SQLException ex) {
       throw new HopDatabaseException("Couldn't close query: resultset or prepared statements", ex);
     }
@@ -3095,31 +3252,41 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   public RowMetaAndData getOneRow(String sql) throws HopDatabaseException {
     ResultSet rs = openQuery(sql);
     if (rs != null) {
-      Object[] row = getRow(rs); // One row only
-
       try {
-        rs.close();
-      } catch (Exception e) {
-        throw new HopDatabaseException("Unable to close resultset", e);
-      }
+        Object[] row = getRow(rs); // One row only
 
-      if (pstmt != null) {
         try {
-          pstmt.close();
+          rs.close();
         } catch (Exception e) {
-          throw new HopDatabaseException("Unable to close prepared statement pstmt", e);
+          throw new HopDatabaseException("Unable to close resultset", e);
+        }
+
+        if (pstmt != null) {
+          try {
+            pstmt.close();
+          } catch (Exception e) {
+            throw new HopDatabaseException("Unable to close prepared statement pstmt", e);
+          }
+          pstmt = null;
+        }
+        if (selStmt != null) {
+          try {
+            selStmt.close();
+          } catch (Exception e) {
+            throw new HopDatabaseException("Unable to close prepared statement sel_stmt", e);
+          }
+          selStmt = null;
         }
-        pstmt = null;
-      }
-      if (selStmt != null) {
         try {
-          selStmt.close();
-        } catch (Exception e) {
-          throw new HopDatabaseException("Unable to close prepared statement sel_stmt", e);
+          endStreamingTransaction(true);
+        } catch (SQLException e) {
+          throw new HopDatabaseException("Unable to commit the transaction of the query", e);
         }
-        selStmt = null;
+        return new RowMetaAndData(rowMeta, row);
+      } catch (HopDatabaseException e) {
+        abortStreamingTransaction();
+        throw e;
       }
-      return new RowMetaAndData(rowMeta, row);
     } else {
       throw new HopDatabaseException("error opening resultset for query: " + sql);
     }
@@ -3141,7 +3308,13 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
       throws HopDatabaseException {
     ResultSet rs = openQuery(sql, param, data);
     if (rs != null) {
-      Object[] row = getRow(rs); // One value: a number
+      Object[] row;
+      try {
+        row = getRow(rs); // One value: a number
+      } catch (HopDatabaseException e) {
+        abortStreamingTransaction();
+        throw e;
+      }
 
       rowMeta = null;
       RowMeta tmpMeta = null;
@@ -3175,6 +3348,11 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
           }
           selStmt = null;
         }
+        try {
+          endStreamingTransaction(true);
+        } catch (Exception e) {
+          log.logError("Unable to commit the transaction of the query", e);
+        }
       }
 
       return new RowMetaAndData(tmpMeta, row);
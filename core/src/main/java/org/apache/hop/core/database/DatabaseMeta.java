@@ -1749,6 +1749,66 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
     iDatabase.setSupportsBooleanDataType(b);
   }
 
+  /** @return true if the connections are taken from a pool shared by all users of the connection */
+  public boolean isUsingConnectionPool() {
+    return iDatabase.isUsingConnectionPool();
+  }
+
+  /** @param usingPool Set to true to take the connections from a pool */
+  public void setUsingConnectionPool(boolean usingPool) {
+    iDatabase.setUsingConnectionPool(usingPool);
+  }
+
+  /** @return the number of connections opened when the pool is created (may contain variables) */
+  public String getInitialPoolSize() {
+    return iDatabase.getInitialPoolSize();
+  }
+
+  /** @param initialPoolSize the number of connections opened when the pool is created */
+  public void setInitialPoolSize(String initialPoolSize) {
+    iDatabase.setInitialPoolSize(initialPoolSize);
+  }
+
+  /** @return the maximum number of connections in use at the same time (may contain variables) */
+  public String getMaximumPoolSize() {
+    return iDatabase.getMaximumPoolSize();
+  }
+
+  /** @param maximumPoolSize the maximum number of connections in use at the same time */
+  public void setMaximumPoolSize(String maximumPoolSize) {
+    iDatabase.setMaximumPoolSize(maximumPoolSize);
+  }
+
+  /** @return the number of seconds after which an unused connection is closed */
+  public String getPoolIdleTimeout() {
+    return iDatabase.getPoolIdleTimeout();
+  }
+
+  /** @param poolIdleTimeout the number of seconds after which an unused connection is closed */
+  public void setPoolIdleTimeout(String poolIdleTimeout) {
+    iDatabase.setPoolIdleTimeout(poolIdleTimeout);
+  }
+
+  /** @return the query to validate a connection before it is taken from the pool */
+  public String getPoolValidationQuery() {
+    return iDatabase.getPoolValidationQuery();
+  }
+
+  /** @param poolValidationQuery the query to validate a connection taken from the pool */
+  public void setPoolValidationQuery(String poolValidationQuery) {
+    iDatabase.setPoolValidationQuery(poolValidationQuery);
+  }
+
+  /** @return the number of rows fetched per round trip, empty for the default */
+  public String getFetchSize() {
+    return iDatabase.getFetchSize();
+  }
+
+  /** @param fetchSize the number of rows fetched per round trip, empty for the default */
+  public void setFetchSize(String fetchSize) {
+    iDatabase.setFetchSize(fetchSize);
+  }
+
   /**
    * @return true if the database supports the Timestamp data type (nanosecond precision and all)
    */
@@ -2138,6 +2198,21 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
     return iDatabase.IsSupportsErrorHandlingOnBatchUpdates();
   }
 
+  /**
+   * @return true if the database can insert several rows with one INSERT INTO ... VALUES (...),
+   *     (...) statement
+   */
+  public boolean supportsMultiRowInsert() {
+    return iDatabase.isSupportsMultiRowInsert();
+  }
+
+  /**
+   * @return The maximum number of parameters of a prepared statement, <=0 means: no known limit
+   */
+  public int getMaxPreparedStatementParameters() {
+    return iDatabase.getMaxPreparedStatementParameters();
+  }
+
   /**
    * Get the SQL to insert a new empty unknown record in a dimension.
    *
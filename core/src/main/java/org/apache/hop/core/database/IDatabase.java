@@ -473,6 +473,57 @@ public interface IDatabase extends Cloneable {
   /** @param b Set to true if the database supports a boolean, bit, logical, ... datatype */
   void setSupportsBooleanDataType(boolean b);
 
+  /** @return true if the connections are taken from a pool shared by all users of the connection */
+  boolean isUsingConnectionPool();
+
+  /** @param usingPool Set to true to take the connections from a pool */
+  void setUsingConnectionPool(boolean usingPool);
+
+  /** @return the number of connections opened when the pool is created (may contain variables) */
+  String getInitialPoolSize();
+
+  /** @param initialPoolSize the number of connections opened when the pool is created */
+  void setInitialPoolSize(String initialPoolSize);
+
+  /** @return the maximum number of connections in use at the same time (may contain variables) */
+  String getMaximumPoolSize();
+
+  /** @param maximumPoolSize the maximum number of connections in use at the same time */
+  void setMaximumPoolSize(String maximumPoolSize);
+
+  /** @return the number of seconds after which an unused connection is closed */
+  String getPoolIdleTimeout();
+
+  /** @param poolIdleTimeout the number of seconds after which an unused connection is closed */
+  void setPoolIdleTimeout(String poolIdleTimeout);
+
+  /** @return the query to validate a connection before it is taken from the pool */
+  String getPoolValidationQuery();
+
+  /** @param poolValidationQuery the query to validate a connection taken from the pool */
+  void setPoolValidationQuery(String poolValidationQuery);
+
+  /**
+   * @return the number of rows fetched per round trip, empty for the default (may contain
+   *     variables)
+   */
+  String getFetchSize();
+
+  /** @param fetchSize the number of rows fetched per round trip, empty for the default */
+  void setFetchSize(String fetchSize);
+
+  /**
+   * @return the number of rows to fetch per round trip when no fetch size is configured on the
+   *     connection, 0 to leave the JDBC driver default
+   */
+  int getDefaultFetchSize();
+
+  /**
+   * @return true if the JDBC driver only streams results with a cursor inside a transaction, with
+   *     auto-commit disabled. Otherwise the whole result is read in memory.
+   */
+  boolean needsTransactionToStreamResults();
+
   /** @return true if reserved words' case should be preserved */
   boolean isPreserveReservedCase();
 
@@ -687,6 +738,17 @@ public interface IDatabase extends Cloneable {
    */
   boolean IsSupportsErrorHandlingOnBatchUpdates();
 
+  /**
+   * @return true if the database can insert several rows with one INSERT INTO ... VALUES (...),
+   *     (...) statement
+   */
+  boolean isSupportsMultiRowInsert();
+
+  /**
+   * @return The maximum number of parameters of a prepared statement, <=0 means: no known limit
+   */
+  int getMaxPreparedStatementParameters();
+
   /**
    * Get the SQL to insert a new empty unknown record in a dimension.
    *
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+
+/**
+ * Keeps a pool of JDBC connections per database connection. The pools are shared by everything
+ * running in the JVM, for example all the pipelines and workflows executed by a Hop Server, so
+ * short running pipelines don't pay for connecting and authenticating every time.
+ *
+ * <p>A pool is identified by the resolved URL, connection properties (including the user and
+ * password) and pool settings of a database connection. Changing any of these, for example by
+ * giving a variable another value, creates a new pool.
+ */
+public class ConnectionPoolUtil {
+  public static final int DEFAULT_INITIAL_POOL_SIZE = 0;
+  public static final int DEFAULT_MAXIMUM_POOL_SIZE = 20;
+  public static final int DEFAULT_IDLE_TIMEOUT = 300;
+
+  /** How often the pools are checked for idle connections */
+  private static final long EVICTION_INTERVAL_MILLIS = 30000L;
+
+  /** How long to wait for a free connection when the maximum number is in use */
+  private static final long MAX_WAIT_MILLIS = 60000L;
+
+  private static final Map<String, BasicDataSource> dataSources = new ConcurrentHashMap<>();
+
+  private ConnectionPoolUtil() {}
+
+  /**
+   * Take a connection from the pool of a database connection, creating the pool if needed. Closing
+   * the connection returns it to the pool.
+   *
+   * @param log the log channel to report a new pool to
+   * @param variables the variables to resolve the pool settings with
+   * @param databaseMeta the database connection
+   * @param driverClass the name of the JDBC driver class
+   * @param driverClassLoader the class loader of the database plugin to load the driver with
+   * @param url the resolved URL
+   * @param properties the connection properties, including the user and password
+   * @return a connection of the pool
+   * @throws HopDatabaseException in case no connection could be made
+   */
+  public static Connection getConnection(
+      ILogChannel log,
+      IVariables variables,
+      DatabaseMeta databaseMeta,
+      String driverClass,
+      ClassLoader driverClassLoader,
+      String url,
+      Properties properties)
+      throws HopDatabaseException {
+    int initialSize =
+        Const.toInt(variables.resolve(databaseMeta.getInitialPoolSize()), DEFAULT_INITIAL_POOL_SIZE);
+    int maximumSize =
+        Const.toInt(variables.resolve(databaseMeta.getMaximumPoolSize()), DEFAULT_MAXIMUM_POOL_SIZE);
+    int idleTimeout =
+        Const.toInt(variables.resolve(databaseMeta.getPoolIdleTimeout()), DEFAULT_IDLE_TIMEOUT);
+    String validationQuery = variables.resolve(databaseMeta.getPoolValidationQuery());
+
+    String key =
+        url
+            + "|"
+            + new TreeMap<>(properties)
+            + "|"
+            + initialSize
+            + "|"
+            + maximumSize
+            + "|"
+            + idleTimeout
+            + "|"
+            + Const.NVL(validationQuery, "");
+
+    BasicDataSource dataSource =
+        dataSources.computeIfAbsent(
+            key,
+            k -> {
+              if (log.isDetailed()) {
+                log.logDetailed(
+                    "Creating a connection pool of "
+                        + maximumSize
+                        + " connections for database connection '"
+                        + databaseMeta.getName()
+                        + "'");
+              }
+              return createDataSource(
+                  driverClass,
+                  driverClassLoader,
+                  url,
+                  properties,
+                  initialSize,
+                  maximumSize,
+                  idleTimeout,
+                  validationQuery);
+            });
+
+    try {
+      return dataSource.getConnection();
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to get a connection from the pool of database connection '"
+              + databaseMeta.getName()
+              + "'",
+          e);
+    }
+  }
+
+  private static BasicDataSource createDataSource(
+      String driverClass,
+      ClassLoader driverClassLoader,
+      String url,
+      Properties properties,
+      int initialSize,
+      int maximumSize,
+      int idleTimeout,
+      String validationQuery) {
+    BasicDataSource dataSource = new BasicDataSource();
+    dataSource.setDriverClassName(driverClass);
+    dataSource.setDriverClassLoader(driverClassLoader);
+    dataSource.setUrl(url);
+    for (String name : properties.stringPropertyNames()) {
+      dataSource.addConnectionProperty(name, properties.getProperty(name));
+    }
+
+    dataSource.setInitialSize(initialSize);
+    dataSource.setMaxActive(maximumSize);
+    dataSource.setMaxIdle(maximumSize);
+    dataSource.setMinIdle(0);
+    dataSource.setMaxWait(MAX_WAIT_MILLIS);
+
+    if (idleTimeout > 0) {
+      dataSource.setMinEvictableIdleTimeMillis(idleTimeout * 1000L);
+      dataSource.setTimeBetweenEvictionRunsMillis(
+          Math.min(EVICTION_INTERVAL_MILLIS, idleTimeout * 1000L));
+    }
+    if (!Utils.isEmpty(validationQuery)) {
+      dataSource.setValidationQuery(validationQuery);
+      dataSource.setTestOnBorrow(true);
+      dataSource.setTestWhileIdle(true);
+    }
+    return dataSource;
+  }
+
+  /**
+   * @return the number of connection pools
+   */
+  public static int getPoolCount() {
+    return dataSources.size();
+  }
+
+  /**
+   * Close all the pools, the connections in use are closed when they are returned.
+   *
+   * @param log the log channel to report errors to
+   */
+  public static void closeAll(ILogChannel log) {
+    for (String key : dataSources.keySet()) {
+      BasicDataSource dataSource = dataSources.remove(key);
+      if (dataSource != null) {
+        try {
+          dataSource.close();
+        } catch (SQLException e) {
+          log.logError("Error closing a database connection pool", e);
+        }
+      }
+    }
+  }
+}
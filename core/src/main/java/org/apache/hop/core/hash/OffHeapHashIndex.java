@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopValueException;
+
+/**
+ * A hash index of serialized keys and values which is kept outside of the Java heap. The keys and
+ * values are appended to large direct buffers, or to memory-mapped temporary files when a
+ * directory is given. The index itself is an open addressing table of longs in direct memory, every
+ * slot holding the address of a record and a part of its hash code.
+ *
+ * <p>Like {@link ByteArrayHashIndex} keys are equal when their bytes are equal. Putting a key which
+ * is present already replaces its value, the space taken by the old value is not reused.
+ */
+public class OffHeapHashIndex implements Closeable {
+
+  private static final int STANDARD_INDEX_SIZE = 1024;
+  private static final float STANDARD_LOAD_FACTOR = 0.7f;
+
+  /** A slot table of 1GB, enough for about 90 million keys */
+  private static final int MAX_INDEX_SIZE = 1 << 27;
+
+  /** The number of bits of a slot holding the top of the hash code */
+  private static final int HASH_BITS = 24;
+
+  private static final long HASH_MASK = (1L << HASH_BITS) - 1;
+
+  /** A record address is the block number followed by the position in the block */
+  private static final int BLOCK_BITS = 27;
+
+  private static final int MAX_BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final int MAX_BLOCKS = (1 << (Long.SIZE - HASH_BITS - BLOCK_BITS)) - 1;
+  private static final int FIRST_BLOCK_SIZE = 1 << 20;
+
+  /** Every record starts with the hash code, the key length and the value length */
+  private static final int RECORD_HEADER_SIZE = 12;
+
+  private final String directory;
+
+  private LongBuffer index;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+
+  private final List<ByteBuffer> blocks = new ArrayList<>();
+  private ByteBuffer block;
+  private int blockPosition;
+  private long memorySize;
+
+  /**
+   * Create an index which keeps its records in direct memory.
+   *
+   * @param size the expected number of keys
+   */
+  public OffHeapHashIndex(int size) {
+    this(size, null);
+  }
+
+  /**
+   * Create an index which keeps its records in memory-mapped temporary files. The files are deleted
+   * right after mapping them so nothing is left behind if the JVM stops.
+   *
+   * @param size the expected number of keys
+   * @param directory the local directory of the temporary files or null to use direct memory
+   */
+  public OffHeapHashIndex(int size, String directory) {
+    this.directory = directory;
+
+    int factor2Size = STANDARD_INDEX_SIZE;
+    while (factor2Size < size / STANDARD_LOAD_FACTOR && factor2Size < MAX_INDEX_SIZE) {
+      factor2Size <<= 1;
+    }
+    allocateIndex(factor2Size);
+  }
+
+  public OffHeapHashIndex() {
+    this(STANDARD_INDEX_SIZE);
+  }
+
+  /**
+   * @return the number of keys in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the number of bytes allocated outside of the heap, for the index and the records
+   */
+  public long getMemorySize() {
+    return memorySize + (long) index.capacity() * Long.BYTES;
+  }
+
+  public byte[] get(byte[] key) {
+    int hashCode = generateHashCode(key);
+    for (int i = hashCode & mask; ; i = (i + 1) & mask) {
+      long slot = index.get(i);
+      if (slot == 0L) {
+        return null;
+      }
+      if (equalsKey(slot, hashCode, key)) {
+        long address = (slot >>> HASH_BITS) - 1;
+        ByteBuffer buffer = blocks.get((int) (address >>> BLOCK_BITS)).duplicate();
+        int position = (int) address & (MAX_BLOCK_SIZE - 1);
+        byte[] value = new byte[buffer.getInt(position + 8)];
+        buffer.position(position + RECORD_HEADER_SIZE + key.length);
+        buffer.get(value);
+        return value;
+      }
+    }
+  }
+
+  public void put(byte[] key, byte[] value) throws HopValueException {
+    int hashCode = generateHashCode(key);
+    long address = append(hashCode, key, value);
+    long newSlot = ((address + 1) << HASH_BITS) | (hashCode >>> (Integer.SIZE - HASH_BITS));
+
+    for (int i = hashCode & mask; ; i = (i + 1) & mask) {
+      long slot = index.get(i);
+      if (slot == 0L) {
+        index.put(i, newSlot);
+        size++;
+        if (size >= resizeThreshold) {
+          resize();
+        }
+        return;
+      }
+      if (equalsKey(slot, hashCode, key)) {
+        index.put(i, newSlot);
+        return;
+      }
+    }
+  }
+
+  /** Release the memory, the index can't be used anymore afterwards. */
+  @Override
+  public void close() {
+    index = null;
+    blocks.clear();
+    block = null;
+    size = 0;
+    memorySize = 0L;
+  }
+
+  private boolean equalsKey(long slot, int hashCode, byte[] key) {
+    if ((slot & HASH_MASK) != hashCode >>> (Integer.SIZE - HASH_BITS)) {
+      return false;
+    }
+    long address = (slot >>> HASH_BITS) - 1;
+    ByteBuffer buffer = blocks.get((int) (address >>> BLOCK_BITS));
+    int position = (int) address & (MAX_BLOCK_SIZE - 1);
+    if (buffer.getInt(position + 4) != key.length) {
+      return false;
+    }
+    position += RECORD_HEADER_SIZE;
+    for (int i = 0; i < key.length; i++) {
+      if (buffer.get(position + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Write a record after the previous one, in a new block if it doesn't fit anymore.
+   *
+   * @return the address of the record
+   */
+  private long append(int hashCode, byte[] key, byte[] value) throws HopValueException {
+    long recordSize = (long) RECORD_HEADER_SIZE + key.length + value.length;
+    if (recordSize > MAX_BLOCK_SIZE) {
+      throw new HopValueException(
+          "Unable to store a key and value of " + recordSize + " bytes off-heap");
+    }
+    if (block == null || blockPosition + recordSize > block.capacity()) {
+      if (blocks.size() >= MAX_BLOCKS) {
+        throw new HopValueException("Unable to store more than " + memorySize + " bytes off-heap");
+      }
+      int blockSize = FIRST_BLOCK_SIZE;
+      if (block != null) {
+        blockSize = Math.min(block.capacity() * 2, MAX_BLOCK_SIZE);
+      }
+      while (blockSize < recordSize) {
+        blockSize <<= 1;
+      }
+      block = allocateBlock(blockSize);
+      blocks.add(block);
+      blockPosition = 0;
+      memorySize += blockSize;
+    }
+
+    long address = ((long) (blocks.size() - 1) << BLOCK_BITS) | blockPosition;
+    ByteBuffer buffer = block.duplicate();
+    buffer.position(blockPosition);
+    buffer.putInt(hashCode);
+    buffer.putInt(key.length);
+    buffer.putInt(value.length);
+    buffer.put(key);
+    buffer.put(value);
+    blockPosition = buffer.position();
+    return address;
+  }
+
+  private ByteBuffer allocateBlock(int blockSize) throws HopValueException {
+    if (directory == null) {
+      return ByteBuffer.allocateDirect(blockSize);
+    }
+    try {
+      File file = File.createTempFile("hashindex", ".tmp", new File(directory));
+      try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+          FileChannel channel = randomAccessFile.getChannel()) {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, blockSize);
+      } finally {
+        // The mapping stays valid, the disk space is released when the buffer is collected
+        //
+        if (!file.delete()) {
+          file.deleteOnExit();
+        }
+      }
+    } catch (IOException e) {
+      throw new HopValueException(
+          "Unable to map a temporary file of " + blockSize + " bytes in directory " + directory,
+          e);
+    }
+  }
+
+  private void allocateIndex(int indexSize) {
+    index =
+        ByteBuffer.allocateDirect(indexSize * Long.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asLongBuffer();
+    mask = indexSize - 1;
+    resizeThreshold =
+        indexSize < MAX_INDEX_SIZE ? (int) (indexSize * STANDARD_LOAD_FACTOR) : indexSize - 1;
+  }
+
+  /** Double the size of the index, the hash codes are taken from the records. */
+  private void resize() throws HopValueException {
+    LongBuffer oldIndex = index;
+    if (oldIndex.capacity() >= MAX_INDEX_SIZE) {
+      throw new HopValueException("Unable to store more than " + size + " keys off-heap");
+    }
+    allocateIndex(oldIndex.capacity() * 2);
+
+    for (int i = 0; i < oldIndex.capacity(); i++) {
+      long slot = oldIndex.get(i);
+      if (slot != 0L) {
+        long address = (slot >>> HASH_BITS) - 1;
+        int hashCode =
+            blocks
+                .get((int) (address >>> BLOCK_BITS))
+                .getInt((int) address & (MAX_BLOCK_SIZE - 1));
+        int newIndexPointer = hashCode & mask;
+        while (index.get(newIndexPointer) != 0L) {
+          newIndexPointer = (newIndexPointer + 1) & mask;
+        }
+        index.put(newIndexPointer, slot);
+      }
+    }
+  }
+
+  /**
+   * A hash code of the key bytes. The low bits are used for the position in the index and the high
+   * bits are kept in the slot, so they are mixed well.
+   */
+  public static int generateHashCode(byte[] key) {
+    int hashCode = 1;
+    for (byte b : key) {
+      hashCode = 31 * hashCode + b;
+    }
+    hashCode *= 0x9E3779B9;
+    return hashCode ^ (hashCode >>> 16);
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import java.util.Date;
+import org.apache.hop.core.exception.HopValueException;
+
+/**
+ * A batch of rows sharing the same row metadata. The rows are kept as they are passed between
+ * transforms. On request the values of a column of type Integer, Number, Boolean or Date are
+ * extracted into a primitive array so that batch-aware transforms can process them in a tight loop
+ * without unboxing or type checks per value. Those column vectors are cached until the batch
+ * changes through this class.
+ */
+public class RowBatch {
+  private final IRowMeta rowMeta;
+  private Object[][] rows;
+  private int size;
+
+  /** Cached column vectors per field index: long[], double[] or boolean[] */
+  private Object[] columns;
+
+  /** Cached null indicators per field index */
+  private boolean[][] nulls;
+
+  /**
+   * Create an empty batch
+   *
+   * @param rowMeta The layout of the rows in the batch
+   * @param capacity The initial number of rows the batch can hold
+   */
+  public RowBatch(IRowMeta rowMeta, int capacity) {
+    this.rowMeta = rowMeta;
+    this.rows = new Object[Math.max(1, capacity)][];
+    this.size = 0;
+  }
+
+  /**
+   * Create a batch on top of existing rows. The array is not copied.
+   *
+   * @param rowMeta The layout of the rows in the batch
+   * @param rows The rows
+   * @param size The number of rows to use from the array
+   */
+  public RowBatch(IRowMeta rowMeta, Object[][] rows, int size) {
+    this.rowMeta = rowMeta;
+    this.rows = rows;
+    this.size = size;
+  }
+
+  /**
+   * Add a row at the end of the batch, growing the batch if needed.
+   *
+   * @param row The row to add
+   */
+  public void addRow(Object[] row) {
+    if (size == rows.length) {
+      Object[][] newRows = new Object[rows.length * 2][];
+      System.arraycopy(rows, 0, newRows, 0, size);
+      rows = newRows;
+    }
+    rows[size++] = row;
+    invalidateColumns();
+  }
+
+  /**
+   * @param index The index of the row in the batch
+   * @return The row at the given index
+   */
+  public Object[] getRow(int index) {
+    return rows[index];
+  }
+
+  /** Remove all rows from the batch, keeping the allocated capacity. */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      rows[i] = null;
+    }
+    size = 0;
+    invalidateColumns();
+  }
+
+  /**
+   * Get the values of an Integer field or the times in milliseconds of a Date field. Null values
+   * are stored as 0, use {@link #getNulls(int)} to tell them apart.
+   *
+   * @param fieldIndex The index of the field in the row metadata
+   * @return The values of the field for all rows in the batch
+   * @throws HopValueException in case a value can't be converted
+   */
+  public long[] getLongs(int fieldIndex) throws HopValueException {
+    Object column = getCachedColumn(fieldIndex);
+    if (column instanceof long[]) {
+      return (long[]) column;
+    }
+    IValueMeta valueMeta = rowMeta.getValueMeta(fieldIndex);
+    long[] values = new long[size];
+    boolean[] isNull = new boolean[size];
+    if (valueMeta.isDate()) {
+      for (int i = 0; i < size; i++) {
+        Date date = valueMeta.getDate(rows[i][fieldIndex]);
+        if (date == null) {
+          isNull[i] = true;
+        } else {
+          values[i] = date.getTime();
+        }
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        Long value = valueMeta.getInteger(rows[i][fieldIndex]);
+        if (value == null) {
+          isNull[i] = true;
+        } else {
+          values[i] = value;
+        }
+      }
+    }
+    cacheColumn(fieldIndex, values, isNull);
+    return values;
+  }
+
+  /**
+   * Get the values of a Number field. Null values are stored as 0, use {@link #getNulls(int)} to
+   * tell them apart.
+   *
+   * @param fieldIndex The index of the field in the row metadata
+   * @return The values of the field for all rows in the batch
+   * @throws HopValueException in case a value can't be converted
+   */
+  public double[] getDoubles(int fieldIndex) throws HopValueException {
+    Object column = getCachedColumn(fieldIndex);
+    if (column instanceof double[]) {
+      return (double[]) column;
+    }
+    IValueMeta valueMeta = rowMeta.getValueMeta(fieldIndex);
+    double[] values = new double[size];
+    boolean[] isNull = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      Double value = valueMeta.getNumber(rows[i][fieldIndex]);
+      if (value == null) {
+        isNull[i] = true;
+      } else {
+        values[i] = value;
+      }
+    }
+    cacheColumn(fieldIndex, values, isNull);
+    return values;
+  }
+
+  /**
+   * Get the values of a Boolean field. Null values are stored as false, use {@link
+   * #getNulls(int)} to tell them apart.
+   *
+   * @param fieldIndex The index of the field in the row metadata
+   * @return The values of the field for all rows in the batch
+   * @throws HopValueException in case a value can't be converted
+   */
+  public boolean[] getBooleans(int fieldIndex) throws HopValueException {
+    Object column = getCachedColumn(fieldIndex);
+    if (column instanceof boolean[]) {
+      return (boolean[]) column;
+    }
+    IValueMeta valueMeta = rowMeta.getValueMeta(fieldIndex);
+    boolean[] values = new boolean[size];
+    boolean[] isNull = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      Boolean value = valueMeta.getBoolean(rows[i][fieldIndex]);
+      if (value == null) {
+        isNull[i] = true;
+      } else {
+        values[i] = value;
+      }
+    }
+    cacheColumn(fieldIndex, values, isNull);
+    return values;
+  }
+
+  /**
+   * Get the null indicators of a field.
+   *
+   * @param fieldIndex The index of the field in the row metadata
+   * @return for every row in the batch true if the value is null
+   * @throws HopValueException in case a value can't be examined
+   */
+  public boolean[] getNulls(int fieldIndex) throws HopValueException {
+    if (nulls != null && nulls[fieldIndex] != null) {
+      return nulls[fieldIndex];
+    }
+    IValueMeta valueMeta = rowMeta.getValueMeta(fieldIndex);
+    boolean[] isNull = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      isNull[i] = valueMeta.isNull(rows[i][fieldIndex]);
+    }
+    cacheColumn(fieldIndex, null, isNull);
+    return isNull;
+  }
+
+  /**
+   * Set the values of an Integer field or the times in milliseconds of a Date field in all rows of
+   * the batch. The arrays are kept as the column vectors of the field.
+   *
+   * @param fieldIndex The index of the field in the row metadata
+   * @param values The values of the field for all rows in the batch
+   * @param isNull for every row in the batch true if the value is null
+   */
+  public void setLongs(int fieldIndex, long[] values, boolean[] isNull) {
+    boolean date = rowMeta.getValueMeta(fieldIndex).isDate();
+    for (int i = 0; i < size; i++) {
+      if (isNull[i]) {
+        rows[i][fieldIndex] = null;
+      } else if (date) {
+        rows[i][fieldIndex] = new Date(values[i]);
+      } else {
+        rows[i][fieldIndex] = values[i];
+      }
+    }
+    cacheColumn(fieldIndex, values, isNull);
+  }
+
+  /**
+   * Set the values of a Number field in all rows of the batch. The arrays are kept as the column
+   * vectors of the field.
+   *
+   * @param fieldIndex The index of the field in the row metadata
+   * @param values The values of the field for all rows in the batch
+   * @param isNull for every row in the batch true if the value is null
+   */
+  public void setDoubles(int fieldIndex, double[] values, boolean[] isNull) {
+    for (int i = 0; i < size; i++) {
+      rows[i][fieldIndex] = isNull[i] ? null : (Object) values[i];
+    }
+    cacheColumn(fieldIndex, values, isNull);
+  }
+
+  private Object getCachedColumn(int fieldIndex) {
+    return columns == null ? null : columns[fieldIndex];
+  }
+
+  private void cacheColumn(int fieldIndex, Object values, boolean[] isNull) {
+    if (columns == null) {
+      columns = new Object[rowMeta.size()];
+      nulls = new boolean[rowMeta.size()][];
+    }
+    if (values != null) {
+      columns[fieldIndex] = values;
+    }
+    nulls[fieldIndex] = isNull;
+  }
+
+  private void invalidateColumns() {
+    columns = null;
+    nulls = null;
+  }
+
+  /**
+   * Gets rowMeta
+   *
+   * @return value of rowMeta
+   */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * Gets the array holding the rows. Only the first {@link #size()} entries are used.
+   *
+   * @return value of rows
+   */
+  public Object[][] getRows() {
+    return rows;
+  }
+
+  /**
+   * @return The number of rows in the batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if there are no rows in the batch
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+/**
+ * Encodes the key fields of a row into a byte array which compares (unsigned, byte by byte) the
+ * same way as {@link IRowMeta#compare(Object[], Object[], int[])} compares the rows. Sorting on
+ * these keys avoids the type checks and conversions done for every single comparison.
+ *
+ * <p>The encoding respects the sort direction, case insensitivity and white space settings of the
+ * value metadata. Nulls come first in ascending and last in descending order, like in {@link
+ * IValueMeta#compare(Object, Object)}. Only String (without collator), Integer, Number, Date and
+ * Boolean fields are supported: use {@link #isSupported(IRowMeta, int[])} to verify.
+ *
+ * <p>An encoder re-uses an internal buffer and is not thread safe.
+ */
+public class SortKeyEncoder {
+  private static final byte NULL_MARKER = 0x00;
+  private static final byte VALUE_MARKER = 0x01;
+  private static final byte END_OF_STRING = 0x00;
+
+  private final IValueMeta[] valueMetas;
+  private final int[] fieldNrs;
+
+  private byte[] buffer;
+  private int position;
+
+  /**
+   * @param rowMeta The layout of the rows to encode
+   * @param fieldNrs The indexes of the key fields in the row, in sort order
+   * @throws HopValueException in case one of the key fields can't be encoded
+   */
+  public SortKeyEncoder(IRowMeta rowMeta, int[] fieldNrs) throws HopValueException {
+    this.fieldNrs = fieldNrs;
+    this.valueMetas = new IValueMeta[fieldNrs.length];
+    for (int i = 0; i < fieldNrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(fieldNrs[i]);
+      if (!isSupported(valueMeta)) {
+        throw new HopValueException(
+            "Binary sort keys are not supported for field " + valueMeta.toStringMeta());
+      }
+      valueMetas[i] = valueMeta;
+    }
+    this.buffer = new byte[64];
+  }
+
+  /**
+   * See if the key fields of the given rows can be encoded.
+   *
+   * @param rowMeta The layout of the rows
+   * @param fieldNrs The indexes of the key fields
+   * @return true if all key fields can be encoded
+   */
+  public static boolean isSupported(IRowMeta rowMeta, int[] fieldNrs) {
+    for (int fieldNr : fieldNrs) {
+      if (!isSupported(rowMeta.getValueMeta(fieldNr))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSupported(IValueMeta valueMeta) {
+    // Subclasses can compare differently, only accept the plain types
+    //
+    Class<?> clazz = valueMeta.getClass();
+    if (clazz == ValueMetaString.class) {
+      return valueMeta.isCollatorDisabled();
+    }
+    return clazz == ValueMetaInteger.class
+        || clazz == ValueMetaNumber.class
+        || clazz == ValueMetaDate.class
+        || clazz == ValueMetaBoolean.class;
+  }
+
+  /**
+   * Encode the key fields of a row.
+   *
+   * @param row The row to encode
+   * @return a new byte array holding the sort key
+   * @throws HopValueException in case a value can't be converted
+   */
+  public byte[] encode(Object[] row) throws HopValueException {
+    position = 0;
+    for (int i = 0; i < fieldNrs.length; i++) {
+      IValueMeta valueMeta = valueMetas[i];
+      Object data = row[fieldNrs[i]];
+      int start = position;
+
+      if (valueMeta.isNull(data)) {
+        writeByte(NULL_MARKER);
+      } else {
+        writeByte(VALUE_MARKER);
+        switch (valueMeta.getType()) {
+          case IValueMeta.TYPE_STRING:
+            writeString(valueMeta, valueMeta.getString(data));
+            break;
+          case IValueMeta.TYPE_INTEGER:
+            writeLong(valueMeta.getInteger(data));
+            break;
+          case IValueMeta.TYPE_NUMBER:
+            long bits = Double.doubleToLongBits(valueMeta.getNumber(data));
+            // Flip all bits of negative numbers, only the sign bit of positive ones
+            writeUnsignedLong(bits ^ ((bits >> 63) | Long.MIN_VALUE));
+            break;
+          case IValueMeta.TYPE_DATE:
+            Date date = valueMeta.getDate(data);
+            writeLong(date.getTime());
+            break;
+          case IValueMeta.TYPE_BOOLEAN:
+            writeByte(valueMeta.getBoolean(data) ? (byte) 1 : (byte) 0);
+            break;
+          default:
+            throw new HopValueException(
+                "Binary sort keys are not supported for field " + valueMeta.toStringMeta());
+        }
+      }
+
+      if (valueMeta.isSortedDescending()) {
+        for (int b = start; b < position; b++) {
+          buffer[b] = (byte) ~buffer[b];
+        }
+      }
+    }
+    return Arrays.copyOf(buffer, position);
+  }
+
+  /**
+   * Compare 2 sort keys
+   *
+   * @param key1 the first key
+   * @param key2 the second key
+   * @return a negative number, zero or a positive number if the first key is smaller, equal to or
+   *     larger than the second key
+   */
+  public static int compare(byte[] key1, byte[] key2) {
+    return Arrays.compareUnsigned(key1, key2);
+  }
+
+  /** Sign flipped so that the signed order becomes the unsigned byte order */
+  private void writeLong(long value) {
+    writeUnsignedLong(value ^ Long.MIN_VALUE);
+  }
+
+  private void writeUnsignedLong(long value) {
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[position++] = (byte) (value >>> shift);
+    }
+  }
+
+  /**
+   * Every character is shifted by one and written as 1, 2 or 3 bytes with a first byte that grows
+   * with the character value, a bit like UTF-8. A 0 byte, smaller than any character, closes the
+   * string so that a string sorts before the longer strings it is a prefix of.
+   */
+  private void writeString(IValueMeta valueMeta, String string) {
+    if (valueMeta.isIgnoreWhitespace()) {
+      string = string.trim();
+    }
+    boolean caseInsensitive = valueMeta.isCaseInsensitive();
+    int length = string.length();
+    ensureCapacity(length * 3 + 1);
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      if (caseInsensitive) {
+        // The same folding as String.compareToIgnoreCase()
+        c = Character.toLowerCase(Character.toUpperCase(c));
+      }
+      int v = c + 1;
+      if (v < 0x80) {
+        buffer[position++] = (byte) v;
+      } else if (v < 0x4000) {
+        buffer[position++] = (byte) (0x80 | (v >>> 8));
+        buffer[position++] = (byte) v;
+      } else {
+        buffer[position++] = (byte) (0xC0 | (v >>> 16));
+        buffer[position++] = (byte) (v >>> 8);
+        buffer[position++] = (byte) v;
+      }
+    }
+    buffer[position++] = END_OF_STRING;
+  }
+
+  private void writeByte(byte b) {
+    ensureCapacity(1);
+    buffer[position++] = b;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (position + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+    }
+  }
+}
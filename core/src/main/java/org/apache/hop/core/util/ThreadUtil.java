@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates threads for the engines. Virtual threads are only available on Java 21 or later while
+ * Hop is compiled for older Java versions, so they are looked up at runtime. When they are not
+ * available a regular platform thread is created instead.
+ */
+public class ThreadUtil {
+  private static final MethodHandle OF_VIRTUAL;
+  private static final MethodHandle BUILDER_NAME;
+  private static final MethodHandle BUILDER_UNSTARTED;
+
+  static {
+    MethodHandle ofVirtual = null;
+    MethodHandle builderName = null;
+    MethodHandle builderUnstarted = null;
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+      builderName =
+          lookup.findVirtual(builderClass, "name", MethodType.methodType(builderClass, String.class));
+      builderUnstarted =
+          lookup.findVirtual(
+              builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // Not running on a Java version with virtual threads
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_UNSTARTED = builderUnstarted;
+  }
+
+  private ThreadUtil() {}
+
+  /**
+   * @return true if the running Java version supports virtual threads
+   */
+  public static boolean isVirtualThreadSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Create a new thread which isn't started yet.
+   *
+   * @param runnable The code to run in the thread
+   * @param name The name of the thread
+   * @param virtual Create a virtual thread if the Java version supports it
+   * @return The new unstarted thread
+   */
+  public static Thread newThread(Runnable runnable, String name, boolean virtual) {
+    if (virtual && OF_VIRTUAL != null) {
+      try {
+        Object builder = OF_VIRTUAL.invoke();
+        builder = BUILDER_NAME.invoke(builder, name);
+        return (Thread) BUILDER_UNSTARTED.invoke(builder, runnable);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalStateException("Unable to create virtual thread '" + name + "'", e);
+      }
+    }
+    return new Thread(runnable, name);
+  }
+}
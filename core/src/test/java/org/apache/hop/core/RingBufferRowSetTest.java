@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Test class for the basic functionality of the lock-free ring buffer row set. */
+public class RingBufferRowSetTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rm = new RowMeta();
+    rm.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rm;
+  }
+
+  /** The basic stuff. */
+  @Test
+  public void testBasicCreation() {
+    IRowSet set = new RingBufferRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+
+  /** The buffer is bounded by the requested size, even if that is not a power of two. */
+  @Test
+  public void testCapacity() {
+    IRowSet set = new RingBufferRowSet(3);
+    IRowMeta rm = createRowMeta();
+
+    assertTrue(set.putRow(rm, new Object[] {1L}));
+    assertTrue(set.putRow(rm, new Object[] {2L}));
+    assertTrue(set.putRow(rm, new Object[] {3L}));
+    assertFalse(set.putRowWait(rm, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+    assertEquals(3, set.size());
+
+    assertEquals(1L, set.getRow()[0]);
+    assertTrue(set.putRow(rm, new Object[] {4L}));
+    assertEquals(2L, set.getRow()[0]);
+    assertEquals(3L, set.getRowImmediate()[0]);
+    assertEquals(4L, set.getRowWait(1, TimeUnit.MILLISECONDS)[0]);
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+    assertEquals(0, set.size());
+    assertEquals(rm, set.getRowMeta());
+  }
+
+  @Test
+  public void testClear() {
+    IRowSet set = new RingBufferRowSet(4);
+    IRowMeta rm = createRowMeta();
+
+    set.putRow(rm, new Object[] {1L});
+    set.putRow(rm, new Object[] {2L});
+    set.setDone();
+    set.clear();
+
+    assertEquals(0, set.size());
+    assertFalse(set.isDone());
+    assertNull(set.getRowImmediate());
+    assertTrue(set.putRow(rm, new Object[] {3L}));
+    assertEquals(3L, set.getRow()[0]);
+  }
+
+  @Test
+  public void testBulkPutAndGet() {
+    IRowSet set = new RingBufferRowSet(5);
+    IRowMeta rm = createRowMeta();
+    Object[][] rows = new Object[8][];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = new Object[] {(long) i};
+    }
+
+    // Only 5 rows fit
+    assertEquals(5, set.putRowsWait(rm, rows, 0, 8, 1, TimeUnit.MILLISECONDS));
+    assertEquals(5, set.size());
+
+    Object[][] target = new Object[8][];
+    assertEquals(3, set.getRowsImmediate(target, 0, 3));
+    assertEquals(0L, target[0][0]);
+    assertEquals(2L, target[2][0]);
+
+    // Wraps around the end of the ring
+    assertEquals(3, set.putRowsWait(rm, rows, 5, 3, 1, TimeUnit.MILLISECONDS));
+    assertEquals(5, set.getRowsImmediate(target, 3, 8));
+    for (int i = 0; i < rows.length; i++) {
+      assertEquals((long) i, target[i][0]);
+    }
+    assertEquals(0, set.getRowsImmediate(target, 0, 8));
+  }
+
+  /** One producer thread and one consumer thread pass rows through a small buffer. */
+  @Test
+  public void testProducerConsumer() throws Exception {
+    final IRowSet set = new RingBufferRowSet(7);
+    final IRowMeta rm = createRowMeta();
+    final long nrRows = 100000L;
+
+    Thread producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < nrRows; i++) {
+                Object[] row = new Object[] {i};
+                while (!set.putRow(rm, row)) {
+                  // retry until there is space
+                }
+              }
+              set.setDone();
+            });
+    producer.start();
+
+    long expected = 0L;
+    while (true) {
+      Object[] row = set.getRow();
+      if (row == null) {
+        if (set.isDone() && set.size() == 0) {
+          break;
+        }
+        continue;
+      }
+      assertEquals(expected++, row[0]);
+    }
+    producer.join();
+
+    assertEquals(nrRows, expected);
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.hop.junit.rules.RestoreHopEnvironment;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -158,6 +160,21 @@ public class RowSetTest {
      **********************************************************************/
   }
 
+  /** Putting and getting several rows at once. */
+  @Test
+  public void testBulkPutAndGet() {
+    IRowSet set = new BlockingRowSet(4);
+    IRowMeta rm = createRowMetaInterface();
+    Object[][] rows = {{1L}, {2L}, {3L}, {4L}, {5L}};
+
+    assertEquals(4, set.putRowsWait(rm, rows, 0, 5, 1, TimeUnit.MILLISECONDS));
+    Object[][] target = new Object[5][];
+    assertEquals(2, set.getRowsImmediate(target, 1, 2));
+    assertEquals(1L, target[1][0]);
+    assertEquals(2L, target[2][0]);
+    assertEquals(2, set.size());
+  }
+
   /** Names test. Just for completeness. */
   @Test
   public void testNames() {
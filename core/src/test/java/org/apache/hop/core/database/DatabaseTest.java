@@ -24,7 +24,9 @@ import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.logging.LogLevel;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
 import org.apache.hop.junit.rules.RestoreHopEnvironment;
@@ -42,6 +44,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.List;
 
@@ -53,6 +56,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
@@ -466,6 +470,104 @@ public class DatabaseTest {
     }
   }
 
+  @Test
+  public void testOpenQueryUsesFetchSizeOfConnection() throws Exception {
+    Statement statement = mock(Statement.class);
+    when(conn.createStatement()).thenReturn(statement);
+    when(statement.executeQuery(anyString())).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsMetaData);
+    when(meta.isFetchSizeSupported()).thenReturn(true);
+    when(meta.getIDatabase()).thenReturn(iDatabase);
+    when(meta.getFetchSize()).thenReturn("${FETCH_SIZE}");
+    when(meta.stripCR(anyString())).thenReturn(sql);
+    variables.setVariable("FETCH_SIZE", "250");
+
+    Database db = new Database(log, variables, meta);
+    db.setConnection(conn);
+    db.openQuery(sql, null, null);
+    verify(statement).setFetchSize(250);
+
+    // Without a fetch size on the connection the default of the database type is used
+    //
+    when(meta.getFetchSize()).thenReturn(null);
+    when(iDatabase.getDefaultFetchSize()).thenReturn(1000);
+    db.openQuery(sql, null, null);
+    verify(statement).setFetchSize(1000);
+  }
+
+  @Test
+  public void testOpenQueryStreamsInTransaction() throws Exception {
+    Statement statement = mock(Statement.class);
+    when(conn.createStatement()).thenReturn(statement);
+    when(conn.getAutoCommit()).thenReturn(true);
+    when(statement.executeQuery(anyString())).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsMetaData);
+    when(meta.getIDatabase()).thenReturn(iDatabase);
+    when(meta.isStreamingResults()).thenReturn(true);
+    when(meta.stripCR(anyString())).thenReturn(sql);
+    when(iDatabase.needsTransactionToStreamResults()).thenReturn(true);
+
+    Database db = new Database(log, variables, meta);
+    db.setConnection(conn);
+    ResultSet resultSet = db.openQuery(sql, null, null);
+    verify(conn).setAutoCommit(false);
+
+    db.closeQuery(resultSet);
+    verify(conn).commit();
+    verify(conn).setAutoCommit(true);
+  }
+
+  @Test
+  public void testGetOneRowEndsStreamingTransaction() throws Exception {
+    Statement statement = mock(Statement.class);
+    when(conn.createStatement()).thenReturn(statement);
+    when(conn.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+    when(conn.getAutoCommit()).thenReturn(true);
+    when(statement.executeQuery(anyString())).thenReturn(rs);
+    when(ps.executeQuery()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsMetaData);
+    when(meta.getIDatabase()).thenReturn(iDatabase);
+    when(meta.isStreamingResults()).thenReturn(true);
+    when(meta.stripCR(anyString())).thenReturn(sql);
+    when(iDatabase.needsTransactionToStreamResults()).thenReturn(true);
+
+    Database db = new Database(log, variables, meta);
+    db.setConnection(conn);
+    db.getOneRow(sql);
+    verify(conn).commit();
+    verify(conn).setAutoCommit(true);
+
+    db.getOneRow(sql, new RowMeta(), new Object[0]);
+    verify(conn, times(2)).setAutoCommit(false);
+    verify(conn, times(2)).commit();
+    verify(conn, times(2)).setAutoCommit(true);
+  }
+
+  @Test
+  public void testFailedOpenQueryEndsStreamingTransaction() throws Exception {
+    Statement statement = mock(Statement.class);
+    when(conn.createStatement()).thenReturn(statement);
+    when(conn.getAutoCommit()).thenReturn(true);
+    when(statement.executeQuery(anyString())).thenThrow(new SQLException("Query failed"));
+    when(meta.getIDatabase()).thenReturn(iDatabase);
+    when(meta.isStreamingResults()).thenReturn(true);
+    when(meta.stripCR(anyString())).thenReturn(sql);
+    when(iDatabase.needsTransactionToStreamResults()).thenReturn(true);
+
+    Database db = new Database(log, variables, meta);
+    db.setConnection(conn);
+    try {
+      db.getOneRow(sql);
+      fail("Expected the query to fail");
+    } catch (HopDatabaseException e) {
+      // expected
+    }
+    verify(conn).setAutoCommit(false);
+    verify(conn).rollback();
+    verify(conn, never()).commit();
+    verify(conn).setAutoCommit(true);
+  }
+
   private Connection mockConnection(DatabaseMetaData dbMetaData) throws SQLException {
     Connection conn = mock(Connection.class);
     when(conn.getMetaData()).thenReturn(dbMetaData);
@@ -623,4 +725,23 @@ public class DatabaseTest {
     assertEquals(iRowMeta.getValueMeta(0).getName(), columnName);
     assertTrue(iRowMeta.getValueMeta(0) instanceof ValueMetaNumber);
   }
+
+  @Test
+  public void testGetInsertStatementWithSeveralRows() {
+    when(meta.getQuotedSchemaTableCombination(any(), nullable(String.class), anyString()))
+        .thenReturn("t");
+    when(meta.quoteField(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(meta.getIDatabase()).thenReturn(new NoneDatabaseMeta());
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("a"));
+    rowMeta.addValueMeta(new ValueMetaString("b"));
+
+    Database db = new Database(log, variables, meta);
+
+    assertEquals(
+        "INSERT INTO t (a, b) VALUES ( ?,  ?)", db.getInsertStatement(null, "t", rowMeta));
+    assertEquals(
+        "INSERT INTO t (a, b) VALUES ( ?,  ?), ( ?,  ?), ( ?,  ?)",
+        db.getInsertStatement(null, "t", rowMeta, 3));
+  }
 }
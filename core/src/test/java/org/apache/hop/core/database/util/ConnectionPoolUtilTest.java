@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.variables.Variables;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConnectionPoolUtilTest {
+  private static final String URL = "jdbc:hoptest:pool";
+
+  private static final TestDriver driver = new TestDriver();
+
+  private final ILogChannel log = mock(ILogChannel.class);
+  private DatabaseMeta databaseMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws SQLException {
+    DriverManager.registerDriver(driver);
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() throws SQLException {
+    DriverManager.deregisterDriver(driver);
+  }
+
+  @Before
+  public void setUp() {
+    driver.connects.set(0);
+    databaseMeta = mock(DatabaseMeta.class);
+    when(databaseMeta.getName()).thenReturn("test");
+    when(databaseMeta.getMaximumPoolSize()).thenReturn("2");
+  }
+
+  @After
+  public void tearDown() {
+    ConnectionPoolUtil.closeAll(log);
+  }
+
+  /** A closed connection goes back to the pool and is handed out again. */
+  @Test
+  public void testConnectionsAreReused() throws Exception {
+    getConnection(properties("user")).close();
+    int connects = driver.connects.get();
+    getConnection(properties("user")).close();
+    assertEquals(connects, driver.connects.get());
+
+    Connection first = getConnection(properties("user"));
+    Connection second = getConnection(properties("user"));
+    assertNotSame(first, second);
+    assertEquals(connects + 1, driver.connects.get());
+    first.close();
+    second.close();
+    assertEquals(1, ConnectionPoolUtil.getPoolCount());
+  }
+
+  /** Another user or other pool settings don't share the connections. */
+  @Test
+  public void testPoolPerUserAndSettings() throws Exception {
+    getConnection(properties("user")).close();
+    getConnection(properties("other")).close();
+    when(databaseMeta.getMaximumPoolSize()).thenReturn("5");
+    getConnection(properties("user")).close();
+
+    assertEquals(3, ConnectionPoolUtil.getPoolCount());
+
+    ConnectionPoolUtil.closeAll(log);
+    assertEquals(0, ConnectionPoolUtil.getPoolCount());
+  }
+
+  private Connection getConnection(Properties properties) throws Exception {
+    return ConnectionPoolUtil.getConnection(
+        log,
+        new Variables(),
+        databaseMeta,
+        TestDriver.class.getName(),
+        getClass().getClassLoader(),
+        URL,
+        properties);
+  }
+
+  private static Properties properties(String user) {
+    Properties properties = new Properties();
+    properties.put("user", user);
+    properties.put("password", "secret");
+    return properties;
+  }
+
+  /** Hands out mocked connections and counts them. */
+  public static class TestDriver implements Driver {
+    private final AtomicInteger connects = new AtomicInteger();
+
+    @Override
+    public Connection connect(String url, Properties info) {
+      if (!acceptsURL(url)) {
+        return null;
+      }
+      connects.incrementAndGet();
+      return mock(Connection.class);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+      return url.startsWith("jdbc:hoptest:");
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+      return Logger.getGlobal();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.hop.core.exception.HopValueException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OffHeapHashIndexTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testGetAndPut() throws HopValueException {
+    OffHeapHashIndex index = new OffHeapHashIndex(10);
+    assertTrue(index.isEmpty());
+    assertNull(index.get(new byte[] {10}));
+
+    index.put(new byte[] {10}, new byte[] {53, 12});
+    assertArrayEquals(new byte[] {53, 12}, index.get(new byte[] {10}));
+    assertNull(index.get(new byte[] {10, 0}));
+    assertNull(index.get(new byte[0]));
+
+    // Replace the value of an existing key
+    index.put(new byte[] {10}, new byte[0]);
+    assertArrayEquals(new byte[0], index.get(new byte[] {10}));
+    assertEquals(1, index.size());
+    index.close();
+  }
+
+  /** The index grows a couple of times and the records span several blocks. */
+  @Test
+  public void testManyKeysInDirectMemory() throws HopValueException {
+    checkManyKeys(new OffHeapHashIndex(10));
+  }
+
+  @Test
+  public void testManyKeysInMappedFiles() throws HopValueException {
+    checkManyKeys(new OffHeapHashIndex(10, folder.getRoot().getAbsolutePath()));
+    assertEquals(0, folder.getRoot().list().length);
+  }
+
+  private void checkManyKeys(OffHeapHashIndex index) throws HopValueException {
+    int nrKeys = 100000;
+    for (int i = 0; i < nrKeys; i++) {
+      index.put(key(i), value(i));
+    }
+    assertEquals(nrKeys, index.size());
+    assertTrue(index.getMemorySize() > 2 << 20);
+
+    for (int i = 0; i < nrKeys; i++) {
+      assertArrayEquals(value(i), index.get(key(i)));
+    }
+    assertNull(index.get(key(nrKeys)));
+    index.close();
+  }
+
+  private static byte[] key(int i) {
+    return ("key" + i).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] value(int i) {
+    return ("a somewhat longer value for key " + i).getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RowBatchTest {
+
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+  }
+
+  @Test
+  public void testAddAndGrow() {
+    RowBatch batch = new RowBatch(rowMeta, 1);
+    assertTrue(batch.isEmpty());
+
+    Object[] row1 = new Object[] {1L, 1.5, true, new Date(1000L), "a"};
+    Object[] row2 = new Object[] {2L, 2.5, false, new Date(2000L), "b"};
+    batch.addRow(row1);
+    batch.addRow(row2);
+
+    assertEquals(2, batch.size());
+    assertSame(row1, batch.getRow(0));
+    assertSame(row2, batch.getRow(1));
+
+    batch.clear();
+    assertTrue(batch.isEmpty());
+  }
+
+  @Test
+  public void testColumns() throws Exception {
+    RowBatch batch = new RowBatch(rowMeta, 4);
+    batch.addRow(new Object[] {1L, 1.5, true, new Date(1000L), "a"});
+    batch.addRow(new Object[] {null, null, null, null, null});
+    batch.addRow(new Object[] {3L, -2.0, false, new Date(3000L), "c"});
+
+    assertArrayEquals(new long[] {1L, 0L, 3L}, batch.getLongs(0));
+    assertArrayEquals(new double[] {1.5, 0.0, -2.0}, batch.getDoubles(1), 0.0);
+    boolean[] flags = batch.getBooleans(2);
+    assertTrue(flags[0]);
+    assertFalse(flags[1]);
+    assertFalse(flags[2]);
+    assertArrayEquals(new long[] {1000L, 0L, 3000L}, batch.getLongs(3));
+
+    boolean[] nulls = batch.getNulls(0);
+    assertFalse(nulls[0]);
+    assertTrue(nulls[1]);
+    assertFalse(nulls[2]);
+    assertTrue(batch.getNulls(4)[1]);
+
+    // The vectors are cached until the batch changes
+    assertSame(batch.getLongs(0), batch.getLongs(0));
+    long[] before = batch.getLongs(0);
+    batch.addRow(new Object[] {4L, 4.0, true, new Date(4000L), "d"});
+    assertArrayEquals(new long[] {1L, 0L, 3L, 4L}, batch.getLongs(0));
+    assertEquals(3, before.length);
+  }
+
+  @Test
+  public void testSetColumns() throws Exception {
+    RowBatch batch = new RowBatch(rowMeta, 2);
+    batch.addRow(new Object[] {1L, 1.5, true, new Date(1000L), "a"});
+    batch.addRow(new Object[] {2L, 2.5, false, new Date(2000L), "b"});
+
+    long[] ids = new long[] {10L, 0L};
+    boolean[] idNulls = new boolean[] {false, true};
+    batch.setLongs(0, ids, idNulls);
+    batch.setDoubles(1, new double[] {0.0, -3.5}, new boolean[] {true, false});
+    batch.setLongs(3, new long[] {5000L, 6000L}, new boolean[] {false, false});
+
+    assertEquals(10L, batch.getRow(0)[0]);
+    assertEquals(null, batch.getRow(1)[0]);
+    assertEquals(null, batch.getRow(0)[1]);
+    assertEquals(-3.5, batch.getRow(1)[1]);
+    assertEquals(new Date(6000L), batch.getRow(1)[3]);
+
+    // The arrays become the column vectors of the fields
+    assertSame(ids, batch.getLongs(0));
+    assertSame(idNulls, batch.getNulls(0));
+    assertTrue(batch.getNulls(1)[0]);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SortKeyEncoderTest {
+
+  private IRowMeta rowMeta;
+  private int[] fieldNrs;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    fieldNrs = new int[] {0, 1, 2, 3, 4};
+  }
+
+  @Test
+  public void testIsSupported() {
+    assertTrue(SortKeyEncoder.isSupported(rowMeta, fieldNrs));
+
+    rowMeta.getValueMeta(0).setCollatorDisabled(false);
+    assertFalse(SortKeyEncoder.isSupported(rowMeta, fieldNrs));
+    assertTrue(SortKeyEncoder.isSupported(rowMeta, new int[] {1, 2}));
+
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    assertFalse(SortKeyEncoder.isSupported(rowMeta, new int[] {5}));
+  }
+
+  @Test
+  public void testSameOrderAsRowMeta() throws Exception {
+    checkAllFields(false, false);
+  }
+
+  @Test
+  public void testDescending() throws Exception {
+    checkAllFields(true, false);
+  }
+
+  @Test
+  public void testCaseInsensitive() throws Exception {
+    checkAllFields(false, true);
+  }
+
+  /** Every field on its own and all fields combined have to sort like IRowMeta.compare() */
+  private void checkAllFields(boolean descending, boolean caseInsensitive) throws Exception {
+    for (IValueMeta valueMeta : rowMeta.getValueMetaList()) {
+      valueMeta.setSortedDescending(descending);
+      valueMeta.setCaseInsensitive(caseInsensitive);
+    }
+    List<Object[]> rows = createRows();
+    for (int fieldNr : fieldNrs) {
+      checkOrder(rows, new int[] {fieldNr});
+    }
+    checkOrder(rows, fieldNrs);
+    checkOrder(rows, new int[] {4, 0, 2});
+  }
+
+  private void checkOrder(List<Object[]> rows, int[] keyFields) throws Exception {
+    SortKeyEncoder encoder = new SortKeyEncoder(rowMeta, keyFields);
+    List<byte[]> keys = new ArrayList<>();
+    for (Object[] row : rows) {
+      keys.add(encoder.encode(row));
+    }
+    for (int i = 0; i < rows.size(); i++) {
+      for (int j = 0; j < rows.size(); j++) {
+        int expected = Integer.signum(rowMeta.compare(rows.get(i), rows.get(j), keyFields));
+        int actual = Integer.signum(SortKeyEncoder.compare(keys.get(i), keys.get(j)));
+        assertEquals(
+            rowMeta.getString(rows.get(i)) + " <> " + rowMeta.getString(rows.get(j)),
+            expected,
+            actual);
+      }
+    }
+  }
+
+  private List<Object[]> createRows() {
+    String[] strings = {null, "", "a", "A", "ab", "abc", "b", "B", "\u0000", "é", "中", "z "};
+    Long[] integers = {null, Long.MIN_VALUE, -1L, 0L, 1L, 255L, 256L, Long.MAX_VALUE};
+    Double[] numbers = {
+      null, Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, 1e-300, 2.5, Double.POSITIVE_INFINITY
+    };
+    Date[] dates = {null, new Date(-1000L), new Date(0L), new Date(1_600_000_000_000L)};
+    Boolean[] booleans = {null, false, true};
+
+    Random random = new Random(1L);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      rows.add(
+          new Object[] {
+            strings[random.nextInt(strings.length)],
+            integers[random.nextInt(integers.length)],
+            numbers[random.nextInt(numbers.length)],
+            dates[random.nextInt(dates.length)],
+            booleans[random.nextInt(booleans.length)],
+          });
+    }
+    return rows;
+  }
+}
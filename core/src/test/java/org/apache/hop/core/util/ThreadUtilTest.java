@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class ThreadUtilTest {
+
+  @Test
+  public void testPlatformThread() throws Exception {
+    AtomicBoolean ran = new AtomicBoolean(false);
+    Thread thread = ThreadUtil.newThread(() -> ran.set(true), "platform", false);
+    assertEquals("platform", thread.getName());
+    assertEquals(Thread.State.NEW, thread.getState());
+    thread.start();
+    thread.join();
+    assertTrue(ran.get());
+  }
+
+  /** On runtimes without virtual threads we silently fall back to a platform thread. */
+  @Test
+  public void testVirtualThread() throws Exception {
+    AtomicBoolean ran = new AtomicBoolean(false);
+    Thread thread = ThreadUtil.newThread(() -> ran.set(true), "virtual", true);
+    assertEquals("virtual", thread.getName());
+    thread.start();
+    thread.join();
+    assertTrue(ran.get());
+  }
+}
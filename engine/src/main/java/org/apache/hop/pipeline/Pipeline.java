@@ -28,6 +28,7 @@ import org.apache.hop.core.IExecutor;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.RowMetaAndData;
@@ -58,6 +59,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowBuffer;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.core.util.ThreadUtil;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
@@ -361,6 +363,12 @@ public abstract class Pipeline
 
   protected int rowSetSize;
 
+  /** Use lock-free single producer/single consumer row sets for the hops. */
+  protected boolean usingRingBufferRowSets;
+
+  /** Run the transforms in virtual threads if the Java runtime supports it. */
+  protected boolean usingVirtualThreads;
+
   /** Whether the feedback is shown. */
   protected boolean feedbackShown;
 
@@ -707,7 +715,7 @@ public abstract class Pipeline
                 if (batchingRowSet != null && batchingRowSet.booleanValue()) {
                   rowSet = new BlockingBatchingRowSet(rowSetSize);
                 } else {
-                  rowSet = new BlockingRowSet(rowSetSize);
+                  rowSet = createRowSet();
                 }
                 break;
 
@@ -755,7 +763,7 @@ public abstract class Pipeline
           // distribution...
           for (int s = 0; s < thisCopies; s++) {
             for (int t = 0; t < nextCopies; t++) {
-              BlockingRowSet rowSet = new BlockingRowSet(rowSetSize);
+              IRowSet rowSet = createRowSet();
               rowSet.setThreadNameFromToCopy(
                   thisTransform.getName(), s, nextTransform.getName(), t);
               rowsets.add(rowSet);
@@ -996,9 +1004,7 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
-      threads[i].setName(
-          "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
+      threads[i] = createThread(initThreads[i], "init of " + sid.transformName + "." + sid.copy);
 
       ExtensionPointHandler.callExtensionPoint(
           log, this, HopExtensionPoint.TransformBeforeInitialize.id, initThreads[i]);
@@ -1259,8 +1265,7 @@ public abstract class Pipeline
         //
         for (final TransformMetaDataCombi combi : transforms) {
           RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
+          Thread thread = createThread(runThread, getName() + " - " + combi.transformName);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -3501,6 +3506,63 @@ public abstract class Pipeline
     this.rowSetSize = rowSetSize;
   }
 
+  /**
+   * Gets usingRingBufferRowSets
+   *
+   * @return value of usingRingBufferRowSets
+   */
+  public boolean isUsingRingBufferRowSets() {
+    return usingRingBufferRowSets;
+  }
+
+  /**
+   * @param usingRingBufferRowSets The usingRingBufferRowSets to set
+   */
+  public void setUsingRingBufferRowSets(boolean usingRingBufferRowSets) {
+    this.usingRingBufferRowSets = usingRingBufferRowSets;
+  }
+
+  /**
+   * Gets usingVirtualThreads
+   *
+   * @return value of usingVirtualThreads
+   */
+  public boolean isUsingVirtualThreads() {
+    return usingVirtualThreads;
+  }
+
+  /**
+   * @param usingVirtualThreads The usingVirtualThreads to set
+   */
+  public void setUsingVirtualThreads(boolean usingVirtualThreads) {
+    this.usingVirtualThreads = usingVirtualThreads;
+  }
+
+  /**
+   * Create a thread to initialize or run a transform copy in. This is a virtual thread if this was
+   * asked for and if the Java runtime supports it.
+   *
+   * @param runnable The code to run
+   * @param name The name of the thread
+   * @return the new thread, not yet started
+   */
+  protected Thread createThread(Runnable runnable, String name) {
+    return ThreadUtil.newThread(runnable, name, usingVirtualThreads);
+  }
+
+  /**
+   * Create a row set for a hop between two transform copies in a normal (multi-threaded) pipeline.
+   * Every such row set has exactly one writing and one reading thread.
+   *
+   * @return a new row set with capacity rowSetSize
+   */
+  protected IRowSet createRowSet() {
+    if (usingRingBufferRowSets) {
+      return new RingBufferRowSet(rowSetSize);
+    }
+    return new BlockingRowSet(rowSetSize);
+  }
+
   /**
    * Gets feedbackShown
    *
@@ -28,6 +28,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.parameters.INamedParameters;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.ThreadUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.execution.ExecutionBuilder;
 import org.apache.hop.execution.ExecutionDataBuilder;
@@ -128,6 +129,12 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
     int sizeRowsSet = Const.toInt(resolve(config.getRowSetSize()), Const.ROWS_IN_ROWSET);
     setRowSetSize(sizeRowsSet);
+    setUsingRingBufferRowSets(config.isUsingRingBufferRowSets());
+    if (config.isUsingVirtualThreads() && !ThreadUtil.isVirtualThreadSupported()) {
+      log.logBasic(
+          "Virtual threads are not supported by this Java runtime, transforms will run in regular threads");
+    }
+    setUsingVirtualThreads(config.isUsingVirtualThreads());
     setSafeModeEnabled(config.isSafeModeEnabled());
     setSortingTransformsTopologically(config.isSortingTransformsTopologically());
     setGatheringMetrics(config.isGatheringMetrics());
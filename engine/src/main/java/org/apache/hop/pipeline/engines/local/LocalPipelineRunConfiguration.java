@@ -144,6 +144,30 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  @GuiWidgetElement(
+      id = "ringBufferRowSets",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RingBufferRowSets.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RingBufferRowSets.ToolTip")
+  @HopMetadataProperty(key = "ring_buffer_rowsets")
+  protected boolean usingRingBufferRowSets;
+
+  @GuiWidgetElement(
+      id = "virtualThreads",
+      order = "120",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.ToolTip")
+  @HopMetadataProperty(key = "virtual_threads")
+  protected boolean usingVirtualThreads;
+
   public enum SampleType {
     None,
     First,
@@ -160,6 +184,8 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = SampleType.Last.name();
     this.sampleSize = "100";
     this.transactional = false;
+    this.usingRingBufferRowSets = false;
+    this.usingVirtualThreads = false;
   }
 
   public LocalPipelineRunConfiguration(LocalPipelineRunConfiguration config) {
@@ -174,6 +200,8 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.usingRingBufferRowSets = config.usingRingBufferRowSets;
+    this.usingVirtualThreads = config.usingVirtualThreads;
   }
 
   @Override
@@ -347,4 +375,36 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets usingRingBufferRowSets
+   *
+   * @return value of usingRingBufferRowSets
+   */
+  public boolean isUsingRingBufferRowSets() {
+    return usingRingBufferRowSets;
+  }
+
+  /**
+   * @param usingRingBufferRowSets The usingRingBufferRowSets to set
+   */
+  public void setUsingRingBufferRowSets(boolean usingRingBufferRowSets) {
+    this.usingRingBufferRowSets = usingRingBufferRowSets;
+  }
+
+  /**
+   * Gets usingVirtualThreads
+   *
+   * @return value of usingVirtualThreads
+   */
+  public boolean isUsingVirtualThreads() {
+    return usingVirtualThreads;
+  }
+
+  /**
+   * @param usingVirtualThreads The usingVirtualThreads to set
+   */
+  public void setUsingVirtualThreads(boolean usingVirtualThreads) {
+    this.usingVirtualThreads = usingVirtualThreads;
+  }
 }
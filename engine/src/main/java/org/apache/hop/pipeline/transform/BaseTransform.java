@@ -37,6 +37,7 @@ import org.apache.hop.core.logging.LogLevel;
 import org.apache.hop.core.logging.LoggingObjectType;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaString;
@@ -240,6 +241,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   /** The list of IRowListener interfaces */
   protected List<IRowListener> rowListeners;
 
+  /** Used to take several rows at once from an input rowset in getRows() */
+  private Object[][] batchBuffer;
+
   /**
    * Map of files that are generated or used by this transform. After execution, these can be added
    * to result. The entry to the map is the filename
@@ -660,6 +664,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void addLinesRead(long nrLines) {
+    synchronized (statusCountersLock) {
+      linesRead += nrLines;
+    }
+  }
+
   /**
    * Decrements the number of lines read from previous transforms by one
    *
@@ -774,6 +784,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void addLinesWritten(long nrLines) {
+    synchronized (statusCountersLock) {
+      linesWritten += nrLines;
+    }
+  }
+
   /**
    * Decrements the number of lines written to next transforms by one
    *
@@ -1016,7 +1032,97 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
-  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+  /**
+   * Put a batch of rows on the destination rowsets. When the rows go to a single output rowset
+   * without partitioning they are handed over in bulk. Otherwise every row is passed to {@link
+   * #putRow(IRowMeta, Object[])}.
+   *
+   * @param rowMeta The row metadata of the rows in the batch
+   * @param batch The rows to put to the destination rowset(s).
+   * @throws HopTransformException in case the batch contains a null row
+   */
+  public void putRows(IRowMeta rowMeta, RowBatch batch) throws HopTransformException {
+    int size = batch.size();
+    if (size == 0) {
+      return;
+    }
+    Object[][] rows = batch.getRows();
+
+    // A null row can't be handed over in bulk: the rowset would stop at it and never take it
+    //
+    for (int i = 0; i < size; i++) {
+      if (rows[i] == null) {
+        throw new HopTransformException(
+            BaseMessages.getString(PKG, "BaseTransform.Exception.NullRowInBatch", i));
+      }
+    }
+
+    // The first row takes the regular route: it validates the metadata and waits for the pipeline
+    //
+    putRow(rowMeta, rows[0]);
+    if (size == 1) {
+      return;
+    }
+
+    if (!waitWhilePaused()) {
+      return;
+    }
+
+    boolean bulk = false;
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.size() == 1
+          && repartitioning == TransformPartitioningMeta.PARTITIONING_METHOD_NONE
+          && (!distributed || rowDistribution == null)
+          && !terminator
+          && getRowHandler().getClass() == DefaultRowHandler.class) {
+        bulk = true;
+
+        IRowSet rowSet = outputRowSets.get(0);
+        IRowMeta toBeSent = rowSet.getRowMeta() == null ? rowMeta.clone() : rowSet.getRowMeta();
+        int offset = 1;
+        while (offset < size) {
+          int written =
+              rowSet.putRowsWait(
+                  toBeSent,
+                  rows,
+                  offset,
+                  size - offset,
+                  Const.TIMEOUT_PUT_MILLIS,
+                  TimeUnit.MILLISECONDS);
+
+          // Only the rows which made it to the rowset are reported to the row listeners
+          //
+          for (IRowListener listener : rowListeners) {
+            for (int i = offset; i < offset + written; i++) {
+              listener.rowWrittenEvent(rowMeta, rows[i]);
+            }
+          }
+          offset += written;
+          if (offset < size && isStopped() && !safeStopped.get()) {
+            break;
+          }
+        }
+        addLinesWritten(offset - 1L);
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+
+    if (!bulk) {
+      for (int i = 1; i < size; i++) {
+        putRow(rowMeta, rows[i]);
+      }
+    }
+  }
+
+  /**
+   * Stall while the transform is paused, before rows are put.
+   *
+   * @return false if the transform is stopped and no rows should be put anymore
+   * @throws HopTransformException in case the wait is interrupted
+   */
+  private boolean waitWhilePaused() throws HopTransformException {
     // Are we pausing the transform? If so, stall forever...
     //
     while (paused.get() && !stopped.get()) {
@@ -1035,6 +1141,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopPuttingARow"));
       }
       stopAll();
+      return false;
+    }
+    return true;
+  }
+
+  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    if (!waitWhilePaused()) {
       return;
     }
 
@@ -1528,6 +1641,58 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * Get a batch of rows from the source transform(s). The first row is read the same way as {@link
+   * #getRow()} does. If there is only one input rowset, the rows already waiting in it are taken
+   * along in the same batch, up to maxRows, without waiting for more.
+   *
+   * @param maxRows The maximum number of rows in the batch
+   * @return a batch holding at least one row or null if there are no more rows.
+   * @throws HopException
+   */
+  public RowBatch getRows(int maxRows) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    RowBatch batch = new RowBatch(inputRowMeta, maxRows);
+    batch.addRow(row);
+    if (maxRows <= 1
+        || pipeline.isSafeModeEnabled()
+        || getRowHandler().getClass() != DefaultRowHandler.class) {
+      return batch;
+    }
+
+    if (batchBuffer == null || batchBuffer.length < maxRows) {
+      batchBuffer = new Object[maxRows][];
+    }
+    int nrRows = 0;
+    inputRowSetsLock.readLock().lock();
+    try {
+      // Different input rowsets can carry different row layouts
+      //
+      if (inputRowSets.size() == 1) {
+        nrRows = inputRowSets.get(0).getRowsImmediate(batchBuffer, 0, maxRows - 1);
+      }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+    if (nrRows == 0) {
+      return batch;
+    }
+
+    addLinesRead(nrRows);
+    for (int i = 0; i < nrRows; i++) {
+      Object[] batchRow = batchBuffer[i];
+      batchBuffer[i] = null;
+      for (IRowListener listener : rowListeners) {
+        listener.rowReadEvent(inputRowMeta, batchRow);
+      }
+      batch.addRow(batchRow);
+    }
+    return batch;
+  }
+
   private Object[] handleGetRow() throws HopException {
 
     // Are we pausing the transform? If so, stall forever...
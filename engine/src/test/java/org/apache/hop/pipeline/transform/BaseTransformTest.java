@@ -21,6 +21,7 @@ import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.SingleRowRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -29,6 +30,7 @@ import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaInteger;
@@ -45,11 +47,14 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -453,4 +458,137 @@ public class BaseTransformTest {
     verify(mockHelper.pipelineMeta, times(1))
         .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), anyObject());
   }
+
+  @Test
+  public void testGetAndPutRows() throws HopException {
+    Pipeline pipelineMock = spy(new LocalPipelineEngine());
+    doReturn(true).when(pipelineMock).isRunning();
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                pipelineMock));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    BlockingRowSet input = new BlockingRowSet(10);
+    for (long i = 0; i < 5; i++) {
+      input.putRow(rowMeta, new Object[] {i});
+    }
+    input.setDone();
+    BlockingRowSet output = new BlockingRowSet(10);
+    baseTransformSpy.setInputRowSets(new ArrayList<>(Arrays.asList(input)));
+    baseTransformSpy.setOutputRowSets(new ArrayList<>(Arrays.asList(output)));
+    baseTransformSpy.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+
+    RowBatch batch = baseTransformSpy.getRows(3);
+    assertEquals(3, batch.size());
+    assertEquals(0L, batch.getRow(0)[0]);
+    assertEquals(2L, batch.getRow(2)[0]);
+    assertEquals(3, baseTransformSpy.getLinesRead());
+
+    baseTransformSpy.putRows(rowMeta, batch);
+    assertEquals(3, output.size());
+    assertEquals(3, baseTransformSpy.getLinesWritten());
+
+    batch = baseTransformSpy.getRows(10);
+    assertEquals(2, batch.size());
+    assertEquals(4L, batch.getRow(1)[0]);
+    assertNull(baseTransformSpy.getRows(10));
+    assertEquals(5, baseTransformSpy.getLinesRead());
+  }
+
+  @Test
+  public void testPutRowsRejectsNullRow() throws HopException {
+    Pipeline pipelineMock = spy(new LocalPipelineEngine());
+    doReturn(true).when(pipelineMock).isRunning();
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                pipelineMock));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    RingBufferRowSet output = new RingBufferRowSet(10);
+    baseTransformSpy.setOutputRowSets(new ArrayList<>(Arrays.asList(output)));
+    baseTransformSpy.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+
+    RowBatch batch = new RowBatch(rowMeta, 3);
+    batch.addRow(new Object[] {1L});
+    batch.addRow(null);
+    batch.addRow(new Object[] {3L});
+
+    try {
+      baseTransformSpy.putRows(rowMeta, batch);
+      fail("Expected an exception for a null row in the batch");
+    } catch (HopTransformException e) {
+      // expected
+    }
+    assertEquals(0, output.size());
+    assertEquals(0, baseTransformSpy.getLinesWritten());
+  }
+
+  /** Row listeners only see the rows of a batch which were put before the transform stopped. */
+  @Test
+  public void testPutRowsStoppedReportsWrittenRowsOnly() throws HopException {
+    Pipeline pipelineMock = spy(new LocalPipelineEngine());
+    doReturn(true).when(pipelineMock).isRunning();
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                pipelineMock));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    // Takes two rows of the batch and then the transform is stopped
+    //
+    RingBufferRowSet output =
+        new RingBufferRowSet(16) {
+          @Override
+          public int putRowsWait(
+              IRowMeta rowMeta, Object[][] rows, int offset, int count, long time, TimeUnit tu) {
+            int written = super.putRowsWait(rowMeta, rows, offset, Math.min(count, 2), time, tu);
+            baseTransformSpy.setStopped(true);
+            return written;
+          }
+        };
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    baseTransformSpy.setOutputRowSets(new ArrayList<>(Arrays.asList(output)));
+    baseTransformSpy.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    List<Object[]> writtenRows = new ArrayList<>();
+    baseTransformSpy.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            writtenRows.add(row);
+          }
+        });
+
+    RowBatch batch = new RowBatch(rowMeta, 6);
+    for (long i = 0; i < 6; i++) {
+      batch.addRow(new Object[] {i});
+    }
+    baseTransformSpy.putRows(rowMeta, batch);
+
+    assertEquals(3, output.size());
+    assertEquals(3, writtenRows.size());
+    assertEquals(2L, writtenRows.get(2)[0]);
+    assertEquals(3, baseTransformSpy.getLinesWritten());
+  }
 }
@@ -452,4 +452,9 @@ public class ClickhouseDatabaseMeta extends BaseDatabaseMeta implements IDatabas
   public boolean isSupportsTimeStampToDateConversion() {
     return false;
   }
+
+  @Override
+  public boolean isSupportsMultiRowInsert() {
+    return true;
+  }
 }
@@ -709,6 +709,17 @@ public class MySqlDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
 
   }
 
+  @Override
+  public boolean isSupportsMultiRowInsert() {
+    return true;
+  }
+
+  /** The protocol sends the number of parameters as a 16-bit value */
+  @Override
+  public int getMaxPreparedStatementParameters() {
+    return 65535;
+  }
+
   @Override
   public int getMaxVARCHARLength() {
     return VARCHAR_LIMIT;
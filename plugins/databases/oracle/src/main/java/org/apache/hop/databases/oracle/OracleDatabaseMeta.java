@@ -41,6 +41,9 @@ public class OracleDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
 
   private static final String STRICT_BIGNUMBER_INTERPRETATION = "STRICT_NUMBER_38_INTERPRETATION";
 
+  /** The Oracle driver only fetches 10 rows per round trip by default */
+  private static final int DEFAULT_FETCH_SIZE = 1000;
+
   @Override
   public int[] getAccessTypeList() {
     return new int[] {DatabaseMeta.TYPE_ACCESS_NATIVE};
@@ -54,6 +57,11 @@ public class OracleDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
     return -1;
   }
 
+  @Override
+  public int getDefaultFetchSize() {
+    return DEFAULT_FETCH_SIZE;
+  }
+
   /** @return Whether or not the database can use auto increment type of fields (pk) */
   @Override
   public boolean isSupportsAutoInc() {
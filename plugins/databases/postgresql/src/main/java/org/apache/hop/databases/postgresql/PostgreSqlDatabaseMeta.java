@@ -22,7 +22,9 @@ import org.apache.hop.core.database.BaseDatabaseMeta;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.database.DatabaseMetaPlugin;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
+import org.apache.hop.core.gui.plugin.GuiWidgetElement;
 import org.apache.hop.core.row.IValueMeta;
 
 /**
@@ -33,6 +35,37 @@ import org.apache.hop.core.row.IValueMeta;
 public class PostgreSqlDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
   private static final int GB_LIMIT = 1_073_741_824;
 
+  @GuiWidgetElement(
+      id = "resultStreaming",
+      order = "10",
+      parentId = DatabaseMeta.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label = "i18n:org.apache.hop.ui.core.database:DatabaseDialog.label.PostgreSQLStreamResults",
+      toolTip =
+          "i18n:org.apache.hop.ui.core.database:DatabaseDialog.label.PostgreSQLStreamResults.Tooltip")
+  private boolean resultStreaming;
+
+  /**
+   * Result streaming is off unless it's enabled on the connection: every query then runs in a
+   * transaction of its own, which costs a round trip for queries executed per row.
+   *
+   * @return true if query results are read with a cursor, in a transaction
+   */
+  public boolean isResultStreaming() {
+    String streaming = getAttributeProperty(ATTRIBUTE_USE_RESULT_STREAMING, "N");
+    return "Y".equalsIgnoreCase(streaming);
+  }
+
+  /** @param resultStreaming true to read query results with a cursor, in a transaction */
+  public void setResultStreaming(boolean resultStreaming) {
+    getAttributes().put(ATTRIBUTE_USE_RESULT_STREAMING, resultStreaming ? "Y" : "N");
+  }
+
+  @Override
+  public boolean isStreamingResults() {
+    return isResultStreaming();
+  }
+
   @Override
   public boolean isPostgresVariant() {
     return true;
@@ -83,6 +116,23 @@ public class PostgreSqlDatabaseMeta extends BaseDatabaseMeta implements IDatabas
     return true;
   }
 
+  /** @return the number of rows the cursor fetches per round trip when streaming results */
+  @Override
+  public int getDefaultFetchSize() {
+    return Const.FETCH_SIZE;
+  }
+
+  /**
+   * The PostgreSQL driver ignores the fetch size and reads the whole result in memory unless
+   * auto-commit is disabled.
+   *
+   * @return true
+   */
+  @Override
+  public boolean needsTransactionToStreamResults() {
+    return true;
+  }
+
   /** @return true if the database supports bitmap indexes */
   @Override
   public boolean isSupportsBitmapIndex() {
@@ -1101,6 +1151,17 @@ public class PostgreSqlDatabaseMeta extends BaseDatabaseMeta implements IDatabas
     return true;
   }
 
+  @Override
+  public boolean isSupportsMultiRowInsert() {
+    return true;
+  }
+
+  /** The wire protocol sends the number of parameters as a 16-bit value */
+  @Override
+  public int getMaxPreparedStatementParameters() {
+    return 32767;
+  }
+
   @Override
   public int getMaxVARCHARLength() {
     return GB_LIMIT;
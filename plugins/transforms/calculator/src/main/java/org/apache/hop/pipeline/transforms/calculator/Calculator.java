@@ -23,6 +23,7 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.ValueDataUtil;
 import org.apache.hop.core.util.Utils;
@@ -42,6 +43,9 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
 
   private static final Class<?> PKG = CalculatorMeta.class; // For Translator
 
+  /** The maximum number of rows read and calculated in one go */
+  private static final int BATCH_SIZE = 500;
+
   public class FieldIndexes {
     public int indexName;
     public int indexA;
@@ -62,6 +66,10 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
   @Override
   public boolean processRow() throws HopException {
 
+    if (!first && data.isColumnar()) {
+      return processBatch();
+    }
+
     Object[] r = getRow(); // get row, set busy!
     if (r == null) { // no more input to be expected...
       setOutputDone();
@@ -162,6 +170,8 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
       for (int i = 0; i < data.getTempIndexes().length; i++) {
         data.getTempIndexes()[i] = tempIndexes.get(i);
       }
+
+      data.setColumnar(isColumnar(getInputRowMeta()));
     }
 
     if (log.isRowLevel()) {
@@ -200,6 +210,189 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
     return true;
   }
 
+  /**
+   * Read the rows waiting on the input and calculate them column by column.
+   *
+   * @return false if there are no more rows
+   * @throws HopException in case there is a calculation error
+   */
+  private boolean processBatch() throws HopException {
+    RowBatch batch = getRows(BATCH_SIZE);
+    if (batch == null) { // no more input to be expected...
+      setOutputDone();
+      data.clearValuesMetaMapping();
+      return false;
+    }
+
+    long lineNr = getLinesRead() - batch.size();
+    try {
+      RowBatch result = calcFields(getInputRowMeta(), batch);
+      putRows(data.getOutputRowMeta(), result); // copy rows to possible alternate rowset(s).
+
+      if (log.isRowLevel()) {
+        for (int i = 0; i < result.size(); i++) {
+          logRowlevel("Wrote row : " + data.getOutputRowMeta().getString(result.getRow(i)));
+        }
+      }
+    } catch (HopException e) {
+      logError(
+          BaseMessages.getString(
+              PKG, "Calculator.ErrorInTransformRunning" + " : " + e.getMessage()));
+      throw new HopTransformException(
+          BaseMessages.getString(PKG, "Calculator.ErrorInTransformRunning"), e);
+    }
+
+    for (int i = 1; i <= batch.size(); i++) {
+      if (checkFeedback(lineNr + i)) {
+        if (log.isBasic()) {
+          logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + (lineNr + i)));
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * See if all calculations can be done on primitive column vectors: additions, subtractions,
+   * multiplications and squares of Integer or Number fields with the same type as the result.
+   *
+   * @param inputRowMeta the input row metadata
+   * @return true if the rows can be calculated a batch at a time
+   */
+  private boolean isColumnar(IRowMeta inputRowMeta) {
+    IRowMeta calcRowMeta = data.getCalcRowMeta();
+
+    // Only the calculations with a field name have a field in the calculation row
+    //
+    int index = inputRowMeta.size();
+    for (int i = 0; i < meta.getFunctions().size(); i++) {
+      CalculatorMetaFunction fn = meta.getFunctions().get(i);
+      if (Utils.isEmpty(fn.getFieldName())) {
+        continue;
+      }
+      CalculationType calcType = fn.getCalcType();
+      FieldIndexes indexes = data.getFieldIndexes()[i];
+      int indexB;
+      switch (calcType) {
+        case ADD:
+        case SUBTRACT:
+        case MULTIPLY:
+          indexB = indexes.indexB;
+          break;
+        case SQUARE:
+          indexB = indexes.indexA;
+          break;
+        default:
+          return false;
+      }
+      IValueMeta targetMeta = calcRowMeta.getValueMeta(index++);
+      IValueMeta metaA = calcRowMeta.getValueMeta(indexes.indexA);
+      IValueMeta metaB = calcRowMeta.getValueMeta(indexB);
+      if (!targetMeta.isInteger() && !targetMeta.isNumber()) {
+        return false;
+      }
+      if (metaA.getType() != targetMeta.getType() || metaB.getType() != targetMeta.getType()) {
+        return false;
+      }
+      if (!metaA.isStorageNormal() || !metaB.isStorageNormal()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculate a batch of rows one calculation at a time over the column vectors of the batch. Only
+   * used when {@link #isColumnar(IRowMeta)} allows it.
+   *
+   * @param inputRowMeta the input row metadata
+   * @param batch the input rows
+   * @return the rows including the calculations, excluding the temporary values
+   * @throws HopValueException in case a value can't be converted
+   */
+  private RowBatch calcFields(IRowMeta inputRowMeta, RowBatch batch) throws HopValueException {
+    int size = batch.size();
+    Object[][] calcRows = new Object[size][];
+    for (int r = 0; r < size; r++) {
+      calcRows[r] = RowDataUtil.resizeArray(batch.getRow(r), data.getCalcRowMeta().size());
+    }
+    RowBatch calcBatch = new RowBatch(data.getCalcRowMeta(), calcRows, size);
+
+    int index = inputRowMeta.size();
+    for (int i = 0; i < meta.getFunctions().size(); i++) {
+      CalculatorMetaFunction fn = meta.getFunctions().get(i);
+      if (Utils.isEmpty(fn.getFieldName())) {
+        continue;
+      }
+      CalculationType calcType = fn.getCalcType();
+      int indexA = data.getFieldIndexes()[i].indexA;
+      int indexB = calcType == CalculationType.SQUARE ? indexA : data.getFieldIndexes()[i].indexB;
+
+      // A calculation on a null value gives null
+      //
+      boolean[] nullsA = calcBatch.getNulls(indexA);
+      boolean[] nullsB = calcBatch.getNulls(indexB);
+      boolean[] isNull = new boolean[size];
+      for (int r = 0; r < size; r++) {
+        isNull[r] = nullsA[r] || nullsB[r];
+      }
+
+      if (data.getCalcRowMeta().getValueMeta(index).isInteger()) {
+        long[] a = calcBatch.getLongs(indexA);
+        long[] b = calcBatch.getLongs(indexB);
+        long[] result = new long[size];
+        switch (calcType) {
+          case ADD:
+            for (int r = 0; r < size; r++) {
+              result[r] = a[r] + b[r];
+            }
+            break;
+          case SUBTRACT:
+            for (int r = 0; r < size; r++) {
+              result[r] = a[r] - b[r];
+            }
+            break;
+          default: // MULTIPLY, SQUARE
+            for (int r = 0; r < size; r++) {
+              result[r] = a[r] * b[r];
+            }
+            break;
+        }
+        calcBatch.setLongs(index, result, isNull);
+      } else {
+        double[] a = calcBatch.getDoubles(indexA);
+        double[] b = calcBatch.getDoubles(indexB);
+        double[] result = new double[size];
+        switch (calcType) {
+          case ADD:
+            for (int r = 0; r < size; r++) {
+              result[r] = a[r] + b[r];
+            }
+            break;
+          case SUBTRACT:
+            for (int r = 0; r < size; r++) {
+              result[r] = a[r] - b[r];
+            }
+            break;
+          default: // MULTIPLY, SQUARE
+            for (int r = 0; r < size; r++) {
+              result[r] = a[r] * b[r];
+            }
+            break;
+        }
+        calcBatch.setDoubles(index, result, isNull);
+      }
+      index++;
+    }
+
+    // Leave out the temporary fields
+    //
+    for (int r = 0; r < size; r++) {
+      calcRows[r] = RowDataUtil.removeItems(calcRows[r], data.getTempIndexes());
+    }
+    return new RowBatch(data.getOutputRowMeta(), calcRows, size);
+  }
+
   /**
    * @param inputRowMeta the input row metadata
    * @param r the input row (data)
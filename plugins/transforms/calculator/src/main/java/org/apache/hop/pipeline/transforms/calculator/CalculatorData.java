@@ -35,6 +35,9 @@ public class CalculatorData extends BaseTransformData implements ITransformData
 
   private int[] tempIndexes;
 
+  /** True if all calculations are done a batch of rows at a time on column vectors */
+  private boolean columnar;
+
   private final Map<Integer, IValueMeta> resultMetaMapping;
 
   public CalculatorData() {
@@ -74,6 +77,14 @@ public class CalculatorData extends BaseTransformData implements ITransformData
     this.tempIndexes = tempIndexes;
   }
 
+  public boolean isColumnar() {
+    return columnar;
+  }
+
+  public void setColumnar(boolean columnar) {
+    this.columnar = columnar;
+  }
+
   public IValueMeta getValueMetaFor(int resultType, String name) throws HopPluginException {
     // don't need any synchronization as data instance belongs only to one transform instance
     IValueMeta meta = resultMetaMapping.get(resultType);
@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.calculator;
 
 import junit.framework.Assert;
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
@@ -35,6 +36,7 @@ import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
 import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
 import org.apache.hop.pipeline.transforms.calculator.CalculatorMetaFunction.CalculationType;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.After;
@@ -48,9 +50,12 @@ import java.math.BigInteger;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -1069,4 +1074,110 @@ public class CalculatorUnitTest {
       fail();
     }
   }
+
+  @Test
+  public void testCalculateInBatches() throws HopException {
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("a"));
+    inputRowMeta.addValueMeta(new ValueMetaInteger("b"));
+    inputRowMeta.addValueMeta(new ValueMetaNumber("x"));
+
+    BlockingRowSet input = new BlockingRowSet(10);
+    input.putRow(inputRowMeta, new Object[] {1L, 2L, 1.5});
+    input.putRow(inputRowMeta, new Object[] {3L, 4L, 2.0});
+    input.putRow(inputRowMeta, new Object[] {null, 5L, -1.0});
+    input.putRow(inputRowMeta, new Object[] {6L, 7L, null});
+    input.setDone();
+    BlockingRowSet output = new BlockingRowSet(10);
+
+    CalculatorMeta meta = new CalculatorMeta();
+    meta.getFunctions().add(batchFunction("sum", CalculationType.ADD, "a", "b", "Integer", true));
+    meta.getFunctions()
+        .add(batchFunction("diff", CalculationType.SUBTRACT, "sum", "a", "Integer", false));
+    meta.getFunctions()
+        .add(batchFunction("square", CalculationType.SQUARE, "x", null, "Number", false));
+    meta.getFunctions()
+        .add(batchFunction("product", CalculationType.MULTIPLY, "x", "x", "Number", false));
+
+    CalculatorData data = new CalculatorData();
+    Calculator calculator =
+        new Calculator(smh.transformMeta, meta, data, 0, smh.pipelineMeta, smh.pipeline);
+    calculator.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    calculator.setOutputRowSets(new ArrayList<>(Collections.singletonList(output)));
+    calculator.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    calculator.init();
+
+    // The first row is calculated on its own, the other waiting rows in one batch
+    //
+    assertTrue(calculator.processRow());
+    assertTrue(data.isColumnar());
+    assertEquals(1L, calculator.getLinesRead());
+    assertTrue(calculator.processRow());
+    assertEquals(4L, calculator.getLinesRead());
+    assertEquals(4L, calculator.getLinesWritten());
+    assertFalse(calculator.processRow());
+
+    Object[][] expected =
+        new Object[][] {
+          {1L, 2L, 1.5, 2L, 2.25, 2.25},
+          {3L, 4L, 2.0, 4L, 4.0, 4.0},
+          {null, 5L, -1.0, null, 1.0, 1.0},
+          {6L, 7L, null, 7L, null, null}
+        };
+    for (Object[] expectedRow : expected) {
+      Object[] row = output.getRow();
+      for (int i = 0; i < expectedRow.length; i++) {
+        assertEquals(expectedRow[i], row[i]);
+      }
+    }
+    assertNull(output.getRowImmediate());
+  }
+
+  @Test
+  public void testCalculateRowByRowWithOtherFunctions() throws HopException {
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("a"));
+    inputRowMeta.addValueMeta(new ValueMetaString("s"));
+
+    IRowSet inputRowSet = smh.getMockInputRowSet(new Object[] {1L, "x"});
+    inputRowSet.setRowMeta(inputRowMeta);
+
+    CalculatorMeta meta = new CalculatorMeta();
+    meta.getFunctions().add(batchFunction("sum", CalculationType.ADD, "a", "a", "Integer", false));
+    meta.getFunctions()
+        .add(batchFunction("upper", CalculationType.UPPER_CASE, "s", null, "String", false));
+
+    CalculatorData data = new CalculatorData();
+    Calculator calculator =
+        new Calculator(smh.transformMeta, meta, data, 0, smh.pipelineMeta, smh.pipeline);
+    calculator.addRowSetToInputRowSets(inputRowSet);
+    calculator.setInputRowMeta(inputRowMeta);
+    calculator.init();
+
+    assertTrue(calculator.processRow());
+    assertFalse(data.isColumnar());
+  }
+
+  private static CalculatorMetaFunction batchFunction(
+      String fieldName,
+      CalculationType calcType,
+      String fieldA,
+      String fieldB,
+      String valueType,
+      boolean removedFromResult) {
+    return new CalculatorMetaFunction(
+        fieldName,
+        calcType,
+        fieldA,
+        fieldB,
+        null,
+        valueType,
+        0,
+        0,
+        "",
+        "",
+        "",
+        "",
+        removedFromResult);
+  }
 }
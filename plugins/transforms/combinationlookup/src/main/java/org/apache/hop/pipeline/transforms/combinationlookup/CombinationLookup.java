@@ -143,6 +143,13 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     //
     int tenPercent = meta.getCacheSize() / 10;
     if (meta.getCacheSize() > 0 && data.cache.size() > meta.getCacheSize() + tenPercent) {
+      // From now on the combinations which are not in the cache need to be looked up again
+      //
+      if (data.cachePreloaded) {
+        data.cachePreloaded = false;
+        logDetailed("The pre-loaded cache is full, looking up new combinations in the database.");
+      }
+
       // Which cache entries do we delete here?
       // We delete those with the lowest technical key...
       // Those would arguably be the "oldest" dimension entries.
@@ -257,9 +264,19 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     // Before doing the actual lookup in the database, see if it's not in the cache...
     valKey = lookupInCache(data.hashRowMeta, hashRow);
     if (valKey == null) {
-      data.db.setValues(data.lookupRowMeta, lookupRow, data.prepStatementLookup);
-      Object[] add = data.db.getLookup(data.prepStatementLookup);
-      incrementLinesInput();
+      // A combination which isn't in the pre-loaded cache isn't in the table either
+      //
+      Object[] add = null;
+      if (!data.cachePreloaded) {
+        // The lookup needs to see the combinations in the pending batch
+        //
+        if (data.batchCount > 0) {
+          flushBatch();
+        }
+        data.db.setValues(data.lookupRowMeta, lookupRow, data.prepStatementLookup);
+        add = data.db.getLookup(data.prepStatementLookup);
+        incrementLinesInput();
+      }
 
       if (add == null) { // The dimension entry was not found, we need to add it!
         // First try to use an AUTOINCREMENT field
@@ -339,6 +356,9 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     // if no more input to be expected set done
     if (r == null) {
+      if (data.batchCount > 0) {
+        flushBatch();
+      }
       setOutputDone();
       return false;
     }
@@ -394,6 +414,10 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
 
       setCombiLookup(getInputRowMeta());
       preloadCache(data.hashRowMeta);
+
+      if (meta.isUseBatchUpdate()) {
+        initBatching();
+      }
     }
 
     try {
@@ -401,6 +425,10 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
           lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
       putRow(data.outputRowMeta, outputRow); // copy row to output rowset(s)
 
+      if (data.batching && data.batchCount >= meta.getCommitSize()) {
+        flushBatch();
+      }
+
       if (checkFeedback(getLinesRead()) && log.isBasic()) {
         logBasic(BaseMessages.getString(PKG, "CombinationLookup.Log.LineNumber") + getLinesRead());
       }
@@ -653,7 +681,12 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       data.db.setValues(data.insertRowMeta, insertRow, data.prepStatementInsert);
 
       debug = "Insert row";
-      data.db.insertRow(data.prepStatementInsert);
+      if (data.batching) {
+        data.prepStatementInsert.addBatch();
+        data.batchCount++;
+      } else {
+        data.db.insertRow(data.prepStatementInsert);
+      }
 
       debug = "Retrieve key";
       if (isAutoIncrement() && databaseMeta.supportsAutoGeneratedKeys()) {
@@ -695,6 +728,37 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     return valKey;
   }
 
+  /**
+   * Insert the new combinations in a JDBC batch if possible. The generated technical keys can't be
+   * retrieved from a batch and the rows of a failed batch can't be sent to the error handling.
+   */
+  private void initBatching() throws HopDatabaseException {
+    if (isAutoIncrement()
+        || getTransformMeta().isDoingErrorHandling()
+        || meta.getCommitSize() <= 0
+        || !data.db.getUseBatchInsert(true)) {
+      logBasic(BaseMessages.getString(PKG, "CombinationLookup.Log.BatchInsertNotPossible"));
+      return;
+    }
+    data.batching = true;
+    data.batchCount = 0;
+  }
+
+  /** Execute the pending batch of new combinations and commit */
+  private void flushBatch() throws HopDatabaseException {
+    try {
+      data.prepStatementInsert.executeBatch();
+      data.prepStatementInsert.clearBatch();
+    } catch (SQLException e) {
+      throw Database.createHopDatabaseBatchException("Error inserting combinations in batch", e);
+    }
+    data.batchCount = 0;
+
+    if (!data.db.isAutoCommit()) {
+      data.db.commit();
+    }
+  }
+
   @Override
   public boolean isRowLevel() {
     return log.isRowLevel();
@@ -740,6 +804,9 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
   public void dispose() {
     if (data.db != null) {
       try {
+        if (getErrors() == 0 && data.batchCount > 0) {
+          flushBatch();
+        }
         if (!data.db.isAutoCommit()) {
           if (getErrors() == 0) {
             data.db.commit();
@@ -783,7 +850,6 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       }
       String lookupKeys = "";
       String sql = "";
-      List<Object[]> cacheValues;
 
       /* build SQl Statement to preload cache
        *
@@ -832,15 +898,45 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       if (log.isDebug()) {
         logDebug("Using preload cache statement:" + Const.CR + sql);
       }
-      cacheValues = data.db.getRows(databaseMeta.stripCR(sql), meta.getCacheSize());
-      for (Object[] cacheRow : cacheValues) {
-        // Create a correctly structured array for the cache
-        Object[] hashRow = new Object[data.hashRowMeta.size()];
-        // Assumes the technical key is at position 0 !!
-        System.arraycopy(cacheRow, 1, hashRow, 0, hashRow.length);
-        // Potential Cache Overflow is ahndled inside
-        addToCache(hashRowMeta, hashRow, (Long) cacheRow[0]);
-        incrementLinesInput();
+
+      // Read the combinations one by one, all of them when the cache size is unlimited
+      //
+      int rowsRead = 0;
+      ResultSet resultSet = data.db.openQuery(databaseMeta.stripCR(sql));
+      try {
+        IRowMeta cacheRowMeta = data.db.getReturnRowMeta();
+        Object[] cacheRow = data.db.getRow(resultSet);
+        while (cacheRow != null && (meta.getCacheSize() == 0 || rowsRead < meta.getCacheSize())) {
+          // Create a correctly structured array for the cache, with the data types of the input
+          // Assumes the technical key is at position 0 !!
+          Object[] hashRow = new Object[hashRowMeta.size()];
+          for (int i = 0; i < hashRow.length; i++) {
+            IValueMeta hashValueMeta = hashRowMeta.getValueMeta(i);
+            IValueMeta cacheValueMeta = cacheRowMeta.getValueMeta(i + 1);
+            if (hashValueMeta.getType() == cacheValueMeta.getType()) {
+              hashRow[i] = cacheRow[i + 1];
+            } else {
+              hashRow[i] = hashValueMeta.convertData(cacheValueMeta, cacheRow[i + 1]);
+            }
+          }
+          // Potential Cache Overflow is ahndled inside
+          addToCache(hashRowMeta, hashRow, cacheRowMeta.getInteger(cacheRow, 0));
+          incrementLinesInput();
+          rowsRead++;
+
+          cacheRow = data.db.getRow(resultSet);
+        }
+
+        // With all the combinations in the cache, the new ones don't need to be looked up
+        //
+        data.cachePreloaded = cacheRow == null;
+      } finally {
+        data.db.closeQuery(resultSet);
+      }
+
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(PKG, "CombinationLookup.Log.PreloadedCache", rowsRead));
       }
     }
   }
@@ -46,6 +46,15 @@ public class CombinationLookupData extends BaseTransformData implements ITransfo
   public PreparedStatement prepStatementInsert;
   public long smallestCacheKey;
 
+  /** All the combinations in the table were loaded in the cache */
+  public boolean cachePreloaded;
+
+  /** New combinations are added to a JDBC batch instead of being inserted right away */
+  public boolean batching;
+
+  /** The number of inserts in the pending batch */
+  public int batchCount;
+
   /** Default Constructor */
   public CombinationLookupData() {
     super();
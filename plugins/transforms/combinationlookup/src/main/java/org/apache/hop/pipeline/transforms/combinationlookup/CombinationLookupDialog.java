@@ -84,6 +84,8 @@ public class CombinationLookupDialog extends BaseTransformDialog implements ITra
 
   private Button wPreloadCache;
 
+  private Button wUseBatch;
+
   private Text wTk;
 
   private Label wlAutoinc;
@@ -296,6 +298,18 @@ public class CombinationLookupDialog extends BaseTransformDialog implements ITra
     fdPreloadCache.right = new FormAttachment(100, 0);
     wPreloadCache.setLayoutData(fdPreloadCache);
 
+    // Use batch inserts
+    wUseBatch = new Button(shell, SWT.CHECK);
+    wUseBatch.setText(BaseMessages.getString(PKG, "CombinationLookupDialog.UseBatch.Label"));
+    wUseBatch.setToolTipText(
+        BaseMessages.getString(PKG, "CombinationLookupDialog.UseBatch.ToolTip"));
+    PropsUi.setLook(wUseBatch);
+    FormData fdUseBatch = new FormData();
+    fdUseBatch.top = new FormAttachment(wCachesize, margin);
+    fdUseBatch.left = new FormAttachment(middle, 0);
+    fdUseBatch.right = new FormAttachment(wCommit, 0, SWT.RIGHT);
+    wUseBatch.setLayoutData(fdUseBatch);
+
     //
     // The Lookup fields: usually the (business) key
     //
@@ -712,6 +726,7 @@ public class CombinationLookupDialog extends BaseTransformDialog implements ITra
     }
 
     wPreloadCache.setSelection(input.isPreloadCache());
+    wUseBatch.setSelection(input.isUseBatchUpdate());
     wReplace.setSelection(input.isReplaceFields());
     wHashcode.setSelection(input.isUseHash());
     wHashfield.setEnabled(input.isUseHash());
@@ -817,6 +832,7 @@ public class CombinationLookupDialog extends BaseTransformDialog implements ITra
     }
 
     in.setPreloadCache(wPreloadCache.getSelection());
+    in.setUseBatchUpdate(wUseBatch.getSelection());
     returnFields.setUseAutoIncrement(wAutoinc.getSelection() && wAutoinc.isEnabled());
     in.setReplaceFields(wReplace.getSelection());
     in.setUseHash(wHashcode.getSelection());
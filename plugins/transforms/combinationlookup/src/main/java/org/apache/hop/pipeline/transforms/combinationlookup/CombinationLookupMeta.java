@@ -115,6 +115,13 @@ public class CombinationLookupMeta
       injectionKeyDescription = "CombinationLookup.Injection.COMMIT_SIZE")
   private int commitSize;
 
+  /** Insert the new combinations in JDBC batches of the commit size */
+  @HopMetadataProperty(
+      key = "use_batch",
+      injectionKey = "USE_BATCH_UPDATE",
+      injectionKeyDescription = "CombinationLookup.Injection.USE_BATCH_UPDATE")
+  private boolean useBatchUpdate;
+
   /** Preload the cache, defaults to false */
   @HopMetadataProperty(
       key = "preloadCache",
@@ -156,6 +163,7 @@ public class CombinationLookupMeta
     tableName = BaseMessages.getString(PKG, "CombinationLookupMeta.DimensionTableName.Label");
     databaseMeta = null;
     commitSize = 100;
+    useBatchUpdate = false;
     cacheSize = DEFAULT_CACHE_SIZE;
     replaceFields = false;
     preloadCache = false;
@@ -873,6 +881,24 @@ public class CombinationLookupMeta
     this.commitSize = commitSize;
   }
 
+  /**
+   * Gets useBatchUpdate
+   *
+   * @return value of useBatchUpdate
+   */
+  public boolean isUseBatchUpdate() {
+    return useBatchUpdate;
+  }
+
+  /**
+   * Sets useBatchUpdate
+   *
+   * @param useBatchUpdate value of useBatchUpdate
+   */
+  public void setUseBatchUpdate(boolean useBatchUpdate) {
+    this.useBatchUpdate = useBatchUpdate;
+  }
+
   /**
    * Gets preloadCache
    *
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.combinationlookup;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.NoneDatabaseMeta;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CombinationLookupTest {
+
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private TransformMockHelper<CombinationLookupMeta, CombinationLookupData> mockHelper;
+  private CombinationLookupMeta meta;
+  private CombinationLookupData data;
+  private Database db;
+  private ResultSet resultSet;
+  private IRowMeta inputRowMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Combination Lookup", CombinationLookupMeta.class, CombinationLookupData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setIDatabase(new NoneDatabaseMeta());
+
+    meta = new CombinationLookupMeta();
+    meta.setDefault();
+    meta.setDatabaseMeta(databaseMeta);
+    meta.setTableName("junk");
+    meta.setUseBatchUpdate(true);
+    meta.getFields().getKeyFields().add(new KeyField("code", "code"));
+    meta.getFields().getReturnFields().setTechnicalKeyField("tk");
+    meta.getFields()
+        .getReturnFields()
+        .setTechKeyCreation(CombinationLookupMeta.CREATION_METHOD_TABLEMAX);
+
+    // The table holds combination "a" with technical key 10
+    //
+    db = mock(Database.class);
+    Connection connection = mock(Connection.class);
+    when(db.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString()))
+        .thenAnswer(invocation -> mock(PreparedStatement.class));
+    when(db.getUseBatchInsert(true)).thenReturn(true);
+    AtomicLong nextKey = new AtomicLong(100L);
+    when(db.getNextValue(nullable(String.class), anyString(), anyString()))
+        .thenAnswer(invocation -> nextKey.getAndIncrement());
+    resultSet = mock(ResultSet.class);
+    when(db.openQuery(anyString())).thenReturn(resultSet);
+    IRowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaInteger("tk"));
+    returnRowMeta.addValueMeta(new ValueMetaString("code"));
+    when(db.getReturnRowMeta()).thenReturn(returnRowMeta);
+    when(db.getRow(resultSet)).thenReturn(new Object[] {10L, "a"}).thenReturn(null);
+
+    data = new CombinationLookupData();
+    inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("code"));
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  public void testPreloadedCombinationIsServedWithoutQuery() throws Exception {
+    meta.setPreloadCache(true);
+    List<Object> keys = runTransform("a", "b", "a", "b");
+
+    assertEquals(Arrays.asList(10L, 100L, 10L, 100L), keys);
+    verify(db).openQuery(anyString());
+    verify(db, never()).getLookup(any(PreparedStatement.class));
+    verify(db, times(1)).getNextValue(nullable(String.class), anyString(), anyString());
+    verify(data.prepStatementInsert, times(1)).addBatch();
+    verify(data.prepStatementInsert, times(1)).executeBatch();
+  }
+
+  @Test
+  public void testNewCombinationRepeatedInPendingBatch() throws Exception {
+    List<Object> keys = runTransform("b", "b", "c", "b");
+
+    // The second "b" is served from the cache while its insert is still in the batch
+    //
+    assertEquals(Arrays.asList(100L, 100L, 101L, 100L), keys);
+    verify(db, times(2)).getLookup(any(PreparedStatement.class));
+    verify(db, times(2)).getNextValue(nullable(String.class), anyString(), anyString());
+    verify(db, times(1))
+        .setValues(
+            any(IRowMeta.class), aryEq(new Object[] {100L, "b"}), eq(data.prepStatementInsert));
+    verify(data.prepStatementInsert, times(2)).addBatch();
+
+    // The pending "b" is inserted before "c" is looked up, "c" at the end of the input
+    //
+    verify(data.prepStatementInsert, times(2)).executeBatch();
+  }
+
+  /** Run the transform like init() would with the mocked database and return the keys */
+  private List<Object> runTransform(String... codes) throws Exception {
+    CombinationLookup transform =
+        new CombinationLookup(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+    data.realTableName = meta.getTableName();
+    data.cache = new HashMap<>();
+    data.db = db;
+
+    BlockingRowSet input = new BlockingRowSet(codes.length + 1);
+    for (String code : codes) {
+      input.putRow(inputRowMeta, new Object[] {code});
+    }
+    input.setDone();
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>());
+    List<Object> keys = new ArrayList<>();
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            keys.add(row[1]);
+          }
+        });
+
+    while (transform.processRow()) {
+      // keep going
+    }
+    return keys;
+  }
+}
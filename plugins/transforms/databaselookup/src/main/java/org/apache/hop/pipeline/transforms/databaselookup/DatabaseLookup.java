@@ -20,11 +20,14 @@ package org.apache.hop.pipeline.transforms.databaselookup;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.metrics.MetricsSnapshotType;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -40,15 +43,42 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /** Looks up values in a database using keys from input streams. */
 public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLookupData> {
 
   private static final Class<?> PKG = DatabaseLookupMeta.class; // For Translator
 
+  /** Stay below the maximum number of expressions in an IN list of Oracle */
+  private static final int MAX_LOOKUP_BATCH_SIZE = 1000;
+
+  public static final Metrics METRIC_CACHE_HITS =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_LOOKUP_CACHE_HITS",
+          "Lookups found in the cache");
+  public static final Metrics METRIC_CACHE_MISSES =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_LOOKUP_CACHE_MISSES",
+          "Lookups not found in the cache");
+  public static final Metrics METRIC_CACHE_EVICTIONS =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_LOOKUP_CACHE_EVICTIONS",
+          "Rows removed from the cache");
+
   public DatabaseLookup(
       TransformMeta transformMeta,
       DatabaseLookupMeta meta,
@@ -68,39 +98,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
    */
   @VisibleForTesting
   synchronized Object[] lookupValues(IRowMeta inputRowMeta, Object[] row) throws HopException {
-    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
-
-    Object[] lookupRow = new Object[data.lookupMeta.size()];
-    int lookupIndex = 0;
-
-    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
-      if (data.keynrs[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-      if (data.keynrs2[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs2[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-    }
+    Object[] lookupRow = getLookupRow(inputRowMeta, row);
 
     Object[] add;
     boolean cacheNow = false;
@@ -111,6 +109,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       add = data.cache.getRowFromCache(data.lookupMeta, lookupRow);
       if (add != null) {
         cacheHit = true;
+        data.cacheHits++;
+      } else {
+        data.cacheMisses++;
       }
     } else {
       add = null;
@@ -136,6 +137,63 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
     }
 
+    return addLookupValues(inputRowMeta, row, lookupRow, add, !cacheHit, cacheNow);
+  }
+
+  /** Get the key values of a row, converted to the types of the table columns. */
+  private Object[] getLookupRow(IRowMeta inputRowMeta, Object[] row) throws HopException {
+    Object[] lookupRow = new Object[data.lookupMeta.size()];
+    int lookupIndex = 0;
+
+    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
+      if (data.keynrs[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+      if (data.keynrs2[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs2[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+    }
+    return lookupRow;
+  }
+
+  /**
+   * Add the looked up values, or the default values if nothing was found, to a row.
+   *
+   * @param add the values found or null
+   * @param fromDatabase true if the values were just read with the lookup statement
+   * @param cacheNow true to store the values in the cache
+   * @return the output row or null if the row goes to error handling or is eaten
+   */
+  private Object[] addLookupValues(
+      IRowMeta inputRowMeta,
+      Object[] row,
+      Object[] lookupRow,
+      Object[] add,
+      boolean fromDatabase,
+      boolean cacheNow)
+      throws HopException {
+    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
+
     if (add == null) { // nothing was found, unknown code: add default values
       if (meta.getLookup().isEatingRowOnLookupFailure()) {
         return null;
@@ -176,23 +234,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
 
       // Only verify the data types if the data comes from the DB, NOT when we have a cache hit
       // In that case, we already know the data type is OK.
-      if (!cacheHit) {
+      if (fromDatabase) {
         incrementLinesInput();
-
-        // The assumption here is that the types are in the same order
-        // as the returned lookup row, but since we make the lookup row
-        // that should not be a problem.
-        //
-        int[] types = data.returnValueTypes;
-        for (int i = 0; i < types.length; i++) {
-          IValueMeta returned = data.db.getReturnRowMeta().getValueMeta(i);
-          IValueMeta expected = data.returnMeta.getValueMeta(i);
-
-          if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
-            // Set the type to the default return type
-            add[i] = expected.convertData(returned, add[i]);
-          }
-        }
+        convertReturnedValues(data.db.getReturnRowMeta(), 0, add);
       }
     }
 
@@ -210,6 +254,304 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return outputRow;
   }
 
+  /**
+   * Convert the values read from the database to the default return types.
+   *
+   * @param returnedMeta the layout of the result of the lookup query
+   * @param offset the index of the first return value in the result
+   * @param add the return values to convert
+   */
+  private void convertReturnedValues(IRowMeta returnedMeta, int offset, Object[] add)
+      throws HopException {
+    // The assumption here is that the types are in the same order
+    // as the returned lookup row, but since we make the lookup row
+    // that should not be a problem.
+    //
+    int[] types = data.returnValueTypes;
+    for (int i = 0; i < types.length; i++) {
+      IValueMeta returned = returnedMeta.getValueMeta(offset + i);
+      IValueMeta expected = data.returnMeta.getValueMeta(i);
+
+      if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
+        // Set the type to the default return type
+        add[i] = expected.convertData(returned, add[i]);
+      }
+    }
+  }
+
+  /**
+   * Look up the keys of the buffered rows which are not in the cache with as few queries as
+   * possible, then pass the rows on in their original order.
+   *
+   * @return false if the transform needs to stop
+   */
+  private boolean lookupBatch() throws HopException {
+    List<Object[]> rows = data.batchRows;
+    data.batchRows = new ArrayList<>(data.batchSize);
+
+    // Keep the values found in the cache: storing the rows read from the database can evict them
+    //
+    int size = rows.size();
+    Object[][] lookupRows = new Object[size][];
+    Object[][] cachedAdd = new Object[size][];
+    HopException[] keyErrors = new HopException[size];
+    boolean[] queried = new boolean[size];
+    Set<RowMetaAndData> missingKeys = new LinkedHashSet<>();
+    for (int i = 0; i < size; i++) {
+      try {
+        lookupRows[i] = getLookupRow(getInputRowMeta(), rows.get(i));
+      } catch (HopException e) {
+        keyErrors[i] = e;
+        continue;
+      }
+      if (meta.isCached()) {
+        cachedAdd[i] = data.cache.getRowFromCache(data.lookupMeta, lookupRows[i]);
+        if (cachedAdd[i] != null) {
+          data.cacheHits++;
+          continue;
+        }
+        data.cacheMisses++;
+      }
+      if (hasNullKey(lookupRows[i])) {
+        continue;
+      }
+      missingKeys.add(new RowMetaAndData(data.lookupMeta, lookupRows[i]));
+      queried[i] = true;
+    }
+
+    Map<RowMetaAndData, Object[]> found = new HashMap<>();
+    HopException queryError = null;
+    try {
+      found = lookupKeys(missingKeys);
+    } catch (HopException e) {
+      // None of the rows which needed the database could be looked up
+      //
+      queryError = e;
+    }
+
+    for (int i = 0; i < size; i++) {
+      Object[] row = rows.get(i);
+      try {
+        if (keyErrors[i] != null) {
+          throw keyErrors[i];
+        }
+        if (queried[i] && queryError != null) {
+          throw queryError;
+        }
+        Object[] lookupRow = lookupRows[i];
+        boolean cacheHit = cachedAdd[i] != null;
+        Object[] add =
+            cacheHit ? cachedAdd[i] : found.get(new RowMetaAndData(data.lookupMeta, lookupRow));
+        putLookupRow(
+            row, addLookupValues(getInputRowMeta(), row, lookupRow, add, false, !cacheHit));
+      } catch (HopException e) {
+        if (!handleLookupError(row, e)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasNullKey(Object[] lookupRow) {
+    for (Object value : lookupRow) {
+      if (value == null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Query the return values of keys, a batch of keys at a time.
+   *
+   * @return the converted return values per key found
+   */
+  private Map<RowMetaAndData, Object[]> lookupKeys(Collection<RowMetaAndData> keys)
+      throws HopException {
+    Map<RowMetaAndData, Object[]> found = new HashMap<>();
+    if (keys.isEmpty()) {
+      return found;
+    }
+    if (data.batchStatement == null) {
+      prepareBatchLookup();
+    }
+
+    int nrKeyValues = data.lookupMeta.size();
+    int nrReturnValues = data.returnMeta.size();
+    Iterator<RowMetaAndData> iterator = keys.iterator();
+    while (iterator.hasNext()) {
+      // Fill all the parameters, repeating the last key if there are fewer keys left
+      //
+      Object[] parameters = new Object[data.batchSize * nrKeyValues];
+      Object[] keyData = null;
+      for (int k = 0; k < data.batchSize; k++) {
+        if (iterator.hasNext()) {
+          keyData = iterator.next().getData();
+        }
+        System.arraycopy(keyData, 0, parameters, k * nrKeyValues, nrKeyValues);
+      }
+
+      ResultSet rs = data.db.openQuery(data.batchStatement, data.batchParametersMeta, parameters);
+      try {
+        IRowMeta resultMeta = data.db.getReturnRowMeta();
+        Object[] result;
+        while ((result = data.db.getRow(rs)) != null) {
+          Object[] foundKey = new Object[nrKeyValues];
+          for (int i = 0; i < nrKeyValues; i++) {
+            IValueMeta keyMeta = data.lookupMeta.getValueMeta(i);
+            IValueMeta resultKeyMeta = resultMeta.getValueMeta(i);
+            foundKey[i] =
+                keyMeta.getType() == resultKeyMeta.getType()
+                    ? result[i]
+                    : keyMeta.convertData(resultKeyMeta, result[i]);
+          }
+          RowMetaAndData key = new RowMetaAndData(data.lookupMeta, foundKey);
+
+          // Like a single lookup only the first row of a key is used
+          //
+          if (found.containsKey(key)) {
+            if (meta.getLookup().isFailingOnMultipleResults()) {
+              throw new HopDatabaseException(
+                  BaseMessages.getString(
+                      PKG,
+                      "DatabaseLookup.Exception.MultipleResults",
+                      data.lookupMeta.getString(foundKey)));
+            }
+            continue;
+          }
+          Object[] add = Arrays.copyOfRange(result, nrKeyValues, nrKeyValues + nrReturnValues);
+          convertReturnedValues(resultMeta, nrKeyValues, add);
+          incrementLinesInput();
+          found.put(key, add);
+        }
+      } finally {
+        try {
+          rs.close();
+        } catch (SQLException e) {
+          logError("Unable to close the result of a batch lookup", e);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Prepare a query for a batch of keys: key IN (?, ?, ...) for a single key field or (key1 = ? AND
+   * key2 = ?) OR (...) for several key fields.
+   */
+  private void prepareBatchLookup() throws HopException {
+    DatabaseMeta databaseMeta = data.db.getDatabaseMeta();
+    Lookup lookup = meta.getLookup();
+    List<KeyField> keyFields = lookup.getKeyFields();
+
+    StringBuilder sql = new StringBuilder("SELECT ");
+    for (int i = 0; i < keyFields.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(databaseMeta.quoteField(keyFields.get(i).getTableField()));
+    }
+    for (ReturnValue returnValue : lookup.getReturnValues()) {
+      sql.append(", ").append(databaseMeta.quoteField(returnValue.getTableField()));
+    }
+    sql.append(" FROM ")
+        .append(
+            databaseMeta.getQuotedSchemaTableCombination(
+                this, resolve(meta.getSchemaName()), resolve(meta.getTableName())))
+        .append(" WHERE ");
+
+    if (keyFields.size() == 1) {
+      sql.append(databaseMeta.quoteField(keyFields.get(0).getTableField())).append(" IN (");
+      for (int k = 0; k < data.batchSize; k++) {
+        sql.append(k > 0 ? ", ?" : "?");
+      }
+      sql.append(")");
+    } else {
+      for (int k = 0; k < data.batchSize; k++) {
+        sql.append(k > 0 ? " OR (" : "(");
+        for (int i = 0; i < keyFields.size(); i++) {
+          if (i > 0) {
+            sql.append(" AND ");
+          }
+          sql.append(databaseMeta.quoteField(keyFields.get(i).getTableField())).append(" = ?");
+        }
+        sql.append(")");
+      }
+    }
+
+    if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
+      sql.append(" ORDER BY ").append(lookup.getOrderByClause());
+    }
+
+    data.batchStatement = data.db.prepareSql(sql.toString());
+    data.batchParametersMeta = new RowMeta();
+    for (int k = 0; k < data.batchSize; k++) {
+      data.batchParametersMeta.addRowMeta(data.lookupMeta);
+    }
+  }
+
+  /**
+   * @return the number of rows to look up with one query, 1 if the lookup can't be done in batches
+   */
+  private int getLookupBatchSize() {
+    int batchSize = meta.getLookupBatchSize();
+    if (batchSize <= 1 || (meta.isCached() && meta.isLoadingAllDataInCache())) {
+      return 1;
+    }
+    for (int i = 0; i < data.conditions.length; i++) {
+      if (data.conditions[i] != DatabaseLookupMeta.CONDITION_EQ || data.keynrs[i] < 0) {
+        logBasic(BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchLookupNotSupported"));
+        return 1;
+      }
+    }
+    batchSize = Math.min(batchSize, MAX_LOOKUP_BATCH_SIZE);
+
+    // Stay below the maximum number of parameters of a statement
+    //
+    int maxParameters = data.db.getDatabaseMeta().getMaxPreparedStatementParameters();
+    if (maxParameters > 0) {
+      batchSize = Math.min(batchSize, Math.max(1, maxParameters / data.conditions.length));
+    }
+    return batchSize;
+  }
+
+  /** Pass a row with the looked up values on, nothing happens for a null row. */
+  private void putLookupRow(Object[] row, Object[] outputRow) throws HopException {
+    if (outputRow != null) {
+      // copy row to output rowset(s)
+      putRow(data.outputRowMeta, outputRow);
+
+      if (log.isRowLevel()) {
+        logRowlevel(
+            BaseMessages.getString(PKG, "DatabaseLookup.Log.WroteRowToNextTransform")
+                + getInputRowMeta().getString(row));
+      }
+      if (checkFeedback(getLinesRead())) {
+        logBasic("linenr " + getLinesRead());
+      }
+    }
+  }
+
+  /**
+   * Send a row which couldn't be looked up to error handling or stop the transform.
+   *
+   * @return false if the transform needs to stop
+   */
+  private boolean handleLookupError(Object[] row, HopException e) throws HopException {
+    if (getTransformMeta().isDoingErrorHandling()) {
+      putError(getInputRowMeta(), row, 1, e.getMessage(), null, "DBLOOKUPD001");
+      return true;
+    }
+    logError(
+        BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
+            + e.getMessage());
+    setErrors(1);
+    stopAll();
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
   // visible for testing purposes
   void determineFieldsTypesQueryingDb() throws HopException {
     List<KeyField> keyFields = meta.getLookup().getKeyFields();
@@ -324,6 +666,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public boolean processRow() throws HopException {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      if (data.batchRows != null && !data.batchRows.isEmpty() && !lookupBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -416,7 +761,12 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
 
       if (meta.isCached()) {
-        data.cache = DefaultCache.newCache(data, meta.getCacheSize());
+        if (data.allEquals && !meta.isLoadingAllDataInCache()) {
+          data.cache =
+              new LruCache(meta.getCacheSize(), meta.getCacheMemorySize() * 1024L * 1024L);
+        } else {
+          data.cache = DefaultCache.newCache(data, meta.getCacheSize());
+        }
       }
 
       determineFieldsTypesQueryingDb();
@@ -443,6 +793,13 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       if (meta.isCached() && meta.isLoadingAllDataInCache()) {
         loadAllTableDataIntoTheCache();
       }
+
+      // Look up the keys of several rows at once?
+      //
+      data.batchSize = getLookupBatchSize();
+      if (data.batchSize > 1) {
+        data.batchRows = new ArrayList<>(data.batchSize);
+      }
     }
 
     if (log.isRowLevel()) {
@@ -451,35 +808,19 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
               + getInputRowMeta().getString(r));
     }
 
+    if (data.batchRows != null) {
+      data.batchRows.add(r);
+      if (data.batchRows.size() >= data.batchSize) {
+        return lookupBatch();
+      }
+      return true;
+    }
+
     try {
       // add new lookup values to the row
-      Object[] outputRow = lookupValues(getInputRowMeta(), r);
-
-      if (outputRow != null) {
-        // copy row to output rowset(s)
-        putRow(data.outputRowMeta, outputRow);
-
-        if (log.isRowLevel()) {
-          logRowlevel(
-              BaseMessages.getString(PKG, "DatabaseLookup.Log.WroteRowToNextTransform")
-                  + getInputRowMeta().getString(r));
-        }
-        if (checkFeedback(getLinesRead())) {
-          logBasic("linenr " + getLinesRead());
-        }
-      }
+      putLookupRow(r, lookupValues(getInputRowMeta(), r));
     } catch (HopException e) {
-      if (getTransformMeta().isDoingErrorHandling()) {
-        putError(getInputRowMeta(), r, 1, e.getMessage(), null, "DBLOOKUPD001");
-      } else {
-        logError(
-            BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
-                + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
-      }
+      return handleLookupError(r, e);
     }
 
     return true;
@@ -531,7 +872,10 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       //
       List<Object[]> rows = db.getRows(sql, 0);
       if (rows != null && !rows.isEmpty()) {
-        if (data.allEquals) {
+        // Keys with IS NULL conditions are kept in the default cache,
+        // the read-only cache handles everything else, with a hash index when all are "="
+        //
+        if (data.allEquals && !isAllConditionsEqual()) {
           putToDefaultCache(db, rows);
         } else {
           putToReadOnlyCache(db, rows);
@@ -546,6 +890,15 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     }
   }
 
+  private boolean isAllConditionsEqual() {
+    for (int condition : data.conditions) {
+      if (condition != DatabaseLookupMeta.CONDITION_EQ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void putToDefaultCache(Database db, List<Object[]> rows) {
     final int keysAmount = meta.getLookup().getKeyFields().size();
     IRowMeta prototype = copyValueMetasFrom(db.getReturnRowMeta(), keysAmount);
@@ -582,7 +935,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return result;
   }
 
-  private void putToReadOnlyCache(Database db, List<Object[]> rows) {
+  private void putToReadOnlyCache(Database db, List<Object[]> rows) throws HopException {
     ReadAllCache.Builder cacheBuilder = new ReadAllCache.Builder(data, rows.size());
 
     // all keys have the same row meta,
@@ -673,9 +1026,21 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public void dispose() {
 
     if (data.db != null) {
+      if (data.batchStatement != null) {
+        try {
+          data.db.closePreparedStatement(data.batchStatement);
+        } catch (HopDatabaseException e) {
+          logError("Unable to close the batch lookup statement", e);
+        }
+        data.batchStatement = null;
+      }
       data.db.disconnect();
     }
 
+    if (meta.isCached()) {
+      logCacheStatistics();
+    }
+
     // Recover memory immediately, allow in-memory data to be garbage collected
     //
     data.cache = null;
@@ -684,6 +1049,33 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     super.dispose();
   }
 
+  /** Report the use of the cache in the log and to the metrics of the transform. */
+  private void logCacheStatistics() {
+    long evictions = 0L;
+    int rows = 0;
+    long bytes = 0L;
+    if (data.cache instanceof LruCache) {
+      LruCache lruCache = (LruCache) data.cache;
+      evictions = lruCache.getEvictions();
+      rows = lruCache.size();
+      bytes = lruCache.getBytes();
+    }
+    log.snap(METRIC_CACHE_HITS, data.cacheHits);
+    log.snap(METRIC_CACHE_MISSES, data.cacheMisses);
+    log.snap(METRIC_CACHE_EVICTIONS, evictions);
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "DatabaseLookup.Log.CacheStatistics",
+              Long.toString(data.cacheHits),
+              Long.toString(data.cacheMisses),
+              Long.toString(evictions),
+              Integer.toString(rows),
+              Long.toString(bytes)));
+    }
+  }
+
   /*
    * this method is required in order to
    * provide ability for unit tests to
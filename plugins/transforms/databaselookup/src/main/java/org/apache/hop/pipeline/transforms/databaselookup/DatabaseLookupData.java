@@ -23,6 +23,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 
 public class DatabaseLookupData extends BaseTransformData implements ITransformData {
@@ -45,6 +46,20 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
   public String[] returnTrimTypes;
   public List<Integer> trimIndexes;
 
+  /** The number of rows to look up with one query, 1 to look up row by row */
+  public int batchSize;
+
+  /** The rows waiting for the keys to be looked up */
+  public List<Object[]> batchRows;
+
+  public PreparedStatement batchStatement;
+  public IRowMeta batchParametersMeta;
+
+  /** The number of lookups answered by the cache and the number of lookups which were not */
+  public long cacheHits;
+
+  public long cacheMisses;
+
   public DatabaseLookupData() {
     super();
 
@@ -74,6 +74,12 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
   private Label wlCachesize;
   private Text wCachesize;
 
+  private Label wlCacheMemorySize;
+  private Text wCacheMemorySize;
+
+  private Label wlBatchSize;
+  private Text wBatchSize;
+
   private TableView wKey;
 
   private TextVar wSchema;
@@ -265,6 +271,29 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     fdCachesize.top = new FormAttachment(wCache, margin);
     wCachesize.setLayoutData(fdCachesize);
 
+    // Cache memory size line
+    wlCacheMemorySize = new Label(shell, SWT.RIGHT);
+    wlCacheMemorySize.setText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheMemorySize.Label"));
+    wlCacheMemorySize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheMemorySize.Tooltip"));
+    PropsUi.setLook(wlCacheMemorySize);
+    FormData fdlCacheMemorySize = new FormData();
+    fdlCacheMemorySize.left = new FormAttachment(0, 0);
+    fdlCacheMemorySize.right = new FormAttachment(middle, -margin);
+    fdlCacheMemorySize.top = new FormAttachment(wCachesize, margin);
+    wlCacheMemorySize.setLayoutData(fdlCacheMemorySize);
+    wCacheMemorySize = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wCacheMemorySize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheMemorySize.Tooltip"));
+    PropsUi.setLook(wCacheMemorySize);
+    wCacheMemorySize.addModifyListener(lsMod);
+    FormData fdCacheMemorySize = new FormData();
+    fdCacheMemorySize.left = new FormAttachment(middle, 0);
+    fdCacheMemorySize.right = new FormAttachment(100, 0);
+    fdCacheMemorySize.top = new FormAttachment(wCachesize, margin);
+    wCacheMemorySize.setLayoutData(fdCacheMemorySize);
+
     // ICache : Load all?
     wlCacheLoadAll = new Label(shell, SWT.RIGHT);
     wlCacheLoadAll.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheLoadAll.Label"));
@@ -272,7 +301,7 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     FormData fdlCacheLoadAll = new FormData();
     fdlCacheLoadAll.left = new FormAttachment(0, 0);
     fdlCacheLoadAll.right = new FormAttachment(middle, -margin);
-    fdlCacheLoadAll.top = new FormAttachment(wCachesize, margin);
+    fdlCacheLoadAll.top = new FormAttachment(wCacheMemorySize, margin);
     wlCacheLoadAll.setLayoutData(fdlCacheLoadAll);
     wCacheLoadAll = new Button(shell, SWT.CHECK);
     PropsUi.setLook(wCacheLoadAll);
@@ -289,12 +318,34 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
           }
         });
 
+    // Lookup batch size line
+    wlBatchSize = new Label(shell, SWT.RIGHT);
+    wlBatchSize.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Label"));
+    wlBatchSize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Tooltip"));
+    PropsUi.setLook(wlBatchSize);
+    FormData fdlBatchSize = new FormData();
+    fdlBatchSize.left = new FormAttachment(0, 0);
+    fdlBatchSize.right = new FormAttachment(middle, -margin);
+    fdlBatchSize.top = new FormAttachment(wCacheLoadAll, margin);
+    wlBatchSize.setLayoutData(fdlBatchSize);
+    wBatchSize = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBatchSize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Tooltip"));
+    PropsUi.setLook(wBatchSize);
+    wBatchSize.addModifyListener(lsMod);
+    FormData fdBatchSize = new FormData();
+    fdBatchSize.left = new FormAttachment(middle, 0);
+    fdBatchSize.right = new FormAttachment(100, 0);
+    fdBatchSize.top = new FormAttachment(wlBatchSize, 0, SWT.CENTER);
+    wBatchSize.setLayoutData(fdBatchSize);
+
     Label wlKey = new Label(shell, SWT.NONE);
     wlKey.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.Keys.Label"));
     PropsUi.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wCacheLoadAll, margin);
+    fdlKey.top = new FormAttachment(wBatchSize, margin);
     wlKey.setLayoutData(fdlKey);
 
     int nrKeyCols = 4;
@@ -569,8 +620,12 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
 
     wCachesize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wlCachesize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wCacheMemorySize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wlCacheMemorySize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wCacheLoadAll.setEnabled(wCache.getSelection());
     wlCacheLoadAll.setEnabled(wCache.getSelection());
+    wBatchSize.setEnabled(!(wCache.getSelection() && wCacheLoadAll.getSelection()));
+    wlBatchSize.setEnabled(!(wCache.getSelection() && wCacheLoadAll.getSelection()));
     wFailMultiple.setEnabled(!wCache.getSelection());
     wlFailMultiple.setEnabled(!wCache.getSelection());
   }
@@ -581,7 +636,9 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
 
     wCache.setSelection(input.isCached());
     wCachesize.setText("" + input.getCacheSize());
+    wCacheMemorySize.setText("" + input.getCacheMemorySize());
     wCacheLoadAll.setSelection(input.isLoadingAllDataInCache());
+    wBatchSize.setText("" + input.getLookupBatchSize());
 
     Lookup lookup = input.getLookup();
 
@@ -644,7 +701,9 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
 
     input.setCached(wCache.getSelection());
     input.setCacheSize(Const.toInt(wCachesize.getText(), 0));
+    input.setCacheMemorySize(Const.toInt(wCacheMemorySize.getText(), 0));
     input.setLoadingAllDataInCache(wCacheLoadAll.getSelection());
+    input.setLookupBatchSize(Const.toInt(wBatchSize.getText(), 0));
 
     for (TableItem item : wKey.getNonEmptyItems()) {
       KeyField keyField = new KeyField();
@@ -93,12 +93,24 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheSize")
   private int cacheSize;
 
+  /** Limit the memory used by the cache to this number of megabytes */
+  @HopMetadataProperty(
+      key = "cache_memory_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheMemorySize")
+  private int cacheMemorySize;
+
   /** Flag to make it load all data into the cache at startup */
   @HopMetadataProperty(
       key = "cache_load_all",
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheLoadAll")
   private boolean loadingAllDataInCache;
 
+  /** Look up the keys of this number of rows with one query */
+  @HopMetadataProperty(
+      key = "lookup_batch_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.LookupBatchSize")
+  private int lookupBatchSize;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
@@ -109,7 +121,9 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
   public DatabaseLookupMeta(DatabaseLookupMeta m) {
     this.cached = m.cached;
     this.cacheSize = m.cacheSize;
+    this.cacheMemorySize = m.cacheMemorySize;
     this.loadingAllDataInCache = m.loadingAllDataInCache;
+    this.lookupBatchSize = m.lookupBatchSize;
     this.lookup = new Lookup(m.lookup);
   }
 
@@ -542,6 +556,22 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.cacheSize = cacheSize;
   }
 
+  /**
+   * Gets cacheMemorySize
+   *
+   * @return value of cacheMemorySize
+   */
+  public int getCacheMemorySize() {
+    return cacheMemorySize;
+  }
+
+  /**
+   * @param cacheMemorySize The maximum size of the cache in megabytes, 0 for no limit
+   */
+  public void setCacheMemorySize(int cacheMemorySize) {
+    this.cacheMemorySize = cacheMemorySize;
+  }
+
   /**
    * Gets loadingAllDataInCache
    *
@@ -558,6 +588,22 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.loadingAllDataInCache = loadingAllDataInCache;
   }
 
+  /**
+   * Gets lookupBatchSize
+   *
+   * @return value of lookupBatchSize
+   */
+  public int getLookupBatchSize() {
+    return lookupBatchSize;
+  }
+
+  /**
+   * @param lookupBatchSize The number of rows to look up with one query, 0 or 1 for one per row
+   */
+  public void setLookupBatchSize(int lookupBatchSize) {
+    this.lookupBatchSize = lookupBatchSize;
+  }
+
   /**
    * Gets lookup
    *
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of lookup results for "=" conditions which removes the least recently used rows when it
+ * holds more rows or takes more memory than allowed. The keys are kept in their serialized form, a
+ * single byte array per key, which is a lot smaller than a {@code RowMetaAndData}.
+ */
+public class LruCache implements DatabaseLookupData.ICache {
+
+  /** The estimated size of a map entry with its key object and array headers */
+  private static final int ENTRY_OVERHEAD = 96;
+
+  private final int maxRows;
+  private final long maxBytes;
+  private final LinkedHashMap<CacheKey, Object[]> map;
+
+  private long bytes;
+  private long evictions;
+
+  /**
+   * @param maxRows the maximum number of rows in the cache, 0 for no limit
+   * @param maxBytes the maximum estimated memory use of the cache, 0 for no limit
+   */
+  public LruCache(int maxRows, long maxBytes) {
+    this.maxRows = maxRows;
+    this.maxBytes = maxBytes;
+    this.map = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  @Override
+  public Object[] getRowFromCache(IRowMeta lookupMeta, Object[] lookupRow) throws HopException {
+    return map.get(new CacheKey(RowMeta.extractData(lookupMeta, lookupRow)));
+  }
+
+  @Override
+  public void storeRowInCache(
+      DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add) {
+    CacheKey key = new CacheKey(RowMeta.extractData(lookupMeta, lookupRow));
+    Object[] previous = map.put(key, add);
+    if (previous != null) {
+      bytes -= getEntrySize(key, previous);
+    }
+    bytes += getEntrySize(key, add);
+
+    // Remove the least recently used rows, but always keep the one we just stored
+    //
+    Iterator<Map.Entry<CacheKey, Object[]>> iterator = map.entrySet().iterator();
+    while (map.size() > 1
+        && ((maxRows > 0 && map.size() > maxRows) || (maxBytes > 0 && bytes > maxBytes))) {
+      Map.Entry<CacheKey, Object[]> eldest = iterator.next();
+      bytes -= getEntrySize(eldest.getKey(), eldest.getValue());
+      iterator.remove();
+      evictions++;
+    }
+  }
+
+  /**
+   * @return the number of rows in the cache
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * @return the estimated number of bytes used by the rows in the cache
+   */
+  public long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @return the number of rows removed to stay within the limits
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  private static long getEntrySize(CacheKey key, Object[] row) {
+    long size = ENTRY_OVERHEAD + key.bytes.length + 8L * row.length;
+    for (Object value : row) {
+      size += getValueSize(value);
+    }
+    return size;
+  }
+
+  /** A rough estimate of the memory taken by a value of the types used in rows */
+  static long getValueSize(Object value) {
+    if (value == null) {
+      return 0L;
+    }
+    if (value instanceof String) {
+      return 40L + ((String) value).length();
+    }
+    if (value instanceof byte[]) {
+      return 16L + ((byte[]) value).length;
+    }
+    if (value instanceof BigDecimal) {
+      return 32L + ((BigDecimal) value).unscaledValue().bitLength() / 8;
+    }
+    if (value instanceof Date) {
+      return 24L;
+    }
+    return 16L;
+  }
+
+  private static final class CacheKey {
+    private final byte[] bytes;
+    private final int hashCode;
+
+    CacheKey(byte[] bytes) {
+      this.bytes = bytes;
+      this.hashCode = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof CacheKey && Arrays.equals(bytes, ((CacheKey) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
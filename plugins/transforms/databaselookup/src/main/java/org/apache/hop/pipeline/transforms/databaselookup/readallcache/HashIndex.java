@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup.readallcache;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * A hash index over all the key columns, used by {@linkplain ReadAllCache} when every condition is
+ * "=". A single Integer key is kept in a primitive array, other keys are compared with their value
+ * metadata. Only the first row of a key is indexed, like the first matching row is returned by the
+ * sorted indexes.
+ */
+class HashIndex {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private final IRowMeta keysMeta;
+  private final int keysAmount;
+  private final Object[][] keys;
+  private final boolean isIntegerKey;
+
+  // open addressing: the row number + 1 in every used slot, with its hash code or Integer key
+  private final int[] rows;
+  private final int[] hashCodes;
+  private final long[] integerKeys;
+  private final int mask;
+
+  private int nullRow = -1;
+
+  /**
+   * Create a hash index if the key types allow it: hash codes need to agree with comparing values.
+   *
+   * @return the index or null if the keys can't be hashed
+   */
+  static HashIndex create(IRowMeta keysMeta, int keysAmount, Object[][] keys)
+      throws HopException {
+    for (int i = 0; i < keysAmount; i++) {
+      if (!isHashable(keysMeta.getValueMeta(i))) {
+        return null;
+      }
+    }
+    return new HashIndex(keysMeta, keysAmount, keys);
+  }
+
+  private static boolean isHashable(IValueMeta valueMeta) {
+    if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return false;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+      case IValueMeta.TYPE_DATE:
+      case IValueMeta.TYPE_BOOLEAN:
+        return true;
+      case IValueMeta.TYPE_STRING:
+        return valueMeta.isCollatorDisabled()
+            && !valueMeta.isCaseInsensitive()
+            && !valueMeta.isIgnoreWhitespace();
+      default:
+        return false;
+    }
+  }
+
+  private HashIndex(IRowMeta keysMeta, int keysAmount, Object[][] keys) throws HopException {
+    this.keysMeta = keysMeta;
+    this.keysAmount = keysAmount;
+    this.keys = keys;
+    this.isIntegerKey =
+        keysAmount == 1 && keysMeta.getValueMeta(0).getType() == IValueMeta.TYPE_INTEGER;
+
+    int size = 16;
+    while (size * LOAD_FACTOR < keys.length) {
+      size <<= 1;
+    }
+    rows = new int[size];
+    hashCodes = isIntegerKey ? null : new int[size];
+    integerKeys = isIntegerKey ? new long[size] : null;
+    mask = size - 1;
+
+    for (int row = 0; row < keys.length; row++) {
+      add(row);
+    }
+  }
+
+  private void add(int row) throws HopException {
+    Object[] key = keys[row];
+    if (isIntegerKey) {
+      if (key[0] == null) {
+        if (nullRow < 0) {
+          nullRow = row;
+        }
+        return;
+      }
+      long value = (Long) key[0];
+      int slot = findSlot(value);
+      if (rows[slot] == 0) {
+        rows[slot] = row + 1;
+        integerKeys[slot] = value;
+      }
+    } else {
+      int hashCode = hashCode(keysMeta, key);
+      int slot = findSlot(hashCode, keysMeta, key);
+      if (rows[slot] == 0) {
+        rows[slot] = row + 1;
+        hashCodes[slot] = hashCode;
+      }
+    }
+  }
+
+  /**
+   * @return true if the lookup values have the same types as the keys, otherwise the hash codes
+   *     can't be compared
+   */
+  boolean isUsableFor(IRowMeta lookupMeta) {
+    if (lookupMeta.size() < keysAmount) {
+      return false;
+    }
+    for (int i = 0; i < keysAmount; i++) {
+      IValueMeta lookupValueMeta = lookupMeta.getValueMeta(i);
+      if (lookupValueMeta.getType() != keysMeta.getValueMeta(i).getType()
+          || lookupValueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of the first row with the key or -1 if there is none
+   */
+  int find(IRowMeta lookupMeta, Object[] lookupRow) throws HopException {
+    int slot;
+    if (isIntegerKey) {
+      if (lookupRow[0] == null) {
+        return nullRow;
+      }
+      slot = findSlot((Long) lookupRow[0]);
+    } else {
+      slot = findSlot(hashCode(lookupMeta, lookupRow), lookupMeta, lookupRow);
+    }
+    return rows[slot] - 1;
+  }
+
+  /** Find the slot of an Integer key or the empty slot to put it in */
+  private int findSlot(long value) {
+    int slot = mix(Long.hashCode(value)) & mask;
+    while (rows[slot] != 0 && integerKeys[slot] != value) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Find the slot of a key or the empty slot to put it in */
+  private int findSlot(int hashCode, IRowMeta rowMeta, Object[] row) throws HopException {
+    int slot = mix(hashCode) & mask;
+    while (rows[slot] != 0
+        && (hashCodes[slot] != hashCode || !equalsKey(rows[slot] - 1, rowMeta, row))) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private boolean equalsKey(int row, IRowMeta rowMeta, Object[] values) throws HopException {
+    Object[] key = keys[row];
+    for (int i = 0; i < keysAmount; i++) {
+      if (keysMeta.getValueMeta(i).compare(key[i], rowMeta.getValueMeta(i), values[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int hashCode(IRowMeta rowMeta, Object[] row) throws HopException {
+    int hashCode = 1;
+    for (int i = 0; i < keysAmount; i++) {
+      hashCode = 31 * hashCode + rowMeta.getValueMeta(i).hashCode(row[i]);
+    }
+    return hashCode;
+  }
+
+  private static int mix(int hashCode) {
+    hashCode *= 0x9E3779B9;
+    return hashCode ^ (hashCode >>> 16);
+  }
+}
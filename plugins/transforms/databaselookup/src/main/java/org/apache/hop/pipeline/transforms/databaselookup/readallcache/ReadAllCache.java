@@ -43,19 +43,43 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
 
   private final Object[][] data;
 
-  private final Index[] indexes;
+  // when all conditions are "=" the rows are found with a hash index,
+  // the other indexes are only created if the lookup values can't be hashed the same way
+  private final HashIndex hashIndex;
+
+  private Index[] indexes;
 
   // this is an array of pairs (column; condition),
   // such structure was chosen not to introduce separate data-container class
-  private final int[][] otherConditions;
+  private int[][] otherConditions;
 
   ReadAllCache(
-      DatabaseLookupData transformData, Object[][] keys, IRowMeta keysMeta, Object[][] data) {
+      DatabaseLookupData transformData, Object[][] keys, IRowMeta keysMeta, Object[][] data)
+      throws HopException {
     this.transformData = transformData;
     this.keys = keys;
     this.keysMeta = keysMeta;
     this.data = data;
 
+    hashIndex =
+        isAllEquals(transformData.conditions)
+            ? HashIndex.create(keysMeta, transformData.conditions.length, keys)
+            : null;
+    if (hashIndex == null) {
+      createIndexes();
+    }
+  }
+
+  private static boolean isAllEquals(int[] conditions) {
+    for (int condition : conditions) {
+      if (condition != DatabaseLookupMeta.CONDITION_EQ) {
+        return false;
+      }
+    }
+    return conditions.length > 0;
+  }
+
+  private void createIndexes() {
     Object[] pair = createIndexes(transformData, keysMeta, keys);
     indexes = (Index[]) pair[0];
     otherConditions = (int[][]) pair[1];
@@ -123,6 +147,16 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
       return null;
     }
 
+    if (hashIndex != null) {
+      if (hashIndex.isUsableFor(lookupMeta)) {
+        int row = hashIndex.find(lookupMeta, lookupRow);
+        return row < 0 ? null : data[row];
+      }
+      if (indexes == null) {
+        createIndexes();
+      }
+    }
+
     SearchingContext context = new SearchingContext();
     context.init(keys.length);
 
@@ -221,7 +255,7 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
       current++;
     }
 
-    public ReadAllCache build() {
+    public ReadAllCache build() throws HopException {
       return new ReadAllCache(transformData, keys, keysMeta, data);
     }
   }
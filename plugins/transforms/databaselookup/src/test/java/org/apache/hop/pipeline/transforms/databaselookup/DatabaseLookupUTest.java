@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.databaselookup;
 
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.database.Database;
@@ -36,6 +37,7 @@ import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
@@ -52,14 +54,17 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -74,7 +79,9 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DatabaseLookupUTest {
@@ -348,17 +355,25 @@ public class DatabaseLookupUTest {
 
   @Test
   public void createsReadOnlyCache_WhenReadAll_AndNotAllEquals() throws Exception {
-    DatabaseLookupData data = getCreatedData(false);
+    DatabaseLookupData data = getCreatedData(false, DatabaseLookupMeta.CONDITION_LT);
     assertThat(data.cache, is(instanceOf(ReadAllCache.class)));
   }
 
   @Test
-  public void createsReadDefaultCache_WhenReadAll_AndAllEquals() throws Exception {
-    DatabaseLookupData data = getCreatedData(true);
+  public void createsReadOnlyCache_WhenReadAll_AndAllEquals() throws Exception {
+    DatabaseLookupData data = getCreatedData(true, DatabaseLookupMeta.CONDITION_EQ);
+    assertThat(data.cache, is(instanceOf(ReadAllCache.class)));
+    assertArrayEquals(
+        new Object[0], data.cache.getRowFromCache(data.lookupMeta, new Object[] {1L}));
+  }
+
+  @Test
+  public void createsReadDefaultCache_WhenReadAll_AndIsNull() throws Exception {
+    DatabaseLookupData data = getCreatedData(true, DatabaseLookupMeta.CONDITION_IS_NULL);
     assertThat(data.cache, is(instanceOf(DefaultCache.class)));
   }
 
-  private DatabaseLookupData getCreatedData(boolean allEquals) throws Exception {
+  private DatabaseLookupData getCreatedData(boolean allEquals, int condition) throws Exception {
     Database db = mock(Database.class);
     when(db.getRows(anyString(), anyInt()))
         .thenReturn(Collections.singletonList(new Object[] {1L}));
@@ -375,13 +390,8 @@ public class DatabaseLookupUTest {
 
     data.db = db;
     data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
-    if (allEquals) {
-      data.allEquals = true;
-      data.conditions = new int[] {DatabaseLookupMeta.CONDITION_EQ};
-    } else {
-      data.allEquals = false;
-      data.conditions = new int[] {DatabaseLookupMeta.CONDITION_LT};
-    }
+    data.allEquals = allEquals;
+    data.conditions = new int[] {condition};
     transform.processRow();
 
     return data;
@@ -452,6 +462,231 @@ public class DatabaseLookupUTest {
     assertNotNull(data.cache.getRowFromCache(data.lookupMeta, new Object[] {2L}));
   }
 
+  /** The keys of several rows are looked up with one query, the rows keep their order. */
+  @Test
+  public void testLookupInBatches() throws Exception {
+    NoneDatabaseMeta genericMeta = new NoneDatabaseMeta();
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ResultSet rs = mock(ResultSet.class);
+    Database db = mock(Database.class);
+    when(db.getDatabaseMeta()).thenReturn(dbMeta);
+    when(db.prepareSql(anyString())).thenReturn(ps);
+    when(db.openQuery(eq(ps), any(IRowMeta.class), any(Object[].class))).thenReturn(rs);
+    RowMeta resultMeta = new RowMeta();
+    resultMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    resultMeta.addValueMeta(new ValueMetaString("name"));
+    when(db.getReturnRowMeta()).thenReturn(resultMeta);
+    when(db.getRow(rs))
+        .thenReturn(new Object[] {2L, "two"}, new Object[] {1L, "one"}, null)
+        .thenReturn(new Object[] {1L, "one"}, null);
+
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setLookupBatchSize(3);
+    meta.getLookup().getKeyFields().add(new KeyField("key", "", "=", ID_FIELD));
+    meta.getLookup()
+        .getReturnValues()
+        .add(
+            new ReturnValue(
+                "name",
+                "name",
+                "",
+                "String",
+                ValueMetaString.getTrimTypeCode(IValueMeta.TRIM_TYPE_NONE)));
+    DatabaseLookupData data = new DatabaseLookupData();
+
+    DatabaseLookup transform = spyLookup(mockHelper, meta, data, db, dbMeta);
+    when(transform.getPipelineMeta().findDatabase(any(String.class), any(IVariables.class)))
+        .thenReturn(dbMeta);
+    doAnswer(
+            invocation -> {
+              data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
+              return null;
+            })
+        .when(transform)
+        .determineFieldsTypesQueryingDb();
+    assertTrue(transform.init());
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("key"));
+    IRowSet input = new BlockingRowSet(10);
+    for (long key : new long[] {1L, 3L, 2L, 1L}) {
+      input.putRow(inputRowMeta, new Object[] {key});
+    }
+    input.setDone();
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>());
+    List<Object[]> output = new ArrayList<>();
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(Arrays.copyOf(row, 2));
+          }
+        });
+
+    while (transform.processRow()) {
+      // keep going
+    }
+
+    assertEquals(4, output.size());
+    assertArrayEquals(new Object[] {1L, "one"}, output.get(0));
+    assertArrayEquals(new Object[] {3L, null}, output.get(1));
+    assertArrayEquals(new Object[] {2L, "two"}, output.get(2));
+    assertArrayEquals(new Object[] {1L, "one"}, output.get(3));
+
+    // The last key is repeated to fill the parameters of the second query
+    verify(db).openQuery(ps, data.batchParametersMeta, new Object[] {1L, 3L, 2L});
+    verify(db).openQuery(ps, data.batchParametersMeta, new Object[] {1L, 1L, 1L});
+    verify(db, never()).getLookup(anyBoolean());
+  }
+
+  /**
+   * Storing the rows read for a batch evicts the rows found in the cache for the same batch, those
+   * rows still get their cached values.
+   */
+  @Test
+  public void testLookupInBatchesWithCacheSmallerThanBatch() throws Exception {
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ResultSet rs = mock(ResultSet.class);
+    Database db = mockBatchDatabase(ps, rs);
+    when(db.getRow(rs))
+        .thenReturn(new Object[] {2L, "two"}, null)
+        .thenReturn(new Object[] {3L, "three"}, null);
+
+    DatabaseLookupMeta meta = createBatchMeta(2);
+    meta.setCached(true);
+    meta.setCacheSize(1);
+    DatabaseLookupData data = new DatabaseLookupData();
+    DatabaseLookup transform = initBatchLookup(meta, data, db, IValueMeta.TYPE_INTEGER);
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("key"));
+    List<Object[]> output = runLookup(transform, inputRowMeta, 2L, 2L, 3L, 2L);
+
+    assertEquals(4, output.size());
+    assertArrayEquals(new Object[] {2L, "two"}, output.get(0));
+    assertArrayEquals(new Object[] {2L, "two"}, output.get(1));
+    assertArrayEquals(new Object[] {3L, "three"}, output.get(2));
+    assertArrayEquals(new Object[] {2L, "two"}, output.get(3));
+    verify(db).openQuery(ps, data.batchParametersMeta, new Object[] {2L, 2L});
+    verify(db).openQuery(ps, data.batchParametersMeta, new Object[] {3L, 3L});
+  }
+
+  /** A key which can't be converted only sends its own row to error handling. */
+  @Test
+  public void testLookupInBatchesConversionErrorOfOneRow() throws Exception {
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ResultSet rs = mock(ResultSet.class);
+    Database db = mockBatchDatabase(ps, rs);
+    when(db.getRow(rs)).thenReturn(new Object[] {1L, "one"}, new Object[] {2L, "two"}, null);
+
+    DatabaseLookupData data = new DatabaseLookupData();
+    DatabaseLookup transform =
+        initBatchLookup(createBatchMeta(3), data, db, IValueMeta.TYPE_INTEGER);
+    when(mockHelper.transformMeta.isDoingErrorHandling()).thenReturn(true);
+    doNothing()
+        .when(transform)
+        .putError(
+            any(IRowMeta.class), any(Object[].class), anyLong(), any(), any(), anyString());
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("key"));
+    List<Object[]> output = runLookup(transform, inputRowMeta, "1", "x", "2");
+
+    assertEquals(2, output.size());
+    assertArrayEquals(new Object[] {"1", "one"}, output.get(0));
+    assertArrayEquals(new Object[] {"2", "two"}, output.get(1));
+    verify(transform)
+        .putError(
+            any(IRowMeta.class),
+            eq(new Object[] {"x"}),
+            eq(1L),
+            any(),
+            any(),
+            eq("DBLOOKUPD001"));
+    verify(db).openQuery(ps, data.batchParametersMeta, new Object[] {1L, 2L, 2L});
+  }
+
+  private static Database mockBatchDatabase(PreparedStatement ps, ResultSet rs) throws Exception {
+    NoneDatabaseMeta genericMeta = new NoneDatabaseMeta();
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+
+    Database db = mock(Database.class);
+    when(db.getDatabaseMeta()).thenReturn(dbMeta);
+    when(db.prepareSql(anyString())).thenReturn(ps);
+    when(db.openQuery(eq(ps), any(IRowMeta.class), any(Object[].class))).thenReturn(rs);
+    RowMeta resultMeta = new RowMeta();
+    resultMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    resultMeta.addValueMeta(new ValueMetaString("name"));
+    when(db.getReturnRowMeta()).thenReturn(resultMeta);
+    return db;
+  }
+
+  private static DatabaseLookupMeta createBatchMeta(int batchSize) {
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setLookupBatchSize(batchSize);
+    meta.getLookup().getKeyFields().add(new KeyField("key", "", "=", ID_FIELD));
+    meta.getLookup()
+        .getReturnValues()
+        .add(
+            new ReturnValue(
+                "name",
+                "name",
+                "",
+                "String",
+                ValueMetaString.getTrimTypeCode(IValueMeta.TRIM_TYPE_NONE)));
+    return meta;
+  }
+
+  private DatabaseLookup initBatchLookup(
+      DatabaseLookupMeta meta, DatabaseLookupData data, Database db, int keyType)
+      throws Exception {
+    DatabaseMeta dbMeta = db.getDatabaseMeta();
+    DatabaseLookup transform = spyLookup(mockHelper, meta, data, db, dbMeta);
+    when(transform.getPipelineMeta().findDatabase(any(String.class), any(IVariables.class)))
+        .thenReturn(dbMeta);
+    doAnswer(
+            invocation -> {
+              data.keytypes = new int[] {keyType};
+              return null;
+            })
+        .when(transform)
+        .determineFieldsTypesQueryingDb();
+    assertTrue(transform.init());
+    return transform;
+  }
+
+  /** Process the keys and give the key and first return value of the output rows */
+  private static List<Object[]> runLookup(
+      DatabaseLookup transform, IRowMeta inputRowMeta, Object... keys) throws Exception {
+    IRowSet input = new BlockingRowSet(keys.length + 1);
+    for (Object key : keys) {
+      input.putRow(inputRowMeta, new Object[] {key});
+    }
+    input.setDone();
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>());
+    List<Object[]> output = new ArrayList<>();
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(Arrays.copyOf(row, 2));
+          }
+        });
+
+    while (transform.processRow()) {
+      // keep going
+    }
+    return output;
+  }
+
   public class MockDatabaseLookup extends DatabaseLookup {
     public MockDatabaseLookup(
         TransformMeta transformMeta,
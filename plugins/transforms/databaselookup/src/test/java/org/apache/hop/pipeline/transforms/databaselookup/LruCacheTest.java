@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LruCacheTest {
+
+  private final DatabaseLookupMeta meta = new DatabaseLookupMeta();
+
+  @Test
+  public void testLeastRecentlyUsedRowIsRemoved() throws Exception {
+    IRowMeta keyMeta = keyMeta();
+    LruCache cache = new LruCache(2, 0L);
+    cache.storeRowInCache(meta, keyMeta, new Object[] {1L, "a"}, new Object[] {"one"});
+    cache.storeRowInCache(meta, keyMeta, new Object[] {2L, "b"}, new Object[] {"two"});
+
+    // Using the first row makes the second one the least recently used
+    //
+    assertArrayEquals(
+        new Object[] {"one"}, cache.getRowFromCache(keyMeta, new Object[] {1L, "a"}));
+    cache.storeRowInCache(meta, keyMeta, new Object[] {3L, "c"}, new Object[] {"three"});
+
+    assertEquals(2, cache.size());
+    assertEquals(1L, cache.getEvictions());
+    assertNull(cache.getRowFromCache(keyMeta, new Object[] {2L, "b"}));
+    assertArrayEquals(
+        new Object[] {"three"}, cache.getRowFromCache(keyMeta, new Object[] {3L, "c"}));
+    assertNull(cache.getRowFromCache(keyMeta, new Object[] {1L, "c"}));
+  }
+
+  @Test
+  public void testNullKeyValues() throws Exception {
+    IRowMeta keyMeta = keyMeta();
+    LruCache cache = new LruCache(0, 0L);
+    cache.storeRowInCache(meta, keyMeta, new Object[] {null, "a"}, new Object[] {null});
+    assertArrayEquals(
+        new Object[] {null}, cache.getRowFromCache(keyMeta, new Object[] {null, "a"}));
+    assertNull(cache.getRowFromCache(keyMeta, new Object[] {null, null}));
+  }
+
+  @Test
+  public void testMemoryLimit() throws Exception {
+    IRowMeta keyMeta = keyMeta();
+    LruCache cache = new LruCache(0, 10000L);
+    for (long i = 0; i < 1000; i++) {
+      cache.storeRowInCache(
+          meta, keyMeta, new Object[] {i, "key"}, new Object[] {"value of key " + i});
+      assertTrue(cache.getBytes() <= 10000L);
+    }
+    assertTrue(cache.size() > 10);
+    assertEquals(1000L, cache.size() + cache.getEvictions());
+
+    // The most recent rows are still there
+    //
+    assertArrayEquals(
+        new Object[] {"value of key 999"},
+        cache.getRowFromCache(keyMeta, new Object[] {999L, "key"}));
+  }
+
+  @Test
+  public void testReplaceRow() throws Exception {
+    IRowMeta keyMeta = keyMeta();
+    LruCache cache = new LruCache(0, 0L);
+    cache.storeRowInCache(meta, keyMeta, new Object[] {1L, "a"}, new Object[] {"a long value"});
+    long bytes = cache.getBytes();
+    cache.storeRowInCache(meta, keyMeta, new Object[] {1L, "a"}, new Object[] {"short"});
+    assertEquals(1, cache.size());
+    assertEquals(bytes - "a long value".length() + "short".length(), cache.getBytes());
+  }
+
+  private static IRowMeta keyMeta() {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    return keyMeta;
+  }
+}
@@ -178,6 +178,34 @@ public class ReadAllCacheTest {
     return builder.build();
   }
 
+  @Test
+  public void lookup_WithHashIndex_FindsFirstMatching() throws Exception {
+    ReadAllCache cache = buildCache("=,=,=,=");
+    Object[] found =
+        cache.getRowFromCache(keysMeta.clone(), new Object[] {1L, "1", new Date(150), null});
+    assertArrayEquals(data[4], found);
+    assertNull(
+        cache.getRowFromCache(keysMeta.clone(), new Object[] {1L, "1", new Date(151), null}));
+  }
+
+  @Test
+  public void lookup_WithIntegerHashIndex() throws Exception {
+    transformData.conditions = new int[] {DatabaseLookupMeta.CONDITION_EQ};
+    ReadAllCache.Builder builder = new ReadAllCache.Builder(transformData, keys.length + 1);
+    builder.setKeysMeta(keysMeta);
+    for (int i = 0; i < keys.length; i++) {
+      builder.add(keys[i], data[i]);
+    }
+    builder.add(new Object[] {null}, new Object[] {"null"});
+    ReadAllCache cache = builder.build();
+
+    assertArrayEquals("the first row of key 1", data[3], cache.getRowFromCache(keysMeta, keys[4]));
+    assertArrayEquals(data[2], cache.getRowFromCache(keysMeta, new Object[] {2L}));
+    assertNull(cache.getRowFromCache(keysMeta, new Object[] {3L}));
+    assertArrayEquals(
+        new Object[] {"null"}, cache.getRowFromCache(keysMeta, new Object[] {null}));
+  }
+
   @Test
   public void lookup_HandlesAbsenceOfLookupValue() throws Exception {
     transformData = new DatabaseLookupData();
@@ -17,12 +17,15 @@
 
 package org.apache.hop.pipeline.transforms.dimensionlookup;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
@@ -83,6 +86,9 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
 
+      if (data.batchCount > 0) {
+        flushBatches();
+      }
       setOutputDone(); // signal end to receiver(s)
       return false;
     }
@@ -190,6 +196,15 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
       }
 
       setDimLookup(data.outputRowMeta);
+
+      if (meta.isUpdate()) {
+        if (meta.isPreloadingCache() && meta.getCacheSize() >= 0) {
+          preloadCurrentVersions();
+        }
+        if (meta.isUseBatchUpdate()) {
+          initBatching();
+        }
+      }
     }
 
     // convert row to normal storage...
@@ -204,6 +219,10 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
           lookupValues(data.inputRowMeta, r); // add new values to the row in rowset[0].
       putRow(data.outputRowMeta, outputRow); // copy row to output rowset(s)
 
+      if (data.batching && data.batchCount >= meta.getCommitSize()) {
+        flushBatches();
+      }
+
       if (checkFeedback(getLinesRead()) && log.isBasic()) {
         logBasic(BaseMessages.getString(PKG, "DimensionLookup.Log.LineNumber") + getLinesRead());
       }
@@ -341,6 +360,88 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
   }
 
+  /**
+   * Load the current version of every dimension entry in the update cache. Natural keys which are
+   * not in the cache after this are new entries and don't need to be looked up in the database.
+   *
+   * @throws HopException in case there is a database or cache problem.
+   */
+  private void preloadCurrentVersions() throws HopException {
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+    DLFields f = meta.getFields();
+
+    // The same columns as the lookup followed by the natural keys in the table.
+    // The versions are sorted so the last one read of a natural key is the current one.
+    //
+    String sql = "SELECT " + getLookupColumns();
+    for (DLKey key : f.getKeys()) {
+      sql += ", " + databaseMeta.quoteField(key.getLookup());
+    }
+    sql +=
+        " FROM "
+            + data.schemaTable
+            + " ORDER BY "
+            + databaseMeta.quoteField(f.getReturns().getVersionField());
+
+    if (log.isDetailed()) {
+      logDetailed(
+          "Pre-loading the current versions in the cache with: " + Const.CR + sql + Const.CR);
+    }
+
+    ResultSet resultSet = data.db.openQuery(sql);
+    try {
+      IRowMeta rowMeta = data.db.getReturnRowMeta();
+      int valuesSize = rowMeta.size() - data.keynrs.length;
+
+      data.returnRowMeta = new RowMeta();
+      for (int i = 0; i < valuesSize; i++) {
+        data.returnRowMeta.addValueMeta(rowMeta.getValueMeta(i));
+      }
+      data.cacheValueRowMeta = assembleCacheValueRowMeta();
+
+      Object[] row = data.db.getRow(resultSet);
+      while (row != null && !isStopped()) {
+        Object[] keyValues = new Object[data.keynrs.length];
+        for (int i = 0; i < keyValues.length; i++) {
+          keyValues[i] =
+              data.cacheKeyRowMeta
+                  .getValueMeta(i)
+                  .convertData(rowMeta.getValueMeta(valuesSize + i), row[valuesSize + i]);
+        }
+        data.cache.put(
+            RowMeta.extractData(data.cacheKeyRowMeta, keyValues),
+            RowMeta.extractData(data.cacheValueRowMeta, row));
+
+        incrementLinesInput();
+        row = data.db.getRow(resultSet);
+      }
+    } finally {
+      data.db.closeQuery(resultSet);
+    }
+    data.cachePreloaded = true;
+
+    if (log.isBasic()) {
+      logBasic(
+          BaseMessages.getString(
+              PKG, "DimensionLookup.Log.PreloadedCurrentVersions", data.cache.size()));
+    }
+  }
+
+  /**
+   * Add the inserts and updates to JDBC batches if the database and the technical key creation
+   * method allow it. The generated technical keys can't be retrieved from a batch.
+   */
+  private void initBatching() throws HopDatabaseException {
+    if (isAutoIncrement() || meta.getCommitSize() <= 0 || !data.db.getUseBatchInsert(true)) {
+      logBasic(BaseMessages.getString(PKG, "DimensionLookup.Log.BatchUpdateNotPossible"));
+      return;
+    }
+    data.batching = true;
+    data.batchKeys = new ByteArrayHashMap(data.cacheKeyRowMeta);
+    data.batchStatements = new HashSet<>();
+    data.batchCount = 0;
+  }
+
   private synchronized Object[] lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     DLFields f = meta.getFields();
 
@@ -423,6 +524,16 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
                 + data.lookupRowMeta.getString(lookupRow));
       }
 
+      // A natural key which is already in the pending batches needs to see the changes made
+      //
+      if (data.batching) {
+        byte[] batchKey = RowMeta.extractData(data.cacheKeyRowMeta, lookupRow);
+        if (data.batchKeys.get(batchKey) != null) {
+          flushBatches();
+        }
+        data.batchKeys.put(batchKey, batchKey);
+      }
+
       // Do the lookup and see if we can find anything in the database.
       // But before that, let's see if we can find anything in the cache
       //
@@ -432,8 +543,9 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
       // Nothing found in the cache?
       // Perform the lookup in the database...
+      // A natural key which isn't in the pre-loaded cache is not in the database either.
       //
-      if (returnRow == null) {
+      if (returnRow == null && (!data.cachePreloaded || isInCache(lookupRow))) {
         data.db.setValues(data.lookupRowMeta, lookupRow, data.prepStatementLookup);
         returnRow = data.db.getLookup(data.prepStatementLookup);
         data.returnRowMeta = data.db.getReturnRowMeta();
@@ -540,6 +652,21 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
                 valueDateTo);
 
         incrementLinesOutput();
+
+        // The pre-loaded cache has to know about all the entries, also the new ones
+        //
+        if (data.cachePreloaded) {
+          Object[] values =
+              getCacheValues(
+                  rowMeta,
+                  row,
+                  technicalKey,
+                  valueVersion,
+                  getStartDate(rowMeta, row, valueDateFrom),
+                  valueDateTo);
+          addToCache(lookupRow, values);
+        }
+
         returnRow = new Object[data.returnRowMeta.size()];
         int returnIndex = 0;
 
@@ -848,32 +975,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
      * SELECT <tk>, <version>, ... , FROM <table> WHERE key1=keys[1] AND key2=keys[2] ... AND ( <datefrom> is null OR
      * <datefrom> <= <datefield> ) AND <dateto> >= <datefield>
      */
-    String sql =
-        "SELECT "
-            + databaseMeta.quoteField(f.getReturns().getKeyField())
-            + ", "
-            + databaseMeta.quoteField(f.getReturns().getVersionField());
-
-    for (DLField field : f.getFields()) {
-      // Don't retrieve the fields without input
-      if (StringUtils.isNotEmpty(field.getLookup()) && isLookupOrUpdateTypeWithArgument(meta.isUpdate(), field)) {
-        sql += ", " + databaseMeta.quoteField(field.getLookup());
-
-        if (StringUtils.isNotEmpty(field.getName()) && !field.getLookup().equals(field.getName())) {
-          sql += " AS " + databaseMeta.quoteField(field.getName());
-        }
-      }
-    }
-
-    if (meta.getCacheSize() >= 0) {
-      sql +=
-          ", "
-              + databaseMeta.quoteField(f.getDate().getFrom())
-              + ", "
-              + databaseMeta.quoteField(f.getDate().getTo());
-    }
-
-    sql += " FROM " + data.schemaTable + " WHERE ";
+    String sql = "SELECT " + getLookupColumns() + " FROM " + data.schemaTable + " WHERE ";
 
     for (int i = 0; i < f.getKeys().size(); i++) {
       DLKey key = f.getKeys().get(i);
@@ -922,6 +1024,40 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
   }
 
+  /**
+   * @return the columns retrieved by the lookup: tk, version, fields, and the date range when
+   *     caching
+   */
+  private String getLookupColumns() throws HopException {
+    DLFields f = meta.getFields();
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+
+    String columns =
+        databaseMeta.quoteField(f.getReturns().getKeyField())
+            + ", "
+            + databaseMeta.quoteField(f.getReturns().getVersionField());
+
+    for (DLField field : f.getFields()) {
+      // Don't retrieve the fields without input
+      if (StringUtils.isNotEmpty(field.getLookup()) && isLookupOrUpdateTypeWithArgument(meta.isUpdate(), field)) {
+        columns += ", " + databaseMeta.quoteField(field.getLookup());
+
+        if (StringUtils.isNotEmpty(field.getName()) && !field.getLookup().equals(field.getName())) {
+          columns += " AS " + databaseMeta.quoteField(field.getName());
+        }
+      }
+    }
+
+    if (meta.getCacheSize() >= 0) {
+      columns +=
+          ", "
+              + databaseMeta.quoteField(f.getDate().getFrom())
+              + ", "
+              + databaseMeta.quoteField(f.getDate().getTo());
+    }
+    return columns;
+  }
+
   protected boolean isAutoIncrement() {
     return meta.getFields().getReturns().getCreationMethod()
         == TechnicalKeyCreationMethod.AUTO_INCREMENT;
@@ -1138,34 +1274,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     // on if newEntry == true
     insertRow[insertIndex++] = versionNr;
 
-    switch (data.startDateAlternative) {
-      case NONE:
-        insertRow[insertIndex++] = dateFrom;
-        break;
-      case SYSTEM_DATE:
-        // use the time the transform execution begins as the date from (passed in as dateFrom).
-        // before, the current system time was used. this caused an exclusion of the row in the
-        // lookup portion of the transform that uses this 'valueDate' and not the current time.
-        // the result was multiple inserts for what should have been 1
-        insertRow[insertIndex++] = dateFrom;
-        break;
-      case PIPELINE_START:
-        insertRow[insertIndex++] = getPipeline().getExecutionStartDate();
-        break;
-      case NULL:
-        insertRow[insertIndex++] = null;
-        break;
-      case COLUMN_VALUE:
-        insertRow[insertIndex++] = inputRowMeta.getDate(row, data.startDateFieldIndex);
-        break;
-      default:
-        throw new HopTransformException(
-            BaseMessages.getString(
-                PKG,
-                "DimensionLookup.Exception.IllegalStartDateSelection",
-                data.startDateAlternative.getDescription()));
-    }
-
+    insertRow[insertIndex++] = getStartDate(inputRowMeta, row, dateFrom);
     insertRow[insertIndex++] = dateTo;
 
     for (int i = 0; i < data.keynrs.length; i++) {
@@ -1204,7 +1313,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
     // INSERT NEW VALUE!
     data.db.setValues(data.insertRowMeta, insertRow, data.prepStatementInsert);
-    data.db.insertRow(data.prepStatementInsert);
+    executeStatement(data.prepStatementInsert);
 
     if (isDebug()) {
       logDebug("Row inserted!");
@@ -1289,7 +1398,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
       if (isDebug()) {
         logDebug("Values set for update (" + data.updateRowMeta.size() + ")");
       }
-      data.db.insertRow(data.prepStatementUpdate); // do the actual update
+      executeStatement(data.prepStatementUpdate); // do the actual update
       if (isDebug()) {
         logDebug("Row updated!");
       }
@@ -1402,7 +1511,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
     data.db.setValues(
         data.dimensionUpdateRowMeta, dimensionUpdateRow, data.prepStatementDimensionUpdate);
-    data.db.insertRow(data.prepStatementDimensionUpdate);
+    executeStatement(data.prepStatementDimensionUpdate);
   }
 
   // This updates all versions of a dimension entry.
@@ -1500,7 +1609,82 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
         punchThroughRow,
         data.prepStatementPunchThrough); // set values for
     // update
-    data.db.insertRow(data.prepStatementPunchThrough); // do the actual punch through update
+    executeStatement(data.prepStatementPunchThrough); // do the actual punch through update
+  }
+
+  /**
+   * @return the start of the date range of an inserted dimension entry
+   */
+  private Date getStartDate(IRowMeta inputRowMeta, Object[] row, Date dateFrom)
+      throws HopException {
+    switch (data.startDateAlternative) {
+      case NONE:
+        return dateFrom;
+      case SYSTEM_DATE:
+        // use the time the transform execution begins as the date from (passed in as dateFrom).
+        // before, the current system time was used. this caused an exclusion of the row in the
+        // lookup portion of the transform that uses this 'valueDate' and not the current time.
+        // the result was multiple inserts for what should have been 1
+        return dateFrom;
+      case PIPELINE_START:
+        return getPipeline().getExecutionStartDate();
+      case NULL:
+        return null;
+      case COLUMN_VALUE:
+        return inputRowMeta.getDate(row, data.startDateFieldIndex);
+      default:
+        throw new HopTransformException(
+            BaseMessages.getString(
+                PKG,
+                "DimensionLookup.Exception.IllegalStartDateSelection",
+                data.startDateAlternative.getDescription()));
+    }
+  }
+
+  /** Execute an insert or update, or add it to the batch of the statement when batching. */
+  private void executeStatement(PreparedStatement statement) throws HopDatabaseException {
+    if (!data.batching) {
+      data.db.insertRow(statement);
+      return;
+    }
+    try {
+      statement.addBatch();
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Unable to add the dimension update to the batch", e);
+    }
+    data.batchStatements.add(statement);
+    data.batchCount++;
+  }
+
+  /**
+   * Execute the pending batches and commit. The batches are executed in the order the statements
+   * of a row are executed: the inserts, the end dates of the previous versions, the updates and the
+   * punch through updates.
+   */
+  private void flushBatches() throws HopDatabaseException {
+    PreparedStatement[] statements = {
+      data.prepStatementInsert,
+      data.prepStatementUpdate,
+      data.prepStatementDimensionUpdate,
+      data.prepStatementPunchThrough
+    };
+    try {
+      for (PreparedStatement statement : statements) {
+        if (statement != null && data.batchStatements.contains(statement)) {
+          statement.executeBatch();
+          statement.clearBatch();
+        }
+      }
+    } catch (SQLException e) {
+      throw Database.createHopDatabaseBatchException("Error updating the dimension in batch", e);
+    }
+    data.batchStatements.clear();
+    data.batchKeys.clear();
+    data.batchCount = 0;
+
+    if (!data.db.isAutoCommit()) {
+      data.db.commit();
+    }
   }
 
   /**
@@ -1570,8 +1754,12 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     // Allow for a buffer overrun of 20% and then remove those 20% in one go.
     // Just to keep performance in track.
     //
+    // A pre-loaded cache has to keep all the entries.
+    //
     int tenPercent = meta.getCacheSize() / 10;
-    if (meta.getCacheSize() > 0 && data.cache.size() > meta.getCacheSize() + tenPercent) {
+    if (meta.getCacheSize() > 0
+        && !data.cachePreloaded
+        && data.cache.size() > meta.getCacheSize() + tenPercent) {
       // Which cache entries do we delete here?
       // We delete those with the lowest technical key...
       // Those would arguably be the "oldest" dimension entries.
@@ -1676,10 +1864,13 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
       // See if the dateValue is between the from and to date ranges...
       // The last 2 values are from and to
+      // An empty from date is the start of time, see the "null" alternative start date.
       long time = dateValue.getTime();
-      long from = ((Date) row[row.length - 2]).getTime();
-      long to = ((Date) row[row.length - 1]).getTime();
-      if (time >= from && time < to) { // sanity check to see if we have the right version
+      Date from = (Date) row[row.length - 2];
+      Date to = (Date) row[row.length - 1];
+      if ((from == null || time >= from.getTime())
+          && to != null
+          && time < to.getTime()) { // sanity check to see if we have the right version
         if (isRowLevel()) {
           logRowlevel(
               "Cache hit: key="
@@ -1693,6 +1884,10 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     return null;
   }
 
+  private boolean isInCache(Object[] keyValues) {
+    return data.cache.get(RowMeta.extractData(data.cacheKeyRowMeta, keyValues)) != null;
+  }
+
   public void checkDimZero() throws HopException {
     // Don't insert anything when running in lookup mode.
     //
@@ -1807,6 +2002,9 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
   public void dispose() {
     if (data.db != null) {
       try {
+        if (getErrors() == 0 && data.batchCount > 0) {
+          flushBatches();
+        }
         if (!data.db.isAutoCommit()) {
           if (getErrors() == 0) {
             data.db.commit();
@@ -26,6 +26,7 @@ import org.apache.hop.pipeline.transform.ITransformData;
 import java.sql.PreparedStatement;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 public class DimensionLookupData extends BaseTransformData implements ITransformData {
   public Date valueDateNow;
@@ -41,6 +42,21 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
 
   public ByteArrayHashMap cache;
 
+  /** The current version of every dimension entry was loaded in the cache when updating */
+  public boolean cachePreloaded;
+
+  /** Inserts and updates are added to JDBC batches instead of being executed right away */
+  public boolean batching;
+
+  /** The natural keys of the rows in the pending batches */
+  public ByteArrayHashMap batchKeys;
+
+  /** The statements with pending batches */
+  public Set<PreparedStatement> batchStatements;
+
+  /** The number of statements in the pending batches */
+  public int batchCount;
+
   public long smallestCacheKey;
 
   public Long notFoundTk;
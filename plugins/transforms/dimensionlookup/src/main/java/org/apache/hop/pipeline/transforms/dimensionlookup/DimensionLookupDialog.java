@@ -96,6 +96,9 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
   private Label wlCommit;
   private Text wCommit;
 
+  private Label wlUseBatch;
+  private Button wUseBatch;
+
   private Button wUseCache;
 
   private Label wlPreloadCache;
@@ -313,6 +316,25 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     fdCommit.right = new FormAttachment(100, 0);
     wCommit.setLayoutData(fdCommit);
 
+    // Use batch updates?
+    wlUseBatch = new Label(mainComposite, SWT.RIGHT);
+    wlUseBatch.setText(BaseMessages.getString(PKG, "DimensionLookupDialog.UseBatch.Label"));
+    wlUseBatch.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.UseBatch.Tooltip"));
+    PropsUi.setLook(wlUseBatch);
+    FormData fdlUseBatch = new FormData();
+    fdlUseBatch.left = new FormAttachment(0, 0);
+    fdlUseBatch.right = new FormAttachment(middle, -margin);
+    fdlUseBatch.top = new FormAttachment(wCommit, margin);
+    wlUseBatch.setLayoutData(fdlUseBatch);
+    wUseBatch = new Button(mainComposite, SWT.CHECK);
+    PropsUi.setLook(wUseBatch);
+    FormData fdUseBatch = new FormData();
+    fdUseBatch.left = new FormAttachment(middle, 0);
+    fdUseBatch.top = new FormAttachment(wlUseBatch, 0, SWT.CENTER);
+    fdUseBatch.right = new FormAttachment(100, 0);
+    wUseBatch.setLayoutData(fdUseBatch);
+
     // Use Cache?
     Label wlUseCache = new Label(mainComposite, SWT.RIGHT);
     wlUseCache.setText(BaseMessages.getString(PKG, "DimensionLookupDialog.UseCache.Label"));
@@ -320,7 +342,7 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     FormData fdlUseCache = new FormData();
     fdlUseCache.left = new FormAttachment(0, 0);
     fdlUseCache.right = new FormAttachment(middle, -margin);
-    fdlUseCache.top = new FormAttachment(wCommit, margin);
+    fdlUseCache.top = new FormAttachment(wUseBatch, margin);
     wlUseCache.setLayoutData(fdlUseCache);
     wUseCache = new Button(mainComposite, SWT.CHECK);
     PropsUi.setLook(wUseCache);
@@ -994,6 +1016,8 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     boolean update = wUpdate.getSelection();
     wlCommit.setEnabled(update);
     wCommit.setEnabled(update);
+    wlUseBatch.setEnabled(update);
+    wUseBatch.setEnabled(update);
     wlMinYear.setEnabled(update);
     wMinYear.setEnabled(update);
     wlMaxYear.setEnabled(update);
@@ -1037,8 +1061,8 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
 
     // Caching...
     //
-    wlPreloadCache.setEnabled(wUseCache.getSelection() && !wUpdate.getSelection());
-    wPreloadCache.setEnabled(wUseCache.getSelection() && !wUpdate.getSelection());
+    wlPreloadCache.setEnabled(wUseCache.getSelection());
+    wPreloadCache.setEnabled(wUseCache.getSelection());
 
     wlCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
     wCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
@@ -1147,6 +1171,7 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     wSeq.setText(Const.NVL(input.getSequenceName(), ""));
 
     wCommit.setText("" + input.getCommitSize());
+    wUseBatch.setSelection(input.isUseBatchUpdate());
 
     wUseCache.setSelection(input.getCacheSize() >= 0);
     wPreloadCache.setSelection(input.isPreloadingCache());
@@ -1262,6 +1287,7 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     f.getDate().setTo(wToDate.getText());
 
     in.setCommitSize(Const.toInt(wCommit.getText(), 0));
+    in.setUseBatchUpdate(wUseBatch.getSelection());
 
     if (wUseCache.getSelection()) {
       in.setCacheSize(Const.toInt(wCacheSize.getText(), -1));
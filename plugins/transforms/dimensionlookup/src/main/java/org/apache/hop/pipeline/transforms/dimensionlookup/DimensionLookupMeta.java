@@ -114,7 +114,10 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
   private int commitSize;
 
   /** Flag to indicate the use of batch updates, default disabled for backward compatibility */
-  @HopMetadataProperty(key = "useBatch")
+  @HopMetadataProperty(
+      key = "useBatch",
+      injectionKey = "USE_BATCH_UPDATE",
+      injectionKeyDescription = "DimensionLookup.Injection.USE_BATCH_UPDATE")
   private boolean useBatchUpdate;
 
   /** The year to use as minus infinity in the dimensions date range */
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.dimensionlookup;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.NoneDatabaseMeta;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.DLField;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.DLFields;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.DLKey;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.StartDateAlternative;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.TechnicalKeyCreationMethod;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DimensionLookupTest {
+
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final Date DATE = new Date(1600000000000L);
+
+  private TransformMockHelper<DimensionLookupMeta, DimensionLookupData> mockHelper;
+  private DimensionLookupMeta meta;
+  private DimensionLookupData data;
+  private Database db;
+  private IRowMeta inputRowMeta;
+  private BlockingRowSet input;
+  private List<Object[]> output;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Dimension Lookup", DimensionLookupMeta.class, DimensionLookupData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setIDatabase(new NoneDatabaseMeta());
+
+    meta = new DimensionLookupMeta();
+    meta.setDefault();
+    meta.setDatabaseMeta(databaseMeta);
+    meta.setTableName("dim");
+    meta.setPreloadingCache(true);
+    meta.setUseBatchUpdate(true);
+    DLFields fields = meta.getFields();
+    fields.getReturns().setKeyField("tk");
+    fields.getReturns().setCreationMethod(TechnicalKeyCreationMethod.TABLE_MAXIMUM);
+    fields.getDate().setName("dt");
+    DLKey key = new DLKey();
+    key.setName("id");
+    key.setLookup("id");
+    fields.getKeys().add(key);
+    fields.getFields().add(field("name", DimensionLookupMeta.DimensionUpdateType.UPDATE));
+    fields.getFields().add(field("city", DimensionLookupMeta.DimensionUpdateType.INSERT));
+
+    // The dimension holds version 1 of natural key 1 with technical key 10
+    //
+    db = mock(Database.class);
+    Connection connection = mock(Connection.class);
+    when(db.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString()))
+        .thenAnswer(invocation -> mock(PreparedStatement.class));
+    when(db.getOneRow(anyString()))
+        .thenReturn(new RowMetaAndData(rowMeta(new ValueMetaInteger("count")), 1L));
+    when(db.getUseBatchInsert(true)).thenReturn(true);
+    AtomicLong nextKey = new AtomicLong(100L);
+    when(db.getNextValue(nullable(String.class), anyString(), anyString()))
+        .thenAnswer(invocation -> nextKey.getAndIncrement());
+    ResultSet resultSet = mock(ResultSet.class);
+    when(db.openQuery(anyString())).thenReturn(resultSet);
+    when(db.getReturnRowMeta())
+        .thenReturn(
+            rowMeta(
+                new ValueMetaInteger("tk"),
+                new ValueMetaInteger("version"),
+                new ValueMetaString("name"),
+                new ValueMetaString("city"),
+                new ValueMetaDate("date_from"),
+                new ValueMetaDate("date_to"),
+                new ValueMetaInteger("id")));
+    when(db.getRow(resultSet))
+        .thenReturn(new Object[] {10L, 1L, "a", "x", meta.getMinDate(), meta.getMaxDate(), 1L})
+        .thenReturn(null);
+
+    data = new DimensionLookupData();
+    inputRowMeta =
+        rowMeta(
+            new ValueMetaInteger("id"),
+            new ValueMetaString("name"),
+            new ValueMetaString("city"),
+            new ValueMetaDate("dt"));
+    input = new BlockingRowSet(10);
+    output = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  public void testPreloadedEntriesAreServedWithoutLookup() throws Exception {
+    DimensionLookup transform = createTransform();
+    putRows(new Object[] {1L, "a", "x", DATE}, new Object[] {2L, "b", "y", DATE});
+    input.setDone();
+    runTransform(transform);
+
+    assertEquals(10L, output.get(0)[4]);
+    assertEquals(100L, output.get(1)[4]);
+    verify(db, never()).getLookup(any(PreparedStatement.class));
+    verify(db, times(1)).getNextValue(nullable(String.class), anyString(), anyString());
+    verify(data.prepStatementInsert, times(1)).addBatch();
+    verify(data.prepStatementInsert, times(1)).executeBatch();
+    verify(db).commit();
+  }
+
+  @Test
+  public void testKeyUpdatedTwiceInOneBatch() throws Exception {
+    DimensionLookup transform = createTransform();
+    putRows(new Object[] {2L, "b", "y", DATE}, new Object[] {2L, "c", "y", DATE});
+    input.setDone();
+    runTransform(transform);
+
+    // The pending insert is executed before the same natural key is updated
+    //
+    assertEquals(100L, output.get(0)[4]);
+    assertEquals(100L, output.get(1)[4]);
+    verify(db, never()).getLookup(any(PreparedStatement.class));
+    verify(db, times(1)).getNextValue(nullable(String.class), anyString(), anyString());
+    verify(db)
+        .setValues(
+            any(IRowMeta.class),
+            aryEq(new Object[] {"c", "y", 100L}),
+            eq(data.prepStatementDimensionUpdate));
+    InOrder order = inOrder(data.prepStatementInsert, data.prepStatementDimensionUpdate);
+    order.verify(data.prepStatementInsert).addBatch();
+    order.verify(data.prepStatementInsert).executeBatch();
+    order.verify(data.prepStatementDimensionUpdate).addBatch();
+    order.verify(data.prepStatementDimensionUpdate).executeBatch();
+  }
+
+  @Test
+  public void testScdUpdatesInPendingBatch() throws Exception {
+    DimensionLookup transform = createTransform();
+    putRows(
+        new Object[] {1L, "b", "x", DATE}, // type 1: update name of version 1
+        new Object[] {3L, "c", "z", DATE}, // new entry
+        new Object[] {1L, "b", "y", DATE}); // type 2: new version for the changed city
+    input.setDone();
+    runTransform(transform);
+
+    assertEquals(10L, output.get(0)[4]);
+    assertEquals(100L, output.get(1)[4]);
+    assertEquals(101L, output.get(2)[4]);
+    verify(db, never()).getLookup(any(PreparedStatement.class));
+
+    // The type 1 update is seen when comparing the third row: only the city differs
+    //
+    verify(db)
+        .setValues(
+            any(IRowMeta.class),
+            aryEq(new Object[] {"b", "x", 10L}),
+            eq(data.prepStatementDimensionUpdate));
+    verify(db)
+        .setValues(
+            any(IRowMeta.class),
+            aryEq(new Object[] {101L, 2L, DATE, meta.getMaxDate(), 1L, "b", "y"}),
+            eq(data.prepStatementInsert));
+    verify(db)
+        .setValues(
+            any(IRowMeta.class), aryEq(new Object[] {DATE, 1L, 1L}), eq(data.prepStatementUpdate));
+
+    // The batches are executed before the natural key 1 is processed again
+    //
+    InOrder order =
+        inOrder(
+            data.prepStatementInsert,
+            data.prepStatementUpdate,
+            data.prepStatementDimensionUpdate);
+    order.verify(data.prepStatementDimensionUpdate).addBatch();
+    order.verify(data.prepStatementInsert).addBatch();
+    order.verify(data.prepStatementInsert).executeBatch();
+    order.verify(data.prepStatementDimensionUpdate).executeBatch();
+    order.verify(data.prepStatementInsert).addBatch();
+    order.verify(data.prepStatementUpdate).addBatch();
+    order.verify(data.prepStatementInsert).executeBatch();
+    order.verify(data.prepStatementUpdate).executeBatch();
+  }
+
+  @Test
+  public void testPendingBatchesExecutedOnDispose() throws Exception {
+    DimensionLookup transform = createTransform();
+    putRows(new Object[] {2L, "b", "y", DATE});
+    transform.processRow();
+    verify(data.prepStatementInsert, never()).executeBatch();
+
+    transform.dispose();
+    verify(data.prepStatementInsert).executeBatch();
+    verify(db, times(2)).commit();
+    verify(db, never()).rollback();
+    verify(db).disconnect();
+  }
+
+  @Test
+  public void testPendingBatchesDiscardedOnError() throws Exception {
+    DimensionLookup transform = createTransform();
+    putRows(new Object[] {2L, "b", "y", DATE});
+    transform.processRow();
+
+    transform.setErrors(1);
+    transform.dispose();
+    verify(data.prepStatementInsert, never()).executeBatch();
+    verify(db, never()).commit();
+    verify(db).rollback();
+    verify(db).disconnect();
+  }
+
+  /** Create the transform the way init() does, with the mocked database */
+  private DimensionLookup createTransform() {
+    DimensionLookup transform =
+        new DimensionLookup(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+    data.minDate = meta.getMinDate();
+    data.maxDate = meta.getMaxDate();
+    data.realTableName = meta.getTableName();
+    data.startDateAlternative = StartDateAlternative.NONE;
+    data.db = db;
+
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>());
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+    return transform;
+  }
+
+  private void putRows(Object[]... rows) {
+    for (Object[] row : rows) {
+      input.putRow(inputRowMeta, row);
+    }
+  }
+
+  private static void runTransform(DimensionLookup transform) throws Exception {
+    while (transform.processRow()) {
+      // keep going
+    }
+  }
+
+  private static DLField field(String name, DimensionLookupMeta.DimensionUpdateType updateType) {
+    DLField field = new DLField();
+    field.setName(name);
+    field.setLookup(name);
+    field.setUpdate(updateType.getCode());
+    return field;
+  }
+
+  private static IRowMeta rowMeta(IValueMeta... valueMetas) {
+    IRowMeta rowMeta = new RowMeta();
+    for (IValueMeta valueMeta : valueMetas) {
+      rowMeta.addValueMeta(valueMeta);
+    }
+    return rowMeta;
+  }
+}
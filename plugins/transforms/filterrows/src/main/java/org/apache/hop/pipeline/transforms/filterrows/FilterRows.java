@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.filterrows;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -36,6 +37,9 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   private static final Class<?> PKG = FilterRowsMeta.class; // For Translator
 
+  /** The maximum number of rows read and evaluated in one go */
+  private static final int BATCH_SIZE = 500;
+
   public FilterRows(
       TransformMeta transformMeta,
       FilterRowsMeta meta,
@@ -64,8 +68,9 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if (r == null) {
+    // Get the next usable rows from input rowset(s)!
+    RowBatch batch = getRows(BATCH_SIZE);
+    if (batch == null) {
       setOutputDone();
       return false;
     }
@@ -119,40 +124,54 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       }
     }
 
-    boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
+    long lineNr = getLinesRead() - batch.size();
     if (!data.chosesTargetTransforms) {
-      if (keep) {
-        putRow(data.outputRowMeta, r); // copy row to output rowset(s)
+      if (data.keptRows == null) {
+        data.keptRows = new RowBatch(data.outputRowMeta, BATCH_SIZE);
+      }
+      for (int i = 0; i < batch.size(); i++) {
+        Object[] r = batch.getRow(i);
+        if (keepRow(getInputRowMeta(), r)) { // Keep this row?
+          data.keptRows.addRow(r);
+        }
       }
+      putRows(data.outputRowMeta, data.keptRows); // copy rows to output rowset(s)
+      data.keptRows.clear();
     } else {
-      if (keep) {
-        if (data.trueRowSet != null) {
-          if (log.isRowLevel()) {
-            logRowlevel(
-                "Sending row to true  :"
-                    + data.trueTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
+      for (int i = 0; i < batch.size(); i++) {
+        Object[] r = batch.getRow(i);
+        boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
+        if (keep) {
+          if (data.trueRowSet != null) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  "Sending row to true  :"
+                      + data.trueTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.trueRowSet);
           }
-          putRowTo(data.outputRowMeta, r, data.trueRowSet);
-        }
-      } else {
-        if (data.falseRowSet != null) {
-          if (log.isRowLevel()) {
-            logRowlevel(
-                "Sending row to false :"
-                    + data.falseTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
+        } else {
+          if (data.falseRowSet != null) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  "Sending row to false :"
+                      + data.falseTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.falseRowSet);
           }
-          putRowTo(data.outputRowMeta, r, data.falseRowSet);
         }
       }
     }
 
-    if (checkFeedback(getLinesRead())) {
-      if (log.isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + getLinesRead());
+    for (int i = 1; i <= batch.size(); i++) {
+      if (checkFeedback(lineNr + i)) {
+        if (log.isBasic()) {
+          logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + (lineNr + i));
+        }
       }
     }
 
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.filterrows;
 
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -31,6 +32,9 @@ public class FilterRowsData extends BaseTransformData implements ITransformData
   public String trueTransformName;
   public String falseTransformName;
 
+  /** The rows of the current batch passing the condition */
+  public RowBatch keptRows;
+
   public FilterRowsData() {
     super();
   }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.filterrows;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.Condition;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class FilterRowsTest {
+
+  private TransformMockHelper<FilterRowsMeta, FilterRowsData> mockHelper;
+
+  @Before
+  public void setUp() {
+    mockHelper =
+        new TransformMockHelper<>("Filter Rows", FilterRowsMeta.class, FilterRowsData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  public void testFilterRowsInBatches() throws Exception {
+    FilterRowsMeta meta = new FilterRowsMeta();
+    meta.setDefault();
+    meta.setCondition(
+        new Condition("x", Condition.Function.LARGER, null, new ValueMetaAndData("c", 2L)));
+    FilterRows transform =
+        new FilterRows(
+            mockHelper.transformMeta,
+            meta,
+            new FilterRowsData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    assertTrue(transform.init());
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    BlockingRowSet input = new BlockingRowSet(10);
+    for (long i = 0; i < 7; i++) {
+      input.putRow(rowMeta, new Object[] {i});
+    }
+    input.setDone();
+    BlockingRowSet output = new BlockingRowSet(10);
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>(Collections.singletonList(output)));
+    transform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+
+    // All waiting rows are read and filtered in one go
+    //
+    assertTrue(transform.processRow());
+    assertEquals(7, transform.getLinesRead());
+    assertEquals(4, transform.getLinesWritten());
+    assertFalse(transform.processRow());
+
+    for (long expected = 3; expected < 7; expected++) {
+      assertEquals(expected, output.getRow()[0]);
+    }
+    assertNull(output.getRowImmediate());
+  }
+}
@@ -50,6 +50,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -57,6 +58,14 @@ import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
 
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_DOUBLE_MAX;
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_DOUBLE_MIN;
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_DOUBLE_SUM;
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_LONG_MAX;
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_LONG_MIN;
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_LONG_SUM;
+import static org.apache.hop.pipeline.transforms.groupby.GroupByData.ACCUMULATE_NONE;
+
 /** Groups data based on aggregation rules. (sum, count, ...) */
 public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
 
@@ -412,9 +421,12 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
   @SuppressWarnings("unchecked")
   void calcAggregate(Object[] row) throws HopValueException {
     for (int i = 0; i < data.subjectnrs.length; i++) {
-      Aggregation aggregation = meta.getAggregations().get(i);
-
       Object subj = row[data.subjectnrs[i]];
+      if (data.accumulators != null && accumulate(i, data.accumulators[i], subj)) {
+        continue;
+      }
+
+      Aggregation aggregation = meta.getAggregations().get(i);
       IValueMeta subjMeta = data.inputRowMeta.getValueMeta(data.subjectnrs[i]);
       Object value = data.agg[i];
       IValueMeta valueMeta = data.aggMeta.getValueMeta(i);
@@ -577,6 +589,102 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
     }
   }
 
+  /**
+   * Add a value to the primitive state of an aggregation, without boxing or value metadata.
+   *
+   * @return false if the aggregation doesn't keep primitive state
+   */
+  private boolean accumulate(int i, int accumulator, Object subj) {
+    if (accumulator == ACCUMULATE_NONE) {
+      return false;
+    }
+    if (subj == null) {
+      return true;
+    }
+    switch (accumulator) {
+      case ACCUMULATE_LONG_SUM:
+        data.longs[i] += (Long) subj;
+        break;
+      case ACCUMULATE_LONG_MIN:
+        long minLong = (Long) subj;
+        if (data.counts[i] == 0 || minLong < data.longs[i]) {
+          data.longs[i] = minLong;
+        }
+        break;
+      case ACCUMULATE_LONG_MAX:
+        long maxLong = (Long) subj;
+        if (data.counts[i] == 0 || maxLong > data.longs[i]) {
+          data.longs[i] = maxLong;
+        }
+        break;
+      case ACCUMULATE_DOUBLE_SUM:
+        data.doubles[i] += (Double) subj;
+        break;
+      case ACCUMULATE_DOUBLE_MIN:
+        double minDouble = (Double) subj;
+        if (data.counts[i] == 0 || Double.compare(minDouble, data.doubles[i]) < 0) {
+          data.doubles[i] = minDouble;
+        }
+        break;
+      case ACCUMULATE_DOUBLE_MAX:
+        double maxDouble = (Double) subj;
+        if (data.counts[i] == 0 || Double.compare(maxDouble, data.doubles[i]) > 0) {
+          data.doubles[i] = maxDouble;
+        }
+        break;
+      default:
+        break;
+    }
+    data.counts[i]++;
+    return true;
+  }
+
+  /**
+   * Sum, average, minimum and maximum over Integer or Number subjects in normal storage keep their
+   * state in a primitive long or double. With a valued null minimum we keep the generic code.
+   */
+  private int getAccumulator(int aggType, IValueMeta subjMeta) {
+    if (subjMeta == null || subjMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return ACCUMULATE_NONE;
+    }
+    boolean isLong = subjMeta.getType() == IValueMeta.TYPE_INTEGER;
+    boolean isDouble = subjMeta.getType() == IValueMeta.TYPE_NUMBER;
+    if (!isLong && !isDouble) {
+      return ACCUMULATE_NONE;
+    }
+    switch (aggType) {
+      case Aggregation.TYPE_GROUP_SUM:
+      case Aggregation.TYPE_GROUP_AVERAGE:
+        return isLong ? ACCUMULATE_LONG_SUM : ACCUMULATE_DOUBLE_SUM;
+      case Aggregation.TYPE_GROUP_MIN:
+        if (minNullIsValued) {
+          return ACCUMULATE_NONE;
+        }
+        return isLong ? ACCUMULATE_LONG_MIN : ACCUMULATE_DOUBLE_MIN;
+      case Aggregation.TYPE_GROUP_MAX:
+        return isLong ? ACCUMULATE_LONG_MAX : ACCUMULATE_DOUBLE_MAX;
+      default:
+        return ACCUMULATE_NONE;
+    }
+  }
+
+  /**
+   * @return the boxed value of an aggregation, taken from the primitive state if it has any
+   */
+  private Object getAggregateValue(int i) {
+    int accumulator = data.accumulators == null ? ACCUMULATE_NONE : data.accumulators[i];
+    switch (accumulator) {
+      case ACCUMULATE_NONE:
+        return data.agg[i];
+      case ACCUMULATE_LONG_SUM:
+      case ACCUMULATE_LONG_MIN:
+      case ACCUMULATE_LONG_MAX:
+        return data.counts[i] == 0 ? null : Long.valueOf(data.longs[i]);
+      default:
+        return data.counts[i] == 0 ? null : Double.valueOf(data.doubles[i]);
+    }
+  }
+
   /**
    * used for junits in GroupByAggregationNullsTest
    *
@@ -592,6 +700,18 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
     data.mean = new double[data.subjectnrs.length]; // sets all doubles to 0.0
     data.aggMeta = new RowMeta();
 
+    // The primitive state is set up once and then reset for every group
+    //
+    boolean newAccumulators = data.accumulators == null;
+    if (newAccumulators) {
+      data.accumulators = new int[data.subjectnrs.length];
+      data.longs = new long[data.subjectnrs.length];
+      data.doubles = new double[data.subjectnrs.length];
+    } else {
+      Arrays.fill(data.longs, 0L);
+      Arrays.fill(data.doubles, 0.0);
+    }
+
     for (int i = 0; i < data.subjectnrs.length; i++) {
       Aggregation aggregation = meta.getAggregations().get(i);
       IValueMeta subjMeta = data.inputRowMeta.getValueMeta(data.subjectnrs[i]);
@@ -668,6 +788,9 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
       }
       data.agg[i] = v;
       data.aggMeta.addValueMeta(vMeta);
+      if (newAccumulators) {
+        data.accumulators[i] = getAccumulator(aggType, subjMeta);
+      }
     }
 
     // Also clear the cumulative data...
@@ -720,7 +843,7 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
       Aggregation aggregation = meta.getAggregations().get(i);
-      Object ag = data.agg[i];
+      Object ag = getAggregateValue(i);
       int aggType = aggregation.getType();
       String fieldName = aggregation.getField();
       switch (aggType) {
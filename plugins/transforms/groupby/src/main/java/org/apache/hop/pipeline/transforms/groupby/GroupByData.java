@@ -32,6 +32,16 @@ import java.util.List;
 import java.util.Set;
 
 public class GroupByData extends BaseTransformData implements ITransformData {
+  /** The aggregate keeps no primitive state */
+  public static final int ACCUMULATE_NONE = 0;
+
+  public static final int ACCUMULATE_LONG_SUM = 1;
+  public static final int ACCUMULATE_LONG_MIN = 2;
+  public static final int ACCUMULATE_LONG_MAX = 3;
+  public static final int ACCUMULATE_DOUBLE_SUM = 4;
+  public static final int ACCUMULATE_DOUBLE_MIN = 5;
+  public static final int ACCUMULATE_DOUBLE_MAX = 6;
+
   public Object[] previous;
 
   /** target value meta for aggregation fields */
@@ -49,6 +59,15 @@ public class GroupByData extends BaseTransformData implements ITransformData {
 
   public long[] counts;
 
+  /**
+   * Per aggregation, how its state is kept in {@link #longs} or {@link #doubles} instead of a boxed
+   * value in {@link #agg}. The counts hold the number of non-null values for those.
+   */
+  public int[] accumulators;
+
+  public long[] longs;
+  public double[] doubles;
+
   public Set<Object>[] distinctObjs;
 
   public ArrayList<Object[]> bufferList;
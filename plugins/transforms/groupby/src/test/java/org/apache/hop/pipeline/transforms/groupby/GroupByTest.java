@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.groupby;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class GroupByTest {
+  private TransformMockHelper<GroupByMeta, GroupByData> transformMockHelper;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>("Test GroupBy", GroupByMeta.class, GroupByData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  /** Sum, average, minimum and maximum of Integer and Number fields skip null values. */
+  @Test
+  public void testNumericAggregates() throws Exception {
+    GroupByMeta meta = new GroupByMeta();
+    meta.setGroupingFields(new ArrayList<>(Collections.singletonList(new GroupingField("key"))));
+    meta.setAggregations(
+        new ArrayList<>(
+            Arrays.asList(
+                aggregation("sumInt", "int", Aggregation.TYPE_GROUP_SUM),
+                aggregation("avgInt", "int", Aggregation.TYPE_GROUP_AVERAGE),
+                aggregation("minInt", "int", Aggregation.TYPE_GROUP_MIN),
+                aggregation("maxInt", "int", Aggregation.TYPE_GROUP_MAX),
+                aggregation("sumNum", "num", Aggregation.TYPE_GROUP_SUM),
+                aggregation("avgNum", "num", Aggregation.TYPE_GROUP_AVERAGE),
+                aggregation("minNum", "num", Aggregation.TYPE_GROUP_MIN),
+                aggregation("maxNum", "num", Aggregation.TYPE_GROUP_MAX))));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("int"));
+    rowMeta.addValueMeta(new ValueMetaNumber("num"));
+
+    List<Object[]> output =
+        group(
+            meta,
+            rowMeta,
+            new Object[] {"a", null, null},
+            new Object[] {"a", 7L, 1.5},
+            new Object[] {"a", -3L, null},
+            new Object[] {"a", 5L, -2.0},
+            new Object[] {"b", null, null});
+
+    assertEquals(2, output.size());
+    assertArrayEquals(
+        new Object[] {"a", 9L, 3L, -3L, 7L, -0.5, -0.25, -2.0, 1.5},
+        Arrays.copyOf(output.get(0), 9));
+    assertArrayEquals(
+        new Object[] {"b", null, null, null, null, null, null, null, null},
+        Arrays.copyOf(output.get(1), 9));
+  }
+
+  private static Aggregation aggregation(String field, String subject, int type) {
+    return new Aggregation(field, subject, Aggregation.getTypeDescLongFromCode(type), null);
+  }
+
+  private List<Object[]> group(GroupByMeta meta, IRowMeta rowMeta, Object[]... rows)
+      throws Exception {
+    GroupBy groupBy =
+        new GroupBy(
+            transformMockHelper.transformMeta,
+            meta,
+            new GroupByData(),
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+    assertTrue(groupBy.init());
+
+    IRowSet input = new BlockingRowSet(rows.length);
+    for (Object[] row : rows) {
+      input.putRow(rowMeta, row);
+    }
+    input.setDone();
+    groupBy.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    groupBy.setOutputRowSets(new ArrayList<>());
+
+    final List<Object[]> output = new ArrayList<>();
+    groupBy.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+
+    while (groupBy.processRow()) {
+      // keep going
+    }
+    groupBy.dispose();
+    return output;
+  }
+}
@@ -39,10 +39,10 @@ import org.apache.hop.pipeline.transforms.file.IBaseFileInputReader;
 import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.JsonStreamingReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
 
 import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.BitSet;
 
@@ -256,8 +256,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
   }
 
   private void parseNextInputToRowSet(InputStream input) throws HopException {
+    boolean keepOpen = false;
     try {
       data.readerRowSet = data.reader.parse(input);
+      // A streaming reader reads the input while the rows are requested and closes it at the end
+      keepOpen = data.reader.isStreaming();
     } catch (HopException ke) {
       logInputError(ke);
       throw new JsonInputException(ke);
@@ -265,7 +268,9 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       logInputError(e);
       throw new JsonInputException(e);
     } finally {
-      closeQuietly(input);
+      if (!keepOpen) {
+        closeQuietly(input);
+      }
     }
   }
 
@@ -331,17 +336,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     Object[] rawReaderRow = null;
     while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
       if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
-        try (InputStream nextIn = data.inputs.next()) {
-
-          if (nextIn != null) {
-            parseNextInputToRowSet(nextIn);
-          } else {
-            parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
-          }
-
-        } catch (IOException e) {
-          logError(BaseMessages.getString(PKG, "JsonInput.Log.UnexpectedError", e.toString()), e);
-          incrementErrors();
+        InputStream nextIn = data.inputs.next();
+        if (nextIn != null) {
+          parseNextInputToRowSet(nextIn);
+        } else {
+          parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
         }
       } else {
         if (isDetailed()) {
@@ -455,7 +454,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       inputFields[i] = field;
     }
     // Instead of putting in the meta.inputFields, we put in our json path resolved input fields
-    data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    if (meta.isStreaming()) {
+      data.reader = new JsonStreamingReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    } else {
+      data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    }
     data.reader.setIgnoreMissingPath(meta.isIgnoreMissingPath());
   }
 
@@ -466,7 +469,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     }
     data.inputs = null;
     data.reader = null;
-    data.readerRowSet = null;
+    if (data.readerRowSet != null) {
+      // closes the input of a streaming reader which stopped early
+      data.readerRowSet.clear();
+      data.readerRowSet = null;
+    }
     data.repeatedFields = null;
     super.dispose();
   }
@@ -39,4 +39,12 @@ public interface IJsonReader {
 
   /** parse compiled fields into a rowset */
   public IRowSet parse(InputStream in) throws HopException;
+
+  /**
+   * @return true if the rowset returned by parse() keeps reading the input while rows are
+   *     requested and closes it at the end
+   */
+  default boolean isStreaming() {
+    return false;
+  }
 }
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.SingleRowRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Reads the rows with the Jackson streaming parser while they are requested, so only one record at
+ * a time is kept in memory instead of the whole document. Only a subset of JsonPath is supported:
+ *
+ * <ul>
+ *   <li>all the paths start with the same records path of object keys and [*] array wildcards, for
+ *       example $.data[*] or $[*]
+ *   <li>after the last [*] a path only has object keys, the nested field of a record, for example
+ *       $.data[*].address.city
+ *   <li>paths without [*], like $.name, read every value at the root as a record, which supports
+ *       JSON lines (NDJSON) files
+ * </ul>
+ */
+public class JsonStreamingReader implements IJsonReader {
+  private static final Class<?> PKG = JsonInputMeta.class; // For Translator
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /** A key of a path, or null for the [*] array wildcard */
+  private static final String ALL = null;
+
+  private final ILogChannel log;
+  private final boolean defaultPathLeafToNull;
+  private boolean ignoreMissingPath;
+
+  private JsonInputField[] fields;
+  private List<String> recordsPath;
+  private String[][] fieldPaths;
+
+  public JsonStreamingReader(
+      JsonInputField[] fields, boolean defaultPathLeafToNull, ILogChannel log)
+      throws HopException {
+    this.log = log;
+    this.defaultPathLeafToNull = defaultPathLeafToNull;
+    setFields(fields);
+  }
+
+  @Override
+  public void setFields(JsonInputField[] fields) throws HopException {
+    this.fields = fields;
+    this.recordsPath = null;
+    this.fieldPaths = new String[fields.length][];
+
+    List<List<String>> paths = new ArrayList<>(fields.length);
+    for (JsonInputField field : fields) {
+      List<String> path = parsePath(field.getPath());
+      if (path == null) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "JsonStreamingReader.Error.UnsupportedPath", field.getPath()));
+      }
+      paths.add(path);
+    }
+
+    // The records are found at the part of the paths up to the last [*]
+    //
+    for (int i = 0; i < fields.length; i++) {
+      List<String> path = paths.get(i);
+      int records = path.lastIndexOf(ALL) + 1;
+      if (recordsPath == null) {
+        recordsPath = path.subList(0, records);
+      } else if (!recordsPath.equals(path.subList(0, records))) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "JsonStreamingReader.Error.DifferentRecords", fields[i].getPath()));
+      }
+      fieldPaths[i] = path.subList(records, path.size()).toArray(new String[0]);
+    }
+    if (recordsPath == null) {
+      recordsPath = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Split a path in object keys and [*] array wildcards.
+   *
+   * @return the parts of the path or null if the path isn't supported
+   */
+  static List<String> parsePath(String path) {
+    if (path == null || !path.startsWith("$")) {
+      return null;
+    }
+    List<String> parts = new ArrayList<>();
+    int i = 1;
+    while (i < path.length()) {
+      char c = path.charAt(i);
+      if (c == '.') {
+        int end = i + 1;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        String key = path.substring(i + 1, end);
+        if (key.isEmpty() || key.equals("*")) {
+          return null;
+        }
+        parts.add(key);
+        i = end;
+      } else if (path.startsWith("[*]", i)) {
+        parts.add(ALL);
+        i += 3;
+      } else if (path.startsWith("['", i) || path.startsWith("[\"", i)) {
+        int end = path.indexOf(path.charAt(i + 1) + "]", i + 2);
+        if (end < 0) {
+          return null;
+        }
+        parts.add(path.substring(i + 2, end));
+        i = end + 2;
+      } else {
+        return null;
+      }
+    }
+    return parts;
+  }
+
+  @Override
+  public boolean isIgnoreMissingPath() {
+    return ignoreMissingPath;
+  }
+
+  @Override
+  public void setIgnoreMissingPath(boolean value) {
+    this.ignoreMissingPath = value;
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return true;
+  }
+
+  @Override
+  public IRowSet parse(InputStream in) throws HopException {
+    try {
+      return new StreamingRowSet(MAPPER.getFactory().createParser(in));
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+  }
+
+  /** Reads the next record while a row is requested, closing the parser at the end. */
+  private class StreamingRowSet extends SingleRowRowSet {
+    private final JsonParser parser;
+
+    /** The depths in the records path of the objects and arrays we are in */
+    private final Deque<Integer> depths = new ArrayDeque<>();
+
+    private long nrRecords;
+    private boolean done;
+
+    StreamingRowSet(JsonParser parser) {
+      this.parser = parser;
+    }
+
+    @Override
+    public Object[] getRow() {
+      if (done) {
+        return null;
+      }
+      try {
+        JsonNode record = nextRecord();
+        if (record != null) {
+          nrRecords++;
+          return getRow(record);
+        }
+        close();
+        if (log.isDetailed()) {
+          log.logDetailed(BaseMessages.getString(PKG, "JsonInput.Log.NrRecords", nrRecords));
+        }
+        if (nrRecords == 0) {
+          // No records at all gives a row of nulls, like the other reader
+          //
+          if (!ignoreMissingPath && fields.length > 0) {
+            throw new IllegalStateException(
+                BaseMessages.getString(
+                    PKG, "JsonReader.Error.CanNotFindPath", fields[0].getPath()));
+          }
+          return new Object[fields.length];
+        }
+        return null;
+      } catch (IOException e) {
+        close();
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private JsonNode nextRecord() throws IOException {
+      while (true) {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+          return null;
+        }
+        if (depths.isEmpty()) {
+          JsonNode record = enter(0, token);
+          if (record != null) {
+            return record;
+          }
+          continue;
+        }
+        if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+          depths.pop();
+          continue;
+        }
+        int depth = depths.peek();
+        String key = recordsPath.get(depth);
+        if (key == ALL) {
+          JsonNode record = enter(depth + 1, token);
+          if (record != null) {
+            return record;
+          }
+        } else {
+          // We're in an object, only the value of the key is on the path
+          //
+          String name = parser.getCurrentName();
+          token = parser.nextToken();
+          if (key.equals(name)) {
+            JsonNode record = enter(depth + 1, token);
+            if (record != null) {
+              return record;
+            }
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+    }
+
+    /**
+     * @param depth the number of parts of the records path matched by the value
+     * @param token the first token of the value
+     * @return the record if the value is one, otherwise null
+     */
+    private JsonNode enter(int depth, JsonToken token) throws IOException {
+      if (depth == recordsPath.size()) {
+        return parser.readValueAsTree();
+      }
+      boolean wildcard = recordsPath.get(depth) == ALL;
+      if ((wildcard && token == JsonToken.START_ARRAY)
+          || (!wildcard && token == JsonToken.START_OBJECT)) {
+        depths.push(depth);
+      } else {
+        parser.skipChildren();
+      }
+      return null;
+    }
+
+    private Object[] getRow(JsonNode record) {
+      Object[] row = new Object[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        JsonNode node = record;
+        for (String key : fieldPaths[i]) {
+          node = node == null ? null : node.get(key);
+        }
+        if (node == null && !defaultPathLeafToNull && !ignoreMissingPath) {
+          throw new IllegalStateException(
+              BaseMessages.getString(PKG, "JsonReader.Error.CanNotFindPath", fields[i].getPath()));
+        }
+        row[i] = getValue(node);
+      }
+      return row;
+    }
+
+    private Object getValue(JsonNode node) {
+      if (node == null || node.isNull()) {
+        return null;
+      }
+      if (node.isTextual()) {
+        return node.textValue();
+      }
+      if (node.isNumber()) {
+        return node.numberValue();
+      }
+      if (node.isBoolean()) {
+        return node.booleanValue();
+      }
+      return node.toString();
+    }
+
+    private void close() {
+      done = true;
+      depths.clear();
+      try {
+        parser.close();
+      } catch (IOException e) {
+        log.logError(e.getMessage(), e);
+      }
+    }
+
+    @Override
+    public int size() {
+      return done ? 0 : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      return done;
+    }
+
+    @Override
+    public void clear() {
+      if (!done) {
+        close();
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class JsonStreamingReaderTest {
+  private final ILogChannel log = mock(ILogChannel.class);
+
+  @Test
+  public void testParsePath() {
+    assertEquals(
+        Arrays.asList("data", null, "address", "city"),
+        JsonStreamingReader.parsePath("$.data[*].address.city"));
+    assertEquals(
+        Arrays.asList(null, "first name"), JsonStreamingReader.parsePath("$[*]['first name']"));
+    assertEquals(Arrays.asList(), JsonStreamingReader.parsePath("$"));
+    assertNull(JsonStreamingReader.parsePath("$..name"));
+    assertNull(JsonStreamingReader.parsePath("$.data[0].name"));
+    assertNull(JsonStreamingReader.parsePath("$.data[?(@.id)].name"));
+  }
+
+  @Test
+  public void testArrayOfRecords() throws Exception {
+    String json =
+        "{\"meta\":{\"skip\":[1,2]},\"data\":["
+            + "{\"id\":1,\"name\":\"a\",\"address\":{\"city\":\"x\"},\"tags\":[\"t\"]},"
+            + "{\"name\":\"b\",\"id\":2.5,\"active\":true},"
+            + "{\"id\":null}"
+            + "],\"after\":[{\"id\":9}]}";
+    List<Object[]> rows =
+        read(
+            json,
+            "$.data[*].id",
+            "$.data[*].name",
+            "$.data[*].address.city",
+            "$.data[*].tags",
+            "$.data[*].active");
+    assertEquals(3, rows.size());
+    assertArrayEquals(new Object[] {1, "a", "x", "[\"t\"]", null}, rows.get(0));
+    assertArrayEquals(new Object[] {2.5, "b", null, null, true}, rows.get(1));
+    assertArrayEquals(new Object[] {null, null, null, null, null}, rows.get(2));
+  }
+
+  @Test
+  public void testJsonLines() throws Exception {
+    String json = "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"name\":\"b\"}\n";
+    List<Object[]> rows = read(json, "$.id", "$['name']");
+    assertEquals(2, rows.size());
+    assertArrayEquals(new Object[] {1, "a"}, rows.get(0));
+    assertArrayEquals(new Object[] {2, "b"}, rows.get(1));
+  }
+
+  @Test
+  public void testRootArrayOfArrays() throws Exception {
+    String json = "[[{\"id\":1}],[{\"id\":2},{\"id\":3}]]";
+    List<Object[]> rows = read(json, "$[*][*].id");
+    assertEquals(3, rows.size());
+    assertArrayEquals(new Object[] {3}, rows.get(2));
+  }
+
+  @Test
+  public void testNoRecordsGivesEmptyRow() throws Exception {
+    List<Object[]> rows = read("{}", "$.data[*].id");
+    assertEquals(1, rows.size());
+    assertArrayEquals(new Object[] {null}, rows.get(0));
+  }
+
+  @Test(expected = HopException.class)
+  public void testDifferentRecordsNotSupported() throws Exception {
+    new JsonStreamingReader(fields("$.data[*].id", "$.other[*].id"), true, log);
+  }
+
+  @Test(expected = HopException.class)
+  public void testFilterNotSupported() throws Exception {
+    new JsonStreamingReader(fields("$.data[?(@.id > 1)].id"), true, log);
+  }
+
+  private List<Object[]> read(String json, String... paths) throws HopException {
+    JsonStreamingReader reader = new JsonStreamingReader(fields(paths), true, log);
+    reader.setIgnoreMissingPath(true);
+    assertTrue(reader.isStreaming());
+    IRowSet rowSet =
+        reader.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = rowSet.getRow()) != null) {
+      rows.add(row);
+    }
+    assertTrue(rowSet.isDone());
+    return rows;
+  }
+
+  private static JsonInputField[] fields(String... paths) {
+    JsonInputField[] fields = new JsonInputField[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      fields[i] = new JsonInputField("field" + i);
+      fields[i].setPath(paths[i]);
+    }
+    return fields;
+  }
+}
@@ -24,4 +24,10 @@ public class Aggregate {
   public long[] counts;
   public Set<Object>[] distinctObjs;
   public double[] mean;
+
+  /** Primitive state of the aggregates over Integer subjects, see MemoryGroupByData.accumulators */
+  public long[] longs;
+
+  /** Primitive state of the aggregates over Number subjects, see MemoryGroupByData.accumulators */
+  public double[] doubles;
 }
@@ -17,6 +17,11 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -24,9 +29,14 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
@@ -37,14 +47,25 @@ import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.util.ThreadUtil;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.SpillPartition;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
 
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_DOUBLE_MAX;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_DOUBLE_MIN;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_DOUBLE_SUM;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_LONG_MAX;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_LONG_MIN;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_LONG_SUM;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.ACCUMULATE_NONE;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountAll;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountAny;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountDistinct;
@@ -54,9 +75,31 @@ import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.Gr
 public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupByData> {
   private static final Class<?> PKG = MemoryGroupByMeta.class; // For Translator
 
+  /** Every spill level splits the rows over 2^SPILL_PARTITION_BITS files */
+  private static final int SPILL_PARTITION_BITS = 4;
+
+  private static final int NR_SPILL_PARTITIONS = 1 << SPILL_PARTITION_BITS;
+
+  /** After this many levels the remaining groups are kept in memory regardless of the limit */
+  private static final int MAX_SPILL_LEVEL = 6;
+
+  private static final int SPILL_BUFFER_SIZE = 65536;
+
+  /** The number of rows handed to an aggregation thread at once */
+  private static final int WORKER_BATCH_SIZE = 1024;
+
+  /** The number of batches waiting for an aggregation thread */
+  private static final int WORKER_QUEUE_SIZE = 16;
+
+  /** Tells an aggregation thread that all rows are handed over */
+  private static final Object[][] END_OF_ROWS = new Object[0][];
+
   private boolean allNullsAreZero = false;
   private boolean minNullIsValued = false;
 
+  /** The threads aggregating the rows in parallel, null when aggregating in this thread */
+  private AggregationWorker[] workers;
+
   public MemoryGroupBy(
       TransformMeta transformMeta,
       MemoryGroupByMeta meta,
@@ -176,7 +219,11 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       data.newBatch = false;
     }
 
-    addToAggregate(r);
+    if (data.nrThreads > 1) {
+      handToWorker(r);
+    } else {
+      addToAggregate(r);
+    }
 
     if (checkFeedback(getLinesRead())) {
       if (log.isBasic()) {
@@ -188,29 +235,41 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   }
 
   private void handleLastOfGroup() throws HopException {
-    // Dump the content of the map...
+    boolean noGroups = data.map.isEmpty();
+
+    putAggregates(data);
+
+    // The groups that didn't fit in memory are aggregated one partition at a time
     //
-    for (HashEntry entry : data.map.keySet()) {
-      Aggregate aggregate = data.map.get(entry);
-      Object[] aggregateResult = getAggregateResult(aggregate);
+    aggregateSpilledRows(data);
 
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] =
-            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
-      }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        outputRowData[index++] =
-            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+    // Every aggregation thread has its own groups, nothing needs to be merged
+    //
+    if (workers != null) {
+      AggregationWorker[] finished = workers;
+      workers = null;
+      try {
+        if (!finishWorkers(finished)) {
+          // The transform was stopped: don't pass on the aggregates of a part of the rows
+          //
+          return;
+        }
+        for (AggregationWorker worker : finished) {
+          noGroups &= worker.partitionData.map.isEmpty();
+          putAggregates(worker.partitionData);
+          aggregateSpilledRows(worker.partitionData);
+        }
+      } finally {
+        for (AggregationWorker worker : finished) {
+          deleteSpillFiles(worker.partitionData);
+        }
       }
-      putRow(data.outputRowMeta, outputRowData);
     }
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+    if (noGroups && meta.isAlwaysGivingBackOneRow()) {
       Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
       int index = 0;
       for (int i = 0; i < data.groupMeta.size(); i++) {
@@ -230,14 +289,272 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  private void putAggregates(MemoryGroupByData data) throws HopException {
+    // Dump the content of the map...
+    //
+    for (HashEntry entry : data.map.keySet()) {
+      Aggregate aggregate = data.map.get(entry);
+      Object[] aggregateResult = getAggregateResult(data, aggregate);
+
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] =
+            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        outputRowData[index++] =
+            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+      }
+      putRow(data.outputRowMeta, outputRowData);
+    }
+  }
+
+  /**
+   * Write a row of a group that doesn't fit in memory to a temporary file. The partition is taken
+   * from the hash code of the group so that all rows of a group end up in the same file.
+   *
+   * @param data the state of the partition being aggregated
+   * @param entry the group of the row
+   * @param r the row to write
+   * @throws HopException in case the row can't be written
+   */
+  private void spillRow(MemoryGroupByData data, HashEntry entry, Object[] r) throws HopException {
+    if (data.spillPartitions == null) {
+      data.spillPartitions = new SpillPartition[NR_SPILL_PARTITIONS];
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG, "MemoryGroupBy.Log.SpillingToDisk", data.map.size(), data.spillLevel));
+      }
+    }
+
+    // Spread the hash code and take other bits for every level
+    //
+    int hash = entry.hashCode() * 0x9E3779B9;
+    int partitionNr =
+        (hash >>> (Integer.SIZE - SPILL_PARTITION_BITS * (data.spillLevel + 1)))
+            & (NR_SPILL_PARTITIONS - 1);
+
+    SpillPartition partition = data.spillPartitions[partitionNr];
+    if (partition == null) {
+      partition = new SpillPartition();
+      partition.level = data.spillLevel;
+      partition.file = HopVfs.createTempFile("grp", ".tmp", data.spillDirectory);
+      try {
+        partition.outputStream =
+            new DataOutputStream(
+                new BufferedOutputStream(
+                    HopVfs.getOutputStream(partition.file, false), SPILL_BUFFER_SIZE));
+      } catch (IOException e) {
+        throw new HopFileException(e);
+      }
+      data.spillPartitions[partitionNr] = partition;
+    }
+    data.inputRowMeta.writeData(partition.outputStream, r);
+    partition.nrRows++;
+  }
+
+  /**
+   * Close the temporary files written at the current spill level and queue them for aggregation.
+   *
+   * @param data the state of the partition being aggregated
+   * @throws HopFileException in case a file can't be closed
+   */
+  private void closeSpillPartitions(MemoryGroupByData data) throws HopFileException {
+    if (data.spillPartitions == null) {
+      return;
+    }
+    for (SpillPartition partition : data.spillPartitions) {
+      if (partition != null) {
+        try {
+          partition.outputStream.close();
+        } catch (IOException e) {
+          throw new HopFileException(e);
+        }
+        partition.outputStream = null;
+        data.pendingSpills.push(partition);
+      }
+    }
+    data.spillPartitions = null;
+  }
+
+  /**
+   * Aggregate the rows in the temporary files, one file at a time. Every file only contains
+   * complete groups. If a file still holds too many groups, its new groups are spilled again into
+   * smaller partitions.
+   *
+   * @param data the state of the partition being aggregated
+   * @throws HopException in case of an error reading the files or aggregating the rows
+   */
+  private void aggregateSpilledRows(MemoryGroupByData data) throws HopException {
+    closeSpillPartitions(data);
+
+    while (!data.pendingSpills.isEmpty() && !isStopped()) {
+      SpillPartition partition = data.pendingSpills.pop();
+      data.map.clear();
+      data.spillLevel = partition.level + 1;
+
+      try (DataInputStream inputStream =
+          new DataInputStream(
+              new BufferedInputStream(
+                  HopVfs.getInputStream(partition.file), SPILL_BUFFER_SIZE))) {
+        for (long i = 0; i < partition.nrRows; i++) {
+          addToAggregate(data, data.inputRowMeta.readData(inputStream));
+        }
+      } catch (IOException e) {
+        throw new HopFileException(e);
+      } finally {
+        deleteSpillFile(partition);
+      }
+
+      putAggregates(data);
+      closeSpillPartitions(data);
+    }
+    data.spillLevel = 0;
+  }
+
+  /**
+   * Hand a row to the aggregation thread of its group. The partition is taken from the hash code of
+   * the group so that all rows of a group are aggregated by the same thread, in the order they are
+   * read.
+   *
+   * @param r the row to aggregate
+   * @throws HopException in case an aggregation thread failed
+   */
+  private void handToWorker(Object[] r) throws HopException {
+    if (workers == null) {
+      startWorkers();
+    }
+
+    Object[] groupData = new Object[data.groupMeta.size()];
+    for (int i = 0; i < data.groupnrs.length; i++) {
+      groupData[i] = r[data.groupnrs[i]];
+    }
+    int hash = data.getHashEntry(groupData).hashCode();
+    AggregationWorker worker = workers[Math.floorMod(hash ^ (hash >>> 16), workers.length)];
+
+    worker.batch[worker.batchSize++] = r;
+    if (worker.batchSize == WORKER_BATCH_SIZE) {
+      try {
+        worker.send(worker.batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException(e);
+      }
+      worker.batch = new Object[WORKER_BATCH_SIZE][];
+      worker.batchSize = 0;
+    }
+  }
+
+  private void startWorkers() {
+    workers = new AggregationWorker[data.nrThreads];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = new AggregationWorker(i, newPartitionData());
+    }
+    for (AggregationWorker worker : workers) {
+      worker.thread.start();
+    }
+  }
+
+  /**
+   * The state of an aggregation thread. The row metadata is cloned because value metadata
+   * conversions are not thread-safe. The limit of groups in memory is divided over the threads.
+   */
+  private MemoryGroupByData newPartitionData() {
+    MemoryGroupByData partitionData = new MemoryGroupByData();
+    partitionData.map = new HashMap<>(5000);
+    partitionData.inputRowMeta = data.inputRowMeta.clone();
+    partitionData.groupMeta = data.groupMeta.clone();
+    partitionData.aggMeta = data.aggMeta.clone();
+    partitionData.outputRowMeta = data.outputRowMeta;
+    partitionData.groupnrs = data.groupnrs;
+    partitionData.subjectnrs = data.subjectnrs;
+    partitionData.accumulators = data.accumulators;
+    partitionData.usesLongs = data.usesLongs;
+    partitionData.usesDoubles = data.usesDoubles;
+    partitionData.maxGroups = (data.maxGroups + data.nrThreads - 1) / data.nrThreads;
+    partitionData.spillDirectory = data.spillDirectory;
+    return partitionData;
+  }
+
+  /**
+   * Hand the remaining rows to the aggregation threads and wait until they aggregated everything.
+   *
+   * @param finished the aggregation threads to finish
+   * @return false if the transform was stopped, the aggregates are incomplete then
+   * @throws HopException in case an aggregation thread failed
+   */
+  private boolean finishWorkers(AggregationWorker[] finished) throws HopException {
+    try {
+      for (AggregationWorker worker : finished) {
+        if ((worker.batchSize > 0 && !worker.send(worker.batch)) || !worker.send(END_OF_ROWS)) {
+          return false;
+        }
+        worker.batch = null;
+      }
+      for (AggregationWorker worker : finished) {
+        worker.thread.join();
+        worker.checkError();
+      }
+      return !isStopped();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(e);
+    } finally {
+      stopWorkers(finished);
+    }
+  }
+
+  private void stopWorkers(AggregationWorker[] running) {
+    for (AggregationWorker worker : running) {
+      worker.thread.interrupt();
+    }
+    for (AggregationWorker worker : running) {
+      try {
+        worker.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void deleteSpillFiles(MemoryGroupByData data) {
+    if (data.spillPartitions != null) {
+      for (SpillPartition partition : data.spillPartitions) {
+        if (partition != null) {
+          deleteSpillFile(partition);
+        }
+      }
+      data.spillPartitions = null;
+    }
+    while (!data.pendingSpills.isEmpty()) {
+      deleteSpillFile(data.pendingSpills.pop());
+    }
+  }
+
+  private void deleteSpillFile(SpillPartition partition) {
+    closeQuietly(partition.outputStream);
+    try {
+      partition.file.delete();
+    } catch (FileSystemException e) {
+      logError(e.getLocalizedMessage(), e);
+    }
+  }
+
   /**
    * Used for junits in MemoryGroupByAggregationNullsTest
    *
    * @param r
    * @throws HopException
    */
-  @SuppressWarnings("unchecked")
   void addToAggregate(Object[] r) throws HopException {
+    addToAggregate(data, r);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addToAggregate(MemoryGroupByData data, Object[] r) throws HopException {
 
     Object[] groupData = new Object[data.groupMeta.size()];
     for (int i = 0; i < data.groupnrs.length; i++) {
@@ -247,10 +564,19 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     Aggregate aggregate = data.map.get(entry);
     if (aggregate == null) {
+      if (data.maxGroups > 0
+          && data.map.size() >= data.maxGroups
+          && data.spillLevel < MAX_SPILL_LEVEL) {
+        // No more room for a new group, aggregate its rows later on
+        //
+        spillRow(data, entry, r);
+        return;
+      }
+
       // Create a new value...
       //
       aggregate = new Aggregate();
-      newAggregate(r, aggregate);
+      newAggregate(data, r, aggregate);
 
       // Store it in the map!
       //
@@ -259,6 +585,10 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
       Object subj = r[data.subjectnrs[i]];
+      if (data.accumulators != null && accumulate(aggregate, i, data.accumulators[i], subj)) {
+        continue;
+      }
+
       IValueMeta subjMeta = data.inputRowMeta.getValueMeta(data.subjectnrs[i]);
       Object value = aggregate.agg[i];
       IValueMeta valueMeta = data.aggMeta.getValueMeta(i);
@@ -396,6 +726,102 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  /**
+   * Add a value to the primitive state of an aggregate, without boxing or value metadata.
+   *
+   * @return false if the aggregate doesn't keep primitive state
+   */
+  private static boolean accumulate(Aggregate aggregate, int i, int accumulator, Object subj) {
+    if (accumulator == ACCUMULATE_NONE) {
+      return false;
+    }
+    if (subj == null) {
+      return true;
+    }
+    switch (accumulator) {
+      case ACCUMULATE_LONG_SUM:
+        aggregate.longs[i] += (Long) subj;
+        break;
+      case ACCUMULATE_LONG_MIN:
+        long minLong = (Long) subj;
+        if (aggregate.counts[i] == 0 || minLong < aggregate.longs[i]) {
+          aggregate.longs[i] = minLong;
+        }
+        break;
+      case ACCUMULATE_LONG_MAX:
+        long maxLong = (Long) subj;
+        if (aggregate.counts[i] == 0 || maxLong > aggregate.longs[i]) {
+          aggregate.longs[i] = maxLong;
+        }
+        break;
+      case ACCUMULATE_DOUBLE_SUM:
+        aggregate.doubles[i] += (Double) subj;
+        break;
+      case ACCUMULATE_DOUBLE_MIN:
+        double minDouble = (Double) subj;
+        if (aggregate.counts[i] == 0 || Double.compare(minDouble, aggregate.doubles[i]) < 0) {
+          aggregate.doubles[i] = minDouble;
+        }
+        break;
+      case ACCUMULATE_DOUBLE_MAX:
+        double maxDouble = (Double) subj;
+        if (aggregate.counts[i] == 0 || Double.compare(maxDouble, aggregate.doubles[i]) > 0) {
+          aggregate.doubles[i] = maxDouble;
+        }
+        break;
+      default:
+        break;
+    }
+    aggregate.counts[i]++;
+    return true;
+  }
+
+  /**
+   * Sum, average, minimum and maximum over Integer or Number subjects in normal storage keep their
+   * state in a primitive long or double. With a valued null minimum we keep the generic code.
+   */
+  private int getAccumulator(GroupType type, IValueMeta subjMeta) {
+    if (subjMeta == null || subjMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return ACCUMULATE_NONE;
+    }
+    boolean isLong = subjMeta.getType() == IValueMeta.TYPE_INTEGER;
+    boolean isDouble = subjMeta.getType() == IValueMeta.TYPE_NUMBER;
+    if (!isLong && !isDouble) {
+      return ACCUMULATE_NONE;
+    }
+    switch (type) {
+      case Sum:
+      case Average:
+        return isLong ? ACCUMULATE_LONG_SUM : ACCUMULATE_DOUBLE_SUM;
+      case Minimum:
+        if (minNullIsValued) {
+          return ACCUMULATE_NONE;
+        }
+        return isLong ? ACCUMULATE_LONG_MIN : ACCUMULATE_DOUBLE_MIN;
+      case Maximum:
+        return isLong ? ACCUMULATE_LONG_MAX : ACCUMULATE_DOUBLE_MAX;
+      default:
+        return ACCUMULATE_NONE;
+    }
+  }
+
+  /**
+   * @return the boxed value of an aggregate, taken from the primitive state if it has any
+   */
+  private Object getAggregateValue(MemoryGroupByData data, Aggregate aggregate, int i) {
+    int accumulator = data.accumulators == null ? ACCUMULATE_NONE : data.accumulators[i];
+    switch (accumulator) {
+      case ACCUMULATE_NONE:
+        return aggregate.agg[i];
+      case ACCUMULATE_LONG_SUM:
+      case ACCUMULATE_LONG_MIN:
+      case ACCUMULATE_LONG_MAX:
+        return aggregate.counts[i] == 0 ? null : Long.valueOf(aggregate.longs[i]);
+      default:
+        return aggregate.counts[i] == 0 ? null : Double.valueOf(aggregate.doubles[i]);
+    }
+  }
+
   /**
    * Used for junits in MemoryGroupByNewAggregateTest
    *
@@ -404,8 +830,16 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
    * @throws HopException
    */
   void newAggregate(Object[] r, Aggregate aggregate) throws HopException {
+    newAggregate(data, r, aggregate);
+  }
+
+  private void newAggregate(MemoryGroupByData data, Object[] r, Aggregate aggregate)
+      throws HopException {
     if (aggregate == null) {
       data.aggMeta = new RowMeta();
+      data.accumulators = new int[data.subjectnrs.length];
+      data.usesLongs = false;
+      data.usesDoubles = false;
     } else {
       aggregate.counts = new long[data.subjectnrs.length];
 
@@ -416,6 +850,8 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       aggregate.distinctObjs = null;
       aggregate.agg = new Object[data.subjectnrs.length];
       aggregate.mean = new double[data.subjectnrs.length]; // sets all doubles to 0.0
+      aggregate.longs = data.usesLongs ? new long[data.subjectnrs.length] : null;
+      aggregate.doubles = data.usesDoubles ? new double[data.subjectnrs.length] : null;
     }
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
@@ -472,6 +908,11 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       }
       if (aggregate == null) {
         data.aggMeta.addValueMeta(vMeta);
+        data.accumulators[i] = getAccumulator(agg.getType(), subjMeta);
+        data.usesLongs |=
+            data.accumulators[i] >= ACCUMULATE_LONG_SUM
+                && data.accumulators[i] <= ACCUMULATE_LONG_MAX;
+        data.usesDoubles |= data.accumulators[i] >= ACCUMULATE_DOUBLE_SUM;
       } else {
         aggregate.agg[i] = v;
       }
@@ -499,11 +940,16 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
    * @throws HopValueException
    */
   Object[] getAggregateResult(Aggregate aggregate) throws HopValueException {
+    return getAggregateResult(data, aggregate);
+  }
+
+  private Object[] getAggregateResult(MemoryGroupByData data, Aggregate aggregate)
+      throws HopValueException {
     Object[] result = new Object[data.subjectnrs.length];
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
       GAggregate agg = meta.getAggregates().get(i);
-      Object ag = aggregate.agg[i];
+      Object ag = getAggregateValue(data, aggregate, i);
       switch (agg.getType()) {
         case Sum:
           break;
@@ -574,6 +1020,12 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     if (super.init()) {
       data.map = new HashMap<>(5000);
+      data.maxGroups = Const.toLong(resolve(meta.getMaxGroupsInMemory()), 0L);
+      data.spillDirectory = resolve(meta.getSpillDirectory());
+      if (Utils.isEmpty(data.spillDirectory)) {
+        data.spillDirectory = System.getProperty("java.io.tmpdir");
+      }
+      data.nrThreads = Math.max(1, Const.toInt(resolve(meta.getAggregationThreads()), 1));
       return true;
     }
     return false;
@@ -581,6 +1033,18 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
   @Override
   public void dispose() {
+    // Stop the aggregation threads and remove the temporary files left behind when the pipeline
+    // was stopped
+    //
+    if (workers != null) {
+      stopWorkers(workers);
+      for (AggregationWorker worker : workers) {
+        deleteSpillFiles(worker.partitionData);
+      }
+      workers = null;
+    }
+    deleteSpillFiles(data);
+
     super.dispose();
     ((MemoryGroupByData) data).clear();
   }
@@ -615,4 +1079,69 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   void setMinNullIsValued(boolean minNullIsValued) {
     this.minNullIsValued = minNullIsValued;
   }
+
+  /** Aggregates the rows of the groups in its partition in a separate thread. */
+  private class AggregationWorker implements Runnable {
+    private final MemoryGroupByData partitionData;
+    private final BlockingQueue<Object[][]> queue = new ArrayBlockingQueue<>(WORKER_QUEUE_SIZE);
+    private final Thread thread;
+
+    /** The rows collected by the transform thread for the next hand-over */
+    private Object[][] batch = new Object[WORKER_BATCH_SIZE][];
+
+    private int batchSize;
+    private volatile Throwable error;
+
+    private AggregationWorker(int nr, MemoryGroupByData partitionData) {
+      this.partitionData = partitionData;
+      this.thread = ThreadUtil.newThread(this, getTransformName() + " aggregation " + nr, false);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          Object[][] rows = queue.take();
+          if (rows == END_OF_ROWS) {
+            return;
+          }
+          for (Object[] row : rows) {
+            if (row == null) {
+              break;
+            }
+            addToAggregate(partitionData, row);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (Throwable e) {
+        error = e;
+      }
+    }
+
+    /**
+     * Wait until there is room in the queue, as long as the thread is alive.
+     *
+     * @return false if the transform was stopped before the rows could be handed over
+     */
+    private boolean send(Object[][] rows) throws HopException, InterruptedException {
+      while (!queue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+        checkError();
+        if (isStopped()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void checkError() throws HopException {
+      if (error != null) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "MemoryGroupBy.Log.AggregationThreadFailed", thread.getName()),
+            error);
+      }
+    }
+  }
 }
@@ -17,12 +17,16 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
+import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.io.DataOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 
 public class MemoryGroupByData extends BaseTransformData implements ITransformData {
@@ -65,8 +69,54 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
     }
   }
 
+  /** A temporary file with the rows of groups that didn't fit in memory */
+  public static class SpillPartition {
+    public FileObject file;
+    public DataOutputStream outputStream;
+    public long nrRows;
+
+    /** The number of times the rows of this partition were spilled already */
+    public int level;
+  }
+
+  /** The aggregate keeps no primitive state */
+  public static final int ACCUMULATE_NONE = 0;
+
+  public static final int ACCUMULATE_LONG_SUM = 1;
+  public static final int ACCUMULATE_LONG_MIN = 2;
+  public static final int ACCUMULATE_LONG_MAX = 3;
+  public static final int ACCUMULATE_DOUBLE_SUM = 4;
+  public static final int ACCUMULATE_DOUBLE_MIN = 5;
+  public static final int ACCUMULATE_DOUBLE_MAX = 6;
+
   public HashMap<HashEntry, Aggregate> map;
 
+  /**
+   * Per aggregate, how its state is kept in {@link Aggregate#longs} or {@link Aggregate#doubles}
+   * instead of a boxed value. The counts hold the number of non-null values for those.
+   */
+  public int[] accumulators;
+
+  public boolean usesLongs;
+  public boolean usesDoubles;
+
+  /** The maximum number of groups in the map, 0 means no limit */
+  public long maxGroups;
+
+  public String spillDirectory;
+
+  /** The number of threads aggregating the rows */
+  public int nrThreads = 1;
+
+  /** The spill level of the rows being aggregated, 0 while reading the input */
+  public int spillLevel;
+
+  /** The partitions being written at the current spill level, by partition number */
+  public SpillPartition[] spillPartitions;
+
+  /** The partitions that are written completely and still need to be aggregated */
+  public Deque<SpillPartition> pendingSpills = new ArrayDeque<>();
+
   public IRowMeta aggMeta;
   public IRowMeta groupMeta;
   public IRowMeta entryMeta;
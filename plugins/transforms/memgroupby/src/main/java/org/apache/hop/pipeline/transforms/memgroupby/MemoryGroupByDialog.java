@@ -32,6 +32,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -62,6 +63,12 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
 
   private Button wAlwaysAddResult;
 
+  private TextVar wMaxGroups;
+
+  private TextVar wSpillDir;
+
+  private TextVar wAggregationThreads;
+
   private final MemoryGroupByMeta input;
 
   private ColumnInfo[] ciKey;
@@ -147,12 +154,87 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     wAlwaysAddResult.setLayoutData(fdAlwaysAddResult);
     wAlwaysAddResult.addSelectionListener(lsSel);
 
+    // Maximum number of groups to keep in memory before using temporary files
+    Label wlMaxGroups = new Label(shell, SWT.RIGHT);
+    wlMaxGroups.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroups.Label"));
+    wlMaxGroups.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroups.ToolTip"));
+    PropsUi.setLook(wlMaxGroups);
+    FormData fdlMaxGroups = new FormData();
+    fdlMaxGroups.left = new FormAttachment(0, 0);
+    fdlMaxGroups.top = new FormAttachment(wlAlwaysAddResult, 2 * margin);
+    fdlMaxGroups.right = new FormAttachment(middle, -margin);
+    wlMaxGroups.setLayoutData(fdlMaxGroups);
+    wMaxGroups = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxGroups.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroups.ToolTip"));
+    PropsUi.setLook(wMaxGroups);
+    wMaxGroups.addModifyListener(lsMod);
+    FormData fdMaxGroups = new FormData();
+    fdMaxGroups.left = new FormAttachment(middle, 0);
+    fdMaxGroups.top = new FormAttachment(wlMaxGroups, 0, SWT.CENTER);
+    fdMaxGroups.right = new FormAttachment(100, 0);
+    wMaxGroups.setLayoutData(fdMaxGroups);
+
+    // Directory for the temporary files
+    Label wlSpillDir = new Label(shell, SWT.RIGHT);
+    wlSpillDir.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDir.Label"));
+    PropsUi.setLook(wlSpillDir);
+    FormData fdlSpillDir = new FormData();
+    fdlSpillDir.left = new FormAttachment(0, 0);
+    fdlSpillDir.right = new FormAttachment(middle, -margin);
+    fdlSpillDir.top = new FormAttachment(wMaxGroups, margin);
+    wlSpillDir.setLayoutData(fdlSpillDir);
+
+    Button wbSpillDir = new Button(shell, SWT.PUSH | SWT.CENTER);
+    PropsUi.setLook(wbSpillDir);
+    wbSpillDir.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbSpillDir = new FormData();
+    fdbSpillDir.right = new FormAttachment(100, 0);
+    fdbSpillDir.top = new FormAttachment(wMaxGroups, margin);
+    wbSpillDir.setLayoutData(fdbSpillDir);
+
+    wSpillDir = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillDir);
+    wSpillDir.addModifyListener(lsMod);
+    FormData fdSpillDir = new FormData();
+    fdSpillDir.left = new FormAttachment(middle, 0);
+    fdSpillDir.top = new FormAttachment(wMaxGroups, margin);
+    fdSpillDir.right = new FormAttachment(wbSpillDir, -margin);
+    wSpillDir.setLayoutData(fdSpillDir);
+
+    wbSpillDir.addListener(
+        SWT.Selection, e -> BaseDialog.presentDirectoryDialog(shell, wSpillDir, variables));
+
+    // Number of aggregation threads
+    Label wlAggregationThreads = new Label(shell, SWT.RIGHT);
+    wlAggregationThreads.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.AggregationThreads.Label"));
+    wlAggregationThreads.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.AggregationThreads.ToolTip"));
+    PropsUi.setLook(wlAggregationThreads);
+    FormData fdlAggregationThreads = new FormData();
+    fdlAggregationThreads.left = new FormAttachment(0, 0);
+    fdlAggregationThreads.top = new FormAttachment(wbSpillDir, margin);
+    fdlAggregationThreads.right = new FormAttachment(middle, -margin);
+    wlAggregationThreads.setLayoutData(fdlAggregationThreads);
+    wAggregationThreads = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wAggregationThreads.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.AggregationThreads.ToolTip"));
+    PropsUi.setLook(wAggregationThreads);
+    wAggregationThreads.addModifyListener(lsMod);
+    FormData fdAggregationThreads = new FormData();
+    fdAggregationThreads.left = new FormAttachment(middle, 0);
+    fdAggregationThreads.top = new FormAttachment(wlAggregationThreads, 0, SWT.CENTER);
+    fdAggregationThreads.right = new FormAttachment(100, 0);
+    wAggregationThreads.setLayoutData(fdAggregationThreads);
+
     Label wlGroup = new Label(shell, SWT.NONE);
     wlGroup.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.Group.Label"));
     PropsUi.setLook(wlGroup);
     FormData fdlGroup = new FormData();
     fdlGroup.left = new FormAttachment(0, 0);
-    fdlGroup.top = new FormAttachment(wlAlwaysAddResult, 2 * margin);
+    fdlGroup.top = new FormAttachment(wAggregationThreads, 2 * margin);
     wlGroup.setLayoutData(fdlGroup);
 
     int groupCols = 1;
@@ -319,6 +401,9 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     logDebug(BaseMessages.getString(PKG, "MemoryGroupByDialog.Log.GettingKeyInfo"));
 
     wAlwaysAddResult.setSelection(input.isAlwaysGivingBackOneRow());
+    wMaxGroups.setText(Const.NVL(input.getMaxGroupsInMemory(), ""));
+    wSpillDir.setText(Const.NVL(input.getSpillDirectory(), ""));
+    wAggregationThreads.setText(Const.NVL(input.getAggregationThreads(), ""));
 
     for (int i = 0; i < input.getGroups().size(); i++) {
       TableItem item = wGroup.table.getItem(i);
@@ -355,6 +440,9 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     }
 
     input.setAlwaysGivingBackOneRow(wAlwaysAddResult.getSelection());
+    input.setMaxGroupsInMemory(wMaxGroups.getText());
+    input.setSpillDirectory(wSpillDir.getText());
+    input.setAggregationThreads(wAggregationThreads.getText());
 
     input.getGroups().clear();
     for (TableItem item : wGroup.getNonEmptyItems()) {
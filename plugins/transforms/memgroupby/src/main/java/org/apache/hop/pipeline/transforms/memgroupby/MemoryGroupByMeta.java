@@ -83,9 +83,37 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       injectionKeyDescription = "MemoryGroupBy.Injection.ALWAYSGIVINGBACKONEROW")
   private boolean alwaysGivingBackOneRow;
 
+  /**
+   * The maximum number of groups kept in memory. Once reached, the rows of new groups are written
+   * to temporary files and aggregated afterwards. Empty or 0 means no limit.
+   */
+  @HopMetadataProperty(
+      key = "max_groups_in_memory",
+      injectionKey = "MAX_GROUPS_IN_MEMORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.MAX_GROUPS_IN_MEMORY")
+  private String maxGroupsInMemory;
+
+  /** The directory to write the temporary files to */
+  @HopMetadataProperty(
+      key = "spill_directory",
+      injectionKey = "SPILL_DIRECTORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_DIRECTORY")
+  private String spillDirectory;
+
+  /**
+   * The number of threads aggregating the rows of this transform copy. Every thread aggregates
+   * its own share of the groups. Empty or 1 means the rows are aggregated by the transform thread.
+   */
+  @HopMetadataProperty(
+      key = "aggregation_threads",
+      injectionKey = "AGGREGATION_THREADS",
+      injectionKeyDescription = "MemoryGroupBy.Injection.AGGREGATION_THREADS")
+  private String aggregationThreads;
+
   public MemoryGroupByMeta() {
     this.groups = new ArrayList<>();
     this.aggregates = new ArrayList<>();
+    this.spillDirectory = "${java.io.tmpdir}";
   }
 
   public MemoryGroupByMeta(MemoryGroupByMeta meta) {
@@ -97,6 +125,9 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       aggregates.add(new GAggregate(aggregate));
     }
     this.alwaysGivingBackOneRow = meta.alwaysGivingBackOneRow;
+    this.maxGroupsInMemory = meta.maxGroupsInMemory;
+    this.spillDirectory = meta.spillDirectory;
+    this.aggregationThreads = meta.aggregationThreads;
   }
 
   @Override
@@ -470,4 +501,58 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
   public void setAlwaysGivingBackOneRow(boolean alwaysGivingBackOneRow) {
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
+
+  /**
+   * Gets maxGroupsInMemory
+   *
+   * @return value of maxGroupsInMemory
+   */
+  public String getMaxGroupsInMemory() {
+    return maxGroupsInMemory;
+  }
+
+  /**
+   * Sets maxGroupsInMemory
+   *
+   * @param maxGroupsInMemory value of maxGroupsInMemory
+   */
+  public void setMaxGroupsInMemory(String maxGroupsInMemory) {
+    this.maxGroupsInMemory = maxGroupsInMemory;
+  }
+
+  /**
+   * Gets spillDirectory
+   *
+   * @return value of spillDirectory
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * Sets spillDirectory
+   *
+   * @param spillDirectory value of spillDirectory
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Gets aggregationThreads
+   *
+   * @return value of aggregationThreads
+   */
+  public String getAggregationThreads() {
+    return aggregationThreads;
+  }
+
+  /**
+   * Sets aggregationThreads
+   *
+   * @param aggregationThreads value of aggregationThreads
+   */
+  public void setAggregationThreads(String aggregationThreads) {
+    this.aggregationThreads = aggregationThreads;
+  }
 }
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Average;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountAny;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.First;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Last;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Maximum;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Minimum;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Sum;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class MemoryGroupByTest {
+  private static final int NR_ROWS = 5000;
+  private static final int NR_GROUPS = 1000;
+
+  @Rule public TemporaryFolder spillFolder = new TemporaryFolder();
+
+  private TransformMockHelper<MemoryGroupByMeta, MemoryGroupByData> transformMockHelper;
+
+  @Before
+  public void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>(
+            "Test MemoryGroupBy", MemoryGroupByMeta.class, MemoryGroupByData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @Test
+  public void testAllGroupsInMemory() throws Exception {
+    checkAggregates(null, null);
+  }
+
+  /** Only 50 of the 1000 groups fit in memory so the partitions are spilled again. */
+  @Test
+  public void testSpillToDisk() throws Exception {
+    checkAggregates("50", null);
+    assertEquals(0, spillFolder.getRoot().list().length);
+  }
+
+  /** Every thread aggregates its own groups, the rows of a group are kept in order. */
+  @Test
+  public void testAggregationThreads() throws Exception {
+    checkAggregates(null, "4");
+  }
+
+  @Test
+  public void testAggregationThreadsSpillToDisk() throws Exception {
+    checkAggregates("100", "3");
+    assertEquals(0, spillFolder.getRoot().list().length);
+  }
+
+  /** A stopped transform doesn't pass on the aggregates of the rows it read so far. */
+  @Test
+  public void testAggregationThreadsStopped() throws Exception {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.setGroups(new ArrayList<>(Collections.singletonList(new GGroup("key"))));
+    meta.setAggregates(
+        new ArrayList<>(Collections.singletonList(new GAggregate("sum", "value", Sum, null))));
+    meta.setAggregationThreads("2");
+    meta.setAlwaysGivingBackOneRow(true);
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("value"));
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 100; i++) {
+      rows.add(new Object[] {"key" + (i % 10), i});
+    }
+
+    List<Object[]> output = new ArrayList<>();
+    MemoryGroupBy memoryGroupBy = createTransform(meta, rowMeta, rows, output);
+    for (int i = 0; i < rows.size(); i++) {
+      assertTrue(memoryGroupBy.processRow());
+    }
+    memoryGroupBy.setStopped(true);
+    assertFalse(memoryGroupBy.processRow());
+    memoryGroupBy.dispose();
+
+    assertTrue(output.isEmpty());
+  }
+
+  private void checkAggregates(String maxGroupsInMemory, String aggregationThreads)
+      throws Exception {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.setGroups(new ArrayList<>(Collections.singletonList(new GGroup("key"))));
+    meta.setAggregates(
+        new ArrayList<>(
+            Arrays.asList(
+                new GAggregate("count", null, CountAny, null),
+                new GAggregate("sum", "value", Sum, null),
+                new GAggregate("first", "value", First, null),
+                new GAggregate("last", "value", Last, null),
+                new GAggregate("min", "value", Minimum, null),
+                new GAggregate("max", "value", Maximum, null))));
+    meta.setMaxGroupsInMemory(maxGroupsInMemory);
+    meta.setSpillDirectory(spillFolder.getRoot().getAbsolutePath());
+    meta.setAggregationThreads(aggregationThreads);
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("value"));
+
+    // The expected count, sum, first, last, min and max value per key
+    //
+    Map<String, long[]> expected = new HashMap<>();
+    List<Object[]> rows = new ArrayList<>();
+    Random random = new Random(123L);
+    for (long i = 0; i < NR_ROWS; i++) {
+      String key = "key" + random.nextInt(NR_GROUPS);
+      rows.add(new Object[] {key, i});
+      long[] values = expected.computeIfAbsent(key, k -> new long[] {0L, 0L, -1L, -1L, -1L, -1L});
+      values[0]++;
+      values[1] += i;
+      if (values[2] < 0) {
+        values[2] = i;
+        values[4] = i;
+      }
+      values[3] = i;
+      values[5] = i;
+    }
+
+    List<Object[]> output = aggregate(meta, rowMeta, rows);
+
+    assertEquals(expected.size(), output.size());
+    for (Object[] row : output) {
+      long[] values = expected.remove(row[0]);
+      long[] actual = new long[values.length];
+      for (int i = 0; i < actual.length; i++) {
+        actual[i] = (Long) row[i + 1];
+      }
+      assertArrayEquals(values, actual);
+    }
+    assertTrue(expected.isEmpty());
+  }
+
+  /** Sum, average, minimum and maximum of a Number field skip null values. */
+  @Test
+  public void testNumberAggregatesWithNulls() throws Exception {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.setGroups(new ArrayList<>(Collections.singletonList(new GGroup("key"))));
+    meta.setAggregates(
+        new ArrayList<>(
+            Arrays.asList(
+                new GAggregate("sum", "value", Sum, null),
+                new GAggregate("average", "value", Average, null),
+                new GAggregate("min", "value", Minimum, null),
+                new GAggregate("max", "value", Maximum, null))));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaNumber("value"));
+
+    List<Object[]> rows =
+        Arrays.asList(
+            new Object[] {"a", null},
+            new Object[] {"a", 1.5},
+            new Object[] {"b", null},
+            new Object[] {"a", -2.0},
+            new Object[] {"a", 4.5},
+            new Object[] {"a", null});
+
+    List<Object[]> output = aggregate(meta, rowMeta, rows);
+
+    assertEquals(2, output.size());
+    Object[] a = "a".equals(output.get(0)[0]) ? output.get(0) : output.get(1);
+    Object[] b = "a".equals(output.get(0)[0]) ? output.get(1) : output.get(0);
+    assertEquals(4.0, (Double) a[1], 0.0);
+    assertEquals(4.0 / 3, (Double) a[2], 0.0);
+    assertEquals(-2.0, (Double) a[3], 0.0);
+    assertEquals(4.5, (Double) a[4], 0.0);
+    for (int i = 1; i < b.length; i++) {
+      assertNull(b[i]);
+    }
+  }
+
+  private List<Object[]> aggregate(MemoryGroupByMeta meta, IRowMeta rowMeta, List<Object[]> rows)
+      throws Exception {
+    final List<Object[]> output = new ArrayList<>();
+    MemoryGroupBy memoryGroupBy = createTransform(meta, rowMeta, rows, output);
+    while (memoryGroupBy.processRow()) {
+      // keep going
+    }
+    memoryGroupBy.dispose();
+    return output;
+  }
+
+  /** Create a transform reading the rows and adding the rows it writes to the output. */
+  private MemoryGroupBy createTransform(
+      MemoryGroupByMeta meta, IRowMeta rowMeta, List<Object[]> rows, List<Object[]> output)
+      throws Exception {
+    MemoryGroupBy memoryGroupBy =
+        new MemoryGroupBy(
+            transformMockHelper.transformMeta,
+            meta,
+            new MemoryGroupByData(),
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+    assertTrue(memoryGroupBy.init());
+
+    IRowSet input = new BlockingRowSet(rows.size());
+    for (Object[] row : rows) {
+      input.putRow(rowMeta, row);
+    }
+    input.setDone();
+    memoryGroupBy.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    memoryGroupBy.setOutputRowSets(new ArrayList<>());
+
+    memoryGroupBy.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+    return memoryGroupBy;
+  }
+}
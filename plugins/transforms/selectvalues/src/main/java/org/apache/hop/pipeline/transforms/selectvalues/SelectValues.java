@@ -24,6 +24,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.core.util.Utils;
@@ -43,6 +44,9 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
 
   private static final Class<?> PKG = SelectValuesMeta.class; // For Translator
 
+  /** The maximum number of rows read and selected in one go */
+  private static final int BATCH_SIZE = 500;
+
   public SelectValues(
       TransformMeta transformMeta,
       SelectValuesMeta meta,
@@ -357,24 +361,14 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] rowData = getRow(); // get row from rowset, wait for our turn, indicate busy!
-    if (rowData == null) { // no more input to be expected...
+    // get the waiting rows from rowset, wait for our turn, indicate busy!
+    RowBatch batch = getRows(BATCH_SIZE);
+    if (batch == null) { // no more input to be expected...
 
       setOutputDone();
       return false;
     }
 
-    Object[] rowCopy = null;
-    if (getTransformMeta().isDoingErrorHandling()) {
-      rowCopy = getInputRowMeta().cloneRow(rowData);
-    }
-
-    if (log.isRowLevel()) {
-      logRowlevel(
-          BaseMessages.getString(PKG, "SelectValues.Log.GotRowFromPreviousTransform")
-              + getInputRowMeta().getString(rowData));
-    }
-
     if (first) {
       first = false;
 
@@ -384,6 +378,53 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       meta.getDeleteFields(data.deselectRowMeta);
       data.metadataRowMeta = data.deselectRowMeta.clone();
       meta.getMetadataFields(data.metadataRowMeta, getTransformName(), this);
+      data.outputRows = new RowBatch(data.metadataRowMeta, BATCH_SIZE);
+    }
+
+    long lineNr = getLinesRead() - batch.size();
+    try {
+      for (int i = 0; i < batch.size(); i++) {
+        if (!selectRow(batch.getRow(i))) {
+          putRows(data.metadataRowMeta, data.outputRows);
+          setOutputDone(); // signal end to receiver(s)
+          return false;
+        }
+      }
+
+      // Send the rows on their way
+      //
+      putRows(data.metadataRowMeta, data.outputRows);
+    } finally {
+      data.outputRows.clear();
+    }
+
+    for (int i = 1; i <= batch.size(); i++) {
+      if (checkFeedback(lineNr + i)) {
+        logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + (lineNr + i));
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Select the values of a row and add the result to the output rows of the batch. A row which
+   * can't be converted goes to error handling if there is any.
+   *
+   * @param rowData the input row
+   * @return false if there are no more rows to be expected
+   * @throws HopException in case of an error without error handling
+   */
+  private boolean selectRow(Object[] rowData) throws HopException {
+    Object[] rowCopy = null;
+    if (getTransformMeta().isDoingErrorHandling()) {
+      rowCopy = getInputRowMeta().cloneRow(rowData);
+    }
+
+    if (log.isRowLevel()) {
+      logRowlevel(
+          BaseMessages.getString(PKG, "SelectValues.Log.GotRowFromPreviousTransform")
+              + getInputRowMeta().getString(rowData));
     }
 
     try {
@@ -400,13 +441,10 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       }
 
       if (outputData == null) {
-        setOutputDone(); // signal end to receiver(s)
         return false;
       }
 
-      // Send the row on its way
-      //
-      putRow(data.metadataRowMeta, outputData);
+      data.outputRows.addRow(outputData);
       if (log.isRowLevel()) {
         logRowlevel(
             BaseMessages.getString(PKG, "SelectValues.Log.WroteRowToNextTransform")
@@ -427,11 +465,6 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
         throw e;
       }
     }
-
-    if (checkFeedback(getLinesRead())) {
-      logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + getLinesRead());
-    }
-
     return true;
   }
 
@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.selectvalues;
 
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -38,6 +39,9 @@ public class SelectValuesData extends BaseTransformData implements ITransformDat
 
   public IRowMeta outputRowMeta;
 
+  /** The selected rows of the current batch */
+  public RowBatch outputRows;
+
   // The MODE, default = select...
   public boolean select; // "normal" selection of fields.
   public boolean deselect; // de-select mode
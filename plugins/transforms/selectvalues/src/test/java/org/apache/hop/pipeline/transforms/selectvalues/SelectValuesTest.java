@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.selectvalues;
 
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopConversionException;
@@ -32,6 +33,7 @@ import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.apache.hop.pipeline.transforms.selectvalues.SelectValuesMeta.SelectField;
 import org.junit.After;
@@ -41,8 +43,12 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
@@ -341,6 +347,86 @@ public class SelectValuesTest {
     assertTrue(properException);
   }
 
+  @Test
+  public void testSelectValuesInBatches() throws Exception {
+    SelectValuesMeta transformMeta = new SelectValuesMeta();
+    transformMeta.allocate(1, 0, 1);
+    transformMeta.getSelectFields()[0] = new SelectField();
+    transformMeta.getSelectFields()[0].setName(SELECTED_FIELD);
+    transformMeta.getMeta()[0] =
+        new SelectMetadataChange(
+            SELECTED_FIELD,
+            null,
+            IValueMeta.TYPE_INTEGER,
+            -2,
+            -2,
+            IValueMeta.STORAGE_TYPE_NORMAL,
+            null,
+            false,
+            null,
+            null,
+            false,
+            null,
+            null,
+            null);
+
+    transform =
+        spy(
+            new SelectValues(
+                helper.transformMeta,
+                transformMeta,
+                new SelectValuesData(),
+                0,
+                helper.pipelineMeta,
+                helper.pipeline));
+    doNothing()
+        .when(transform)
+        .putError(
+            any(IRowMeta.class),
+            any(Object[].class),
+            anyLong(),
+            anyString(),
+            anyString(),
+            anyString());
+    assertTrue(transform.init());
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString(SELECTED_FIELD));
+    rowMeta.addValueMeta(new ValueMetaString("other"));
+    BlockingRowSet input = new BlockingRowSet(10);
+    input.putRow(rowMeta, new Object[] {"1", "a"});
+    input.putRow(rowMeta, new Object[] {"x", "b"});
+    input.putRow(rowMeta, new Object[] {"3", "c"});
+    input.putRow(rowMeta, new Object[] {"4", "d"});
+    input.setDone();
+    BlockingRowSet output = new BlockingRowSet(10);
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>(Collections.singletonList(output)));
+    transform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+
+    // All waiting rows are read in one go, the row which can't be converted goes to error handling
+    //
+    assertTrue(transform.processRow());
+    assertEquals(4, transform.getLinesRead());
+    assertEquals(3, transform.getLinesWritten());
+    verify(transform)
+        .putError(
+            any(IRowMeta.class),
+            eq(new Object[] {"x", "b"}),
+            eq(1L),
+            anyString(),
+            eq(SELECTED_FIELD),
+            eq("SELECT001"));
+    assertFalse(transform.processRow());
+
+    for (long expected : new long[] {1L, 3L, 4L}) {
+      Object[] row = output.getRow();
+      assertEquals(1, output.getRowMeta().size());
+      assertEquals(expected, row[0]);
+    }
+    assertNull(output.getRowImmediate());
+  }
+
   public class SelectValuesHandler extends SelectValues {
     private Object[] resultRow;
     private IRowMeta rowMeta;
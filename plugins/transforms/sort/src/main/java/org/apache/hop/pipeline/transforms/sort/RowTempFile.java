@@ -22,8 +22,16 @@ public class RowTempFile {
   public Object[] row;
   public int fileNumber;
 
+  /** The binary sort key of the row, null if binary sort keys are not used */
+  public byte[] key;
+
   public RowTempFile(Object[] row, int fileNumber) {
+    this(row, fileNumber, null);
+  }
+
+  public RowTempFile(Object[] row, int fileNumber, byte[] key) {
     this.row = row;
     this.fileNumber = fileNumber;
+    this.key = key;
   }
 }
@@ -26,6 +26,7 @@ import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.SortKeyEncoder;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -37,16 +38,21 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import org.xerial.snappy.SnappyFramedInputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
 
 /** Sort the rows in the input-streams based on certain criteria */
 public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
@@ -125,7 +131,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Then write them to disk...
     DataOutputStream dos;
-    GZIPOutputStream gzos;
+    OutputStream compressedStream;
     int p;
 
     try {
@@ -135,11 +141,16 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       data.files.add(fileObject); // Remember the files!
       OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
       if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(outputStream));
-        dos = new DataOutputStream(gzos);
+        if (data.snappyCompression) {
+          compressedStream = new SnappyFramedOutputStream(outputStream);
+          dos = new DataOutputStream(new BufferedOutputStream(compressedStream, 500000));
+        } else {
+          compressedStream = new GZIPOutputStream(new BufferedOutputStream(outputStream));
+          dos = new DataOutputStream(compressedStream);
+        }
       } else {
         dos = new DataOutputStream(new BufferedOutputStream(outputStream, 500000));
-        gzos = null;
+        compressedStream = null;
       }
 
       // Just write the data, nothing else
@@ -150,8 +161,13 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         while (index < data.buffer.size()) {
           Object[] row = data.buffer.get(index);
           if (previousRow != null) {
-            int result = data.outputRowMeta.compare(row, previousRow, data.fieldnrs);
-            if (result == 0) {
+            boolean duplicate;
+            if (data.sortKeys != null) {
+              duplicate = Arrays.equals(data.sortKeys[index], data.sortKeys[index - 1]);
+            } else {
+              duplicate = data.outputRowMeta.compare(row, previousRow, data.fieldnrs) == 0;
+            }
+            if (duplicate) {
               duplicates.add(index);
               if (log.isRowLevel()) {
                 logRowlevel(
@@ -178,6 +194,12 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           duplicatesIndex++;
         }
         if (!skip) {
+          if (data.sortKeys != null) {
+            // Keep the sort key with the row so that we don't need to encode it again to merge
+            byte[] key = data.sortKeys[p];
+            dos.writeInt(key.length);
+            dos.write(key);
+          }
           data.outputRowMeta.writeData(dos, data.buffer.get(p));
         }
       }
@@ -195,11 +217,12 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
       // Clear the list
       data.buffer.clear();
+      data.sortKeys = null;
 
       // Close temp-file
       dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
+      if (compressedStream != null) {
+        compressedStream.close(); // close compression stream
       }
       outputStream.close(); // close file stream
 
@@ -219,12 +242,21 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
+  private DataInputStream getDataInputStream(InputStream compressedInputStream) {
+    DataInputStream result = new DataInputStream(compressedInputStream);
+    data.gzis.add(compressedInputStream);
     return result;
   }
 
+  private DataInputStream getCompressedDataInputStream(InputStream inputStream)
+      throws IOException {
+    if (data.snappyCompression) {
+      return getDataInputStream(
+          new SnappyFramedInputStream(new BufferedInputStream(inputStream, 50000)));
+    }
+    return getDataInputStream(new GZIPInputStream(new BufferedInputStream(inputStream)));
+  }
+
   // get sorted rows from available files in iterative manner.
   // that means call to this method will continue to return rows
   // till all temp files will not be read to the end.
@@ -248,7 +280,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           DataInputStream di;
           data.fis.add(fi);
           if (data.compressFiles) {
-            di = getDataInputStream(new GZIPInputStream(new BufferedInputStream(fi)));
+            di = getCompressedDataInputStream(fi);
           } else {
             di = new DataInputStream(new BufferedInputStream(fi, 50000));
           }
@@ -264,14 +296,13 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           }
 
           if (buffersize > 0) {
+            byte[] key = data.sortKeyEncoder != null ? readSortKey(di) : null;
             Object[] row = data.outputRowMeta.readData(di);
             data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
+            data.tempRows.add(new RowTempFile(row, f, key));
           }
         }
 
-        // Sort the data row buffer
-        Collections.sort(data.tempRows, data.comparator);
       } catch (Exception e) {
         logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
       }
@@ -303,7 +334,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           }
         }
 
-        RowTempFile rowTempFile = data.tempRows.remove(0);
+        // The heap gives us the smallest row in O(log(nr of files))
+        //
+        RowTempFile rowTempFile = data.tempRows.poll();
         retval = rowTempFile.row;
         int smallest = rowTempFile.fileNumber;
 
@@ -314,17 +347,15 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         InputStream fi = data.fis.get(smallest);
 
         try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
-
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
+          // Re-use the holder, the file number doesn't change
+          //
+          if (data.sortKeyEncoder != null) {
+            rowTempFile.key = readSortKey(di);
           }
+          rowTempFile.row = data.outputRowMeta.readData(di);
+          data.tempRows.add(rowTempFile);
         } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
+          InputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
           try {
             di.close();
             fi.close();
@@ -350,7 +381,8 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           }
 
           // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
+          // than smallest. This keeps the relative order of the files and with it the order
+          // of the heap.
           //
           for (RowTempFile rtf : data.tempRows) {
             if (rtf.fileNumber > smallest) {
@@ -365,6 +397,18 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     return retval;
   }
 
+  private byte[] readSortKey(DataInputStream di) throws HopFileException {
+    try {
+      byte[] key = new byte[di.readInt()];
+      di.readFully(key);
+      return key;
+    } catch (EOFException e) {
+      throw new HopFileException("End of file reached", e);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to read sort key from temp-file", e);
+    }
+  }
+
   @Override
   public boolean processRow() throws HopException {
 
@@ -414,6 +458,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       data.outputRowMeta = inputRowMeta.clone();
       meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
       data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
+      data.tempRows = new PriorityQueue<>(Math.max(1, data.files.size()), data.comparator);
 
       for (int i = 0; i < fieldNames.length; i++) {
         data.fieldnrs[i] = inputRowMeta.indexOfValue(fieldNames[i]);
@@ -437,6 +482,14 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+
+      if (meta.isBinarySortKeys()) {
+        if (SortKeyEncoder.isSupported(data.outputRowMeta, data.fieldnrs)) {
+          data.sortKeyEncoder = new SortKeyEncoder(data.outputRowMeta, data.fieldnrs);
+        } else if (log.isBasic()) {
+          logBasic(BaseMessages.getString(PKG, "SortRows.Basic.BinarySortKeysNotSupported"));
+        }
+      }
     } // end if first
 
     // it is not first row and it is null
@@ -569,7 +622,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.getCompressFiles());
 
-    data.tempRows = new ArrayList<>();
+    data.snappyCompression =
+        SortRowsMeta.COMPRESSION_TYPE_SNAPPY.equalsIgnoreCase(resolve(meta.getCompressionType()));
+    data.parallelSort = meta.isParallelSort();
 
     data.minSortSize = 5000;
 
@@ -586,6 +641,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Clean out the sort buffer
     data.buffer.clear();
+    data.sortKeys = null;
     data.getBufferIndex = 0;
     data.rowbuffer.clear();
 
@@ -614,10 +670,27 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
-  /** Sort the entire vector, if it is not empty. */
-  void quickSort(List<Object[]> elements) {
+  /**
+   * Sort the entire vector, if it is not empty. In parallel mode the rows are sorted with a
+   * parallel merge sort over all available processors. Both ways are stable.
+   *
+   * <p>With binary sort keys the keys of all rows are encoded first and the rows are sorted on
+   * those. The keys are kept in data.sortKeys, in the same order as the rows, until the buffer is
+   * cleared.
+   */
+  void quickSort(List<Object[]> elements) throws HopValueException {
     if (CollectionUtils.isNotEmpty(elements)) {
-      Collections.sort(elements, data.rowComparator);
+      if (data.sortKeyEncoder != null) {
+        sortOnKeys(elements);
+      } else if (data.parallelSort) {
+        Object[][] rows = elements.toArray(new Object[elements.size()][]);
+        Arrays.parallelSort(rows, data.rowComparator);
+        for (int i = 0; i < rows.length; i++) {
+          elements.set(i, rows[i]);
+        }
+      } else {
+        Collections.sort(elements, data.rowComparator);
+      }
 
       long nrConversions = 0L;
       for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
@@ -632,6 +705,25 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
+  private void sortOnKeys(List<Object[]> elements) throws HopValueException {
+    KeyedRow[] keyedRows = new KeyedRow[elements.size()];
+    for (int i = 0; i < keyedRows.length; i++) {
+      Object[] row = elements.get(i);
+      keyedRows[i] = new KeyedRow(data.sortKeyEncoder.encode(row), row);
+    }
+    Comparator<KeyedRow> keyComparator = (o1, o2) -> SortKeyEncoder.compare(o1.key, o2.key);
+    if (data.parallelSort) {
+      Arrays.parallelSort(keyedRows, keyComparator);
+    } else {
+      Arrays.sort(keyedRows, keyComparator);
+    }
+    data.sortKeys = new byte[keyedRows.length][];
+    for (int i = 0; i < keyedRows.length; i++) {
+      elements.set(i, keyedRows[i].row);
+      data.sortKeys[i] = keyedRows[i].key;
+    }
+  }
+
   @Override
   public void startBundle() throws HopException {
   }
@@ -662,8 +754,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       // dump to dist and then read from disk
       sortExternalRows();
     } else {
-      // sort in memory
+      // sort in memory, the rows are passed on as they are: we don't need the keys anymore
       quickSort(data.buffer);
+      data.sortKeys = null;
     }
   }
 
@@ -700,10 +793,17 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       super(rowMeta, fieldNrs);
     }
 
+    /** Rows with the same keys are kept in the order of the files they came from */
     @Override
     public int compare(RowTempFile o1, RowTempFile o2) {
       try {
-        return rowMeta.compare(o1.row, o2.row, fieldNrs);
+        int cmp;
+        if (o1.key != null) {
+          cmp = SortKeyEncoder.compare(o1.key, o2.key);
+        } else {
+          cmp = rowMeta.compare(o1.row, o2.row, fieldNrs);
+        }
+        return cmp != 0 ? cmp : Integer.compare(o1.fileNumber, o2.fileNumber);
       } catch (HopValueException e) {
         logError("Error comparing rows: " + e.toString());
         return 0;
@@ -711,6 +811,17 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
+  /** A row with its binary sort key */
+  private static final class KeyedRow {
+    private final byte[] key;
+    private final Object[] row;
+
+    KeyedRow(byte[] key, Object[] row) {
+      this.key = key;
+      this.row = row;
+    }
+  }
+
   private class RowObjectArrayComparator extends SortRowsComparator
       implements Comparator<Object[]> {
     RowObjectArrayComparator(IRowMeta rowMeta, int[] fieldNrs) {
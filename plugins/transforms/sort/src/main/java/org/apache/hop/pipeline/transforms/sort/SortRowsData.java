@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.sort;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.SortKeyEncoder;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -27,7 +28,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.PriorityQueue;
 
 public class SortRowsData extends BaseTransformData implements ITransformData {
   public List<FileObject> files;
@@ -35,23 +36,31 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public int getBufferIndex;
 
   public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
+  public List<InputStream> gzis; // the decompressing input streams, GZip or Snappy
   public List<DataInputStream> dis;
   public List<Object[]> rowbuffer;
   public List<Integer> bufferSizes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  // To store rows and file references: a heap with the smallest row of each temp file on top
+  public PriorityQueue<RowTempFile> tempRows;
 
   public int[] fieldnrs; // the corresponding field numbers
   public FileObject fil;
   public IRowMeta outputRowMeta;
   public int sortSize;
   public boolean compressFiles;
+  public boolean snappyCompression;
+  public boolean parallelSort;
+
+  /** Encodes the binary sort keys, null if the rows are compared field by field */
+  public SortKeyEncoder sortKeyEncoder;
+
+  /** The sort keys of the rows in the buffer after sorting with binary keys */
+  public byte[][] sortKeys;
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-    Comparator<RowTempFile> comparator;
+  Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
 
   public int freeCounter;
@@ -38,6 +38,7 @@ import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.hop.ui.pipeline.transform.ComponentSelectionListener;
 import org.apache.hop.ui.pipeline.transform.ITableItemInsertListener;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -71,8 +72,14 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
 
   private CheckBoxVar wCompress;
 
+  private CCombo wCompressionType;
+
   private Button wUniqueRows;
 
+  private Button wParallelSort;
+
+  private Button wBinarySortKeys;
+
   private TableView wFields;
 
   private final SortRowsMeta input;
@@ -242,6 +249,27 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
           }
         });
 
+    // Which compression to use for the temporary files?
+    Label wlCompressionType = new Label(shell, SWT.RIGHT);
+    wlCompressionType.setText(BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Label"));
+    PropsUi.setLook(wlCompressionType);
+    FormData fdlCompressionType = new FormData();
+    fdlCompressionType.left = new FormAttachment(0, 0);
+    fdlCompressionType.right = new FormAttachment(middle, -margin);
+    fdlCompressionType.top = new FormAttachment(wCompress, margin);
+    wlCompressionType.setLayoutData(fdlCompressionType);
+    wCompressionType = new CCombo(shell, SWT.SINGLE | SWT.READ_ONLY | SWT.BORDER);
+    wCompressionType.setItems(SortRowsMeta.COMPRESSION_TYPES);
+    wCompressionType.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Tooltip"));
+    PropsUi.setLook(wCompressionType);
+    wCompressionType.addModifyListener(lsMod);
+    FormData fdCompressionType = new FormData();
+    fdCompressionType.left = new FormAttachment(middle, 0);
+    fdCompressionType.top = new FormAttachment(wlCompressionType, 0, SWT.CENTER);
+    fdCompressionType.right = new FormAttachment(100, 0);
+    wCompressionType.setLayoutData(fdCompressionType);
+
     // Using compression for temporary files?
     Label wlUniqueRows = new Label(shell, SWT.RIGHT);
     wlUniqueRows.setText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Label"));
@@ -249,7 +277,7 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     FormData fdlUniqueRows = new FormData();
     fdlUniqueRows.left = new FormAttachment(0, 0);
     fdlUniqueRows.right = new FormAttachment(middle, -margin);
-    fdlUniqueRows.top = new FormAttachment(wCompress, margin);
+    fdlUniqueRows.top = new FormAttachment(wCompressionType, margin);
     wlUniqueRows.setLayoutData(fdlUniqueRows);
     wUniqueRows = new Button(shell, SWT.CHECK);
     wUniqueRows.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Tooltip"));
@@ -261,6 +289,46 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     wUniqueRows.setLayoutData(fdUniqueRows);
     wUniqueRows.addSelectionListener(new ComponentSelectionListener(input));
 
+    // Sort the rows in memory using multiple threads?
+    Label wlParallelSort = new Label(shell, SWT.RIGHT);
+    wlParallelSort.setText(BaseMessages.getString(PKG, "SortRowsDialog.ParallelSort.Label"));
+    PropsUi.setLook(wlParallelSort);
+    FormData fdlParallelSort = new FormData();
+    fdlParallelSort.left = new FormAttachment(0, 0);
+    fdlParallelSort.right = new FormAttachment(middle, -margin);
+    fdlParallelSort.top = new FormAttachment(wUniqueRows, margin);
+    wlParallelSort.setLayoutData(fdlParallelSort);
+    wParallelSort = new Button(shell, SWT.CHECK);
+    wParallelSort.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.ParallelSort.Tooltip"));
+    PropsUi.setLook(wParallelSort);
+    FormData fdParallelSort = new FormData();
+    fdParallelSort.left = new FormAttachment(middle, 0);
+    fdParallelSort.top = new FormAttachment(wlParallelSort, 0, SWT.CENTER);
+    fdParallelSort.right = new FormAttachment(100, 0);
+    wParallelSort.setLayoutData(fdParallelSort);
+    wParallelSort.addSelectionListener(new ComponentSelectionListener(input));
+
+    // Sort on binary encoded keys?
+    Label wlBinarySortKeys = new Label(shell, SWT.RIGHT);
+    wlBinarySortKeys.setText(BaseMessages.getString(PKG, "SortRowsDialog.BinarySortKeys.Label"));
+    PropsUi.setLook(wlBinarySortKeys);
+    FormData fdlBinarySortKeys = new FormData();
+    fdlBinarySortKeys.left = new FormAttachment(0, 0);
+    fdlBinarySortKeys.right = new FormAttachment(middle, -margin);
+    fdlBinarySortKeys.top = new FormAttachment(wParallelSort, margin);
+    wlBinarySortKeys.setLayoutData(fdlBinarySortKeys);
+    wBinarySortKeys = new Button(shell, SWT.CHECK);
+    wBinarySortKeys.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.BinarySortKeys.Tooltip"));
+    PropsUi.setLook(wBinarySortKeys);
+    FormData fdBinarySortKeys = new FormData();
+    fdBinarySortKeys.left = new FormAttachment(middle, 0);
+    fdBinarySortKeys.top = new FormAttachment(wlBinarySortKeys, 0, SWT.CENTER);
+    fdBinarySortKeys.right = new FormAttachment(100, 0);
+    wBinarySortKeys.setLayoutData(fdBinarySortKeys);
+    wBinarySortKeys.addSelectionListener(new ComponentSelectionListener(input));
+
     wOk = new Button(shell, SWT.PUSH);
     wOk.setText(BaseMessages.getString(PKG, "System.Button.OK"));
     wOk.addListener(SWT.Selection, e -> ok());
@@ -278,7 +346,7 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     PropsUi.setLook(wlFields);
     FormData fdlFields = new FormData();
     fdlFields.left = new FormAttachment(0, 0);
-    fdlFields.top = new FormAttachment(wUniqueRows, margin);
+    fdlFields.top = new FormAttachment(wBinarySortKeys, margin);
     wlFields.setLayoutData(fdlFields);
 
     final int FieldsRows = input.getFieldName().length;
@@ -415,7 +483,11 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
     wCompress.setSelection(input.getCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
+    wCompressionType.setText(
+        Const.NVL(input.getCompressionType(), SortRowsMeta.COMPRESSION_TYPE_GZIP));
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
+    wParallelSort.setSelection(input.isParallelSort());
+    wBinarySortKeys.setSelection(input.isBinarySortKeys());
 
     Table table = wFields.table;
     if (input.getFieldName().length > 0) {
@@ -480,7 +552,10 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     log.logDetailed("Sort rows", "Compression is set to " + wCompress.getSelection());
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
+    input.setCompressionType(wCompressionType.getText());
     input.setOnlyPassingUniqueRows(wUniqueRows.getSelection());
+    input.setParallelSort(wParallelSort.getSelection());
+    input.setBinarySortKeys(wBinarySortKeys.getSelection());
 
     int nrFields = wFields.nrNonEmpty();
 
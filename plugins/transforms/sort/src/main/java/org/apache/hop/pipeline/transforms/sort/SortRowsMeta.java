@@ -60,6 +60,14 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
   private static final long serialVersionUID = -9075883720765645655L;
   private static final Class<?> PKG = SortRowsMeta.class; // For Translator
 
+  /** Compress the temporary files with GZip: slow but compact */
+  public static final String COMPRESSION_TYPE_GZIP = "GZip";
+
+  /** Compress the temporary files with Snappy: a lot faster than GZip at a lower ratio */
+  public static final String COMPRESSION_TYPE_SNAPPY = "Snappy";
+
+  public static final String[] COMPRESSION_TYPES = {COMPRESSION_TYPE_GZIP, COMPRESSION_TYPE_SNAPPY};
+
   /** order by which fields? */
   @Injection(name = "NAME", group = "FIELDS")
   private String[] fieldName;
@@ -116,6 +124,18 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
   /** The variable to use to set the compressFiles option boolean */
   private String compressFilesVariable;
 
+  /** The compression to use for the temporary files: GZip (default) or Snappy */
+  @Injection(name = "COMPRESSION_TYPE")
+  private String compressionType;
+
+  /** Sort the rows in memory using multiple threads */
+  @Injection(name = "PARALLEL_SORT")
+  private boolean parallelSort;
+
+  /** Encode the sort keys of every row into bytes once and sort on those */
+  @Injection(name = "BINARY_SORT_KEYS")
+  private boolean binarySortKeys;
+
   public SortRowsMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -201,6 +221,10 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
       freeMemoryLimit = XmlHandler.getTagValue(transformNode, "free_memory");
       compressFiles = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "compress"));
       compressFilesVariable = XmlHandler.getTagValue(transformNode, "compress_variable");
+      compressionType = XmlHandler.getTagValue(transformNode, "compression_type");
+      parallelSort = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "parallel_sort"));
+      binarySortKeys =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "binary_sort_keys"));
       onlyPassingUniqueRows =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "unique_rows"));
 
@@ -239,6 +263,9 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     freeMemoryLimit = null;
     compressFiles = false;
     compressFilesVariable = null;
+    compressionType = COMPRESSION_TYPE_GZIP;
+    parallelSort = false;
+    binarySortKeys = false;
     onlyPassingUniqueRows = false;
 
     int nrFields = 0;
@@ -265,6 +292,9 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     retval
         .append("      ")
         .append(XmlHandler.addTagValue("compress_variable", compressFilesVariable));
+    retval.append("      ").append(XmlHandler.addTagValue("compression_type", compressionType));
+    retval.append("      ").append(XmlHandler.addTagValue("parallel_sort", parallelSort));
+    retval.append("      ").append(XmlHandler.addTagValue("binary_sort_keys", binarySortKeys));
     retval.append("      ").append(XmlHandler.addTagValue("unique_rows", onlyPassingUniqueRows));
 
     retval.append("    <fields>").append(Const.CR);
@@ -504,6 +534,36 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     this.compressFilesVariable = compressFilesVariable;
   }
 
+  /** @return the compression to use for the temporary files: GZip (default) or Snappy */
+  public String getCompressionType() {
+    return compressionType;
+  }
+
+  /** @param compressionType the compression to use for the temporary files */
+  public void setCompressionType(String compressionType) {
+    this.compressionType = compressionType;
+  }
+
+  /** @return true if the rows are sorted in memory using multiple threads */
+  public boolean isParallelSort() {
+    return parallelSort;
+  }
+
+  /** @param parallelSort true to sort the rows in memory using multiple threads */
+  public void setParallelSort(boolean parallelSort) {
+    this.parallelSort = parallelSort;
+  }
+
+  /** @return true if the rows are sorted on binary encoded sort keys */
+  public boolean isBinarySortKeys() {
+    return binarySortKeys;
+  }
+
+  /** @param binarySortKeys true to sort the rows on binary encoded sort keys */
+  public void setBinarySortKeys(boolean binarySortKeys) {
+    this.binarySortKeys = binarySortKeys;
+  }
+
   /** @return the caseSensitive */
   public boolean[] getCaseSensitive() {
     return caseSensitive;
@@ -39,6 +39,9 @@ public class SortRowsMetaInjectionTest extends BaseMetadataInjectionTest<SortRow
     check("FREE_MEMORY_TRESHOLD", () -> meta.getFreeMemoryLimit());
     check("ONLY_PASS_UNIQUE_ROWS", () -> meta.isOnlyPassingUniqueRows());
     check("COMPRESS_TEMP_FILES", () -> meta.getCompressFiles());
+    check("COMPRESSION_TYPE", () -> meta.getCompressionType());
+    check("PARALLEL_SORT", () -> meta.isParallelSort());
+    check("BINARY_SORT_KEYS", () -> meta.isBinarySortKeys());
     check("NAME", () -> meta.getFieldName()[0]);
     check("SORT_ASCENDING", () -> meta.getAscending()[0]);
     check("IGNORE_CASE", () -> meta.getCaseSensitive()[0]);
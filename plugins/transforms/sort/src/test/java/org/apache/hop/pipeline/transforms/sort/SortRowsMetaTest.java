@@ -55,6 +55,9 @@ public class SortRowsMetaTest {
             "FreeMemoryLimit",
             "CompressFiles",
             "CompressFilesVariable",
+            "CompressionType",
+            "ParallelSort",
+            "BinarySortKeys",
             "OnlyPassingUniqueRows",
             "FieldName",
             "Ascending",
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class SortRowsTest {
+  private static final int NR_ROWS = 5000;
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> transformMockHelper;
+
+  @Before
+  public void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>("Test SortRows", SortRowsMeta.class, SortRowsData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @Test
+  public void testSortInMemory() throws Exception {
+    checkSort(sortRowsMeta("100000", false, null, false));
+  }
+
+  @Test
+  public void testParallelSortInMemory() throws Exception {
+    checkSort(sortRowsMeta("100000", false, null, true));
+  }
+
+  @Test
+  public void testSortWithTempFiles() throws Exception {
+    checkSort(sortRowsMeta("300", false, null, false));
+  }
+
+  @Test
+  public void testSortWithGZipTempFiles() throws Exception {
+    checkSort(sortRowsMeta("300", true, SortRowsMeta.COMPRESSION_TYPE_GZIP, false));
+  }
+
+  @Test
+  public void testParallelSortWithSnappyTempFiles() throws Exception {
+    checkSort(sortRowsMeta("300", true, SortRowsMeta.COMPRESSION_TYPE_SNAPPY, true));
+  }
+
+  @Test
+  public void testBinarySortKeysInMemory() throws Exception {
+    SortRowsMeta meta = sortRowsMeta("100000", false, null, false);
+    meta.setBinarySortKeys(true);
+    checkSort(meta);
+  }
+
+  @Test
+  public void testBinarySortKeysWithTempFiles() throws Exception {
+    SortRowsMeta meta = sortRowsMeta("300", true, SortRowsMeta.COMPRESSION_TYPE_SNAPPY, true);
+    meta.setBinarySortKeys(true);
+    checkSort(meta);
+  }
+
+  @Test
+  public void testBinarySortKeysUniqueRows() throws Exception {
+    SortRowsMeta meta = sortRowsMeta("300", false, null, false);
+    meta.setBinarySortKeys(true);
+    meta.setOnlyPassingUniqueRows(true);
+    List<Object[]> output = sort(meta);
+
+    assertEquals(100, output.size());
+    for (int i = 0; i < output.size(); i++) {
+      assertEquals((long) i, output.get(i)[0]);
+    }
+  }
+
+  private SortRowsMeta sortRowsMeta(
+      String sortSize, boolean compress, String compressionType, boolean parallel) {
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.allocate(1);
+    meta.setFieldName(new String[] {"key"});
+    meta.setAscending(new boolean[] {true});
+    meta.setCaseSensitive(new boolean[] {true});
+    meta.setCollatorEnabled(new boolean[] {false});
+    meta.setCollatorStrength(new int[] {0});
+    meta.setPreSortedField(new boolean[] {false});
+    meta.setDirectory(System.getProperty("java.io.tmpdir"));
+    meta.setSortSize(sortSize);
+    meta.setCompressFiles(compress);
+    meta.setCompressionType(compressionType);
+    meta.setParallelSort(parallel);
+    return meta;
+  }
+
+  /** Sorts rows with lots of duplicate keys and verifies the order, also of the duplicates. */
+  private void checkSort(SortRowsMeta meta) throws Exception {
+    List<Object[]> output = sort(meta);
+
+    assertEquals(NR_ROWS, output.size());
+    for (int i = 1; i < output.size(); i++) {
+      long previousKey = (Long) output.get(i - 1)[0];
+      long key = (Long) output.get(i)[0];
+      assertTrue(previousKey <= key);
+      if (previousKey == key) {
+        assertTrue((Long) output.get(i - 1)[1] < (Long) output.get(i)[1]);
+      }
+    }
+  }
+
+  private List<Object[]> sort(SortRowsMeta meta) throws Exception {
+    SortRows sortRows =
+        new SortRows(
+            transformMockHelper.transformMeta,
+            meta,
+            new SortRowsData(),
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+    assertTrue(sortRows.init());
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("sequence"));
+
+    IRowSet input = new BlockingRowSet(NR_ROWS);
+    Random random = new Random(123L);
+    for (long i = 0; i < NR_ROWS; i++) {
+      input.putRow(rowMeta, new Object[] {(long) random.nextInt(100), i});
+    }
+    input.setDone();
+    sortRows.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    sortRows.setOutputRowSets(new ArrayList<>());
+
+    final List<Object[]> output = new ArrayList<>();
+    sortRows.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+
+    while (sortRows.processRow()) {
+      // keep going
+    }
+    sortRows.dispose();
+    return output;
+  }
+}
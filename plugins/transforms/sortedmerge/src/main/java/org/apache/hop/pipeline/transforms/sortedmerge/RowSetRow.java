@@ -24,6 +24,7 @@ public class RowSetRow {
   private IRowSet rowSet;
   private IRowMeta rowMeta;
   private Object[] rowData;
+  private byte[] sortKey;
 
   /**
    * @param rowSet
@@ -56,6 +57,16 @@ public class RowSetRow {
     this.rowData = rowData;
   }
 
+  /** @return the binary sort key of the row, null if binary sort keys are not used */
+  public byte[] getSortKey() {
+    return sortKey;
+  }
+
+  /** @param sortKey the binary sort key of the row */
+  public void setSortKey(byte[] sortKey) {
+    this.sortKey = sortKey;
+  }
+
   /** @return the rowMeta */
   public IRowMeta getRowMeta() {
     return rowMeta;
@@ -21,6 +21,7 @@ import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.SortKeyEncoder;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -110,10 +111,12 @@ public class SortedMerge extends BaseTransform<SortedMergeMeta, SortedMergeData>
           }
         }
 
+        // Compare with the metadata carrying the sort directions, like the binary sort keys do
+        //
         data.comparator =
             (o1, o2) -> {
               try {
-                return o1.getRowMeta().compare(o1.getRowData(), o2.getRowData(), data.fieldIndices);
+                return data.rowMeta.compare(o1.getRowData(), o2.getRowData(), data.fieldIndices);
               } catch (HopValueException e) {
                 return 0; // TODO see if we should fire off alarms over here... Perhaps throw a
                 // RuntimeException.
@@ -124,6 +127,21 @@ public class SortedMerge extends BaseTransform<SortedMergeMeta, SortedMergeData>
         //
         Collections.sort(data.sortedBuffer, data.comparator);
       }
+
+      if (meta.isBinarySortKeys() && data.fieldIndices != null) {
+        if (SortKeyEncoder.isSupported(data.rowMeta, data.fieldIndices)) {
+          // Encode the keys once per row and compare the bytes from now on
+          //
+          data.sortKeyEncoder = new SortKeyEncoder(data.rowMeta, data.fieldIndices);
+          for (RowSetRow rowSetRow : data.sortedBuffer) {
+            rowSetRow.setSortKey(data.sortKeyEncoder.encode(rowSetRow.getRowData()));
+          }
+          data.comparator = (o1, o2) -> SortKeyEncoder.compare(o1.getSortKey(), o2.getSortKey());
+          Collections.sort(data.sortedBuffer, data.comparator);
+        } else if (log.isBasic()) {
+          logBasic(BaseMessages.getString(PKG, "SortedMerge.Log.BinarySortKeysNotSupported"));
+        }
+      }
     }
 
     // If our sorted buffer is empty, it means we're done...
@@ -151,6 +169,9 @@ public class SortedMerge extends BaseTransform<SortedMergeMeta, SortedMergeData>
       //
       RowSetRow add =
           new RowSetRow(smallestRow.getRowSet(), smallestRow.getRowSet().getRowMeta(), extraRow);
+      if (data.sortKeyEncoder != null) {
+        add.setSortKey(data.sortKeyEncoder.encode(extraRow));
+      }
       int index = Collections.binarySearch(data.sortedBuffer, add, data.comparator);
       if (index < 0) {
         data.sortedBuffer.add(-index - 1, add);
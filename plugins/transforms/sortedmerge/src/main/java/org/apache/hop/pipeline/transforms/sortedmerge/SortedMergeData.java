@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.sortedmerge;
 
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.SortKeyEncoder;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -30,6 +31,9 @@ public class SortedMergeData extends BaseTransformData implements ITransformData
   public List<RowSetRow> sortedBuffer;
   public Comparator<RowSetRow> comparator;
 
+  /** Encodes the binary sort keys, null if the rows are compared field by field */
+  public SortKeyEncoder sortKeyEncoder;
+
   public SortedMergeData() {
     super();
   }
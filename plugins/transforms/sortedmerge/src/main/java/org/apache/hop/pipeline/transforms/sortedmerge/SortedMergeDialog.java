@@ -59,6 +59,8 @@ public class SortedMergeDialog extends BaseTransformDialog implements ITransform
 
   private TableView wFields;
 
+  private Button wBinarySortKeys;
+
   private final SortedMergeMeta input;
 
   private final Map<String, Integer> inputFields;
@@ -122,12 +124,33 @@ public class SortedMergeDialog extends BaseTransformDialog implements ITransform
 
     setButtonPositions(new Button[] {wOk, wCancel, wGet}, margin, null);
 
+    // Merge on binary encoded keys?
+    Label wlBinarySortKeys = new Label(shell, SWT.RIGHT);
+    wlBinarySortKeys.setText(
+        BaseMessages.getString(PKG, "SortedMergeDialog.BinarySortKeys.Label"));
+    PropsUi.setLook(wlBinarySortKeys);
+    FormData fdlBinarySortKeys = new FormData();
+    fdlBinarySortKeys.left = new FormAttachment(0, 0);
+    fdlBinarySortKeys.right = new FormAttachment(middle, -margin);
+    fdlBinarySortKeys.top = new FormAttachment(wTransformName, margin);
+    wlBinarySortKeys.setLayoutData(fdlBinarySortKeys);
+    wBinarySortKeys = new Button(shell, SWT.CHECK);
+    wBinarySortKeys.setToolTipText(
+        BaseMessages.getString(PKG, "SortedMergeDialog.BinarySortKeys.Tooltip"));
+    PropsUi.setLook(wBinarySortKeys);
+    FormData fdBinarySortKeys = new FormData();
+    fdBinarySortKeys.left = new FormAttachment(middle, 0);
+    fdBinarySortKeys.top = new FormAttachment(wlBinarySortKeys, 0, SWT.CENTER);
+    fdBinarySortKeys.right = new FormAttachment(100, 0);
+    wBinarySortKeys.setLayoutData(fdBinarySortKeys);
+    wBinarySortKeys.addListener(SWT.Selection, e -> input.setChanged());
+
     Label wlFields = new Label(shell, SWT.NONE);
     wlFields.setText(BaseMessages.getString(PKG, "SortedMergeDialog.Fields.Label"));
     PropsUi.setLook(wlFields);
     FormData fdlFields = new FormData();
     fdlFields.left = new FormAttachment(0, 0);
-    fdlFields.top = new FormAttachment(wTransformName, margin);
+    fdlFields.top = new FormAttachment(wBinarySortKeys, margin);
     wlFields.setLayoutData(fdlFields);
 
     final int FieldsCols = 2;
@@ -238,6 +261,8 @@ public class SortedMergeDialog extends BaseTransformDialog implements ITransform
     wFields.setRowNums();
     wFields.optWidth(true);
 
+    wBinarySortKeys.setSelection(input.isBinarySortKeys());
+
     wTransformName.selectAll();
     wTransformName.setFocus();
   }
@@ -258,6 +283,7 @@ public class SortedMergeDialog extends BaseTransformDialog implements ITransform
     int nrFields = wFields.nrNonEmpty();
 
     input.allocate(nrFields);
+    input.setBinarySortKeys(wBinarySortKeys.getSelection());
 
     // CHECKSTYLE:Indentation:OFF
     for (int i = 0; i < nrFields; i++) {
@@ -62,6 +62,10 @@ public class SortedMergeMeta extends BaseTransformMeta<SortedMerge, SortedMergeD
   @Injection(name = "ASCENDING", group = "FIELDS")
   private boolean[] ascending;
 
+  /** Encode the sort keys of every row into bytes once and compare those */
+  @Injection(name = "BINARY_SORT_KEYS")
+  private boolean binarySortKeys;
+
   @Override
   public void loadXml(Node transformNode, IHopMetadataProvider metadataProvider)
       throws HopXmlException {
@@ -75,6 +79,8 @@ public class SortedMergeMeta extends BaseTransformMeta<SortedMerge, SortedMergeD
 
   @Override
   public void setDefault() {
+    binarySortKeys = false;
+
     int nrFields = 0;
 
     allocate(nrFields);
@@ -99,6 +105,9 @@ public class SortedMergeMeta extends BaseTransformMeta<SortedMerge, SortedMergeD
 
   private void readData(Node transformNode) throws HopXmlException {
     try {
+      binarySortKeys =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "binary_sort_keys"));
+
       Node fields = XmlHandler.getSubNode(transformNode, "fields");
       int nrFields = XmlHandler.countNodes(fields, "field");
 
@@ -124,6 +133,7 @@ public class SortedMergeMeta extends BaseTransformMeta<SortedMerge, SortedMergeD
   public String getXml() {
     StringBuilder retval = new StringBuilder();
 
+    retval.append("    " + XmlHandler.addTagValue("binary_sort_keys", binarySortKeys));
     retval.append("    <fields>" + Const.CR);
     for (int i = 0; i < fieldName.length; i++) {
       retval.append("      <field>" + Const.CR);
@@ -281,4 +291,14 @@ public class SortedMergeMeta extends BaseTransformMeta<SortedMerge, SortedMergeD
     boolean[][] rtn = Utils.normalizeArrays(nrFields, ascending);
     ascending = rtn[0];
   }
+
+  /** @return true if the rows are merged on binary encoded sort keys */
+  public boolean isBinarySortKeys() {
+    return binarySortKeys;
+  }
+
+  /** @param binarySortKeys true to merge the rows on binary encoded sort keys */
+  public void setBinarySortKeys(boolean binarySortKeys) {
+    this.binarySortKeys = binarySortKeys;
+  }
 }
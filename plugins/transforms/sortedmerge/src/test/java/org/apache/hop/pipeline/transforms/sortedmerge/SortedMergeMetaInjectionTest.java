@@ -35,5 +35,6 @@ public class SortedMergeMetaInjectionTest extends BaseMetadataInjectionTest<Sort
   public void test() throws Exception {
     check("FIELD_NAME", () -> meta.getFieldName()[0]);
     check("ASCENDING", () -> meta.getAscending()[0]);
+    check("BINARY_SORT_KEYS", () -> meta.isBinarySortKeys());
   }
 }
@@ -39,15 +39,17 @@ public class SortedMergeMetaTest {
 
   @Test
   public void testRoundTrips() throws HopException {
-    List<String> attributes = Arrays.asList("name", "ascending");
+    List<String> attributes = Arrays.asList("name", "ascending", "binarySortKeys");
 
     Map<String, String> getterMap = new HashMap<>();
     getterMap.put("name", "getFieldName");
     getterMap.put("ascending", "getAscending");
+    getterMap.put("binarySortKeys", "isBinarySortKeys");
 
     Map<String, String> setterMap = new HashMap<>();
     setterMap.put("name", "setFieldName");
     setterMap.put("ascending", "setAscending");
+    setterMap.put("binarySortKeys", "setBinarySortKeys");
 
     Map<String, IFieldLoadSaveValidator<?>> fieldLoadSaveValidatorAttributeMap = new HashMap<>();
     IFieldLoadSaveValidator<String[]> stringArrayLoadSaveValidator =
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sortedmerge;
+
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class SortedMergeTest {
+
+  private TransformMockHelper<SortedMergeMeta, SortedMergeData> mockHelper;
+
+  @Before
+  public void setUp() {
+    mockHelper =
+        new TransformMockHelper<>("Sorted Merge", SortedMergeMeta.class, SortedMergeData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  public void testMergeFieldByField() throws Exception {
+    assertMerge(false);
+  }
+
+  @Test
+  public void testMergeBinarySortKeys() throws Exception {
+    assertMerge(true);
+  }
+
+  /**
+   * Merge two streams sorted on a descending case insensitive name with nulls and an ascending
+   * number. The metadata of the streams doesn't carry the sort directions, the merge uses the
+   * directions of the transform.
+   */
+  private void assertMerge(boolean binarySortKeys) throws Exception {
+    SortedMergeMeta meta = new SortedMergeMeta();
+    meta.setDefault();
+    meta.allocate(2);
+    meta.setFieldName(new String[] {"name", "nr"});
+    meta.setAscending(new boolean[] {false, true});
+    meta.setBinarySortKeys(binarySortKeys);
+    SortedMerge transform =
+        new SortedMerge(
+            mockHelper.transformMeta,
+            meta,
+            new SortedMergeData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    assertTrue(transform.init());
+
+    IRowSet input1 = createInput(new Object[][] {{"c", 1L}, {"B", 2L}, {"a", 1L}, {null, 1L}});
+    IRowSet input2 = createInput(new Object[][] {{"C", 2L}, {"b", 1L}, {"A", 3L}, {null, 0L}});
+    BlockingRowSet output = new BlockingRowSet(10);
+    transform.setInputRowSets(new ArrayList<>(Arrays.asList(input1, input2)));
+    transform.setOutputRowSets(new ArrayList<>(Arrays.asList(output)));
+    transform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+
+    while (transform.processRow()) {
+      // Merge all the rows
+    }
+
+    Object[][] expected = {
+      {"c", 1L}, {"C", 2L}, {"b", 1L}, {"B", 2L}, {"a", 1L}, {"A", 3L}, {null, 0L}, {null, 1L}
+    };
+    List<Object[]> rows = new ArrayList<>();
+    for (Object[] row = output.getRowImmediate(); row != null; row = output.getRowImmediate()) {
+      rows.add(row);
+    }
+    assertEquals(expected.length, rows.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("name of row " + i, expected[i][0], rows.get(i)[0]);
+      assertEquals("nr of row " + i, expected[i][1], rows.get(i)[1]);
+    }
+    assertNull(output.getRowImmediate());
+  }
+
+  private static IRowSet createInput(Object[][] rows) {
+    RowMeta rowMeta = new RowMeta();
+    ValueMetaString name = new ValueMetaString("name");
+    name.setCaseInsensitive(true);
+    rowMeta.addValueMeta(name);
+    rowMeta.addValueMeta(new ValueMetaInteger("nr"));
+    BlockingRowSet input = new BlockingRowSet(rows.length + 1);
+    for (Object[] row : rows) {
+      input.putRow(rowMeta, row);
+    }
+    input.setDone();
+    return input;
+  }
+}
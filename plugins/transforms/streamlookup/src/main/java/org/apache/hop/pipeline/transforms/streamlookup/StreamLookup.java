@@ -23,6 +23,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.OffHeapHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -215,6 +216,15 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       rowData = getRowFrom(rowSet);
     }
 
+    if (data.offHeapIndex != null && log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "StreamLookup.Log.OffHeapIndexSize",
+              data.offHeapIndex.size(),
+              data.offHeapIndex.getMemorySize()));
+    }
+
     return true;
   }
 
@@ -325,6 +335,14 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
           Long key = keyMeta.getInteger(keyData, 0);
           Long value = valueMeta.getInteger(valueData, 0);
           data.longIndex.put(key, value);
+        } else if (meta.isUsingOffHeapIndex()) {
+          if (data.offHeapIndex == null) {
+            String directory = resolve(meta.getOffHeapDirectory());
+            data.offHeapIndex =
+                new OffHeapHashIndex(0, Utils.isEmpty(directory) ? null : directory);
+          }
+          data.offHeapIndex.put(
+              RowMeta.extractData(keyMeta, keyData), RowMeta.extractData(valueMeta, valueData));
         } else {
           if (data.hashIndex == null) {
             data.hashIndex = new ByteArrayHashIndex(keyMeta);
@@ -360,6 +378,12 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
           return new Object[] {
             value,
           };
+        } else if (meta.isUsingOffHeapIndex()) {
+          byte[] value = data.offHeapIndex.get(RowMeta.extractData(keyMeta, keyData));
+          if (value == null) {
+            return null;
+          }
+          return RowMeta.getRow(data.cacheValueMeta, value);
         } else {
           try {
             byte[] value = data.hashIndex.get(RowMeta.extractData(keyMeta, keyData));
@@ -499,6 +523,10 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     data.list = null;
     data.hashIndex = null;
     data.longIndex = null;
+    if (data.offHeapIndex != null) {
+      data.offHeapIndex.close();
+      data.offHeapIndex = null;
+    }
 
     super.dispose();
   }
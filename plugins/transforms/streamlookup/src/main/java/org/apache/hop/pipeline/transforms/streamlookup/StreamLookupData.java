@@ -21,6 +21,7 @@ import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
 import org.apache.hop.core.hash.LongHashIndex;
+import org.apache.hop.core.hash.OffHeapHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -64,6 +65,7 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
 
   public ByteArrayHashIndex hashIndex;
   public LongHashIndex longIndex;
+  public OffHeapHashIndex offHeapIndex;
 
   public IRowMeta lookupMeta;
 
@@ -37,6 +37,7 @@ import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.dialog.MessageBox;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -69,6 +70,12 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
 
   private Button wIntegerPair;
 
+  private Button wOffHeap;
+
+  private TextVar wOffHeapDirectory;
+
+  private Button wbOffHeapDirectory;
+
   private final StreamLookupMeta input;
 
   private ColumnInfo[] ciKey;
@@ -211,12 +218,64 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
     fdKey.bottom = new FormAttachment(wlKey, (int) (props.getZoomFactor() * 120));
     wKey.setLayoutData(fdKey);
 
+    Label wlOffHeapDirectory = new Label(shell, SWT.RIGHT);
+    wlOffHeapDirectory.setText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapDirectory.Label"));
+    wlOffHeapDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapDirectory.ToolTip"));
+    PropsUi.setLook(wlOffHeapDirectory);
+    FormData fdlOffHeapDirectory = new FormData();
+    fdlOffHeapDirectory.left = new FormAttachment(0, 0);
+    fdlOffHeapDirectory.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlOffHeapDirectory.right = new FormAttachment(middle, -margin);
+    wlOffHeapDirectory.setLayoutData(fdlOffHeapDirectory);
+    wbOffHeapDirectory = new Button(shell, SWT.PUSH | SWT.CENTER);
+    wbOffHeapDirectory.setEnabled(false);
+    PropsUi.setLook(wbOffHeapDirectory);
+    wbOffHeapDirectory.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbOffHeapDirectory = new FormData();
+    fdbOffHeapDirectory.right = new FormAttachment(100, 0);
+    fdbOffHeapDirectory.top = new FormAttachment(wlOffHeapDirectory, 0, SWT.CENTER);
+    wbOffHeapDirectory.setLayoutData(fdbOffHeapDirectory);
+    wOffHeapDirectory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wOffHeapDirectory.setEnabled(false);
+    wOffHeapDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapDirectory.ToolTip"));
+    PropsUi.setLook(wOffHeapDirectory);
+    wOffHeapDirectory.addModifyListener(lsMod);
+    FormData fdOffHeapDirectory = new FormData();
+    fdOffHeapDirectory.left = new FormAttachment(middle, 0);
+    fdOffHeapDirectory.top = new FormAttachment(wlOffHeapDirectory, 0, SWT.CENTER);
+    fdOffHeapDirectory.right = new FormAttachment(wbOffHeapDirectory, -margin);
+    wOffHeapDirectory.setLayoutData(fdOffHeapDirectory);
+    wbOffHeapDirectory.addListener(
+        SWT.Selection,
+        e -> BaseDialog.presentDirectoryDialog(shell, wOffHeapDirectory, variables));
+
+    Label wlOffHeap = new Label(shell, SWT.RIGHT);
+    wlOffHeap.setText(BaseMessages.getString(PKG, "StreamLookupDialog.OffHeap.Label"));
+    PropsUi.setLook(wlOffHeap);
+    FormData fdlOffHeap = new FormData();
+    fdlOffHeap.left = new FormAttachment(0, 0);
+    fdlOffHeap.bottom = new FormAttachment(wOffHeapDirectory, -margin);
+    fdlOffHeap.right = new FormAttachment(middle, -margin);
+    wlOffHeap.setLayoutData(fdlOffHeap);
+    wOffHeap = new Button(shell, SWT.RADIO);
+    wOffHeap.setEnabled(false);
+    PropsUi.setLook(wOffHeap);
+    FormData fdOffHeap = new FormData();
+    fdOffHeap.left = new FormAttachment(middle, 0);
+    fdOffHeap.top = new FormAttachment(wlOffHeap, 0, SWT.CENTER);
+    fdOffHeap.right = new FormAttachment(100, 0);
+    wOffHeap.setLayoutData(fdOffHeap);
+    wOffHeap.addListener(SWT.Selection, e -> input.setChanged());
+
     Label wlSortedList = new Label(shell, SWT.RIGHT);
     wlSortedList.setText(BaseMessages.getString(PKG, "StreamLookupDialog.SortedList.Label"));
     PropsUi.setLook(wlSortedList);
     FormData fdlSortedList = new FormData();
     fdlSortedList.left = new FormAttachment(0, 0);
-    fdlSortedList.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlSortedList.bottom = new FormAttachment(wlOffHeap, -margin);
     fdlSortedList.right = new FormAttachment(middle, -margin);
     wlSortedList.setLayoutData(fdlSortedList);
     wSortedList = new Button(shell, SWT.RADIO);
@@ -272,6 +331,9 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
           boolean selection = wPreserveMemory.getSelection();
           wSortedList.setEnabled(selection);
           wIntegerPair.setEnabled(selection);
+          wOffHeap.setEnabled(selection);
+          wOffHeapDirectory.setEnabled(selection);
+          wbOffHeapDirectory.setEnabled(selection);
         });
 
     // THE UPDATE/INSERT TABLE
@@ -443,12 +505,17 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
     if (isPreserveMemory) {
       wSortedList.setEnabled(true);
       wIntegerPair.setEnabled(true);
+      wOffHeap.setEnabled(true);
+      wOffHeapDirectory.setEnabled(true);
+      wbOffHeapDirectory.setEnabled(true);
     }
     // usually this is sorted list or integer pair
     // for backward compatibility they can be set both
     // but user will be forced to choose only one option later.
     wSortedList.setSelection(input.isUsingSortedList());
     wIntegerPair.setSelection(input.isUsingIntegerPair());
+    wOffHeap.setSelection(input.isUsingOffHeapIndex());
+    wOffHeapDirectory.setText(Const.NVL(input.getOffHeapDirectory(), ""));
 
     wKey.setRowNums();
     wKey.optWidth(true);
@@ -476,6 +543,8 @@ public class StreamLookupDialog extends BaseTransformDialog implements ITransfor
     input.setMemoryPreservationActive(wPreserveMemory.getSelection());
     input.setUsingSortedList(wSortedList.getSelection());
     input.setUsingIntegerPair(wIntegerPair.getSelection());
+    input.setUsingOffHeapIndex(wOffHeap.getSelection());
+    input.setOffHeapDirectory(wOffHeapDirectory.getText());
 
     if (log.isDebug()) {
       logDebug(BaseMessages.getString(PKG, "StreamLookupDialog.Log.FoundKeys", nrkeys + ""));
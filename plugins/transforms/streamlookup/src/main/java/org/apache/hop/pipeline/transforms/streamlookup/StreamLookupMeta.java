@@ -97,6 +97,14 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
   @Injection(name = "INTEGER_PAIR")
   private boolean usingIntegerPair;
 
+  /** Keep the serialized lookup data outside of the Java heap */
+  @Injection(name = "OFF_HEAP_INDEX")
+  private boolean usingOffHeapIndex;
+
+  /** The directory of the memory-mapped files for the off-heap index, direct memory if empty */
+  @Injection(name = "OFF_HEAP_DIRECTORY")
+  private String offHeapDirectory;
+
   public StreamLookupMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -164,6 +172,9 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "sorted_list")));
       setUsingIntegerPair(
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "integer_pair")));
+      setUsingOffHeapIndex(
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "off_heap_index")));
+      setOffHeapDirectory(XmlHandler.getTagValue(transformNode, "off_heap_directory"));
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrkeys = XmlHandler.countNodes(lookup, "key");
@@ -214,6 +225,8 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     setMemoryPreservationActive(true);
     setUsingSortedList(false);
     setUsingIntegerPair(false);
+    setUsingOffHeapIndex(false);
+    setOffHeapDirectory(null);
 
     allocate(0, 0);
   }
@@ -267,6 +280,10 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
         .append(XmlHandler.addTagValue("preserve_memory", isMemoryPreservationActive()));
     retval.append("    ").append(XmlHandler.addTagValue("sorted_list", isUsingSortedList()));
     retval.append("    ").append(XmlHandler.addTagValue("integer_pair", isUsingIntegerPair()));
+    retval.append("    ").append(XmlHandler.addTagValue("off_heap_index", isUsingOffHeapIndex()));
+    retval
+        .append("    ")
+        .append(XmlHandler.addTagValue("off_heap_directory", getOffHeapDirectory()));
 
     retval.append("    <lookup>").append(Const.CR);
     for (int i = 0; i < getKeystream().length; i++) {
@@ -628,6 +645,26 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     this.usingIntegerPair = usingIntegerPair;
   }
 
+  /** @return the usingOffHeapIndex */
+  public boolean isUsingOffHeapIndex() {
+    return usingOffHeapIndex;
+  }
+
+  /** @param usingOffHeapIndex the usingOffHeapIndex to set */
+  public void setUsingOffHeapIndex(boolean usingOffHeapIndex) {
+    this.usingOffHeapIndex = usingOffHeapIndex;
+  }
+
+  /** @return the offHeapDirectory */
+  public String getOffHeapDirectory() {
+    return offHeapDirectory;
+  }
+
+  /** @param offHeapDirectory the offHeapDirectory to set */
+  public void setOffHeapDirectory(String offHeapDirectory) {
+    this.offHeapDirectory = offHeapDirectory;
+  }
+
   /**
    * If we use injection we can have different arrays lengths. We need synchronize them for
    * consistency behavior with UI
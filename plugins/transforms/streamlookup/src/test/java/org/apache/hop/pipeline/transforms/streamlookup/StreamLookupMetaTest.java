@@ -60,6 +60,8 @@ public class StreamLookupMetaTest implements IInitializer<ITransformMeta> {
             "memoryPreservationActive",
             "usingSortedList",
             "usingIntegerPair",
+            "usingOffHeapIndex",
+            "offHeapDirectory",
             "keystream",
             "keylookup",
             "value",
@@ -620,8 +620,8 @@ public class TableCompare extends BaseTransform<TableCompareMeta, TableCompareDa
 
         } while ((one != null || two != null) && !isStopped());
 
-        refSet.close();
-        cmpSet.close();
+        data.referenceDb.closeQuery(refSet);
+        data.compareDb.closeQuery(cmpSet);
       }
 
     } catch (Exception e) {
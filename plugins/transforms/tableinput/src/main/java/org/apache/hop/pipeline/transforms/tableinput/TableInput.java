@@ -24,10 +24,12 @@ import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -35,14 +37,26 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /** Reads information from a database table by using freehand SQL */
 public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
 
   private static final Class<?> PKG = TableInputMeta.class; // For Translator
 
+  private static final String PARTITION_BOUNDS_KEY = "TableInput.PartitionBounds.";
+
   public TableInput(
       TransformMeta transformMeta,
       TableInputMeta meta,
@@ -233,6 +247,40 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       sql = meta.getSql();
     }
 
+    if (data.partitioned) {
+      // Only read the range of values of this copy, the bounds are added to the parameters
+      //
+      Object[] bounds;
+      try {
+        bounds = getSharedPartitionBounds(sql, parametersMeta, parameters);
+      } catch (HopException e) {
+        throw new HopDatabaseException(e.getMessage(), e);
+      }
+      if (isStopped()) {
+        data.thisrow = null;
+        return true;
+      }
+      if (bounds != null) {
+        parametersMeta = parametersMeta.clone();
+        parameters = getPartitionParameters(parametersMeta, parameters, bounds);
+        sql = getPartitionSql(sql, data.partitionColumn, data.partitionNr, data.nrPartitions);
+        if (log.isBasic()) {
+          logBasic(
+              BaseMessages.getString(
+                  PKG,
+                  "TableInput.Log.PartitionRange",
+                  Integer.toString(data.partitionNr + 1),
+                  Integer.toString(data.nrPartitions),
+                  data.partitionColumn));
+        }
+      } else if (data.partitionNr > 0) {
+        // Nothing to split, the first copy reads all the rows
+        //
+        data.thisrow = null;
+        return true;
+      }
+    }
+
     if (log.isDetailed()) {
       logDetailed("SQL query : " + sql);
     }
@@ -270,6 +318,291 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     return success;
   }
 
+  /**
+   * Get the bounds of the ranges of the partition column. They are computed once by the first copy
+   * that asks for them and shared with the other copies, so all the ranges fit together even when
+   * the table changes in the meantime.
+   *
+   * @return the bounds or null if the query has no values to split on or the transform is stopped
+   */
+  @SuppressWarnings("unchecked")
+  private Object[] getSharedPartitionBounds(
+      String sql, IRowMeta parametersMeta, Object[] parameters) throws HopException {
+    Map<String, Object> extensionDataMap = getPipeline().getExtensionDataMap();
+    CompletableFuture<PartitionBounds> future = new CompletableFuture<>();
+    CompletableFuture<PartitionBounds> shared;
+    synchronized (extensionDataMap) {
+      shared =
+          (CompletableFuture<PartitionBounds>)
+              extensionDataMap.putIfAbsent(PARTITION_BOUNDS_KEY + getTransformName(), future);
+    }
+
+    if (shared == null) {
+      // This copy computes the bounds for all of them
+      //
+      try {
+        Object[] bounds = getPartitionBounds(sql, parametersMeta, parameters);
+        future.complete(new PartitionBounds(data.partitionColumnMeta, bounds));
+        return bounds;
+      } catch (HopException | RuntimeException e) {
+        future.completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    // Wait for the copy computing the bounds
+    //
+    while (!isStopped()) {
+      try {
+        PartitionBounds partitionBounds = shared.get(100, TimeUnit.MILLISECONDS);
+        data.partitionColumnMeta = partitionBounds.columnMeta;
+        return partitionBounds.bounds;
+      } catch (TimeoutException e) {
+        // Keep waiting
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException("Interrupted while waiting for the partition bounds", e);
+      } catch (ExecutionException e) {
+        throw new HopException(
+            "Unable to get the partition bounds: " + e.getCause().getMessage(), e.getCause());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the bounds of the ranges of the partition column. These are the given bounds or the minimum
+   * and maximum value of the column in the result of the query.
+   *
+   * @return the bounds or null if the query has no values to split on
+   */
+  private Object[] getPartitionBounds(String sql, IRowMeta parametersMeta, Object[] parameters)
+      throws HopException {
+    String lowerBound = resolve(meta.getPartitionLowerBound());
+    String upperBound = resolve(meta.getPartitionUpperBound());
+
+    // With both bounds given only the type of the column is needed
+    //
+    String probeSql;
+    if (!Utils.isEmpty(lowerBound) && !Utils.isEmpty(upperBound)) {
+      probeSql = "SELECT " + data.partitionColumn + " FROM " + getSubQuery(sql) + " WHERE 1=0";
+    } else {
+      probeSql =
+          "SELECT MIN("
+              + data.partitionColumn
+              + "), MAX("
+              + data.partitionColumn
+              + ") FROM "
+              + getSubQuery(sql);
+    }
+    if (log.isDetailed()) {
+      logDetailed("Range query : " + probeSql);
+    }
+
+    ResultSet rs =
+        data.db.openQuery(
+            probeSql,
+            parametersMeta.isEmpty() ? null : parametersMeta,
+            parametersMeta.isEmpty() ? null : parameters,
+            ResultSet.FETCH_FORWARD,
+            false);
+    Object[] row;
+    IRowMeta rowMeta;
+    try {
+      row = data.db.getRow(rs);
+      rowMeta = data.db.getReturnRowMeta();
+    } finally {
+      data.db.closeQuery(rs);
+    }
+
+    IValueMeta columnMeta = rowMeta.getValueMeta(0);
+    data.partitionColumnMeta = columnMeta;
+    Object min = row == null ? null : row[0];
+    Object max = row == null ? null : row[rowMeta.size() - 1];
+    if (!Utils.isEmpty(lowerBound)) {
+      min = convertBound(columnMeta, lowerBound);
+    }
+    if (!Utils.isEmpty(upperBound)) {
+      max = convertBound(columnMeta, upperBound);
+    }
+    if (min == null || max == null) {
+      return null;
+    }
+    return getPartitionBounds(columnMeta, min, max, data.nrPartitions);
+  }
+
+  /** Convert a bound to the type of the partition column. Dates are given as yyyy-MM-dd. */
+  static Object convertBound(IValueMeta columnMeta, String bound) throws HopException {
+    try {
+      switch (columnMeta.getType()) {
+        case IValueMeta.TYPE_INTEGER:
+          return Long.valueOf(bound.trim());
+        case IValueMeta.TYPE_NUMBER:
+          return Double.valueOf(bound.trim());
+        case IValueMeta.TYPE_BIGNUMBER:
+          return new BigDecimal(bound.trim());
+        case IValueMeta.TYPE_DATE:
+        case IValueMeta.TYPE_TIMESTAMP:
+          IValueMeta stringMeta = new ValueMetaString(columnMeta.getName());
+          stringMeta.setConversionMask(
+              bound.trim().length() > 10 ? "yyyy-MM-dd HH:mm:ss" : "yyyy-MM-dd");
+          return columnMeta.convertData(stringMeta, bound.trim());
+        default:
+          throw new HopException(
+              BaseMessages.getString(
+                  PKG,
+                  "TableInput.Exception.PartitionColumnType",
+                  columnMeta.getName(),
+                  columnMeta.getTypeDesc()));
+      }
+    } catch (NumberFormatException e) {
+      throw new HopValueException(
+          "Unable to convert partition bound '" + bound + "' to " + columnMeta.getTypeDesc(), e);
+    }
+  }
+
+  /**
+   * Split the values between a minimum and maximum in ranges of about the same size.
+   *
+   * @return the minimum, the bounds between the ranges and the maximum
+   */
+  static Object[] getPartitionBounds(IValueMeta valueMeta, Object min, Object max, int nrRanges)
+      throws HopException {
+    if (valueMeta.compare(min, max) > 0) {
+      throw new HopException(
+          "The lower bound "
+              + valueMeta.getString(min)
+              + " of the partition column is larger than the upper bound "
+              + valueMeta.getString(max));
+    }
+    Object[] bounds = new Object[nrRanges + 1];
+    bounds[0] = min;
+    bounds[nrRanges] = max;
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        {
+          BigInteger from = BigInteger.valueOf(valueMeta.getInteger(min));
+          BigInteger width = BigInteger.valueOf(valueMeta.getInteger(max)).subtract(from);
+          for (int i = 1; i < nrRanges; i++) {
+            bounds[i] =
+                from.add(width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(nrRanges)))
+                    .longValue();
+          }
+          break;
+        }
+      case IValueMeta.TYPE_NUMBER:
+        {
+          double from = valueMeta.getNumber(min);
+          double width = valueMeta.getNumber(max) - from;
+          for (int i = 1; i < nrRanges; i++) {
+            bounds[i] = from + width * i / nrRanges;
+          }
+          break;
+        }
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          BigDecimal from = valueMeta.getBigNumber(min);
+          BigDecimal width = valueMeta.getBigNumber(max).subtract(from);
+          for (int i = 1; i < nrRanges; i++) {
+            bounds[i] =
+                from.add(
+                    width
+                        .multiply(BigDecimal.valueOf(i))
+                        .divide(BigDecimal.valueOf(nrRanges), MathContext.DECIMAL64));
+          }
+          break;
+        }
+      case IValueMeta.TYPE_DATE:
+      case IValueMeta.TYPE_TIMESTAMP:
+        {
+          long from = valueMeta.getDate(min).getTime();
+          BigInteger width =
+              BigInteger.valueOf(valueMeta.getDate(max).getTime()).subtract(BigInteger.valueOf(from));
+          for (int i = 1; i < nrRanges; i++) {
+            long time =
+                from
+                    + width
+                        .multiply(BigInteger.valueOf(i))
+                        .divide(BigInteger.valueOf(nrRanges))
+                        .longValue();
+            bounds[i] =
+                valueMeta.getType() == IValueMeta.TYPE_TIMESTAMP
+                    ? new Timestamp(time)
+                    : new Date(time);
+          }
+          break;
+        }
+      default:
+        throw new HopException(
+            BaseMessages.getString(
+                PKG,
+                "TableInput.Exception.PartitionColumnType",
+                valueMeta.getName(),
+                valueMeta.getTypeDesc()));
+    }
+    return bounds;
+  }
+
+  /**
+   * Add the bounds of the range of this copy to the query parameters.
+   *
+   * @param parametersMeta the parameters layout, the bounds are added to it
+   */
+  private Object[] getPartitionParameters(
+      IRowMeta parametersMeta, Object[] parameters, Object[] bounds) {
+    IValueMeta columnMeta = data.partitionColumnMeta;
+    Object[] partitionParameters = parameters;
+    if (data.partitionNr > 0) {
+      partitionParameters = addBound(parametersMeta, partitionParameters, columnMeta, "from");
+      partitionParameters[parametersMeta.size() - 1] = bounds[data.partitionNr];
+    }
+    if (data.partitionNr < data.nrPartitions - 1) {
+      partitionParameters = addBound(parametersMeta, partitionParameters, columnMeta, "to");
+      partitionParameters[parametersMeta.size() - 1] = bounds[data.partitionNr + 1];
+    }
+    return partitionParameters;
+  }
+
+  private static Object[] addBound(
+      IRowMeta parametersMeta, Object[] parameters, IValueMeta columnMeta, String name) {
+    IValueMeta boundMeta = columnMeta.clone();
+    boundMeta.setName("partition_" + name);
+    Object[] newParameters = RowDataUtil.addValueData(parameters, parametersMeta.size(), null);
+    parametersMeta.addValueMeta(boundMeta);
+    return newParameters;
+  }
+
+  /**
+   * Wrap a query to read one range of values of a column. The first range also gets the null values
+   * and the values below the lower bound, the last range the values above the upper bound.
+   *
+   * @param sql the query to split
+   * @param column the quoted column to split on
+   * @param partitionNr the range to read, starting at 0
+   * @param nrPartitions the number of ranges
+   * @return the query of the range with a parameter for every bound
+   */
+  static String getPartitionSql(String sql, String column, int partitionNr, int nrPartitions) {
+    String condition;
+    if (partitionNr == 0) {
+      condition = column + " < ? OR " + column + " IS NULL";
+    } else if (partitionNr == nrPartitions - 1) {
+      condition = column + " >= ?";
+    } else {
+      condition = column + " >= ? AND " + column + " < ?";
+    }
+    return "SELECT * FROM " + getSubQuery(sql) + " WHERE " + condition;
+  }
+
+  /** Put the query between brackets, on lines of its own in case it ends with a comment. */
+  private static String getSubQuery(String sql) {
+    String subQuery = sql.trim();
+    while (subQuery.endsWith(";")) {
+      subQuery = subQuery.substring(0, subQuery.length() - 1).trim();
+    }
+    return "(" + Const.CR + subQuery + Const.CR + ") hop_range";
+  }
+
   @Override
   public void dispose() {
     if (log.isBasic()) {
@@ -337,6 +670,20 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       data.db = new Database(this, this, databaseMeta);
       data.db.setQueryLimit(Const.toInt(resolve(meta.getRowLimit()), 0));
 
+      // Every copy reads its own range of values of the partition column
+      //
+      data.partitionNr = getCopyNr();
+      data.nrPartitions = getTransformMeta().getCopies(this);
+      String partitionColumn = resolve(meta.getPartitionColumn());
+      if (!Utils.isEmpty(partitionColumn) && data.nrPartitions > 1) {
+        if (meta.isExecuteEachInputRow()) {
+          logBasic(BaseMessages.getString(PKG, "TableInput.Log.PartitioningIgnored"));
+        } else {
+          data.partitioned = true;
+          data.partitionColumn = databaseMeta.quoteField(partitionColumn);
+        }
+      }
+
       try {
         data.db.connect();
         if (databaseMeta.isRequiringTransactionsOnQueries()) {
@@ -360,4 +707,15 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
   public boolean isWaitingForData() {
     return true;
   }
+
+  /** The bounds of the ranges of the partition column, shared by the copies of the transform */
+  private static class PartitionBounds {
+    private final IValueMeta columnMeta;
+    private final Object[] bounds;
+
+    private PartitionBounds(IValueMeta columnMeta, Object[] bounds) {
+      this.columnMeta = columnMeta;
+      this.bounds = bounds;
+    }
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.tableinput;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.stream.IStream;
@@ -37,6 +38,14 @@ public class TableInputData extends BaseTransformData implements ITransformData
   public boolean isCanceled;
   public IStream infoStream;
 
+  /** True if this copy only reads a range of values of the partition column */
+  public boolean partitioned;
+
+  public String partitionColumn;
+  public IValueMeta partitionColumnMeta;
+  public int partitionNr;
+  public int nrPartitions;
+
   public TableInputData() {
     super();
 
@@ -77,6 +77,12 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
   private TextVar wLimit;
 
+  private TextVar wPartitionColumn;
+
+  private TextVar wPartitionLowerBound;
+
+  private TextVar wPartitionUpperBound;
+
   private Label wlEachRow;
   private Button wEachRow;
 
@@ -149,16 +155,87 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
     setButtonPositions(new Button[] {wOk, wPreview, wCancel}, margin, null);
 
+    // Partition upper bound
+    Label wlPartitionUpperBound = new Label(shell, SWT.RIGHT);
+    wlPartitionUpperBound.setText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionUpperBound.Label"));
+    wlPartitionUpperBound.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionBound.Tooltip"));
+    PropsUi.setLook(wlPartitionUpperBound);
+    FormData fdlPartitionUpperBound = new FormData();
+    fdlPartitionUpperBound.left = new FormAttachment(0, 0);
+    fdlPartitionUpperBound.right = new FormAttachment(middle, -margin);
+    fdlPartitionUpperBound.bottom = new FormAttachment(wOk, -2 * margin);
+    wlPartitionUpperBound.setLayoutData(fdlPartitionUpperBound);
+    wPartitionUpperBound = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPartitionUpperBound.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionBound.Tooltip"));
+    PropsUi.setLook(wPartitionUpperBound);
+    wPartitionUpperBound.addModifyListener(lsMod);
+    FormData fdPartitionUpperBound = new FormData();
+    fdPartitionUpperBound.left = new FormAttachment(middle, 0);
+    fdPartitionUpperBound.right = new FormAttachment(100, 0);
+    fdPartitionUpperBound.bottom = new FormAttachment(wlPartitionUpperBound, 0, SWT.CENTER);
+    wPartitionUpperBound.setLayoutData(fdPartitionUpperBound);
+
+    // Partition lower bound
+    Label wlPartitionLowerBound = new Label(shell, SWT.RIGHT);
+    wlPartitionLowerBound.setText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionLowerBound.Label"));
+    wlPartitionLowerBound.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionBound.Tooltip"));
+    PropsUi.setLook(wlPartitionLowerBound);
+    FormData fdlPartitionLowerBound = new FormData();
+    fdlPartitionLowerBound.left = new FormAttachment(0, 0);
+    fdlPartitionLowerBound.right = new FormAttachment(middle, -margin);
+    fdlPartitionLowerBound.bottom = new FormAttachment(wlPartitionUpperBound, -margin);
+    wlPartitionLowerBound.setLayoutData(fdlPartitionLowerBound);
+    wPartitionLowerBound = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPartitionLowerBound.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionBound.Tooltip"));
+    PropsUi.setLook(wPartitionLowerBound);
+    wPartitionLowerBound.addModifyListener(lsMod);
+    FormData fdPartitionLowerBound = new FormData();
+    fdPartitionLowerBound.left = new FormAttachment(middle, 0);
+    fdPartitionLowerBound.right = new FormAttachment(100, 0);
+    fdPartitionLowerBound.bottom = new FormAttachment(wlPartitionLowerBound, 0, SWT.CENTER);
+    wPartitionLowerBound.setLayoutData(fdPartitionLowerBound);
+
+    // Partition column
+    Label wlPartitionColumn = new Label(shell, SWT.RIGHT);
+    wlPartitionColumn.setText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Label"));
+    wlPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    PropsUi.setLook(wlPartitionColumn);
+    FormData fdlPartitionColumn = new FormData();
+    fdlPartitionColumn.left = new FormAttachment(0, 0);
+    fdlPartitionColumn.right = new FormAttachment(middle, -margin);
+    fdlPartitionColumn.bottom = new FormAttachment(wlPartitionLowerBound, -margin);
+    wlPartitionColumn.setLayoutData(fdlPartitionColumn);
+    wPartitionColumn = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    PropsUi.setLook(wPartitionColumn);
+    wPartitionColumn.addModifyListener(lsMod);
+    FormData fdPartitionColumn = new FormData();
+    fdPartitionColumn.left = new FormAttachment(middle, 0);
+    fdPartitionColumn.right = new FormAttachment(100, 0);
+    fdPartitionColumn.bottom = new FormAttachment(wlPartitionColumn, 0, SWT.CENTER);
+    wPartitionColumn.setLayoutData(fdPartitionColumn);
+
     // Limit input ...
     Label wlLimit = new Label(shell, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "TableInputDialog.LimitSize"));
+    wlLimit.setToolTipText(BaseMessages.getString(PKG, "TableInputDialog.LimitSize.Tooltip"));
     PropsUi.setLook(wlLimit);
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
     fdlLimit.right = new FormAttachment(middle, -margin);
-    fdlLimit.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlLimit.bottom = new FormAttachment(wlPartitionColumn, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wLimit.setToolTipText(BaseMessages.getString(PKG, "TableInputDialog.LimitSize.Tooltip"));
     PropsUi.setLook(wLimit);
     wLimit.addModifyListener(lsMod);
     FormData fdLimit = new FormData();
@@ -368,6 +445,9 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     }
 
     wLimit.setText(Const.NVL(input.getRowLimit(), ""));
+    wPartitionColumn.setText(Const.NVL(input.getPartitionColumn(), ""));
+    wPartitionLowerBound.setText(Const.NVL(input.getPartitionLowerBound(), ""));
+    wPartitionUpperBound.setText(Const.NVL(input.getPartitionUpperBound(), ""));
     wDataFrom.setText(Const.NVL(input.getLookup(), ""));
     wEachRow.setSelection(input.isExecuteEachInputRow());
     wVariables.setSelection(input.isVariableReplacementActive());
@@ -396,6 +476,9 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
     meta.setRowLimit(wLimit.getText());  
     meta.setExecuteEachInputRow(wEachRow.getSelection());
+    meta.setPartitionColumn(wPartitionColumn.getText());
+    meta.setPartitionLowerBound(wPartitionLowerBound.getText());
+    meta.setPartitionUpperBound(wPartitionUpperBound.getText());
     meta.setVariableReplacementActive(wVariables.getSelection());
     meta.setLookup(wDataFrom.getText());
     
@@ -81,6 +81,16 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
 
   @HopMetadataProperty private String lookup;
 
+  /** The numeric or date column to split the query on, one range per transform copy */
+  @HopMetadataProperty(key = "partition_column", injectionKey = "PARTITION_COLUMN")
+  private String partitionColumn;
+
+  @HopMetadataProperty(key = "partition_lower_bound", injectionKey = "PARTITION_LOWER_BOUND")
+  private String partitionLowerBound;
+
+  @HopMetadataProperty(key = "partition_upper_bound", injectionKey = "PARTITION_UPPER_BOUND")
+  private String partitionUpperBound;
+
   public TableInputMeta() {
     super();
   }
@@ -131,6 +141,36 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
     this.lookup = lookup;
   }
 
+  /** @return the column to split the query on, one range per transform copy */
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /** @param partitionColumn the column to split the query on, one range per transform copy */
+  public void setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+  }
+
+  /** @return the lower bound of the ranges, empty to query the minimum value of the column */
+  public String getPartitionLowerBound() {
+    return partitionLowerBound;
+  }
+
+  /** @param partitionLowerBound the lower bound of the ranges */
+  public void setPartitionLowerBound(String partitionLowerBound) {
+    this.partitionLowerBound = partitionLowerBound;
+  }
+
+  /** @return the upper bound of the ranges, empty to query the maximum value of the column */
+  public String getPartitionUpperBound() {
+    return partitionUpperBound;
+  }
+
+  /** @param partitionUpperBound the upper bound of the ranges */
+  public void setPartitionUpperBound(String partitionUpperBound) {
+    this.partitionUpperBound = partitionUpperBound;
+  }
+
   @Override
   public Object clone() {
     TableInputMeta retval = (TableInputMeta) super.clone();
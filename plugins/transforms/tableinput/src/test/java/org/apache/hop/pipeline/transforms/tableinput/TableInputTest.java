@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.stream.IStream;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TableInputTest {
+
+  private TransformMockHelper<TableInputMeta, TableInputData> mockHelper;
+  private Database db;
+  private ResultSet boundsResultSet;
+
+  @Before
+  public void setUp() throws Exception {
+    mockHelper =
+        new TransformMockHelper<>("Table Input", TableInputMeta.class, TableInputData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+
+    // The partition column holds the values 1 to 100, the ranges themselves are empty
+    //
+    db = mock(Database.class);
+    boundsResultSet = mock(ResultSet.class);
+    when(db.openQuery(startsWith("SELECT MIN("), isNull(), isNull(), anyInt(), anyBoolean()))
+        .thenReturn(boundsResultSet);
+    when(db.openQuery(startsWith("SELECT * FROM ("), any(), any(), anyInt(), anyBoolean()))
+        .thenReturn(mock(ResultSet.class));
+    when(db.getRow(boundsResultSet)).thenReturn(new Object[] {1L, 100L});
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("min_id"));
+    rowMeta.addValueMeta(new ValueMetaInteger("max_id"));
+    when(db.getReturnRowMeta()).thenReturn(rowMeta);
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  /** The first copy queries the bounds, the second one reads its range with the same bounds. */
+  @Test
+  public void testPartitionBoundsAreSharedByTheCopies() throws Exception {
+    runCopy(0);
+    runCopy(1);
+
+    verify(db, times(1))
+        .openQuery(startsWith("SELECT MIN("), isNull(), isNull(), anyInt(), anyBoolean());
+    Object[] bounds = TableInput.getPartitionBounds(new ValueMetaInteger("id"), 1L, 100L, 2);
+    verify(db)
+        .openQuery(
+            eq(TableInput.getPartitionSql("SELECT * FROM t", "id", 0, 2)),
+            any(IRowMeta.class),
+            argThat(row -> bounds[1].equals(row[0])),
+            anyInt(),
+            anyBoolean());
+    verify(db)
+        .openQuery(
+            eq(TableInput.getPartitionSql("SELECT * FROM t", "id", 1, 2)),
+            any(IRowMeta.class),
+            argThat(row -> bounds[1].equals(row[0])),
+            anyInt(),
+            anyBoolean());
+  }
+
+  /** A copy waiting for the bounds fails as well when they can't be computed. */
+  @Test
+  public void testFailedPartitionBoundsAreShared() throws Exception {
+    when(db.getRow(boundsResultSet)).thenThrow(new HopDatabaseException("No range"));
+    for (int copyNr = 0; copyNr < 2; copyNr++) {
+      try {
+        runCopy(copyNr);
+        fail("The bounds can't be computed");
+      } catch (HopException e) {
+        // expected
+      }
+    }
+    verify(db, times(1))
+        .openQuery(startsWith("SELECT MIN("), isNull(), isNull(), anyInt(), anyBoolean());
+  }
+
+  /** Run a copy of the transform like init() would with the mocked database. */
+  private void runCopy(int copyNr) throws Exception {
+    TableInputMeta meta = new TableInputMeta();
+    meta.setDefault();
+    meta.setSql("SELECT * FROM t");
+    TableInputData data = new TableInputData();
+    data.db = db;
+    data.infoStream = mock(IStream.class);
+    data.partitioned = true;
+    data.partitionColumn = "id";
+    data.partitionNr = copyNr;
+    data.nrPartitions = 2;
+    TableInput transform =
+        new TableInput(
+            mockHelper.transformMeta,
+            meta,
+            data,
+            copyNr,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    transform.setInputRowSets(new ArrayList<>());
+    transform.setOutputRowSets(new ArrayList<>());
+    assertFalse(transform.processRow());
+  }
+
+  @Test
+  public void testIntegerBounds() throws Exception {
+    assertArrayEquals(
+        new Object[] {0L, 25L, 50L, 75L, 100L},
+        TableInput.getPartitionBounds(new ValueMetaInteger("id"), 0L, 100L, 4));
+
+    // No overflow over the whole range of longs
+    Object[] bounds =
+        TableInput.getPartitionBounds(
+            new ValueMetaInteger("id"), Long.MIN_VALUE, Long.MAX_VALUE, 2);
+    assertEquals(-1L, bounds[1]);
+  }
+
+  @Test
+  public void testNumberAndDateBounds() throws Exception {
+    assertArrayEquals(
+        new Object[] {1.0, 2.5, 4.0},
+        TableInput.getPartitionBounds(new ValueMetaNumber("amount"), 1.0, 4.0, 2));
+
+    Object[] bounds =
+        TableInput.getPartitionBounds(
+            new ValueMetaDate("day"), new Date(1000L), new Date(4000L), 3);
+    assertEquals(new Date(2000L), bounds[1]);
+    assertEquals(new Date(3000L), bounds[2]);
+  }
+
+  @Test(expected = HopException.class)
+  public void testStringColumnNotSupported() throws Exception {
+    TableInput.getPartitionBounds(new ValueMetaString("name"), "a", "z", 2);
+  }
+
+  @Test
+  public void testConvertBound() throws Exception {
+    assertEquals(12L, TableInput.convertBound(new ValueMetaInteger("id"), " 12"));
+    assertEquals(
+        new ValueMetaDate("day").convertData(dateString("yyyy-MM-dd"), "2023-05-17"),
+        TableInput.convertBound(new ValueMetaDate("day"), "2023-05-17"));
+  }
+
+  /** The first range also reads the null values, the last one everything above the bound. */
+  @Test
+  public void testPartitionSql() {
+    String sql = "SELECT * FROM t -- all of it\n;";
+    assertEquals(
+        "SELECT * FROM (\nSELECT * FROM t -- all of it\n) hop_range WHERE id < ? OR id IS NULL",
+        TableInput.getPartitionSql(sql, "id", 0, 3).replace("\r", ""));
+    assertEquals(
+        "SELECT * FROM (\nSELECT * FROM t -- all of it\n) hop_range WHERE id >= ? AND id < ?",
+        TableInput.getPartitionSql(sql, "id", 1, 3).replace("\r", ""));
+    assertEquals(
+        "SELECT * FROM (\nSELECT * FROM t -- all of it\n) hop_range WHERE id >= ?",
+        TableInput.getPartitionSql(sql, "id", 2, 3).replace("\r", ""));
+  }
+
+  private static ValueMetaString dateString(String mask) {
+    ValueMetaString stringMeta = new ValueMetaString("day");
+    stringMeta.setConversionMask(mask);
+    return stringMeta;
+  }
+}
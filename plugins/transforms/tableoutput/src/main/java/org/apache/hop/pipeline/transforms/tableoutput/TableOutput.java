@@ -27,8 +27,10 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.util.ThreadUtil;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -40,13 +42,21 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /** Writes rows to a database table. */
 public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData> {
 
   private static final Class<?> PKG = TableOutputMeta.class; // For Translator
 
+  /** The maximum number of rows read and written in one go */
+  private static final int BATCH_SIZE = 500;
+
   public TableOutput(
       TransformMeta transformMeta,
       TableOutputMeta meta,
@@ -60,8 +70,9 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
   @Override
   public boolean processRow() throws HopException {
 
-    Object[] r = getRow(); // this also waits for a previous transform to be finished.
-    if (r == null) { // no more input to be expected...
+    // this also waits for a previous transform to be finished.
+    RowBatch batch = getRows(BATCH_SIZE);
+    if (batch == null) { // no more input to be expected...
       if (first && meta.isTruncateTable() && !meta.isOnlyWhenHaveRows()) {
         truncateTable();
       }
@@ -113,17 +124,23 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       }
     }
 
+    long lineNr = getLinesRead() - batch.size();
     try {
-      Object[] outputRowData = writeToTable(getInputRowMeta(), r);
-      if (outputRowData != null) {
-        putRow(data.outputRowMeta, outputRowData); // in case we want it go further...
-        incrementLinesOutput();
-      }
+      for (int i = 0; i < batch.size(); i++) {
+        Object[] outputRowData = writeToTable(getInputRowMeta(), batch.getRow(i));
+        if (outputRowData != null) {
+          passOnRow(outputRowData); // in case we want it go further...
+        }
 
-      if (checkFeedback(getLinesRead()) && log.isBasic()) {
-        logBasic("linenr " + getLinesRead());
+        if (checkFeedback(lineNr + i + 1) && log.isBasic()) {
+          logBasic("linenr " + (lineNr + i + 1));
+        }
       }
+      putOutputRows();
     } catch (HopException e) {
+      if (data.outputRows != null) {
+        data.outputRows.clear();
+      }
       logError("Because of an error, this transform can't continue: ", e);
       setErrors(1);
       stopAll();
@@ -229,6 +246,13 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       throw new HopTransformException("The tablename is not defined (empty)");
     }
 
+    if (data.nrWriters > 0 || data.rowsPerStatement > 1) {
+      // The row is passed on once its batch is written
+      //
+      addToBatch(tableName, insertRowData, outputRowData);
+      return null;
+    }
+
     insertStatement = data.preparedStatements.get(tableName);
     if (insertStatement == null) {
       String sql =
@@ -327,17 +351,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       } else {
         data.db.clearBatch(insertStatement);
         data.db.rollback();
-        StringBuilder msg =
-            new StringBuilder("Error batch inserting rows into table [" + tableName + "].");
-        msg.append(Const.CR);
-        msg.append("Errors encountered (first 10):").append(Const.CR);
-        for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
-          Exception exception = be.getExceptionsList().get(x);
-          if (exception.getMessage() != null) {
-            msg.append(exception.getMessage()).append(Const.CR);
-          }
-        }
-        throw new HopException(msg.toString(), be);
+        throw new HopException(getBatchErrorMessage(tableName, be), be);
       }
     } catch (HopDatabaseException dbe) {
       if (getTransformMeta().isDoingErrorHandling()) {
@@ -357,22 +371,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         errorMessage = dbe.toString();
       } else {
         if (meta.isIgnoreErrors()) {
-          if (data.warnings < 20) {
-            if (log.isBasic()) {
-              logBasic(
-                  "WARNING: Couldn't insert row into table: "
-                      + rowMeta.getString(r)
-                      + Const.CR
-                      + dbe.getMessage());
-            }
-          } else if (data.warnings == 20 && log.isBasic()) {
-            logBasic(
-                "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
-                    + rowMeta.getString(r)
-                    + Const.CR
-                    + dbe.getMessage());
-          }
-          data.warnings++;
+          warnIgnoredRow(rowMeta.getString(r), dbe.getMessage());
         } else {
           setErrors(getErrors() + 1);
           data.db.rollback();
@@ -409,9 +408,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
         if (rowIsSafe) { // A commit was done and the rows are all safe (no error)
           for (int i = 0; i < data.batchBuffer.size(); i++) {
-            Object[] row = data.batchBuffer.get(i);
-            putRow(data.outputRowMeta, row);
-            incrementLinesOutput();
+            passOnRow(data.batchBuffer.get(i));
           }
           // Clear the buffer
           data.batchBuffer.clear();
@@ -432,6 +429,265 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return log.isRowLevel();
   }
 
+  private void warnIgnoredRow(String row, String message) {
+    if (data.warnings < 20) {
+      if (log.isBasic()) {
+        logBasic("WARNING: Couldn't insert row into table: " + row + Const.CR + message);
+      }
+    } else if (data.warnings == 20 && log.isBasic()) {
+      logBasic(
+          "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
+              + row
+              + Const.CR
+              + message);
+    }
+    data.warnings++;
+  }
+
+  static String getBatchErrorMessage(String tableName, HopDatabaseBatchException be) {
+    StringBuilder msg =
+        new StringBuilder("Error batch inserting rows into table [" + tableName + "].");
+    msg.append(Const.CR);
+    msg.append("Errors encountered (first 10):").append(Const.CR);
+    for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
+      Exception exception = be.getExceptionsList().get(x);
+      if (exception.getMessage() != null) {
+        msg.append(exception.getMessage()).append(Const.CR);
+      }
+    }
+    return msg.toString();
+  }
+
+  /** Add a row to the open batch of a table, a full batch is handed to the writers. */
+  private void addToBatch(String tableName, Object[] insertRowData, Object[] outputRowData)
+      throws HopException {
+    if (data.openBatches == null) {
+      startWriters();
+    }
+    TableOutputBatch batch = data.openBatches.get(tableName);
+    if (batch == null) {
+      batch = new TableOutputBatch(tableName, Math.min(data.commitSize, 10000));
+      data.openBatches.put(tableName, batch);
+    }
+    batch.addRow(insertRowData, outputRowData);
+    if (batch.size() >= data.commitSize) {
+      data.openBatches.remove(tableName);
+      submitBatch(batch);
+    }
+    passOnWrittenBatches(false);
+  }
+
+  /**
+   * Start the writer threads. The first writer uses the connection of the transform, the others
+   * open a connection of their own. Without writer threads the transform writes the batches.
+   */
+  private void startWriters() throws HopException {
+    String schemaName = resolve(meta.getSchemaName());
+
+    // Stay below the maximum number of parameters of a statement
+    //
+    int rowsPerStatement = data.rowsPerStatement;
+    int maxParameters = data.databaseMeta.getMaxPreparedStatementParameters();
+    if (maxParameters > 0 && data.insertRowMeta.size() > 0) {
+      rowsPerStatement =
+          Math.max(1, Math.min(rowsPerStatement, maxParameters / data.insertRowMeta.size()));
+    }
+
+    data.openBatches = new HashMap<>();
+    if (data.nrWriters == 0) {
+      data.writer =
+          new TableOutputWriter(
+              data.db,
+              false,
+              schemaName,
+              data.insertRowMeta,
+              rowsPerStatement,
+              getTransformMeta().isDoingErrorHandling(),
+              meta.isIgnoreErrors(),
+              null,
+              null,
+              null,
+              log);
+      return;
+    }
+
+    data.pendingBatches = new ArrayBlockingQueue<>(data.nrWriters);
+    data.writtenBatches = new LinkedBlockingQueue<>();
+    data.writeFailed = new AtomicBoolean(false);
+    data.batchesInFlight = 0;
+    data.writerThreads = new Thread[data.nrWriters];
+    data.writers = new TableOutputWriter[data.nrWriters];
+
+    for (int i = 0; i < data.nrWriters; i++) {
+      Database db = data.db;
+      if (i > 0) {
+        db = new Database(this, this, data.databaseMeta);
+        db.connect();
+        db.setCommit(data.commitSize);
+      }
+      TableOutputWriter writer =
+          new TableOutputWriter(
+              db,
+              i > 0,
+              schemaName,
+              data.insertRowMeta,
+              rowsPerStatement,
+              getTransformMeta().isDoingErrorHandling(),
+              meta.isIgnoreErrors(),
+              data.pendingBatches,
+              data.writtenBatches,
+              data.writeFailed,
+              log);
+      Thread thread = ThreadUtil.newThread(writer, getTransformName() + " writer " + (i + 1), false);
+      thread.setDaemon(true);
+      data.writers[i] = writer;
+      data.writerThreads[i] = thread;
+      thread.start();
+    }
+  }
+
+  /** Hand a batch to the writers, waits while they are all busy and the queue is full. */
+  private void submitBatch(TableOutputBatch batch) throws HopException {
+    if (data.writer != null) {
+      data.writer.write(batch);
+      passOnBatch(batch);
+      return;
+    }
+    try {
+      while (!data.pendingBatches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+        passOnWrittenBatches(false);
+        if (isStopped()) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while handing a batch to the writers", e);
+    }
+    data.batchesInFlight++;
+  }
+
+  /**
+   * Pass on the rows of the batches which are written.
+   *
+   * @param waitForAll wait until all the batches handed to the writers are written
+   */
+  private void passOnWrittenBatches(boolean waitForAll) throws HopException {
+    while (data.batchesInFlight > 0) {
+      TableOutputBatch batch;
+      if (waitForAll) {
+        try {
+          batch = data.writtenBatches.poll(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new HopException("Interrupted while waiting for the writers", e);
+        }
+        if (batch == null) {
+          checkWriters();
+          if (isStopped()) {
+            return;
+          }
+          continue;
+        }
+      } else {
+        batch = data.writtenBatches.poll();
+        if (batch == null) {
+          checkWriters();
+          return;
+        }
+      }
+      data.batchesInFlight--;
+      passOnBatch(batch);
+    }
+  }
+
+  /** Rethrow the error which stopped a writer thread, the batch it was writing never comes back. */
+  private void checkWriters() throws HopException {
+    for (TableOutputWriter writer : data.writers) {
+      Throwable error = writer.getError();
+      if (error != null) {
+        throw new HopException("A writer thread stopped because of an unexpected error", error);
+      }
+    }
+  }
+
+  private void passOnBatch(TableOutputBatch batch) throws HopException {
+    if (batch.getFatalError() != null) {
+      throw batch.getFatalError();
+    }
+    List<Object[]> rows = batch.getOutputRows();
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = rows.get(i);
+      String errorDescription = batch.getErrorDescription(i);
+      if (errorDescription == null) {
+        passOnRow(row);
+      } else if (batch.getErrorCode(i) != null) {
+        putError(data.outputRowMeta, row, 1L, errorDescription, null, batch.getErrorCode(i));
+      } else {
+        warnIgnoredRow(data.outputRowMeta.getString(row), errorDescription);
+      }
+    }
+  }
+
+  /** Add a written row to the rows which are passed on at the end of the input batch. */
+  private void passOnRow(Object[] row) {
+    if (data.outputRows == null) {
+      data.outputRows = new RowBatch(data.outputRowMeta, BATCH_SIZE);
+    }
+    data.outputRows.addRow(row);
+    incrementLinesOutput();
+  }
+
+  /** Pass on the written rows to the next transforms in one go. */
+  private void putOutputRows() throws HopException {
+    if (data.outputRows == null) {
+      return;
+    }
+    try {
+      putRows(data.outputRowMeta, data.outputRows);
+    } finally {
+      data.outputRows.clear();
+    }
+  }
+
+  /** Write the batches which aren't full yet and wait until all the batches are written. */
+  private void writeOpenBatches() throws HopException {
+    for (TableOutputBatch batch : data.openBatches.values()) {
+      submitBatch(batch);
+    }
+    data.openBatches.clear();
+    passOnWrittenBatches(true);
+  }
+
+  /** Let the writers finish the batch they're working on and wait for them to stop. */
+  private void stopWriters() {
+    if (data.writer != null) {
+      data.writer.close();
+      data.writer = null;
+    }
+    if (data.writerThreads == null) {
+      return;
+    }
+    data.pendingBatches.clear();
+    for (Thread thread : data.writerThreads) {
+      if (thread != null) {
+        data.pendingBatches.offer(TableOutputWriter.END_OF_BATCHES);
+      }
+    }
+    for (Thread thread : data.writerThreads) {
+      if (thread != null) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          logError("Interrupted while waiting for the writers to stop", e);
+          break;
+        }
+      }
+    }
+    data.writerThreads = null;
+  }
+
   private void processBatchException(
       String errorMessage, int[] updateCounts, List<Exception> exceptionsList) throws HopException {
     // There was an error with the commit
@@ -443,8 +699,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         Object[] row = data.batchBuffer.get(i);
         if (updateCounts[i] > 0) {
           // send the error foward
-          putRow(data.outputRowMeta, row);
-          incrementLinesOutput();
+          passOnRow(row);
         } else {
           String exMessage = errorMessage;
           if (errNr < exceptionsList.size()) {
@@ -541,6 +796,28 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         }
         data.db.setCommit(data.commitSize);
 
+        // Write the batches in the background?
+        //
+        data.nrWriters = Math.max(0, Const.toInt(resolve(meta.getWriterThreads()), 0));
+        if (data.nrWriters > 0 && !data.batchMode) {
+          logBasic(BaseMessages.getString(PKG, "TableOutput.Log.WriterThreadsNeedBatchMode"));
+          data.nrWriters = 0;
+        }
+        if (data.nrWriters > 1 && !Utils.isEmpty(data.db.getConnectionGroup())) {
+          // The connection is shared by a transaction, so one writer can use it
+          //
+          data.nrWriters = 1;
+        }
+
+        // Insert several rows with one statement?
+        //
+        data.rowsPerStatement = Math.max(1, Const.toInt(resolve(meta.getRowsPerStatement()), 1));
+        if (data.rowsPerStatement > 1
+            && (!data.batchMode || !data.databaseMeta.supportsMultiRowInsert())) {
+          logBasic(BaseMessages.getString(PKG, "TableOutput.Log.MultiRowInsertNotSupported"));
+          data.rowsPerStatement = 1;
+        }
+
         if (!meta.isPartitioningEnabled() && !meta.isTableNameInField()) {
           data.tableName = resolve(meta.getTableName());
         }
@@ -595,6 +872,9 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
   private void emptyAndCommitBatchBuffers(boolean dispose) {
     try {
+      if (data.openBatches != null && getErrors() == 0) {
+        writeOpenBatches();
+      }
       for (String schemaTable : data.preparedStatements.keySet()) {
         // Get a commit counter per prepared statement to keep track of separate tables, etc.
         //
@@ -608,9 +888,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         data.commitCounterMap.put(schemaTable, 0);
       }
       for (int i = 0; i < data.batchBuffer.size(); i++) {
-        Object[] row = data.batchBuffer.get(i);
-        putRow(data.outputRowMeta, row);
-        incrementLinesOutput();
+        passOnRow(data.batchBuffer.get(i));
       }
       // Clear the buffer
       data.batchBuffer.clear();
@@ -636,6 +914,15 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       setErrors(1);
       stopAll();
     } finally {
+      if (dispose || getErrors() > 0) {
+        stopWriters();
+      }
+      try {
+        putOutputRows();
+      } catch (HopException e) {
+        logError("Unexpected error passing on the written rows.", e);
+        setErrors(1);
+      }
       setOutputDone();
 
       if (getErrors() > 0) {
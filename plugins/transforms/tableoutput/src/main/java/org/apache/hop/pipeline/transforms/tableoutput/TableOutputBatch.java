@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.exception.HopException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of rows for one table, filled by the transform and written by a {@link
+ * TableOutputWriter}. The writer keeps the outcome per row so the transform can pass the rows on
+ * or send them to error handling.
+ */
+public class TableOutputBatch {
+  private final String tableName;
+  private final List<Object[]> insertRows;
+  private final List<Object[]> outputRows;
+
+  /** The error description per row, null if the row was written */
+  private String[] errorDescriptions;
+
+  /** The error code per row, null if the row was written or the error is ignored */
+  private String[] errorCodes;
+
+  /** An error which stops the transform */
+  private HopException fatalError;
+
+  public TableOutputBatch(String tableName, int size) {
+    this.tableName = tableName;
+    this.insertRows = new ArrayList<>(size);
+    this.outputRows = new ArrayList<>(size);
+  }
+
+  public void addRow(Object[] insertRow, Object[] outputRow) {
+    insertRows.add(insertRow);
+    outputRows.add(outputRow);
+  }
+
+  public int size() {
+    return insertRows.size();
+  }
+
+  public void setError(int rowNr, String errorDescription, String errorCode) {
+    if (errorDescriptions == null) {
+      errorDescriptions = new String[insertRows.size()];
+      errorCodes = new String[insertRows.size()];
+    }
+    errorDescriptions[rowNr] = errorDescription;
+    errorCodes[rowNr] = errorCode;
+  }
+
+  /**
+   * @return the error description of a row or null if the row was written
+   */
+  public String getErrorDescription(int rowNr) {
+    return errorDescriptions == null ? null : errorDescriptions[rowNr];
+  }
+
+  /**
+   * @return the error code of a row or null if the row was written or the error is ignored
+   */
+  public String getErrorCode(int rowNr) {
+    return errorCodes == null ? null : errorCodes[rowNr];
+  }
+
+  /**
+   * @return the name of the table to write to
+   */
+  public String getTableName() {
+    return tableName;
+  }
+
+  /**
+   * @return the values to insert
+   */
+  public List<Object[]> getInsertRows() {
+    return insertRows;
+  }
+
+  /**
+   * @return the rows to pass on once they are written
+   */
+  public List<Object[]> getOutputRows() {
+    return outputRows;
+  }
+
+  /**
+   * @return the error which stops the transform or null
+   */
+  public HopException getFatalError() {
+    return fatalError;
+  }
+
+  /**
+   * @param fatalError the error which stops the transform
+   */
+  public void setFatalError(HopException fatalError) {
+    this.fatalError = fatalError;
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.tableoutput;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -31,6 +32,8 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /** Storage class for table output transform. */
 public class TableOutputData extends BaseTransformData implements ITransformData {
@@ -59,6 +62,9 @@ public class TableOutputData extends BaseTransformData implements ITransformData
   public boolean sendToErrorRow;
   public IRowMeta outputRowMeta;
   public IRowMeta insertRowMeta;
+
+  /** The written rows which are passed on at the end of the input batch */
+  public RowBatch outputRows;
   public boolean useSafePoints;
   public Savepoint savepoint;
   public boolean releaseSavepoint;
@@ -69,6 +75,32 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
   public int commitSize;
 
+  /** The number of threads writing batches in the background, 0 to write in the transform */
+  public int nrWriters;
+
+  public Thread[] writerThreads;
+
+  /** The writers of the writer threads */
+  public TableOutputWriter[] writers;
+
+  /** The batch being filled per table name */
+  public Map<String, TableOutputBatch> openBatches;
+
+  public BlockingQueue<TableOutputBatch> pendingBatches;
+  public BlockingQueue<TableOutputBatch> writtenBatches;
+
+  /** The number of batches handed to the writers and not passed on yet */
+  public int batchesInFlight;
+
+  /** Set by a writer when a batch failed and the rest isn't written anymore */
+  public AtomicBoolean writeFailed;
+
+  /** The number of rows to insert with one statement */
+  public int rowsPerStatement;
+
+  /** Writes the batches in the transform thread when there are no writer threads */
+  public TableOutputWriter writer;
+
   public TableOutputData() {
     super();
 
@@ -106,6 +106,12 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
   private Label wlBatch;
   private Button wBatch;
 
+  private Label wlWriters;
+  private TextVar wWriters;
+
+  private Label wlRowsPerStatement;
+  private TextVar wRowsPerStatement;
+
   private Button wUsePart;
 
   private Label wlPartField;
@@ -552,13 +558,56 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
           }
         });
 
+    // Writer threads
+    wlWriters = new Label(wMainComp, SWT.RIGHT);
+    wlWriters.setText(BaseMessages.getString(PKG, "TableOutputDialog.WriterThreads.Label"));
+    wlWriters.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.WriterThreads.Tooltip"));
+    PropsUi.setLook(wlWriters);
+    FormData fdlWriters = new FormData();
+    fdlWriters.left = new FormAttachment(0, 0);
+    fdlWriters.top = new FormAttachment(wBatch, margin);
+    fdlWriters.right = new FormAttachment(middle, -margin);
+    wlWriters.setLayoutData(fdlWriters);
+    wWriters = new TextVar(variables, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wWriters.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.WriterThreads.Tooltip"));
+    PropsUi.setLook(wWriters);
+    wWriters.addModifyListener(lsMod);
+    FormData fdWriters = new FormData();
+    fdWriters.left = new FormAttachment(middle, 0);
+    fdWriters.top = new FormAttachment(wlWriters, 0, SWT.CENTER);
+    fdWriters.right = new FormAttachment(100, 0);
+    wWriters.setLayoutData(fdWriters);
+
+    // Rows per statement
+    wlRowsPerStatement = new Label(wMainComp, SWT.RIGHT);
+    wlRowsPerStatement.setText(
+        BaseMessages.getString(PKG, "TableOutputDialog.RowsPerStatement.Label"));
+    wlRowsPerStatement.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.RowsPerStatement.Tooltip"));
+    PropsUi.setLook(wlRowsPerStatement);
+    FormData fdlRowsPerStatement = new FormData();
+    fdlRowsPerStatement.left = new FormAttachment(0, 0);
+    fdlRowsPerStatement.top = new FormAttachment(wWriters, margin);
+    fdlRowsPerStatement.right = new FormAttachment(middle, -margin);
+    wlRowsPerStatement.setLayoutData(fdlRowsPerStatement);
+    wRowsPerStatement = new TextVar(variables, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wRowsPerStatement.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.RowsPerStatement.Tooltip"));
+    PropsUi.setLook(wRowsPerStatement);
+    wRowsPerStatement.addModifyListener(lsMod);
+    FormData fdRowsPerStatement = new FormData();
+    fdRowsPerStatement.left = new FormAttachment(middle, 0);
+    fdRowsPerStatement.top = new FormAttachment(wlRowsPerStatement, 0, SWT.CENTER);
+    fdRowsPerStatement.right = new FormAttachment(100, 0);
+    wRowsPerStatement.setLayoutData(fdRowsPerStatement);
+
     // NameInField
     Label wlNameInField = new Label(wMainComp, SWT.RIGHT);
     wlNameInField.setText(BaseMessages.getString(PKG, "TableOutputDialog.NameInField.Label"));
     PropsUi.setLook(wlNameInField);
     FormData fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment(0, 0);
-    fdlNameInField.top = new FormAttachment(wBatch, margin * 5);
+    fdlNameInField.top = new FormAttachment(wRowsPerStatement, margin * 5);
     fdlNameInField.right = new FormAttachment(middle, -margin);
     wlNameInField.setLayoutData(fdlNameInField);
     wNameInField = new Button(wMainComp, SWT.CHECK);
@@ -1228,6 +1277,10 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
 
     wlBatch.setEnabled(enableBatch);
     wBatch.setEnabled(enableBatch);
+    wlWriters.setEnabled(useBatch);
+    wWriters.setEnabled(useBatch);
+    wlRowsPerStatement.setEnabled(useBatch);
+    wRowsPerStatement.setEnabled(useBatch);
 
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled(specifyFields);
@@ -1273,6 +1326,8 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     wOnlyWhenHaveRows.setSelection(input.isOnlyWhenHaveRows());
     wIgnore.setSelection(input.isIgnoreErrors());
     wBatch.setSelection(input.isUseBatchUpdate());
+    wWriters.setText(Const.NVL(input.getWriterThreads(), ""));
+    wRowsPerStatement.setText(Const.NVL(input.getRowsPerStatement(), ""));
 
     wCommit.setText(input.getCommitSize());
 
@@ -1329,6 +1384,8 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     info.setOnlyWhenHaveRows(wOnlyWhenHaveRows.getSelection());
     info.setIgnoreErrors(wIgnore.getSelection());
     info.setUseBatchUpdate(wBatch.getSelection());
+    info.setWriterThreads(wWriters.getText());
+    info.setRowsPerStatement(wRowsPerStatement.getText());
     info.setPartitioningEnabled(wUsePart.getSelection());
     info.setPartitioningField(wPartField.getText());
     info.setPartitioningDaily(wPartDaily.getSelection());
@@ -110,6 +110,18 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
       injectionKeyDescription = "TableOutputMeta.Injection.UseBatch.Field")
   private boolean useBatchUpdate;
 
+  @HopMetadataProperty(
+      key = "writer_threads",
+      injectionKey = "WRITER_THREADS",
+      injectionKeyDescription = "TableOutputMeta.Injection.WriterThreads.Field")
+  private String writerThreads;
+
+  @HopMetadataProperty(
+      key = "rows_per_statement",
+      injectionKey = "ROWS_PER_STATEMENT",
+      injectionKeyDescription = "TableOutputMeta.Injection.RowsPerStatement.Field")
+  private String rowsPerStatement;
+
   @HopMetadataProperty(
       key = "partitioning_enabled",
       injectionKey = "PARTITION_OVER_TABLES",
@@ -459,6 +471,35 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     return useBatchUpdate;
   }
 
+  /**
+   * @return the number of threads writing the batches in the background, empty or 0 to write in
+   *     the transform thread
+   */
+  public String getWriterThreads() {
+    return writerThreads;
+  }
+
+  /**
+   * @param writerThreads the number of threads writing the batches in the background
+   */
+  public void setWriterThreads(String writerThreads) {
+    this.writerThreads = writerThreads;
+  }
+
+  /**
+   * @return the number of rows to insert with one INSERT statement, empty or 1 for one row
+   */
+  public String getRowsPerStatement() {
+    return rowsPerStatement;
+  }
+
+  /**
+   * @param rowsPerStatement the number of rows to insert with one INSERT statement
+   */
+  public void setRowsPerStatement(String rowsPerStatement) {
+    this.rowsPerStatement = rowsPerStatement;
+  }
+
   @Override
   public void setDefault() {
     tableName = "";
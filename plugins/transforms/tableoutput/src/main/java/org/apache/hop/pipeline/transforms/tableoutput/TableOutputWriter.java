@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the batches of a Table Output transform in a background thread so the transform can fill
+ * the next batch while the database is busy. Every writer commits its own batches. The written
+ * batches are handed back to the transform which passes the rows on.
+ *
+ * <p>Without writer threads the transform writes the batches itself with a writer, to insert
+ * several rows per statement.
+ */
+public class TableOutputWriter implements Runnable {
+
+  /** Tells a writer there are no more batches */
+  public static final TableOutputBatch END_OF_BATCHES = new TableOutputBatch(null, 0);
+
+  private final Database db;
+  private final boolean ownConnection;
+  private final String schemaName;
+  private final IRowMeta insertRowMeta;
+  private final int rowsPerStatement;
+  private final boolean doingErrorHandling;
+  private final boolean ignoreErrors;
+  private final BlockingQueue<TableOutputBatch> pendingBatches;
+  private final BlockingQueue<TableOutputBatch> writtenBatches;
+  private final AtomicBoolean failed;
+  private final ILogChannel log;
+
+  private final Map<String, PreparedStatement> preparedStatements = new HashMap<>();
+
+  /** The error which stopped the writer thread, its batch is never handed back */
+  private volatile Throwable error;
+
+  /**
+   * @param db the connection to write with
+   * @param ownConnection true if the connection is disconnected when the writer is done
+   * @param schemaName the resolved schema name
+   * @param insertRowMeta the layout of the values to insert
+   * @param rowsPerStatement the number of rows to insert with one statement
+   * @param doingErrorHandling true to keep the errors per row for error handling
+   * @param ignoreErrors true to ignore rows which can't be inserted
+   * @param pendingBatches the batches to write
+   * @param writtenBatches the batches which are written or which failed
+   * @param failed shared by the writers of a transform, no more batches are written once set
+   * @param log the log channel of the transform
+   */
+  public TableOutputWriter(
+      Database db,
+      boolean ownConnection,
+      String schemaName,
+      IRowMeta insertRowMeta,
+      int rowsPerStatement,
+      boolean doingErrorHandling,
+      boolean ignoreErrors,
+      BlockingQueue<TableOutputBatch> pendingBatches,
+      BlockingQueue<TableOutputBatch> writtenBatches,
+      AtomicBoolean failed,
+      ILogChannel log) {
+    this.db = db;
+    this.ownConnection = ownConnection;
+    this.schemaName = schemaName;
+    this.insertRowMeta = insertRowMeta;
+    this.rowsPerStatement = rowsPerStatement;
+    this.doingErrorHandling = doingErrorHandling;
+    this.ignoreErrors = ignoreErrors;
+    this.pendingBatches = pendingBatches;
+    this.writtenBatches = writtenBatches;
+    this.failed = failed;
+    this.log = log;
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) {
+        TableOutputBatch batch = pendingBatches.take();
+        if (batch == END_OF_BATCHES) {
+          break;
+        }
+        if (failed.get()) {
+          batch.setFatalError(
+              new HopException("Batch not written because of an earlier error writing a batch"));
+        } else {
+          try {
+            write(batch);
+          } catch (HopException e) {
+            batch.setFatalError(e);
+          } catch (RuntimeException e) {
+            batch.setFatalError(new HopException("Unexpected error writing a batch", e));
+          }
+          if (batch.getFatalError() != null) {
+            failed.set(true);
+          }
+        }
+        writtenBatches.add(batch);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Throwable e) {
+      error = e;
+      failed.set(true);
+    } finally {
+      close();
+    }
+  }
+
+  /** @return the error which stopped the writer thread or null if there is none */
+  public Throwable getError() {
+    return error;
+  }
+
+  /**
+   * Insert the rows of a batch and commit them. With several rows per statement a row which can't
+   * be converted is left out and the rows which are left at the end go in a smaller statement.
+   */
+  void write(TableOutputBatch batch) throws HopException {
+    String tableName = batch.getTableName();
+    List<Object[]> rows = batch.getInsertRows();
+    int statementSize = Math.max(1, Math.min(rowsPerStatement, rows.size()));
+    PreparedStatement insertStatement = getInsertStatement(tableName, statementSize);
+
+    // The numbers of the rows of every statement in the JDBC batch, to match the update counts
+    //
+    List<int[]> batchRowNrs = new ArrayList<>();
+    int[] statementRowNrs = new int[statementSize];
+    int nrRows = 0;
+    for (int i = 0; i < rows.size(); i++) {
+      try {
+        db.setValuesOfRow(insertRowMeta, rows.get(i), insertStatement, nrRows);
+      } catch (HopDatabaseException dbe) {
+        handleInsertError(batch, insertStatement, new int[] {i}, dbe);
+        continue;
+      }
+      statementRowNrs[nrRows++] = i;
+      if (nrRows == statementSize) {
+        if (insertRows(batch, insertStatement, statementRowNrs, true)) {
+          batchRowNrs.add(statementRowNrs.clone());
+        }
+        nrRows = 0;
+      }
+    }
+
+    if (nrRows > 0) {
+      int[] lastRowNrs = Arrays.copyOf(statementRowNrs, nrRows);
+      PreparedStatement lastStatement = getInsertStatement(tableName, nrRows);
+      try {
+        for (int i = 0; i < lastRowNrs.length; i++) {
+          db.setValuesOfRow(insertRowMeta, rows.get(lastRowNrs[i]), lastStatement, i);
+        }
+      } catch (HopDatabaseException dbe) {
+        // Don't leave the half bound statement behind in the statement cache
+        //
+        clearParameters(lastStatement);
+        if (!doingErrorHandling && !ignoreErrors) {
+          // The full statements waiting in the JDBC batch are rolled back as well
+          //
+          db.clearBatch(insertStatement);
+        }
+        handleInsertError(batch, lastStatement, lastRowNrs, dbe);
+        lastRowNrs = null;
+      }
+      if (lastRowNrs != null) {
+        insertRows(batch, lastStatement, lastRowNrs, false);
+      }
+    }
+
+    try {
+      db.emptyAndCommit(insertStatement, true, batchRowNrs.size(), false);
+    } catch (HopDatabaseBatchException be) {
+      db.clearBatch(insertStatement);
+      if (!doingErrorHandling) {
+        db.rollback();
+        throw new HopException(TableOutput.getBatchErrorMessage(tableName, be), be);
+      }
+      db.commit(true);
+
+      // Without update counts the database doesn't tell which rows failed so they all did
+      //
+      int[] updateCounts = be.getUpdateCounts();
+      List<Exception> exceptionsList = be.getExceptionsList();
+      int errNr = 0;
+      for (int i = 0; i < batchRowNrs.size(); i++) {
+        if (updateCounts == null) {
+          setErrors(batch, batchRowNrs.get(i), be.toString(), "TOP0003");
+        } else if (i >= updateCounts.length || updateCounts[i] <= 0) {
+          String errorDescription = be.toString();
+          if (errNr < exceptionsList.size()) {
+            errorDescription = exceptionsList.get(errNr++).toString();
+          }
+          setErrors(batch, batchRowNrs.get(i), errorDescription, "TOP0002");
+        }
+      }
+    }
+  }
+
+  /**
+   * Add a statement to the JDBC batch or execute it right away.
+   *
+   * @return true if the statement was added or executed
+   */
+  private boolean insertRows(
+      TableOutputBatch batch, PreparedStatement insertStatement, int[] rowNrs, boolean useBatch)
+      throws HopException {
+    try {
+      db.insertRow(insertStatement, useBatch, false);
+      return true;
+    } catch (HopDatabaseException dbe) {
+      handleInsertError(batch, insertStatement, rowNrs, dbe);
+      return false;
+    }
+  }
+
+  /** Keep the error for the rows or stop writing if there is no error handling. */
+  private void handleInsertError(
+      TableOutputBatch batch, PreparedStatement insertStatement, int[] rowNrs, HopDatabaseException dbe)
+      throws HopException {
+    if (doingErrorHandling) {
+      setErrors(batch, rowNrs, dbe.toString(), "TOP001");
+    } else if (ignoreErrors) {
+      setErrors(batch, rowNrs, dbe.getMessage(), null);
+    } else {
+      db.clearBatch(insertStatement);
+      db.rollback();
+      throw new HopException(
+          "Error inserting row into table ["
+              + batch.getTableName()
+              + "] with values: "
+              + insertRowMeta.getString(batch.getInsertRows().get(rowNrs[0])),
+          dbe);
+    }
+  }
+
+  private static void clearParameters(PreparedStatement statement) throws HopDatabaseException {
+    try {
+      statement.clearParameters();
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Unable to clear the parameters of the insert statement", e);
+    }
+  }
+
+  private static void setErrors(
+      TableOutputBatch batch, int[] rowNrs, String errorDescription, String errorCode) {
+    for (int rowNr : rowNrs) {
+      batch.setError(rowNr, errorDescription, errorCode);
+    }
+  }
+
+  private PreparedStatement getInsertStatement(String tableName, int nrRows)
+      throws HopDatabaseException {
+    String key = nrRows + "|" + tableName;
+    PreparedStatement insertStatement = preparedStatements.get(key);
+    if (insertStatement == null) {
+      String sql = db.getInsertStatement(schemaName, tableName, insertRowMeta, nrRows);
+      if (log.isDetailed()) {
+        log.logDetailed("Prepared statement : " + sql);
+      }
+      insertStatement = db.prepareSql(sql);
+      preparedStatements.put(key, insertStatement);
+    }
+    return insertStatement;
+  }
+
+  /** Close the prepared statements and the connection if it belongs to the writer. */
+  void close() {
+    for (PreparedStatement preparedStatement : preparedStatements.values()) {
+      try {
+        preparedStatement.close();
+      } catch (SQLException e) {
+        log.logError("Error closing insert statement", e);
+      }
+    }
+    preparedStatements.clear();
+    if (ownConnection) {
+      db.disconnect();
+    }
+  }
+}
@@ -17,28 +17,46 @@
 
 package org.apache.hop.pipeline.transforms.tableoutput;
 
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.nullable;
@@ -212,4 +230,166 @@ public class TableOutputTest {
     verify(tableOutputSpy, times(1))
         .logError("An error occurred initializing this transform: " + ke.getMessage());
   }
+
+  @Test
+  public void testProcessRow_writesRowsInBatches() throws Exception {
+    TransformMockHelper<TableOutputMeta, TableOutputData> helper = createMockHelper("Table Output");
+    try {
+      BlockingRowSet input = createInput(5);
+      BlockingRowSet output = new BlockingRowSet(10);
+      TableOutput transform = createWritingTransform(helper, 0, 2, input, output);
+
+      // All waiting rows are read in one go, the rows of the written batches are passed on
+      //
+      assertTrue(transform.processRow());
+      assertEquals(5, transform.getLinesRead());
+      assertEquals(4, transform.getLinesOutput());
+      assertFalse(transform.processRow());
+
+      // The last batch is written at the end
+      //
+      transform.batchComplete();
+      assertEquals(5, transform.getLinesOutput());
+      for (long expected = 0; expected < 5; expected++) {
+        assertEquals(expected, output.getRow()[0]);
+      }
+      assertNull(output.getRowImmediate());
+    } finally {
+      helper.cleanUp();
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testProcessRow_writerThreadPassesOnRowsInOrder() throws Exception {
+    TransformMockHelper<TableOutputMeta, TableOutputData> helper = createMockHelper("Table Output");
+    when(helper.transformMeta.isDoingErrorHandling()).thenReturn(true);
+    doThrow(new HopDatabaseException("Unable to bind row 3"))
+        .when(db)
+        .setValuesOfRow(
+            any(IRowMeta.class),
+            argThat((Object[] row) -> Long.valueOf(3L).equals(row[0])),
+            any(PreparedStatement.class),
+            anyInt());
+    try {
+      BlockingRowSet input = createInput(7);
+      BlockingRowSet output = new BlockingRowSet(10);
+      TableOutput transform = createWritingTransform(helper, 1, 2, input, output);
+      doNothing()
+          .when(transform)
+          .putError(any(IRowMeta.class), any(Object[].class), anyLong(), any(), any(), any());
+
+      assertTrue(transform.processRow());
+      assertEquals(7, transform.getLinesRead());
+      assertFalse(transform.processRow());
+
+      // The last batch which isn't full is written and passed on at the end
+      //
+      transform.batchComplete();
+      assertEquals(0, transform.getErrors());
+      assertEquals(6, transform.getLinesOutput());
+      for (long expected : new long[] {0L, 1L, 2L, 4L, 5L, 6L}) {
+        assertEquals(expected, output.getRow()[0]);
+      }
+      assertNull(output.getRowImmediate());
+      verify(transform)
+          .putError(
+              any(IRowMeta.class),
+              eq(new Object[] {3L}),
+              eq(1L),
+              anyString(),
+              isNull(),
+              eq("TOP001"));
+
+      transform.dispose();
+    } finally {
+      helper.cleanUp();
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testProcessRow_writerThreadErrorStopsTheTransform() throws Exception {
+    TransformMockHelper<TableOutputMeta, TableOutputData> helper = createMockHelper("Table Output");
+    doThrow(new Error("Simulated writer failure"))
+        .when(db)
+        .emptyAndCommit(any(PreparedStatement.class), anyBoolean(), anyInt(), anyBoolean());
+    try {
+      BlockingRowSet input = createInput(3);
+      BlockingRowSet output = new BlockingRowSet(10);
+      TableOutput transform = createWritingTransform(helper, 1, 2, input, output);
+
+      // The batch of the writer never comes back, its error is raised in the transform
+      //
+      if (transform.processRow()) {
+        assertFalse(transform.processRow());
+      }
+      transform.batchComplete();
+      assertEquals(1, transform.getErrors());
+      assertEquals(0, transform.getLinesOutput());
+      assertNull(output.getRowImmediate());
+
+      transform.dispose();
+    } finally {
+      helper.cleanUp();
+    }
+  }
+
+  private static TransformMockHelper<TableOutputMeta, TableOutputData> createMockHelper(
+      String name) {
+    TransformMockHelper<TableOutputMeta, TableOutputData> helper =
+        new TransformMockHelper<>(name, TableOutputMeta.class, TableOutputData.class);
+    when(helper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(helper.iLogChannel);
+    when(helper.pipeline.isRunning()).thenReturn(true);
+    return helper;
+  }
+
+  private static BlockingRowSet createInput(int nrRows) {
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    BlockingRowSet input = new BlockingRowSet(nrRows + 1);
+    for (long i = 0; i < nrRows; i++) {
+      input.putRow(rowMeta, new Object[] {i});
+    }
+    input.setDone();
+    return input;
+  }
+
+  /**
+   * Create a Table Output transform writing to the mocked connection, set up as if it was
+   * initialized. Every statement inserts two rows.
+   */
+  private TableOutput createWritingTransform(
+      TransformMockHelper<TableOutputMeta, TableOutputData> helper,
+      int nrWriters,
+      int commitSize,
+      BlockingRowSet input,
+      BlockingRowSet output)
+      throws Exception {
+    PreparedStatement insertStatement = mock(PreparedStatement.class);
+    when(db.getInsertStatement(any(), anyString(), any(IRowMeta.class), anyInt()))
+        .thenReturn("INSERT");
+    when(db.prepareSql("INSERT")).thenReturn(insertStatement);
+
+    TableOutputMeta meta = new TableOutputMeta();
+    meta.setDefault();
+    meta.setTableName("target");
+    meta.setCommitSize(commitSize);
+
+    TableOutputData data = new TableOutputData();
+    data.db = db;
+    data.databaseMeta = databaseMeta;
+    data.tableName = "target";
+    data.commitSize = commitSize;
+    data.nrWriters = nrWriters;
+    data.rowsPerStatement = 2;
+
+    TableOutput transform =
+        spy(
+            new TableOutput(
+                helper.transformMeta, meta, data, 0, helper.pipelineMeta, helper.pipeline));
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(input)));
+    transform.setOutputRowSets(new ArrayList<>(Collections.singletonList(output)));
+    transform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    return transform;
+  }
 }
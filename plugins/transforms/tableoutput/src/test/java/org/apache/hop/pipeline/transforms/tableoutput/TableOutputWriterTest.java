@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TableOutputWriterTest {
+  private Database db;
+  private PreparedStatement insertStatement;
+  private IRowMeta insertRowMeta;
+  private BlockingQueue<TableOutputBatch> pendingBatches;
+  private BlockingQueue<TableOutputBatch> writtenBatches;
+  private AtomicBoolean failed;
+
+  @Before
+  public void setUp() throws Exception {
+    db = mock(Database.class);
+    insertStatement = mock(PreparedStatement.class);
+    when(db.getInsertStatement(any(), anyString(), any(IRowMeta.class), anyInt()))
+        .thenReturn("INSERT");
+    when(db.prepareSql("INSERT")).thenReturn(insertStatement);
+
+    insertRowMeta = new RowMeta();
+    insertRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    pendingBatches = new LinkedBlockingQueue<>();
+    writtenBatches = new LinkedBlockingQueue<>();
+    failed = new AtomicBoolean(false);
+  }
+
+  @Test
+  public void testWriteBatch() throws Exception {
+    TableOutputBatch batch = batch(3);
+    writer(false).write(batch);
+
+    verify(db, times(3)).insertRow(insertStatement, true, false);
+    verify(db).emptyAndCommit(insertStatement, true, 3, false);
+    for (int i = 0; i < batch.size(); i++) {
+      assertNull(batch.getErrorDescription(i));
+    }
+  }
+
+  /** The rows left over after the full statements are inserted with a smaller statement. */
+  @Test
+  public void testMultiRowStatements() throws Exception {
+    PreparedStatement lastStatement = mock(PreparedStatement.class);
+    when(db.getInsertStatement(any(), anyString(), any(IRowMeta.class), eq(2)))
+        .thenReturn("INSERT2");
+    when(db.getInsertStatement(any(), anyString(), any(IRowMeta.class), eq(1)))
+        .thenReturn("INSERT1");
+    when(db.prepareSql("INSERT2")).thenReturn(insertStatement);
+    when(db.prepareSql("INSERT1")).thenReturn(lastStatement);
+
+    TableOutputBatch batch = batch(5);
+    writer(false, true, 2).write(batch);
+
+    verify(db).setValuesOfRow(insertRowMeta, batch.getInsertRows().get(3), insertStatement, 1);
+    verify(db).setValuesOfRow(insertRowMeta, batch.getInsertRows().get(4), lastStatement, 0);
+    verify(db, times(2)).insertRow(insertStatement, true, false);
+    verify(db).insertRow(lastStatement, false, false);
+    verify(db).emptyAndCommit(insertStatement, true, 2, false);
+  }
+
+  /** The rows of a last statement which can't be bound go to error handling. */
+  @Test
+  public void testLastStatementBindErrorToErrorHandling() throws Exception {
+    PreparedStatement lastStatement = mockLastStatementBindError();
+
+    TableOutputBatch batch = batch(3);
+    writer(true, true, 2).write(batch);
+
+    assertNull(batch.getErrorDescription(0));
+    assertNull(batch.getErrorDescription(1));
+    assertEquals("TOP001", batch.getErrorCode(2));
+    verify(lastStatement).clearParameters();
+    verify(db, never()).insertRow(eq(lastStatement), anyBoolean(), anyBoolean());
+    verify(db, never()).clearBatch(any(PreparedStatement.class));
+    verify(db).emptyAndCommit(insertStatement, true, 1, false);
+  }
+
+  /** Without error handling a last statement which can't be bound stops the writer. */
+  @Test
+  public void testLastStatementBindErrorWithoutErrorHandling() throws Exception {
+    PreparedStatement lastStatement = mockLastStatementBindError();
+
+    try {
+      writer(false, true, 2).write(batch(3));
+      fail("The bind error should stop the transform");
+    } catch (HopException e) {
+      verify(lastStatement).clearParameters();
+      verify(db).clearBatch(lastStatement);
+      verify(db).clearBatch(insertStatement);
+      verify(db).rollback();
+      verify(db, never())
+          .emptyAndCommit(any(PreparedStatement.class), anyBoolean(), anyInt(), anyBoolean());
+    }
+  }
+
+  /** A failed statement sends all of its rows to error handling. */
+  @Test
+  public void testMultiRowBatchErrorsToErrorHandling() throws Exception {
+    HopDatabaseBatchException be = new HopDatabaseBatchException("batch", null);
+    be.setUpdateCounts(new int[] {2, -3});
+    be.setExceptionsList(Collections.singletonList(new SQLException("duplicate key")));
+    doThrow(be).when(db).emptyAndCommit(insertStatement, true, 2, false);
+
+    TableOutputBatch batch = batch(4);
+    writer(true, true, 2).write(batch);
+
+    assertNull(batch.getErrorDescription(0));
+    assertNull(batch.getErrorDescription(1));
+    assertEquals("TOP0002", batch.getErrorCode(2));
+    assertEquals("TOP0002", batch.getErrorCode(3));
+  }
+
+  /** Only the rows without an update count are sent to error handling. */
+  @Test
+  public void testBatchErrorsToErrorHandling() throws Exception {
+    HopDatabaseBatchException be = new HopDatabaseBatchException("batch", null);
+    be.setUpdateCounts(new int[] {1, -3, 1});
+    be.setExceptionsList(Collections.singletonList(new SQLException("duplicate key")));
+    doThrow(be).when(db).emptyAndCommit(insertStatement, true, 3, false);
+
+    TableOutputBatch batch = batch(3);
+    writer(true).write(batch);
+
+    verify(db).commit(true);
+    assertNull(batch.getErrorDescription(0));
+    assertTrue(batch.getErrorDescription(1).contains("duplicate key"));
+    assertEquals("TOP0002", batch.getErrorCode(1));
+    assertNull(batch.getErrorDescription(2));
+  }
+
+  @Test
+  public void testBatchErrorWithoutErrorHandling() throws Exception {
+    HopDatabaseBatchException be = new HopDatabaseBatchException("batch", null);
+    be.setExceptionsList(Collections.emptyList());
+    doThrow(be).when(db).emptyAndCommit(insertStatement, true, 2, false);
+
+    try {
+      writer(false).write(batch(2));
+      fail("The batch error should stop the transform");
+    } catch (HopException e) {
+      verify(db).rollback();
+      verify(db, never()).commit(true);
+    }
+  }
+
+  /** After a failed batch the writers skip the rest, the transform stops on the first error. */
+  @Test
+  public void testRunStopsWritingAfterError() throws Exception {
+    HopDatabaseBatchException be = new HopDatabaseBatchException("batch", null);
+    be.setExceptionsList(Collections.emptyList());
+    doThrow(be).when(db).emptyAndCommit(eq(insertStatement), eq(true), eq(2), eq(false));
+    TableOutputBatch first = batch(2);
+    TableOutputBatch second = batch(1);
+    pendingBatches.add(first);
+    pendingBatches.add(second);
+    pendingBatches.add(TableOutputWriter.END_OF_BATCHES);
+
+    writer(false).run();
+
+    assertSame(first, writtenBatches.take());
+    assertSame(second, writtenBatches.take());
+    assertNotNull(first.getFatalError());
+    assertNotNull(second.getFatalError());
+    assertTrue(failed.get());
+    verify(db, never()).emptyAndCommit(insertStatement, true, 1, false);
+    verify(insertStatement).close();
+    verify(db).disconnect();
+  }
+
+  @Test
+  public void testRunKeepsConnectionOfTransform() throws Exception {
+    pendingBatches.add(batch(1));
+    pendingBatches.add(TableOutputWriter.END_OF_BATCHES);
+
+    writer(false, false).run();
+
+    assertEquals(1, writtenBatches.size());
+    assertFalse(failed.get());
+    verify(db, never()).disconnect();
+  }
+
+  private PreparedStatement mockLastStatementBindError() throws Exception {
+    PreparedStatement lastStatement = mock(PreparedStatement.class);
+    when(db.getInsertStatement(any(), anyString(), any(IRowMeta.class), eq(2)))
+        .thenReturn("INSERT2");
+    when(db.getInsertStatement(any(), anyString(), any(IRowMeta.class), eq(1)))
+        .thenReturn("INSERT1");
+    when(db.prepareSql("INSERT2")).thenReturn(insertStatement);
+    when(db.prepareSql("INSERT1")).thenReturn(lastStatement);
+    doThrow(new HopDatabaseException("bind"))
+        .when(db)
+        .setValuesOfRow(eq(insertRowMeta), any(Object[].class), eq(lastStatement), anyInt());
+    return lastStatement;
+  }
+
+  private TableOutputWriter writer(boolean doingErrorHandling) {
+    return writer(doingErrorHandling, true);
+  }
+
+  private TableOutputWriter writer(boolean doingErrorHandling, boolean ownConnection) {
+    return writer(doingErrorHandling, ownConnection, 1);
+  }
+
+  private TableOutputWriter writer(
+      boolean doingErrorHandling, boolean ownConnection, int rowsPerStatement) {
+    return new TableOutputWriter(
+        db,
+        ownConnection,
+        null,
+        insertRowMeta,
+        rowsPerStatement,
+        doingErrorHandling,
+        false,
+        pendingBatches,
+        writtenBatches,
+        failed,
+        mock(ILogChannel.class));
+  }
+
+  private static TableOutputBatch batch(int size) {
+    TableOutputBatch batch = new TableOutputBatch("table", size);
+    for (long i = 0; i < size; i++) {
+      Object[] row = new Object[] {i};
+      batch.addRow(row, row);
+    }
+    return batch;
+  }
+}
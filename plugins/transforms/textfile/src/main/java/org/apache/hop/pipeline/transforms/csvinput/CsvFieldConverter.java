@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * Converts a field to the native type of its value while it is still a slice of the read buffer,
+ * without copying it into a byte array first. Integers, numbers and dates with digits only formats
+ * are parsed straight from the bytes and strings are decoded from the buffer. Whatever isn't
+ * handled here is converted by {@link IValueMeta#convertBinaryStringToNativeType(byte[])}, so the
+ * values and errors are the same as before.
+ */
+public class CsvFieldConverter {
+
+  private static final int KIND_OTHER = 0;
+  private static final int KIND_STRING = 1;
+  private static final int KIND_INTEGER = 2;
+  private static final int KIND_NUMBER = 3;
+  private static final int KIND_DATE = 4;
+
+  /** Up to 15 digits always fit in the 53 bits of a double mantissa */
+  private static final int MAX_NUMBER_DIGITS = 15;
+
+  private static final int MAX_INTEGER_DIGITS = 18;
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+  };
+
+  private static final String ASCII_SAMPLE = "0123456789+-.,:;/ T\t";
+
+  private final IValueMeta valueMeta;
+  private IValueMeta storageMeta;
+  private int kind = KIND_OTHER;
+  private Charset charset;
+
+  private boolean trimLeft;
+  private boolean trimRight;
+
+  private byte decimalSymbol;
+
+  // The date format as a list of Calendar fields with their number of digits, or literal bytes
+  private int[] dateFields;
+  private int[] dateWidths;
+  private byte[] dateLiterals;
+  private Calendar calendar;
+
+  /**
+   * @param valueMeta the value with binary string storage to convert the field to
+   */
+  public CsvFieldConverter(IValueMeta valueMeta) {
+    this.valueMeta = valueMeta;
+
+    IValueMeta storage = valueMeta.getStorageMetadata();
+    if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_BINARY_STRING
+        || storage == null
+        || storage.getType() != IValueMeta.TYPE_STRING
+        || storage.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL
+        || !Objects.equals(valueMeta.getStringEncoding(), storage.getStringEncoding())) {
+      return;
+    }
+    storageMeta = storage;
+    try {
+      charset =
+          Utils.isEmpty(storage.getStringEncoding())
+              ? Charset.defaultCharset()
+              : Charset.forName(storage.getStringEncoding());
+    } catch (IllegalArgumentException e) {
+      // Let the value metadata report the unsupported encoding
+      return;
+    }
+
+    int trimType = storage.getTrimType();
+    trimLeft = trimType == IValueMeta.TRIM_TYPE_LEFT || trimType == IValueMeta.TRIM_TYPE_BOTH;
+    trimRight = trimType == IValueMeta.TRIM_TYPE_RIGHT || trimType == IValueMeta.TRIM_TYPE_BOTH;
+
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_STRING:
+        kind = KIND_STRING;
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        if (isAsciiCompatible() && isPlainNumberFormat(storage.getDecimalFormat(false))) {
+          kind = KIND_INTEGER;
+        }
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        DecimalFormat format = storage.getDecimalFormat(false);
+        if (isAsciiCompatible() && isPlainNumberFormat(format) && !format.isParseIntegerOnly()) {
+          char decimal = format.getDecimalFormatSymbols().getDecimalSeparator();
+          char grouping = format.getDecimalFormatSymbols().getGroupingSeparator();
+          if (decimal < 0x80 && decimal != grouping && decimal != '-' && !isDigit(decimal)) {
+            decimalSymbol = (byte) decimal;
+            kind = KIND_NUMBER;
+          }
+        }
+        break;
+      case IValueMeta.TYPE_DATE:
+        if (isAsciiCompatible() && compileDateFormat(storage)) {
+          kind = KIND_DATE;
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Convert a field to the native type of the value.
+   *
+   * @param bytes the buffer with the field
+   * @param start the position of the first byte of the field
+   * @param length the number of bytes of the field
+   * @return the converted value
+   * @throws HopValueException in case the field can't be converted
+   */
+  public Object convert(byte[] bytes, int start, int length) throws HopValueException {
+    if (length > 0) {
+      Object value = convertDirectly(bytes, start, start + length);
+      if (value != null) {
+        return value;
+      }
+    }
+    return valueMeta.convertBinaryStringToNativeType(
+        Arrays.copyOfRange(bytes, start, start + length));
+  }
+
+  /**
+   * @return the converted value or null if the field needs the regular conversion
+   */
+  private Object convertDirectly(byte[] bytes, int start, int end) throws HopValueException {
+    switch (kind) {
+      case KIND_STRING:
+        return storageMeta.getString(new String(bytes, start, end - start, charset));
+      case KIND_INTEGER:
+      case KIND_NUMBER:
+      case KIND_DATE:
+        if (trimLeft) {
+          while (start < end && isSpace(bytes[start])) {
+            start++;
+          }
+        }
+        if (trimRight) {
+          while (end > start && isSpace(bytes[end - 1])) {
+            end--;
+          }
+        }
+        if (start == end) {
+          return null;
+        }
+        if (kind == KIND_INTEGER) {
+          return parseInteger(bytes, start, end);
+        }
+        if (kind == KIND_NUMBER) {
+          return parseNumber(bytes, start, end);
+        }
+        return parseDate(bytes, start, end);
+      default:
+        return null;
+    }
+  }
+
+  private static Long parseInteger(byte[] bytes, int start, int end) {
+    boolean negative = bytes[start] == '-';
+    if (negative) {
+      start++;
+    }
+    if (start == end || end - start > MAX_INTEGER_DIGITS) {
+      return null;
+    }
+    long value = 0L;
+    for (int i = start; i < end; i++) {
+      byte b = bytes[i];
+      if (!isDigit(b)) {
+        return null;
+      }
+      value = value * 10 + (b - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses [-]digits[.digits] with at most 15 digits. The digits are exact in a long and in a
+   * double, so a single division by an exact power of ten gives the correctly rounded value, the
+   * same as parsing the text.
+   */
+  private Double parseNumber(byte[] bytes, int start, int end) {
+    boolean negative = bytes[start] == '-';
+    if (negative) {
+      start++;
+    }
+    long mantissa = 0L;
+    int digits = 0;
+    int decimals = -1;
+    for (int i = start; i < end; i++) {
+      byte b = bytes[i];
+      if (isDigit(b)) {
+        if (++digits > MAX_NUMBER_DIGITS) {
+          return null;
+        }
+        mantissa = mantissa * 10 + (b - '0');
+        if (decimals >= 0) {
+          decimals++;
+        }
+      } else if (b == decimalSymbol && decimals < 0) {
+        decimals = 0;
+      } else {
+        return null;
+      }
+    }
+    if (digits == 0) {
+      return null;
+    }
+    double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : (double) mantissa;
+    return negative ? -value : value;
+  }
+
+  private Date parseDate(byte[] bytes, int start, int end) {
+    calendar.clear();
+    int position = start;
+    for (int f = 0; f < dateFields.length; f++) {
+      int width = dateWidths[f];
+      if (width == 0) {
+        if (position >= end || bytes[position] != dateLiterals[f]) {
+          return null;
+        }
+        position++;
+        continue;
+      }
+      if (position + width > end) {
+        return null;
+      }
+      int value = 0;
+      for (int i = position; i < position + width; i++) {
+        if (!isDigit(bytes[i])) {
+          return null;
+        }
+        value = value * 10 + (bytes[i] - '0');
+      }
+      position += width;
+      if (!setDateField(dateFields[f], value)) {
+        return null;
+      }
+    }
+    if (position != end) {
+      return null;
+    }
+    try {
+      return new Date(calendar.getTimeInMillis());
+    } catch (IllegalArgumentException e) {
+      // Not a valid date for a strict calendar, the date format reports it
+      return null;
+    }
+  }
+
+  private boolean setDateField(int field, int value) {
+    switch (field) {
+      case Calendar.MONTH:
+        if (value < 1 || value > 12) {
+          return false;
+        }
+        calendar.set(Calendar.MONTH, value - 1);
+        return true;
+      case Calendar.DAY_OF_MONTH:
+        if (value < 1 || value > 31) {
+          return false;
+        }
+        break;
+      case Calendar.HOUR_OF_DAY:
+        if (value > 23) {
+          return false;
+        }
+        break;
+      case Calendar.MINUTE:
+      case Calendar.SECOND:
+        if (value > 59) {
+          return false;
+        }
+        break;
+      default:
+        break;
+    }
+    calendar.set(field, value);
+    return true;
+  }
+
+  /**
+   * Only date formats with fixed width numeric fields and literals are parsed directly, in a
+   * Gregorian calendar like the one of the date format.
+   */
+  private boolean compileDateFormat(IValueMeta storage) {
+    String mask = storage.getConversionMask();
+    if (Utils.isEmpty(mask)) {
+      return false;
+    }
+    int[] fields = new int[mask.length()];
+    int[] widths = new int[mask.length()];
+    byte[] literals = new byte[mask.length()];
+    int size = 0;
+    int i = 0;
+    while (i < mask.length()) {
+      char c = mask.charAt(i);
+      int count = 1;
+      while (i + count < mask.length() && mask.charAt(i + count) == c) {
+        count++;
+      }
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+        int field = getDateField(c, count);
+        if (field < 0) {
+          return false;
+        }
+        fields[size] = field;
+        widths[size++] = count;
+        i += count;
+      } else if (c == '\'' || c >= 0x80) {
+        return false;
+      } else {
+        literals[size++] = (byte) c;
+        i++;
+      }
+    }
+
+    Locale locale = storage.getDateFormatLocale();
+    if (locale == null) {
+      locale = Locale.getDefault(Locale.Category.FORMAT);
+    }
+    TimeZone timeZone = storage.getDateFormatTimeZone();
+    if (timeZone == null) {
+      timeZone = TimeZone.getDefault();
+    }
+    Calendar dateCalendar = Calendar.getInstance(timeZone, locale);
+    if (!(dateCalendar instanceof GregorianCalendar)
+        || !"gregory".equals(dateCalendar.getCalendarType())
+        || DecimalFormatSymbols.getInstance(locale).getZeroDigit() != '0') {
+      return false;
+    }
+    dateCalendar.setLenient(storage.isDateFormatLenient());
+
+    dateFields = Arrays.copyOf(fields, size);
+    dateWidths = Arrays.copyOf(widths, size);
+    dateLiterals = Arrays.copyOf(literals, size);
+    calendar = dateCalendar;
+    return true;
+  }
+
+  private static int getDateField(char letter, int count) {
+    switch (letter) {
+      case 'y':
+        return count == 4 ? Calendar.YEAR : -1;
+      case 'M':
+        return count == 2 ? Calendar.MONTH : -1;
+      case 'd':
+        return count == 2 ? Calendar.DAY_OF_MONTH : -1;
+      case 'H':
+        return count == 2 ? Calendar.HOUR_OF_DAY : -1;
+      case 'm':
+        return count == 2 ? Calendar.MINUTE : -1;
+      case 's':
+        return count == 2 ? Calendar.SECOND : -1;
+      case 'S':
+        return count == 3 ? Calendar.MILLISECOND : -1;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * A number format without prefixes, suffixes or multipliers parses plain digits to the same
+   * value as we do.
+   */
+  private static boolean isPlainNumberFormat(DecimalFormat format) {
+    return format != null
+        && format.getPositivePrefix().isEmpty()
+        && format.getPositiveSuffix().isEmpty()
+        && "-".equals(format.getNegativePrefix())
+        && format.getNegativeSuffix().isEmpty()
+        && format.getMultiplier() == 1
+        && format.getDecimalFormatSymbols().getZeroDigit() == '0';
+  }
+
+  /** Digits, signs and separators need to be single ASCII bytes to be parsed directly */
+  private boolean isAsciiCompatible() {
+    byte[] sample = ASCII_SAMPLE.getBytes(charset);
+    return sample.length == ASCII_SAMPLE.length()
+        && Arrays.equals(sample, ASCII_SAMPLE.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static boolean isDigit(int b) {
+    return b >= '0' && b <= '9';
+  }
+
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  /**
+   * @return true if fields are converted without the regular conversion when possible
+   */
+  public boolean isConvertingDirectly() {
+    return kind != KIND_OTHER;
+  }
+}
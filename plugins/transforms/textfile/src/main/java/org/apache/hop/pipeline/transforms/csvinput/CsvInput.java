@@ -95,6 +95,15 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
         valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
       }
 
+      // Without lazy conversion the fields are converted while they are still in the read buffer
+      //
+      if (!meta.isLazyConversionActive()) {
+        data.fieldConverters = new CsvFieldConverter[meta.getInputFields().length];
+        for (int i = 0; i < data.fieldConverters.length; i++) {
+          data.fieldConverters[i] = new CsvFieldConverter(data.convertRowMeta.getValueMeta(i));
+        }
+      }
+
       // Calculate the indexes for the filename and row number fields
       //
       data.filenameFieldIndex = -1;
@@ -355,7 +364,9 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       }
 
       data.fc = data.fis.getChannel();
-      data.bb = ByteBuffer.allocateDirect(data.preferredBufferSize);
+      if (!data.memoryMapped) {
+        data.bb = ByteBuffer.allocateDirect(data.preferredBufferSize);
+      }
 
       // If we are running in parallel and we need to skip bytes in the first file, let's do so
       // here.
@@ -544,10 +555,15 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
    *
    * <p>So, we DON'T skip line only if the previous char is new line indicator AND we are not
    * between '\r\n'.
+   *
+   * <p>Afterwards the channel stays right after the bytes read into the buffer. Moving it one byte
+   * further, to make up for the byte of the previous transform, would skip the first byte after
+   * the buffer and corrupt a row of every copy reading more than one buffer of data.
    */
   private boolean needToSkipRow() {
     try {
-      // first we move pointer to the last byte of the previous transform
+      // first we move pointer to the last byte of the previous transform. Reading it into the
+      // buffer leaves the channel right after the bytes in the buffer, so it isn't moved back.
       data.fc.position(data.fc.position() - 1);
       // read data, if not yet
       data.resizeBufferIfNeeded();
@@ -570,12 +586,6 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
 
     } catch (IOException e) {
       e.printStackTrace();
-    } finally {
-      try {
-        data.fc.position(data.fc.position() + 1);
-      } catch (IOException e) {
-        // nothing to do here
-      }
     }
 
     return true;
@@ -729,7 +739,7 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
               ignoreEnclosuresInField = true;
             }
           } else {
-            if (data.moveEndBufferPointer()) {
+            if (data.moveEndBufferPointerToSpecialByte()) {
               endOfBuffer = true;
               break;
             }
@@ -745,15 +755,20 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
         // data.byteBuffer[data.startBuffer]
         //
 
-        byte[] field = data.getField(delimiterFound, enclosureFound, newLineFound, endOfBuffer);
-
-        // Did we have any escaped characters in there?
+        // Unless we need the bytes of the field, it is converted straight from the buffer.
         //
-        if (escapedEnclosureFound > 0) {
-          if (log.isRowLevel()) {
-            logRowlevel("Escaped enclosures found in " + new String(field));
+        byte[] field = null;
+        if (!skipRow && (meta.isLazyConversionActive() || escapedEnclosureFound > 0)) {
+          field = data.getField(delimiterFound, enclosureFound, newLineFound, endOfBuffer);
+
+          // Did we have any escaped characters in there?
+          //
+          if (escapedEnclosureFound > 0) {
+            if (log.isRowLevel()) {
+              logRowlevel("Escaped enclosures found in " + new String(field));
+            }
+            field = data.removeEscapedEnclosures(field, escapedEnclosureFound);
           }
-          field = data.removeEscapedEnclosures(field, escapedEnclosureFound);
         }
 
         final int actualFieldIndex = outputIndex++;
@@ -769,8 +784,14 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
               //
               IValueMeta sourceValueMeta = data.convertRowMeta.getValueMeta(actualFieldIndex);
               try {
-                outputRowData[actualFieldIndex] =
-                    sourceValueMeta.convertBinaryStringToNativeType(field);
+                if (field != null) {
+                  outputRowData[actualFieldIndex] =
+                      sourceValueMeta.convertBinaryStringToNativeType(field);
+                } else {
+                  outputRowData[actualFieldIndex] =
+                      data.convertField(
+                          actualFieldIndex, enclosureFound, newLineFound, endOfBuffer);
+                }
               } catch (HopValueException e) {
                 // There was a conversion error,
                 //
@@ -891,6 +912,7 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       // see if a variable is used as encoding value
       String realEncoding = resolve(meta.getEncoding());
       data.preferredBufferSize = Integer.parseInt(resolve(meta.getBufferSize()));
+      data.memoryMapped = meta.isMemoryMapped();
 
       // If the transform doesn't have any previous transforms, we just get the filename.
       // Otherwise, we'll grab the list of file names later...
@@ -970,6 +992,12 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
         }
       }
 
+      // In a single byte encoding the bytes of a field are skipped a word at a time
+      //
+      if (data.encodingType.getLength() == 1 && data.delimiter.length > 0) {
+        data.specialByteScanner = new SpecialByteScanner(data.delimiter[0], data.enclosure);
+      }
+
       switch (data.encodingType) {
         case DOUBLE_BIG_ENDIAN:
           data.crLfMatcher = new MultiByteBigCrLfMatcher();
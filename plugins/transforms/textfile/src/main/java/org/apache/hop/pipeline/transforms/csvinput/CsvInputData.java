@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.csvinput;
 
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.file.EncodingType;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -26,10 +27,14 @@ import org.apache.hop.pipeline.transform.ITransformData;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.List;
 
 public class CsvInputData extends BaseTransformData implements ITransformData {
+  /** The default size of the part of a file which is mapped in memory at a time */
+  static final long DEFAULT_MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
   public FileChannel fc;
   public ByteBuffer bb;
   public IRowMeta convertRowMeta;
@@ -44,6 +49,14 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
   public byte[] enclosure;
 
   public int preferredBufferSize;
+
+  /** Read the files through a memory mapped window instead of the NIO buffer */
+  public boolean memoryMapped;
+
+  long mappedWindowSize = DEFAULT_MAPPED_WINDOW_SIZE;
+  private MappedByteBuffer mappedWindow;
+  private long mappedWindowStart;
+
   public String[] filenames;
   public int filenr;
   public int startFilenr;
@@ -74,6 +87,12 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
 
   public IFieldsMapping fieldsMapping;
 
+  /** Finds the next delimiter, enclosure or new line, null if the encoding isn't single byte */
+  public SpecialByteScanner specialByteScanner;
+
+  /** Converts the fields straight from the buffer when lazy conversion is off */
+  public CsvFieldConverter[] fieldConverters;
+
   /**
    * Data class for CsvInput transform
    *
@@ -110,6 +129,10 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
   }
 
   private int readBufferFromFile() throws IOException {
+    if (memoryMapped) {
+      return readBufferFromMappedFile();
+    }
+
     // See if the line is not longer than the buffer.
     // In that case we need to increase the size of the byte buffer.
     // Since this method doesn't get called every other character, I'm sure we can spend a bit of
@@ -145,6 +168,46 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
     return n;
   }
 
+  /**
+   * Copy the next block of the file straight from the memory mapped window into the byte array,
+   * mapping the next window of the file when needed. Like reading the channel, this reads from the
+   * channel position and moves it forward, so each transform copy only maps the part of the file
+   * it reads.
+   *
+   * @return the number of bytes read or -1 at the end of the file
+   */
+  private int readBufferFromMappedFile() throws IOException {
+    long position = fc.position();
+    long fileSize = fc.size();
+    if (position >= fileSize) {
+      return -1;
+    }
+
+    if (mappedWindow == null
+        || position < mappedWindowStart
+        || position >= mappedWindowStart + mappedWindow.capacity()) {
+      long windowSize = Math.min(mappedWindowSize, fileSize - position);
+      mappedWindow = fc.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+      mappedWindowStart = position;
+    }
+
+    int offset = (int) (position - mappedWindowStart);
+    int n = Math.min(Math.max(preferredBufferSize, 1), mappedWindow.capacity() - offset);
+
+    bufferSize = endBuffer + n;
+    if (byteBuffer.length < bufferSize) {
+      byte[] newByteBuffer = new byte[bufferSize];
+      System.arraycopy(byteBuffer, 0, newByteBuffer, 0, byteBuffer.length);
+      byteBuffer = newByteBuffer;
+    }
+
+    mappedWindow.position(offset);
+    mappedWindow.get(byteBuffer, endBuffer, n);
+    fc.position(position + n);
+
+    return n;
+  }
+
   private void resizeByteBuffer(int newSize) {
     ByteBuffer newBuffer = ByteBuffer.allocateDirect(newSize); // Increase by 50%
     newBuffer.position(0);
@@ -198,6 +261,23 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
     }
   }
 
+  /**
+   * Moves the endBuffer pointer to the next byte which can start a delimiter, an enclosure or a new
+   * line, or by one if there is no special byte scanner. The bytes in between are part of the
+   * field, so they are skipped in one go.
+   *
+   * @return true if we reached the end of the byte buffer.
+   * @throws IOException In case we get an error reading from the input file.
+   */
+  boolean moveEndBufferPointerToSpecialByte() throws IOException {
+    if (specialByteScanner != null) {
+      int next = specialByteScanner.indexOfSpecialByte(byteBuffer, endBuffer + 1, bufferSize);
+      totalBytesRead += next - endBuffer - 1;
+      endBuffer = next - 1;
+    }
+    return moveEndBufferPointer();
+  }
+
   /**
    * This method should be used very carefully. Moving pointer without increasing number of written
    * bytes can lead to data corruption.
@@ -236,7 +316,36 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
 
   byte[] getField(
       boolean delimiterFound, boolean enclosureFound, boolean newLineFound, boolean endOfBuffer) {
-    int fieldStart = startBuffer;
+    int fieldStart = getFieldStart(enclosureFound);
+    int length = getFieldLength(enclosureFound, newLineFound, endOfBuffer);
+
+    byte[] field = new byte[length];
+    System.arraycopy(byteBuffer, fieldStart, field, 0, length);
+
+    return field;
+  }
+
+  /**
+   * Convert the field to its native type without copying it out of the byte buffer first.
+   *
+   * @param fieldIndex the index of the field in the convert row metadata
+   * @return the converted value
+   * @throws HopValueException in case the field can't be converted
+   */
+  Object convertField(
+      int fieldIndex, boolean enclosureFound, boolean newLineFound, boolean endOfBuffer)
+      throws HopValueException {
+    return fieldConverters[fieldIndex].convert(
+        byteBuffer,
+        getFieldStart(enclosureFound),
+        getFieldLength(enclosureFound, newLineFound, endOfBuffer));
+  }
+
+  private int getFieldStart(boolean enclosureFound) {
+    return enclosureFound ? startBuffer + enclosure.length : startBuffer;
+  }
+
+  private int getFieldLength(boolean enclosureFound, boolean newLineFound, boolean endOfBuffer) {
     int fieldEnd = endBuffer;
 
     if (newLineFound && !endOfBuffer) {
@@ -244,23 +353,16 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
     }
 
     if (enclosureFound) {
-      fieldStart += enclosure.length;
       fieldEnd -= enclosure.length;
     }
 
-    int length = fieldEnd - fieldStart;
-
-    if (length <= 0) {
-      length = 0;
-    }
-
-    byte[] field = new byte[length];
-    System.arraycopy(byteBuffer, fieldStart, field, 0, length);
-
-    return field;
+    return Math.max(0, fieldEnd - getFieldStart(enclosureFound));
   }
 
   void closeFile() throws HopException {
+    // The mapping is released once the window is garbage collected
+    //
+    mappedWindow = null;
     try {
       if (fc != null) {
         fc.close();
@@ -106,6 +106,7 @@ public class CsvInputDialog extends BaseTransformDialog
   private TextVar wEnclosure;
   private TextVar wBufferSize;
   private Button wLazyConversion;
+  private Button wMemoryMapped;
   private Button wHeaderPresent;
   private TableView wFields;
   private Button wAddResult;
@@ -356,6 +357,29 @@ public class CsvInputDialog extends BaseTransformDialog
     wLazyConversion.setLayoutData(fdLazyConversion);
     lastControl = wlLazyConversion;
 
+    // memory mapped reading?
+    //
+    Label wlMemoryMapped = new Label(shell, SWT.RIGHT);
+    wlMemoryMapped.setText(BaseMessages.getString(PKG, "CsvInputDialog.MemoryMapped.Label"));
+    wlMemoryMapped.setToolTipText(
+        BaseMessages.getString(PKG, "CsvInputDialog.MemoryMapped.Tooltip"));
+    PropsUi.setLook(wlMemoryMapped);
+    FormData fdlMemoryMapped = new FormData();
+    fdlMemoryMapped.top = new FormAttachment(lastControl, margin);
+    fdlMemoryMapped.left = new FormAttachment(0, 0);
+    fdlMemoryMapped.right = new FormAttachment(middle, -margin);
+    wlMemoryMapped.setLayoutData(fdlMemoryMapped);
+    wMemoryMapped = new Button(shell, SWT.CHECK);
+    wMemoryMapped.setToolTipText(
+        BaseMessages.getString(PKG, "CsvInputDialog.MemoryMapped.Tooltip"));
+    PropsUi.setLook(wMemoryMapped);
+    FormData fdMemoryMapped = new FormData();
+    fdMemoryMapped.top = new FormAttachment(wlMemoryMapped, 0, SWT.CENTER);
+    fdMemoryMapped.left = new FormAttachment(middle, 0);
+    fdMemoryMapped.right = new FormAttachment(100, 0);
+    wMemoryMapped.setLayoutData(fdMemoryMapped);
+    lastControl = wlMemoryMapped;
+
     // header row?
     //
     Label wlHeaderPresent = new Label(shell, SWT.RIGHT);
@@ -706,6 +730,7 @@ public class CsvInputDialog extends BaseTransformDialog
     wEnclosure.setText(Const.NVL(inputMeta.getEnclosure(), ""));
     wBufferSize.setText(Const.NVL(inputMeta.getBufferSize(), ""));
     wLazyConversion.setSelection(inputMeta.isLazyConversionActive());
+    wMemoryMapped.setSelection(inputMeta.isMemoryMapped());
     wHeaderPresent.setSelection(inputMeta.isHeaderPresent());
     wRunningInParallel.setSelection(inputMeta.isRunningInParallel());
     wNewlinePossible.setSelection(inputMeta.isNewlinePossibleInFields());
@@ -765,6 +790,7 @@ public class CsvInputDialog extends BaseTransformDialog
     inputMeta.setEnclosure(wEnclosure.getText());
     inputMeta.setBufferSize(wBufferSize.getText());
     inputMeta.setLazyConversionActive(wLazyConversion.getSelection());
+    inputMeta.setMemoryMapped(wMemoryMapped.getSelection());
     inputMeta.setHeaderPresent(wHeaderPresent.getSelection());
     inputMeta.setRowNumField(wRowNumField.getText());
     inputMeta.setAddResultFile(wAddResult.getSelection());
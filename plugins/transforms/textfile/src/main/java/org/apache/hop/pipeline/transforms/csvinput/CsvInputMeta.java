@@ -116,6 +116,9 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData> impl
   @Injection(name = "NEWLINES_IN_FIELDS")
   private boolean newlinePossibleInFields;
 
+  @Injection(name = "MEMORY_MAPPED")
+  private boolean memoryMapped;
+
   public CsvInputMeta() {
     super();
     allocate(0);
@@ -174,6 +177,7 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData> impl
         newlinePossibleInFields = "Y".equalsIgnoreCase(nlp);
       }
       encoding = XmlHandler.getTagValue(transformNode, "encoding");
+      memoryMapped = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "memory_mapped"));
 
       Node fields = XmlHandler.getSubNode(transformNode, "fields");
       int nrFields = XmlHandler.countNodes(fields, "field");
@@ -225,6 +229,7 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData> impl
         .append("    ")
         .append(XmlHandler.addTagValue("newline_possible", newlinePossibleInFields));
     retval.append("    ").append(XmlHandler.addTagValue("encoding", encoding));
+    retval.append("    ").append(XmlHandler.addTagValue("memory_mapped", memoryMapped));
 
     retval.append("    ").append(XmlHandler.openTag("fields")).append(Const.CR);
     for (int i = 0; i < inputFields.length; i++) {
@@ -657,6 +662,22 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData> impl
     this.newlinePossibleInFields = newlinePossibleInFields;
   }
 
+  /**
+   * @return true if the files are memory mapped and read from the page cache instead of being read
+   *     into a separate buffer first
+   */
+  public boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * @param memoryMapped true if the files are memory mapped and read from the page cache instead of
+   *     being read into a separate buffer first
+   */
+  public void setMemoryMapped(boolean memoryMapped) {
+    this.memoryMapped = memoryMapped;
+  }
+
   @Override
   public FileObject getHeaderFileObject(final IVariables variables) {
     final String filename = variables.resolve(getFilename());
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Finds the next byte which can start a delimiter, an enclosure or a new line in a single byte
+ * encoding. The buffer is read 8 bytes at a time as a long and all the bytes of a word are compared
+ * at once, so the bytes of a field don't need to be looked at one by one.
+ */
+public class SpecialByteScanner {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  // Every special byte repeated in all the bytes of a long, unused ones repeat the first
+  private final long pattern1;
+  private final long pattern2;
+  private final long pattern3;
+  private final long pattern4;
+
+  private final boolean[] special = new boolean[256];
+
+  /**
+   * @param delimiter the first byte of the delimiter
+   * @param enclosure the enclosure or null if there is none
+   */
+  public SpecialByteScanner(byte delimiter, byte[] enclosure) {
+    byte quote = enclosure == null || enclosure.length == 0 ? delimiter : enclosure[0];
+    pattern1 = repeat(delimiter);
+    pattern2 = repeat(quote);
+    pattern3 = repeat((byte) '\r');
+    pattern4 = repeat((byte) '\n');
+
+    special[delimiter & 0xFF] = true;
+    special[quote & 0xFF] = true;
+    special['\r'] = true;
+    special['\n'] = true;
+  }
+
+  /**
+   * @return the position of the first special byte from position from (inclusive) to position to
+   *     (exclusive), or to if there is none
+   */
+  public int indexOfSpecialByte(byte[] bytes, int from, int to) {
+    int i = from;
+    for (; i <= to - Long.BYTES; i += Long.BYTES) {
+      long word = (long) LONGS.get(bytes, i);
+      long found =
+          zeroBytes(word ^ pattern1)
+              | zeroBytes(word ^ pattern2)
+              | zeroBytes(word ^ pattern3)
+              | zeroBytes(word ^ pattern4);
+      if (found != 0) {
+        // The lowest flag is always a real match, little endian puts the first byte there
+        //
+        return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    for (; i < to; i++) {
+      if (special[bytes[i] & 0xFF]) {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  private static long repeat(byte b) {
+    return (b & 0xFFL) * ONES;
+  }
+
+  /** Sets the high bit of the zero bytes of a word, and possibly of bytes after a zero byte */
+  private static long zeroBytes(long word) {
+    return (word - ONES) & ~word & HIGH_BITS;
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import org.apache.hop.core.util.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Gives the lines of a file which start in a block of bytes, so the copies of a transform can each
+ * read a block of the same file. A line belongs to the block of its first byte: the end of the line
+ * running into the start of the block is skipped and the line running over the end of the block is
+ * read completely.
+ */
+class TextFileBlockInputStream extends InputStream {
+
+  private final InputStream in;
+  private final long end;
+  private final boolean returnEndsLine;
+
+  /** The position in the file of the next byte */
+  private long position;
+
+  private boolean done;
+
+  /**
+   * @param in the file, positioned at its start
+   * @param start the position of the first byte of the block
+   * @param end the position after the last byte of the block
+   * @param returnEndsLine true if a carriage return ends a line by itself, otherwise only line
+   *     feeds do
+   */
+  TextFileBlockInputStream(InputStream in, long start, long end, boolean returnEndsLine)
+      throws IOException {
+    this.in = in;
+    this.end = end;
+    this.returnEndsLine = returnEndsLine;
+
+    if (start > 0) {
+      // A line ending with the last byte of the previous block makes our first line start at the
+      // start of the block
+      //
+      skipFully(start - 1);
+      int b;
+      do {
+        b = read();
+      } while (b >= 0 && !isLineEnd(b));
+    }
+    done |= position >= end;
+  }
+
+  /**
+   * @return true if the line ends of the encoding are the \r and \n bytes, which allows a file to
+   *     be split in blocks. This isn't the case for UTF-16 and UTF-32 where these bytes are also
+   *     part of other characters.
+   */
+  static boolean isSplittable(String encoding) {
+    Charset charset =
+        Utils.isEmpty(encoding) ? Charset.defaultCharset() : Charset.forName(encoding);
+    return Arrays.equals("\r\n".getBytes(charset), new byte[] {'\r', '\n'});
+  }
+
+  private boolean isLineEnd(int b) {
+    return b == '\n' || (returnEndsLine && b == '\r');
+  }
+
+  private void skipFully(long bytes) throws IOException {
+    while (position < bytes) {
+      long skipped = in.skip(bytes - position);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          done = true;
+          return;
+        }
+        skipped = 1;
+      }
+      position += skipped;
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (done) {
+      return -1;
+    }
+    int b = in.read();
+    if (b < 0) {
+      done = true;
+      return -1;
+    }
+    position++;
+    if (position >= end && isLineEnd(b)) {
+      done = true;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    if (done) {
+      return -1;
+    }
+    if (length == 0) {
+      return 0;
+    }
+    long beforeLastByte = end - 1 - position;
+    if (beforeLastByte > 0) {
+      int n = in.read(bytes, offset, (int) Math.min(length, beforeLastByte));
+      if (n < 0) {
+        done = true;
+      } else {
+        position += n;
+      }
+      return n;
+    }
+
+    // From the last byte of the block on we only read up to the end of the line
+    //
+    int n = 0;
+    while (n < length) {
+      int b = read();
+      if (b < 0) {
+        break;
+      }
+      bytes[offset + n++] = (byte) b;
+    }
+    return n == 0 ? -1 : n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
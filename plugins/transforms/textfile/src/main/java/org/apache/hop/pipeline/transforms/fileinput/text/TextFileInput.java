@@ -19,6 +19,8 @@ package org.apache.hop.pipeline.transforms.fileinput.text;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.playlist.FilePlayListAll;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -47,9 +49,39 @@ public class TextFileInput extends BaseFileInputTransform<TextFileInputMeta, Tex
   @Override
   protected IBaseFileInputReader createReader(
       TextFileInputMeta meta, TextFileInputData data, FileObject file) throws Exception {
+    if (data.splitInBlocks) {
+      long size = file.getContent().getSize();
+      long blockSize = size / data.totalNumberOfTransforms;
+      long blockStart = data.transformNumber * blockSize;
+      long blockEnd =
+          data.transformNumber == data.totalNumberOfTransforms - 1 ? size : blockStart + blockSize;
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "TextFileInput.Log.ReadingBlock",
+                HopVfs.getFilename(file),
+                String.valueOf(blockStart),
+                String.valueOf(blockEnd)));
+      }
+      return new TextFileInputReader(this, meta, data, file, log, blockStart, blockEnd);
+    }
     return new TextFileInputReader(this, meta, data, file, log);
   }
 
+  @Override
+  protected boolean openNextFile() {
+    if (data.parallel && !data.splitInBlocks) {
+      // Every copy of the transform reads its own share of the files
+      //
+      while (data.currentFileIndex < data.files.nrOfFiles()
+          && data.currentFileIndex % data.totalNumberOfTransforms != data.transformNumber) {
+        data.currentFileIndex++;
+      }
+    }
+    return super.openNextFile();
+  }
+
   @Override
   public boolean init() {
     if (!super.init()) {
@@ -76,6 +108,39 @@ public class TextFileInput extends BaseFileInputTransform<TextFileInputMeta, Tex
       return false;
     }
 
+    // Files received from a previous transform are already distributed over the copies
+    //
+    if (meta.content.runningInParallel && !meta.inputFiles.acceptingFilenames) {
+      data.transformNumber = getCopyNr();
+      data.totalNumberOfTransforms = getTransformMeta().getCopies(this);
+      data.parallel = data.totalNumberOfTransforms > 1;
+      data.splitInBlocks = data.parallel && data.files.nrOfFiles() == 1 && isSplittable();
+    }
+
+    return true;
+  }
+
+  /**
+   * A single file is split in blocks when every line can be read on its own: the file isn't
+   * compressed, no field has line breaks in an enclosure, and no line depends on the lines before
+   * it like wrapped lines, pages, footers or a filter stopping the reading do.
+   */
+  private boolean isSplittable() {
+    String compression = meta.content.fileCompression;
+    if (!Utils.isEmpty(compression) && !"None".equalsIgnoreCase(compression)) {
+      return false;
+    }
+    if (meta.content.breakInEnclosureAllowed
+        || meta.content.lineWrapped
+        || meta.content.layoutPaged
+        || meta.content.footer) {
+      return false;
+    }
+    for (TextFileFilter filter : meta.getFilter()) {
+      if (filter.isFilterLastLine()) {
+        return false;
+      }
+    }
     return true;
   }
 }
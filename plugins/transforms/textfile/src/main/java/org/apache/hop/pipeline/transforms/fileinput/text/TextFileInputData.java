@@ -61,6 +61,16 @@ public class TextFileInputData extends BaseFileInputTransformData {
 
   public EncodingType encodingType;
 
+  /** True if the copies of the transform each read a part of the files */
+  public boolean parallel;
+
+  /** True if the copies of the transform each read a block of a single file */
+  public boolean splitInBlocks;
+
+  public int transformNumber;
+
+  public int totalNumberOfTransforms;
+
   public TextFileInputData() {
     // linked list is better, as usually .remove(0) is applied to this list
     lineBuffer = new LinkedList<>();
@@ -203,6 +203,8 @@ public class TextFileInputDialog extends BaseTransformDialog
 
   private Text wLimit;
 
+  private Button wRunningInParallel;
+
   private Button wDateLenient;
 
   private CCombo wDateLocale;
@@ -1370,13 +1372,32 @@ public class TextFileInputDialog extends BaseTransformDialog
     fdLimit.right = new FormAttachment(100, 0);
     wLimit.setLayoutData(fdLimit);
 
+    // Running in parallel checkbox
+    Label wlRunningInParallel = new Label(wContentComp, SWT.RIGHT);
+    wlRunningInParallel.setText(
+        BaseMessages.getString(PKG, "TextFileInputDialog.RunningInParallel.Label"));
+    PropsUi.setLook(wlRunningInParallel);
+    FormData fdlRunningInParallel = new FormData();
+    fdlRunningInParallel.left = new FormAttachment(0, 0);
+    fdlRunningInParallel.top = new FormAttachment(wLimit, margin);
+    fdlRunningInParallel.right = new FormAttachment(middle, -margin);
+    wlRunningInParallel.setLayoutData(fdlRunningInParallel);
+    wRunningInParallel = new Button(wContentComp, SWT.CHECK);
+    wRunningInParallel.setToolTipText(
+        BaseMessages.getString(PKG, "TextFileInputDialog.RunningInParallel.Tooltip"));
+    PropsUi.setLook(wRunningInParallel);
+    FormData fdRunningInParallel = new FormData();
+    fdRunningInParallel.left = new FormAttachment(middle, 0);
+    fdRunningInParallel.top = new FormAttachment(wlRunningInParallel, 0, SWT.CENTER);
+    wRunningInParallel.setLayoutData(fdRunningInParallel);
+
     // Date Lenient checkbox
     Label wlDateLenient = new Label(wContentComp, SWT.RIGHT);
     wlDateLenient.setText(BaseMessages.getString(PKG, "TextFileInputDialog.DateLenient.Label"));
     PropsUi.setLook(wlDateLenient);
     FormData fdlDateLenient = new FormData();
     fdlDateLenient.left = new FormAttachment(0, 0);
-    fdlDateLenient.top = new FormAttachment(wLimit, margin);
+    fdlDateLenient.top = new FormAttachment(wRunningInParallel, margin);
     fdlDateLenient.right = new FormAttachment(middle, -margin);
     wlDateLenient.setLayoutData(fdlDateLenient);
     wDateLenient = new Button(wContentComp, SWT.CHECK);
@@ -2216,6 +2237,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     }
 
     wLimit.setText("" + meta.content.rowLimit);
+    wRunningInParallel.setSelection(meta.content.runningInParallel);
 
     logDebug("getting fields info...");
     getFieldsData(meta, false, reloadAllFields, newFieldNames);
@@ -2473,6 +2495,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     meta.content.enclosure = wEnclosure.getText();
     meta.content.escapeCharacter = wEscape.getText();
     meta.content.rowLimit = Const.toLong(wLimit.getText(), 0L);
+    meta.content.runningInParallel = wRunningInParallel.getSelection();
     meta.content.filenameField = wInclFilenameField.getText();
     meta.content.rowNumberField = wInclRownumField.getText();
     meta.inputFiles.isaddresult = wAddResult.getSelection();
@@ -187,6 +187,10 @@ public class TextFileInputMeta
     @Injection(name = "ROW_LIMIT")
     public long rowLimit = -1;
 
+    /** Flag indicating that the copies of the transform each read a part of the files */
+    @Injection(name = "RUNNING_IN_PARALLEL")
+    public boolean runningInParallel;
+
     /**
      * Indicate whether or not we want to date fields strictly according to the format or lenient
      */
@@ -402,6 +406,8 @@ public class TextFileInputMeta
 
       // Is there a limit on the number of rows we process?
       content.rowLimit = Const.toLong(XmlHandler.getTagValue(transformNode, "limit"), 0L);
+      content.runningInParallel =
+          YES.equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "parallel"));
 
       errorHandling.errorIgnored =
           YES.equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "error_ignored"));
@@ -553,6 +559,7 @@ public class TextFileInputMeta
     content.dateFormatLocale = Locale.getDefault();
 
     content.rowLimit = 0L;
+    content.runningInParallel = false;
   }
 
   @Override
@@ -822,6 +829,7 @@ public class TextFileInputMeta
     }
     retval.append("    </fields>").append(Const.CR);
     retval.append("    ").append(XmlHandler.addTagValue("limit", content.rowLimit));
+    retval.append("    ").append(XmlHandler.addTagValue("parallel", content.runningInParallel));
 
     // ERROR HANDLING
     retval
@@ -25,6 +25,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.file.EncodingType;
 import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.errorhandling.AbstractFileErrorHandler;
@@ -33,6 +34,7 @@ import org.apache.hop.pipeline.transforms.file.IBaseFileInputTransformControl;
 import org.apache.hop.ui.pipeline.transform.common.TextFileLineUtil;
 
 import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 
 /** Reader for one text file. */
@@ -54,6 +56,9 @@ public class TextFileInputReader implements IBaseFileInputReader {
 
   protected long lineNumberInFile;
 
+  /** True if the lines are read from a block after the start of the file */
+  private final boolean afterFirstBlock;
+
   public TextFileInputReader(
       IBaseFileInputTransformControl transform,
       TextFileInputMeta meta,
@@ -61,10 +66,31 @@ public class TextFileInputReader implements IBaseFileInputReader {
       FileObject file,
       ILogChannel log)
       throws Exception {
+    this(transform, meta, data, file, log, 0L, -1L);
+  }
+
+  /**
+   * Reader for the lines of a file which start in a block of bytes. An uncompressed file can be
+   * split in blocks when the line ends of its encoding are single bytes, otherwise the first block
+   * reads the whole file and the other blocks read nothing.
+   *
+   * @param blockStart the position of the first byte of the block
+   * @param blockEnd the position after the last byte of the block, or -1 to read the whole file
+   */
+  public TextFileInputReader(
+      IBaseFileInputTransformControl transform,
+      TextFileInputMeta meta,
+      TextFileInputData data,
+      FileObject file,
+      ILogChannel log,
+      long blockStart,
+      long blockEnd)
+      throws Exception {
     this.transform = transform;
     this.meta = meta;
     this.data = data;
     this.log = log;
+    this.afterFirstBlock = blockEnd >= 0 && blockStart > 0;
 
     ICompressionProvider provider =
         CompressionProviderFactory.getInstance()
@@ -75,20 +101,49 @@ public class TextFileInputReader implements IBaseFileInputReader {
           "This is a compressed file being handled by the " + provider.getName() + " provider");
     }
 
-    in = provider.createInputStream(HopVfs.getInputStream(file));
+    InputStream fileStream = HopVfs.getInputStream(file);
+    String blockEncoding = meta.getEncoding();
+    if (blockEnd >= 0) {
+      String bomCharset = getBomCharset(file);
+      if (bomCharset != null) {
+        blockEncoding = bomCharset;
+      }
+      if (TextFileBlockInputStream.isSplittable(blockEncoding)) {
+        fileStream =
+            new TextFileBlockInputStream(
+                new BufferedInputStream(fileStream, BUFFER_SIZE_INPUT_STREAM),
+                blockStart,
+                blockEnd,
+                data.fileFormatType == TextFileLineUtil.FILE_FORMAT_UNIX);
+      } else if (afterFirstBlock) {
+        fileStream.close();
+        fileStream = InputStream.nullInputStream();
+      }
+    }
+
+    in = provider.createInputStream(fileStream);
 
     in.nextEntry();
 
     BufferedInputStream inStream = new BufferedInputStream(in, BUFFER_SIZE_INPUT_STREAM);
-    BOMDetector bom = new BOMDetector(inStream);
 
-    if (bom.bomExist()) {
-      // if BOM exist, use it instead defined charset
-      isr = new InputStreamReader(inStream, bom.getCharset());
-    } else if (meta.getEncoding() != null && meta.getEncoding().length() > 0) {
-      isr = new InputStreamReader(inStream, meta.getEncoding());
+    if (afterFirstBlock) {
+      // The byte order mark is only found at the start of the file
+      isr =
+          Utils.isEmpty(blockEncoding)
+              ? new InputStreamReader(inStream)
+              : new InputStreamReader(inStream, blockEncoding);
     } else {
-      isr = new InputStreamReader(inStream);
+      BOMDetector bom = new BOMDetector(inStream);
+
+      if (bom.bomExist()) {
+        // if BOM exist, use it instead defined charset
+        isr = new InputStreamReader(inStream, bom.getCharset());
+      } else if (meta.getEncoding() != null && meta.getEncoding().length() > 0) {
+        isr = new InputStreamReader(inStream, meta.getEncoding());
+      } else {
+        isr = new InputStreamReader(inStream);
+      }
     }
 
     String encoding = isr.getEncoding();
@@ -97,8 +152,16 @@ public class TextFileInputReader implements IBaseFileInputReader {
     readInitial();
   }
 
+  /** @return the charset of the byte order mark of the file, or null if there is none */
+  private static String getBomCharset(FileObject file) throws Exception {
+    try (BufferedInputStream head = new BufferedInputStream(HopVfs.getInputStream(file), 16)) {
+      return new BOMDetector(head).getCharset();
+    }
+  }
+
   protected void readInitial() throws Exception {
-    data.doneWithHeader = !meta.content.header;
+    // The header lines are in the first block
+    data.doneWithHeader = !meta.content.header || afterFirstBlock;
     // /////////////////////////////////////////////////////////////////////////////
     // Read the first lines...
 
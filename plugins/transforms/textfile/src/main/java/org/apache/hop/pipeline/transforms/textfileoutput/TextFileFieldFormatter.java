@@ -0,0 +1,478 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * Formats integers, numbers and dates straight into a reusable byte buffer, without creating a
+ * string and encoding it for every value. Only formats which give plain digits with ASCII signs,
+ * separators and literals are handled here, in a single byte ASCII compatible encoding. Whatever
+ * isn't handled is formatted by {@link IValueMeta#getBinaryString(Object)}, so the output is the
+ * same as before.
+ */
+public class TextFileFieldFormatter {
+
+  private static final int KIND_OTHER = 0;
+  private static final int KIND_INTEGER = 1;
+  private static final int KIND_NUMBER = 2;
+  private static final int KIND_DATE = 3;
+
+  /** Up to 15 digits always fit in the 53 bits of a double mantissa */
+  private static final int MAX_NUMBER_DIGITS = 15;
+
+  private static final long[] POWERS_OF_TEN = {
+    1L,
+    10L,
+    100L,
+    1000L,
+    10000L,
+    100000L,
+    1000000L,
+    10000000L,
+    100000000L,
+    1000000000L,
+    10000000000L,
+    100000000000L,
+    1000000000000L,
+    10000000000000L,
+    100000000000000L,
+    1000000000000000L
+  };
+
+  private static final String DIGITS = "0123456789";
+
+  private final IValueMeta valueMeta;
+  private int kind = KIND_OTHER;
+
+  private byte[] buffer = new byte[64];
+
+  // The number format
+  private byte[] positivePrefix;
+  private byte[] positiveSuffix;
+  private byte[] negativePrefix;
+  private byte[] negativeSuffix;
+  private byte decimalSeparator;
+  private byte groupingSeparator;
+  private int groupingSize;
+  private boolean decimalSeparatorAlwaysShown;
+  private int minimumIntegerDigits;
+  private int maximumIntegerDigits;
+  private int minimumFractionDigits;
+  private int maximumFractionDigits;
+
+  // The date format as a list of Calendar fields with their minimum number of digits, or literals
+  private int[] dateFields;
+  private int[] dateWidths;
+  private byte[] dateLiterals;
+  private Calendar calendar;
+
+  /**
+   * @param valueMeta the value to format
+   */
+  public TextFileFieldFormatter(IValueMeta valueMeta) {
+    this.valueMeta = valueMeta;
+
+    if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return;
+    }
+    Charset charset;
+    try {
+      charset =
+          Utils.isEmpty(valueMeta.getStringEncoding())
+              ? Charset.defaultCharset()
+              : Charset.forName(valueMeta.getStringEncoding());
+    } catch (IllegalArgumentException e) {
+      // Let the value metadata report the unsupported encoding
+      return;
+    }
+
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        if (compileNumberFormat(valueMeta.getDecimalFormat(false), charset)) {
+          kind = KIND_INTEGER;
+        }
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        if (compileNumberFormat(valueMeta.getDecimalFormat(false), charset)) {
+          // The conversion keeps all decimals when the mask differs from the one of the storage
+          IValueMeta storage = valueMeta.getStorageMetadata();
+          if (valueMeta.getConversionMask() != null
+              && storage != null
+              && !valueMeta.getConversionMask().equals(storage.getConversionMask())) {
+            maximumFractionDigits = 50;
+          }
+          kind = KIND_NUMBER;
+        }
+        break;
+      case IValueMeta.TYPE_DATE:
+        if (compileDateFormat(valueMeta.getDateFormat(), charset)) {
+          kind = KIND_DATE;
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Format a value into the buffer.
+   *
+   * @param value the value to format
+   * @return the number of bytes of the formatted value at the start of the buffer, or -1 if the
+   *     value needs the regular formatting
+   */
+  public int format(Object value) {
+    switch (kind) {
+      case KIND_INTEGER:
+        if (value instanceof Long) {
+          long integer = (Long) value;
+          if (integer != Long.MIN_VALUE) {
+            return formatNumber(integer < 0, Math.abs(integer), 0);
+          }
+        }
+        return -1;
+      case KIND_NUMBER:
+        if (value instanceof Double) {
+          return formatDouble((Double) value);
+        }
+        return -1;
+      case KIND_DATE:
+        if (value instanceof Date) {
+          return formatDate((Date) value);
+        }
+        return -1;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * A double is formatted directly if it is exactly the nearest double of a decimal with at most 15
+   * digits which needs no rounding. Those digits are the shortest representation of the double,
+   * the same ones the decimal format starts from.
+   */
+  private int formatDouble(double number) {
+    if (Double.isNaN(number) || Double.isInfinite(number)) {
+      return -1;
+    }
+    if (number == 0.0) {
+      // Keep the sign of a negative zero for the decimal format
+      return 1 / number > 0 ? formatNumber(false, 0L, 0) : -1;
+    }
+    double magnitude = Math.abs(number);
+    int maximumScale = Math.min(maximumFractionDigits, MAX_NUMBER_DIGITS);
+    for (int scale = 0; scale <= maximumScale; scale++) {
+      double scaled = magnitude * POWERS_OF_TEN[scale];
+      if (scaled >= POWERS_OF_TEN[MAX_NUMBER_DIGITS]) {
+        return -1;
+      }
+      long digits = Math.round(scaled);
+      if (digits / (double) POWERS_OF_TEN[scale] == magnitude) {
+        return formatNumber(number < 0, digits, scale);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Formats the number digits / 10^scale the way the decimal format does.
+   *
+   * @return the number of bytes or -1 if the number has too many integer digits for the format
+   */
+  private int formatNumber(boolean negative, long digits, int scale) {
+    long integerPart = digits / POWERS_OF_TEN[scale];
+    long fractionPart = digits % POWERS_OF_TEN[scale];
+
+    int integerDigits = integerPart == 0 ? 0 : numberOfDigits(integerPart);
+    if (integerDigits > maximumIntegerDigits) {
+      return -1;
+    }
+    integerDigits = Math.max(integerDigits, minimumIntegerDigits);
+
+    // Trailing zeros of the fraction are only written up to the minimum number of decimals
+    int fractionDigits = scale;
+    while (fractionDigits > 0 && fractionPart % 10 == 0) {
+      fractionPart /= 10;
+      fractionDigits--;
+    }
+    int zeroPadding = Math.max(0, minimumFractionDigits - fractionDigits);
+    boolean fractionPresent = fractionDigits + zeroPadding > 0;
+
+    byte[] prefix = negative ? negativePrefix : positivePrefix;
+    byte[] suffix = negative ? negativeSuffix : positiveSuffix;
+    ensureCapacity(
+        prefix.length + 2 * integerDigits + 2 + fractionDigits + zeroPadding + suffix.length);
+
+    int position = 0;
+    System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+    position += prefix.length;
+
+    if (integerDigits == 0) {
+      if (!fractionPresent) {
+        buffer[position++] = '0';
+      }
+    } else {
+      int end = position + integerDigits;
+      if (groupingSize > 0) {
+        end += (integerDigits - 1) / groupingSize;
+      }
+      int index = end;
+      for (int i = 0; i < integerDigits; i++) {
+        if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+          buffer[--index] = groupingSeparator;
+        }
+        buffer[--index] = (byte) ('0' + integerPart % 10);
+        integerPart /= 10;
+      }
+      position = end;
+    }
+
+    if (fractionPresent || decimalSeparatorAlwaysShown) {
+      buffer[position++] = decimalSeparator;
+    }
+    for (int i = position + fractionDigits - 1; i >= position; i--) {
+      buffer[i] = (byte) ('0' + fractionPart % 10);
+      fractionPart /= 10;
+    }
+    position += fractionDigits;
+    for (int i = 0; i < zeroPadding; i++) {
+      buffer[position++] = '0';
+    }
+
+    System.arraycopy(suffix, 0, buffer, position, suffix.length);
+    return position + suffix.length;
+  }
+
+  private int formatDate(Date date) {
+    calendar.setTime(date);
+    int position = 0;
+    for (int f = 0; f < dateFields.length; f++) {
+      int width = dateWidths[f];
+      if (width == 0) {
+        ensureCapacity(position + 1);
+        buffer[position++] = dateLiterals[f];
+        continue;
+      }
+      int value = calendar.get(dateFields[f]);
+      if (dateFields[f] == Calendar.MONTH) {
+        value++;
+      }
+      int length = Math.max(width, numberOfDigits(value));
+      ensureCapacity(position + length);
+      for (int i = position + length - 1; i >= position; i--) {
+        buffer[i] = (byte) ('0' + value % 10);
+        value /= 10;
+      }
+      position += length;
+    }
+    return position;
+  }
+
+  /**
+   * A number format is formatted directly if it has no multiplier or exponent, and if its signs and
+   * separators are written as single bytes.
+   */
+  private boolean compileNumberFormat(DecimalFormat format, Charset charset) {
+    if (format == null
+        || format.getMultiplier() != 1
+        || format.getDecimalFormatSymbols().getZeroDigit() != '0'
+        || format.toPattern().indexOf('E') >= 0) {
+      return false;
+    }
+    String decimal = String.valueOf(format.getDecimalFormatSymbols().getDecimalSeparator());
+    String grouping = String.valueOf(format.getDecimalFormatSymbols().getGroupingSeparator());
+    if (!isAscii(
+        charset,
+        DIGITS,
+        decimal,
+        grouping,
+        format.getPositivePrefix(),
+        format.getPositiveSuffix(),
+        format.getNegativePrefix(),
+        format.getNegativeSuffix())) {
+      return false;
+    }
+    positivePrefix = format.getPositivePrefix().getBytes(StandardCharsets.US_ASCII);
+    positiveSuffix = format.getPositiveSuffix().getBytes(StandardCharsets.US_ASCII);
+    negativePrefix = format.getNegativePrefix().getBytes(StandardCharsets.US_ASCII);
+    negativeSuffix = format.getNegativeSuffix().getBytes(StandardCharsets.US_ASCII);
+    decimalSeparator = (byte) decimal.charAt(0);
+    groupingSeparator = (byte) grouping.charAt(0);
+    groupingSize = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+    decimalSeparatorAlwaysShown = format.isDecimalSeparatorAlwaysShown();
+    minimumIntegerDigits = format.getMinimumIntegerDigits();
+    maximumIntegerDigits = format.getMaximumIntegerDigits();
+    minimumFractionDigits = format.getMinimumFractionDigits();
+    maximumFractionDigits = format.getMaximumFractionDigits();
+    return true;
+  }
+
+  /**
+   * Only date formats with numeric fields and literals are formatted directly, with a copy of the
+   * Gregorian calendar of the date format.
+   */
+  private boolean compileDateFormat(SimpleDateFormat format, Charset charset) {
+    if (format == null) {
+      return false;
+    }
+    String pattern = format.toPattern();
+    int[] fields = new int[pattern.length()];
+    int[] widths = new int[pattern.length()];
+    byte[] literals = new byte[pattern.length()];
+    StringBuilder literalText = new StringBuilder();
+    int size = 0;
+    int i = 0;
+    boolean quoted = false;
+    while (i < pattern.length()) {
+      char c = pattern.charAt(i);
+      if (c == '\'') {
+        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+          // Two quotes give a single quote, inside or outside quoted text
+          literals[size++] = '\'';
+          i += 2;
+        } else {
+          quoted = !quoted;
+          i++;
+        }
+        continue;
+      }
+      if (!quoted && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+        int count = 1;
+        while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+          count++;
+        }
+        int field = getDateField(c, count);
+        if (field < 0) {
+          return false;
+        }
+        fields[size] = field;
+        widths[size++] = count;
+        i += count;
+      } else {
+        literalText.append(c);
+        literals[size++] = (byte) c;
+        i++;
+      }
+    }
+    if (quoted || !isAscii(charset, DIGITS, literalText.toString())) {
+      return false;
+    }
+
+    Calendar dateCalendar = format.getCalendar();
+    NumberFormat numberFormat = format.getNumberFormat();
+    if (!(dateCalendar instanceof GregorianCalendar)
+        || !"gregory".equals(dateCalendar.getCalendarType())
+        || !(numberFormat instanceof DecimalFormat)
+        || ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() != '0') {
+      return false;
+    }
+
+    dateFields = Arrays.copyOf(fields, size);
+    dateWidths = Arrays.copyOf(widths, size);
+    dateLiterals = Arrays.copyOf(literals, size);
+    calendar = (Calendar) dateCalendar.clone();
+    return true;
+  }
+
+  private static int getDateField(char letter, int count) {
+    switch (letter) {
+      case 'y':
+        return count == 4 ? Calendar.YEAR : -1;
+      case 'M':
+        return count == 2 ? Calendar.MONTH : -1;
+      case 'd':
+        return count == 2 ? Calendar.DAY_OF_MONTH : -1;
+      case 'H':
+        return count == 2 ? Calendar.HOUR_OF_DAY : -1;
+      case 'm':
+        return count == 2 ? Calendar.MINUTE : -1;
+      case 's':
+        return count == 2 ? Calendar.SECOND : -1;
+      case 'S':
+        return count == 3 ? Calendar.MILLISECOND : -1;
+      default:
+        return -1;
+    }
+  }
+
+  /** The texts need to be ASCII and encoded as the same single bytes to be written directly */
+  private static boolean isAscii(Charset charset, String... texts) {
+    for (String text : texts) {
+      if (text == null) {
+        return false;
+      }
+      for (int i = 0; i < text.length(); i++) {
+        if (text.charAt(i) >= 0x80) {
+          return false;
+        }
+      }
+      if (!Arrays.equals(text.getBytes(charset), text.getBytes(StandardCharsets.US_ASCII))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int numberOfDigits(long value) {
+    int digits = 1;
+    while (value >= 10) {
+      value /= 10;
+      digits++;
+    }
+    return digits;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (buffer.length < capacity) {
+      buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+    }
+  }
+
+  /**
+   * @return the buffer with the last formatted value
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return the value this formatter formats
+   */
+  public IValueMeta getValueMeta() {
+    return valueMeta;
+  }
+
+  /**
+   * @return true if values are formatted without the regular conversion when possible
+   */
+  public boolean isFormattingDirectly() {
+    return kind != KIND_OTHER;
+  }
+}
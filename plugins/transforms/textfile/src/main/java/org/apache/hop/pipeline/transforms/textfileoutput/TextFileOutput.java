@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.textfileoutput;
 
 import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.provider.local.LocalFile;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.compress.CompressionOutputStream;
@@ -44,7 +45,12 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -186,7 +192,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           }
 
           BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+              new BufferedOutputStream(compressionOutputStream, meta.getBufferSize(this));
 
           fileStreams =
               data.new FileStream(fileOutputStream, compressionOutputStream, bufferedOutputStream);
@@ -210,7 +216,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
               compressionProvider.createOutputStream(fileOutputStream);
           compressionOutputStream.addEntry(filename, resolve(meta.getExtension()));
           BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+              new BufferedOutputStream(compressionOutputStream, meta.getBufferSize(this));
 
           fileStreams.setFileOutputStream(fileOutputStream);
           fileStreams.setCompressedOutputStream(compressionOutputStream);
@@ -453,7 +459,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           // no special null value default was specified since no fields are specified at all
           // As such, we pass null
           //
-          writeField(v, valueData, null);
+          writeField(i, v, valueData, null);
         }
         data.writer.write(data.binaryNewline);
       } else {
@@ -467,7 +473,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
 
           IValueMeta v = rowMeta.getValueMeta(data.fieldnrs[i]);
           Object valueData = r[data.fieldnrs[i]];
-          writeField(v, valueData, data.binaryNullValue[i]);
+          writeField(i, v, valueData, data.binaryNullValue[i]);
         }
         data.writer.write(data.binaryNewline);
       }
@@ -582,7 +588,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
-  private void writeField(IValueMeta v, Object valueData, byte[] nullString)
+  private void writeField(int index, IValueMeta v, Object valueData, byte[] nullString)
       throws HopTransformException {
     try {
       byte[] str;
@@ -600,6 +606,16 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
             str = getBinaryString((valueData == null) ? "" : valueData.toString());
           }
         } else {
+          if (!v.isString()) {
+            // Numbers and dates are never enclosed, write them straight from the formatter buffer
+            //
+            TextFileFieldFormatter formatter = getFieldFormatter(index, v);
+            int length = formatter.format(valueData);
+            if (length >= 0) {
+              data.writer.write(formatter.getBuffer(), 0, length);
+              return;
+            }
+          }
           str = formatField(v, valueData);
         }
       }
@@ -647,6 +663,21 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
+  private TextFileFieldFormatter getFieldFormatter(int index, IValueMeta v) {
+    if (data.fieldFormatters == null || index >= data.fieldFormatters.length) {
+      data.fieldFormatters =
+          Arrays.copyOf(
+              data.fieldFormatters == null ? new TextFileFieldFormatter[0] : data.fieldFormatters,
+              index + 1);
+    }
+    TextFileFieldFormatter formatter = data.fieldFormatters[index];
+    if (formatter == null || formatter.getValueMeta() != v) {
+      formatter = new TextFileFieldFormatter(v);
+      data.fieldFormatters[index] = formatter;
+    }
+    return formatter;
+  }
+
   private List<Integer> getEnclosurePositions(byte[] str) {
     List<Integer> positions = null;
     if (data.binaryEnclosure != null && data.binaryEnclosure.length > 0) {
@@ -1033,7 +1064,33 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
 
   protected OutputStream getOutputStream(String vfsFilename, IVariables variables, boolean append)
       throws HopFileException {
-    return HopVfs.getOutputStream(vfsFilename, append);
+    FileObject fileObject = getFileObject(vfsFilename, variables);
+    if (!(fileObject instanceof LocalFile)) {
+      return HopVfs.getOutputStream(vfsFilename, append);
+    }
+
+    // Write local files through a channel: a file output stream allocates a native buffer for
+    // every write of more than a few kilobytes, which is all of them with a large write buffer.
+    //
+    try {
+      FileObject parent = fileObject.getParent();
+      if (parent != null && !parent.exists()) {
+        throw new HopFileException(
+            BaseMessages.getString(
+                HopVfs.class,
+                "HopVFS.Exception.ParentDirectoryDoesNotExist",
+                HopVfs.getFriendlyURI(parent)));
+      }
+      FileChannel channel =
+          FileChannel.open(
+              Paths.get(HopVfs.getFilename(fileObject)),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+      return Channels.newOutputStream(channel);
+    } catch (IOException e) {
+      throw new HopFileException(e);
+    }
   }
 
   @Override
@@ -441,6 +441,9 @@ public class TextFileOutputData extends BaseTransformData implements ITransformD
 
   public int splitEvery;
 
+  /** The formatters of the written fields, by position in the line */
+  public TextFileFieldFormatter[] fieldFormatters;
+
   public TextFileOutputData() {
     super();
 
@@ -135,6 +135,8 @@ public class TextFileOutputDialog extends BaseTransformDialog implements ITransf
   private Label wlSplitEvery;
   private TextVar wSplitEvery;
 
+  private TextVar wBufferSize;
+
   private TableView wFields;
 
   protected TextFileOutputMeta input;
@@ -1004,6 +1006,25 @@ public class TextFileOutputDialog extends BaseTransformDialog implements ITransf
     fdEndedLine.right = new FormAttachment(100, 0);
     wEndedLine.setLayoutData(fdEndedLine);
 
+    Label wlBufferSize = new Label(wContentComp, SWT.RIGHT);
+    wlBufferSize.setText(BaseMessages.getString(PKG, "TextFileOutputDialog.BufferSize.Label"));
+    PropsUi.setLook(wlBufferSize);
+    FormData fdlBufferSize = new FormData();
+    fdlBufferSize.left = new FormAttachment(0, 0);
+    fdlBufferSize.top = new FormAttachment(wEndedLine, margin);
+    fdlBufferSize.right = new FormAttachment(middle, -margin);
+    wlBufferSize.setLayoutData(fdlBufferSize);
+    wBufferSize = new TextVar(variables, wContentComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBufferSize.setToolTipText(
+        BaseMessages.getString(PKG, "TextFileOutputDialog.BufferSize.Tooltip"));
+    PropsUi.setLook(wBufferSize);
+    wBufferSize.addModifyListener(lsMod);
+    FormData fdBufferSize = new FormData();
+    fdBufferSize.left = new FormAttachment(middle, 0);
+    fdBufferSize.top = new FormAttachment(wEndedLine, margin);
+    fdBufferSize.right = new FormAttachment(100, 0);
+    wBufferSize.setLayoutData(fdBufferSize);
+
     FormData fdContentComp = new FormData();
     fdContentComp.left = new FormAttachment(0, 0);
     fdContentComp.top = new FormAttachment(0, 0);
@@ -1401,6 +1422,7 @@ public class TextFileOutputDialog extends BaseTransformDialog implements ITransf
     }
 
     wSplitEvery.setText(Const.NVL(input.getSplitEveryRows(), ""));
+    wBufferSize.setText(Const.NVL(input.getBufferSize(), ""));
 
     wEnclForced.setSelection(input.isEnclosureForced());
     wDisableEnclosureFix.setSelection(input.isEnclosureFixDisabled());
@@ -1481,6 +1503,7 @@ public class TextFileOutputDialog extends BaseTransformDialog implements ITransf
     tfoi.setEnclosure(wEnclosure.getText());
     tfoi.setExtension(wExtension.getText());
     tfoi.setSplitEveryRows(wSplitEvery.getText());
+    tfoi.setBufferSize(wBufferSize.getText());
     tfoi.setEndedLine(wEndedLine.getText());
 
     tfoi.setFileNameField(wFileNameField.getText());
@@ -65,6 +65,15 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
 
   private static final Class<?> PKG = TextFileOutputMeta.class; // For Translator
 
+  /** Writing in large blocks keeps the number of system calls low for big files */
+  public static final String DEFAULT_BUFFER_SIZE = "1048576";
+
+  /**
+   * With the file name in a field every open file has its own buffer and the number of open files
+   * is not limited by default, so those files keep the small buffer size of old.
+   */
+  public static final String DEFAULT_FIELD_FILES_BUFFER_SIZE = "5000";
+
   protected static final int FILE_COMPRESSION_TYPE_NONE = 0;
 
   protected static final int FILE_COMPRESSION_TYPE_ZIP = 1;
@@ -167,6 +176,10 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
   @Injection(name = "SPLIT_EVERY")
   private String splitEveryRows;
 
+  /** The size in bytes of the buffer the file is written with */
+  @Injection(name = "BUFFER_SIZE")
+  private String bufferSize;
+
   /** Flag to indicate the we want to append to the end of an existing file (if it exists) */
   @Injection(name = "APPEND")
   private boolean fileAppended;
@@ -463,6 +476,34 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
     splitEveryRows = value;
   }
 
+  /**
+   * @return The size in bytes of the buffer the file is written with.
+   */
+  public String getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * @param bufferSize The size in bytes of the buffer the file is written with.
+   */
+  public void setBufferSize(String bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * @param variables for variable substitution
+   * @return The size in bytes of the write buffer of every open file. If none is specified this is
+   *     {@link #DEFAULT_BUFFER_SIZE} for a single output file and {@link
+   *     #DEFAULT_FIELD_FILES_BUFFER_SIZE} when the file name comes from a field.
+   */
+  public int getBufferSize(IVariables variables) {
+    int size = Const.toInt(variables == null ? bufferSize : variables.resolve(bufferSize), -1);
+    if (size > 0) {
+      return size;
+    }
+    return Const.toInt(fileNameInField ? DEFAULT_FIELD_FILES_BUFFER_SIZE : DEFAULT_BUFFER_SIZE, -1);
+  }
+
   /**
    * @return <tt>1</tt> if <tt>isFooterEnabled()</tt> and <tt>0</tt> otherwise
    */
@@ -679,6 +720,7 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
       padded = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "file", "pad"));
       fastDump = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "file", "fast_dump"));
       splitEveryRows = XmlHandler.getTagValue(transformNode, "file", "splitevery");
+      bufferSize = XmlHandler.getTagValue(transformNode, "file", "buffer_size");
 
       newline = getNewLine(fileFormat);
 
@@ -757,6 +799,7 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
     timeInFilename = false;
     padded = false;
     fastDump = false;
+    bufferSize = "";
     addToResultFilenames = true;
 
     newline = getNewLine(fileFormat);
@@ -927,6 +970,7 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
     retval.append("      ").append(XmlHandler.addTagValue("pad", padded));
     retval.append("      ").append(XmlHandler.addTagValue("fast_dump", fastDump));
     retval.append("      ").append(XmlHandler.addTagValue("splitevery", splitEveryRows));
+    retval.append("      ").append(XmlHandler.addTagValue("buffer_size", bufferSize));
   }
 
   @Override
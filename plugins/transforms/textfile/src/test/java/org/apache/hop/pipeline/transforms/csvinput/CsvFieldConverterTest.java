@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CsvFieldConverterTest {
+
+  @Test
+  public void testInteger() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaInteger("i"), "#", null, "UTF-8");
+    assertTrue(new CsvFieldConverter(valueMeta).isConvertingDirectly());
+    assertSameConversion(
+        valueMeta, "0", "123", "-45", "007", "-0", "123456789012345678", "1234567890123456789");
+    assertSameConversion(valueMeta, "", " 12", "12 ", "1.5", "+3", "1,000", "12a", "-", "--1");
+  }
+
+  @Test
+  public void testIntegerTrimmed() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaInteger("i"), "#", null, "UTF-8");
+    valueMeta.getStorageMetadata().setTrimType(IValueMeta.TRIM_TYPE_BOTH);
+    assertSameConversion(valueMeta, " 12", "12\t", "  -3  ", "   ");
+  }
+
+  @Test
+  public void testNumber() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaNumber("n"), "#.#", ".", "UTF-8");
+    assertTrue(new CsvFieldConverter(valueMeta).isConvertingDirectly());
+    assertSameConversion(
+        valueMeta,
+        "0",
+        "1.5",
+        "-0.1",
+        "-0",
+        "3.14159265358979",
+        "123456789012345",
+        "0.000000000000001",
+        "1.",
+        ".5",
+        "1234567890.1234567");
+    assertSameConversion(valueMeta, "1,5", "1.2.3", ".", "1e5", "abc");
+  }
+
+  @Test
+  public void testNumberWithCommaDecimal() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaNumber("n"), "#,##0.00", ",", "UTF-8");
+    valueMeta.getStorageMetadata().setGroupingSymbol(".");
+    assertSameConversion(valueMeta, "1,5", "-12,25", "1.000,5", "1.5");
+  }
+
+  @Test
+  public void testPercentIsNotParsedDirectly() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaNumber("n"), "#%", ".", "UTF-8");
+    assertFalse(new CsvFieldConverter(valueMeta).isConvertingDirectly());
+    assertSameConversion(valueMeta, "50%");
+  }
+
+  @Test
+  public void testDate() throws Exception {
+    IValueMeta valueMeta =
+        binaryValueMeta(new ValueMetaDate("d"), "yyyy-MM-dd HH:mm:ss.SSS", null, "UTF-8");
+    assertTrue(new CsvFieldConverter(valueMeta).isConvertingDirectly());
+    assertSameConversion(
+        valueMeta,
+        "2021-03-04 05:06:07.089",
+        "1999-12-31 23:59:59.999",
+        "2021-02-29 00:00:00.000",
+        "2021-13-01 00:00:00.000",
+        "2021-3-4 05:06:07.089",
+        "2021-03-04 05:06:07.089 trailing",
+        "2021/03/04 05:06:07.089");
+  }
+
+  @Test
+  public void testStrictDate() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaDate("d"), "yyyyMMdd", null, "UTF-8");
+    valueMeta.getStorageMetadata().setDateFormatLenient(false);
+    assertSameConversion(valueMeta, "20210304", "20210229", "20211301", "2021034");
+  }
+
+  @Test
+  public void testString() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaString("s"), null, null, "UTF-8");
+    valueMeta.getStorageMetadata().setTrimType(IValueMeta.TRIM_TYPE_RIGHT);
+    assertTrue(new CsvFieldConverter(valueMeta).isConvertingDirectly());
+    assertSameConversion(valueMeta, "abc", "café", "  padded  ", "");
+  }
+
+  @Test
+  public void testCommonFieldsAreConvertedDirectly() throws Exception {
+    assertConvertedDirectly(
+        binaryValueMeta(new ValueMetaInteger("i"), "#", null, "UTF-8"), "-12345", -12345L);
+    assertConvertedDirectly(
+        binaryValueMeta(new ValueMetaNumber("n"), "#.#", ".", "UTF-8"), "2.25", 2.25);
+    assertConvertedDirectly(
+        binaryValueMeta(new ValueMetaString("s"), null, null, "UTF-8"), "text", "text");
+    IValueMeta date = binaryValueMeta(new ValueMetaDate("d"), "yyyy-MM-dd", null, "UTF-8");
+    assertConvertedDirectly(date, "2021-03-04", date.getStorageMetadata().getDate("2021-03-04"));
+  }
+
+  private static void assertConvertedDirectly(IValueMeta valueMeta, String field, Object expected)
+      throws Exception {
+    byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+    assertEquals(expected, new CsvFieldConverter(valueMeta).convert(bytes, 0, bytes.length));
+    assertEquals(0L, valueMeta.getNumberOfBinaryStringConversions());
+  }
+
+  @Test
+  public void testOtherTypesAndEncodings() throws Exception {
+    IValueMeta bigNumber = binaryValueMeta(new ValueMetaBigNumber("b"), null, ".", "UTF-8");
+    assertFalse(new CsvFieldConverter(bigNumber).isConvertingDirectly());
+    assertSameConversion(bigNumber, "12345678901234567890.5");
+
+    IValueMeta utf16 = binaryValueMeta(new ValueMetaInteger("i"), "#", null, "UTF-16LE");
+    assertFalse(new CsvFieldConverter(utf16).isConvertingDirectly());
+  }
+
+  /**
+   * The direct conversion of a field in the middle of a buffer gives the same value or error as the
+   * regular conversion of the copied field.
+   */
+  private static void assertSameConversion(IValueMeta valueMeta, String... fields)
+      throws Exception {
+    CsvFieldConverter converter = new CsvFieldConverter(valueMeta);
+    String encoding = valueMeta.getStringEncoding();
+    for (String field : fields) {
+      byte[] bytes = field.getBytes(encoding);
+      byte[] buffer = ("x;" + field + ";y").getBytes(encoding);
+      int start = "x;".getBytes(encoding).length;
+
+      Object expected;
+      try {
+        expected = valueMeta.convertBinaryStringToNativeType(bytes);
+      } catch (HopValueException e) {
+        try {
+          converter.convert(buffer, start, bytes.length);
+          fail("Expected a conversion error for [" + field + "]");
+        } catch (HopValueException expectedError) {
+          // The same error as the regular conversion
+        }
+        continue;
+      }
+      assertEquals("[" + field + "]", expected, converter.convert(buffer, start, bytes.length));
+    }
+  }
+
+  /** Like {@link CsvInputMeta} prepares the value metadata of a field read from a file */
+  private static IValueMeta binaryValueMeta(
+      IValueMeta valueMeta, String mask, String decimalSymbol, String encoding) {
+    valueMeta.setConversionMask(mask);
+    valueMeta.setDecimalSymbol(decimalSymbol);
+    valueMeta.setStringEncoding(encoding);
+
+    IValueMeta storageMetadata = new ValueMetaString(valueMeta.getName());
+    storageMetadata.setConversionMask(mask);
+    storageMetadata.setDecimalSymbol(decimalSymbol);
+    storageMetadata.setStringEncoding(encoding);
+    storageMetadata.setLength(-1, -1);
+    valueMeta.setStorageMetadata(storageMetadata);
+    valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    return valueMeta;
+  }
+
+  @Test
+  public void testBytesOfOtherEncodingsAreDecoded() throws Exception {
+    IValueMeta valueMeta = binaryValueMeta(new ValueMetaString("s"), null, null, "ISO-8859-1");
+    byte[] buffer = "café".getBytes(StandardCharsets.ISO_8859_1);
+    assertEquals("café", new CsvFieldConverter(valueMeta).convert(buffer, 0, buffer.length));
+  }
+}
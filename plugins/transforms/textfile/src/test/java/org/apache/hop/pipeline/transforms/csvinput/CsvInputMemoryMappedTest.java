@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CsvInputMemoryMappedTest extends CsvInputUnitTestBase {
+  private TransformMockHelper<CsvInputMeta, CsvInputData> transformMockHelper;
+
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Before
+  public void setUp() {
+    transformMockHelper =
+        TransformMockUtil.getTransformMockHelper(
+            CsvInputMeta.class, CsvInputData.class, "CsvInputMemoryMappedTest");
+  }
+
+  @After
+  public void cleanUp() {
+    transformMockHelper.cleanUp();
+  }
+
+  @Test
+  public void testSameRowsAsReadingTheChannel() throws Exception {
+    File file = createTestFile(ENCODING, createContent(500));
+
+    List<String> expected = readRows(file, false, 0, 1);
+    assertEquals(500, expected.size());
+    assertEquals(expected, readRows(file, true, 0, 1));
+
+    // Small windows make rows span several mapped windows
+    //
+    assertEquals(expected, readRows(file, true, 37, 1));
+  }
+
+  @Test
+  public void testParallelCopiesReadDisjointParts() throws Exception {
+    File file = createTestFile(ENCODING, createContent(500));
+
+    List<String> expected = readRows(file, false, 0, 1);
+    assertEquals(expected, readRows(file, false, 0, 3));
+    assertEquals(expected, readRows(file, true, 0, 3));
+    assertEquals(expected, readRows(file, true, 100, 3));
+  }
+
+  private static String createContent(int rows) {
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < rows; i++) {
+      content.append("row ").append(i).append(",\"value, ").append(i * 31).append("\"\n");
+    }
+    return content.toString();
+  }
+
+  /** Read the file with the given number of copies, the rows of all copies in order */
+  private List<String> readRows(File file, boolean memoryMapped, long windowSize, int copies)
+      throws Exception {
+    List<String> rows = new ArrayList<>();
+    for (int copy = 0; copy < copies; copy++) {
+      CsvInputMeta meta = createMeta(file, createInputFileFields("a", "b"));
+      meta.setMemoryMapped(memoryMapped);
+      meta.setRunningInParallel(copies > 1);
+      CsvInputData data = new CsvInputData();
+      CsvInput csvInput =
+          new CsvInput(
+              transformMockHelper.transformMeta,
+              meta,
+              data,
+              0,
+              transformMockHelper.pipelineMeta,
+              transformMockHelper.pipeline);
+      csvInput.init();
+      if (windowSize > 0) {
+        data.mappedWindowSize = windowSize;
+      }
+      data.transformNumber = copy;
+      data.totalNumberOfTransforms = copies;
+
+      csvInput.addRowListener(
+          new RowAdapter() {
+            @Override
+            public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                throws HopTransformException {
+              rows.add(Arrays.toString(Arrays.copyOf(row, 2)));
+            }
+          });
+      while (csvInput.processRow()) {
+        // Read all the rows of this copy
+      }
+      csvInput.dispose();
+    }
+    return rows;
+  }
+}
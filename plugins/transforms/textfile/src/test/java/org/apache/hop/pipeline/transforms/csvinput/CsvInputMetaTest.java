@@ -87,6 +87,7 @@ public class CsvInputMetaTest implements IInitializer<ITransformMeta> {
             "headerPresent",
             "includingFilename",
             "lazyConversionActive",
+            "memoryMapped",
             "newlinePossibleInFields",
             "runningInParallel");
 
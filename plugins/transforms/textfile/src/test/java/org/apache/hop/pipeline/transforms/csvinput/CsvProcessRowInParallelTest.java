@@ -30,6 +30,9 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -242,6 +245,37 @@ public class CsvProcessRowInParallelTest extends CsvInputUnitTestBase {
     assertEquals(11, t1 + t2 + t3 + t4);
   }
 
+  /**
+   * The second copy reads more than one buffer of data. Peeking at the last byte of the first
+   * copy may not move the channel past the data read into the buffer, or a byte is lost.
+   */
+  @Test
+  public void rowsLargerThanTheBuffer_2Threads() throws Exception {
+    StringBuilder fileContent = new StringBuilder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      fileContent.append("row").append(i).append(";value").append(i).append("\n");
+      expected.add("[row" + i + ", value" + i + "]");
+    }
+    File sharedFile = createTestFile("UTF-8", fileContent.toString());
+
+    List<String> rows = new ArrayList<>();
+    for (int transformNr = 0; transformNr < 2; transformNr++) {
+      TransformMetaDataCombi combi = createBaseCombi(sharedFile, false, ";");
+      configureData((CsvInputData) combi.data, transformNr, 2);
+      combi.transform.addRowListener(
+          new RowAdapter() {
+            @Override
+            public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+              rows.add(Arrays.toString(Arrays.copyOf(row, 2)));
+            }
+          });
+      processRows(combi);
+    }
+
+    assertEquals(expected, rows);
+  }
+
   /**
    * So as not to heap up list of taken parameters, we are passing combi, but we expect to see
    * CsvInput class instances in it's content.
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SpecialByteScannerTest {
+
+  @Test
+  public void testFindsFirstSpecialByte() {
+    SpecialByteScanner scanner = new SpecialByteScanner((byte) ';', new byte[] {'"'});
+    byte[] bytes = "abcdefghijklmnop;q\"r\r\n".getBytes(StandardCharsets.UTF_8);
+    assertEquals(16, scanner.indexOfSpecialByte(bytes, 0, bytes.length));
+    assertEquals(18, scanner.indexOfSpecialByte(bytes, 17, bytes.length));
+    assertEquals(20, scanner.indexOfSpecialByte(bytes, 19, bytes.length));
+    assertEquals(21, scanner.indexOfSpecialByte(bytes, 21, bytes.length));
+    assertEquals(10, scanner.indexOfSpecialByte(bytes, 3, 10));
+  }
+
+  @Test
+  public void testNoEnclosure() {
+    SpecialByteScanner scanner = new SpecialByteScanner((byte) ',', null);
+    byte[] bytes = "\"quoted\" and more text,".getBytes(StandardCharsets.UTF_8);
+    assertEquals(bytes.length - 1, scanner.indexOfSpecialByte(bytes, 0, bytes.length));
+  }
+
+  @Test
+  public void testSameAsByteByByte() {
+    SpecialByteScanner scanner = new SpecialByteScanner((byte) 0x01, new byte[] {(byte) 0xA7});
+    Random random = new Random(42);
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < bytes.length; i++) {
+      // Mostly bytes next to the special ones to catch false matches
+      int pick = random.nextInt(40);
+      bytes[i] =
+          (byte) (pick == 0 ? 0x01 : pick == 1 ? 0xA7 : pick == 2 ? '\n' : random.nextInt(256));
+    }
+    for (int from = 0; from < bytes.length; from++) {
+      int expected = from;
+      while (expected < bytes.length
+          && bytes[expected] != 0x01
+          && bytes[expected] != (byte) 0xA7
+          && bytes[expected] != '\r'
+          && bytes[expected] != '\n') {
+        expected++;
+      }
+      assertEquals(expected, scanner.indexOfSpecialByte(bytes, from, bytes.length));
+    }
+  }
+}
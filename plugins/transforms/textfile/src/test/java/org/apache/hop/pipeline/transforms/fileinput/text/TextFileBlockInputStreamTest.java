@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TextFileBlockInputStreamTest {
+
+  @Test
+  public void testBlocksGiveEveryLineOnce() throws IOException {
+    String[] contents = {
+      "a;1\nbb;22\n\nccc;333\nd;4\n",
+      "a;1\r\nbb;22\r\nccc;333\r\nd;4",
+      "a;1\rbb;22\r\n\nccc;333\rd;4\r",
+      "a\n",
+      ""
+    };
+    for (String content : contents) {
+      for (boolean returnEndsLine : new boolean[] {false, true}) {
+        for (int blocks = 1; blocks <= content.length() + 1; blocks++) {
+          assertEquals(
+              "Blocks: " + blocks, content, readInBlocks(content, blocks, returnEndsLine));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLineBelongsToBlockOfFirstByte() throws IOException {
+    String content = "aaaa\nbbbb\ncccc\n";
+    // The line starting with the first byte of the block is ours
+    assertEquals("bbbb\n", readBlock(content, 5, 6, false));
+    // The line ending with the last byte of the block is ours, the next one isn't
+    assertEquals("aaaa\n", readBlock(content, 0, 5, false));
+    // The line running over the end of the block is read completely
+    assertEquals("aaaa\nbbbb\n", readBlock(content, 0, 6, false));
+    // A block without the start of a line gives nothing
+    assertEquals("", readBlock(content, 6, 9, false));
+  }
+
+  @Test
+  public void testIsSplittable() {
+    assertTrue(TextFileBlockInputStream.isSplittable("UTF-8"));
+    assertTrue(TextFileBlockInputStream.isSplittable("ISO-8859-1"));
+    assertTrue(TextFileBlockInputStream.isSplittable(null));
+    assertFalse(TextFileBlockInputStream.isSplittable("UTF-16"));
+    assertFalse(TextFileBlockInputStream.isSplittable("UTF-16LE"));
+    assertFalse(TextFileBlockInputStream.isSplittable("UTF-32BE"));
+  }
+
+  private static String readInBlocks(String content, int blocks, boolean returnEndsLine)
+      throws IOException {
+    int size = content.length();
+    int blockSize = size / blocks;
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < blocks; i++) {
+      int start = i * blockSize;
+      int end = i == blocks - 1 ? size : start + blockSize;
+      result.append(readBlock(content, start, end, returnEndsLine));
+    }
+    return result.toString();
+  }
+
+  private static String readBlock(String content, long start, long end, boolean returnEndsLine)
+      throws IOException {
+    try (TextFileBlockInputStream in =
+        new TextFileBlockInputStream(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)),
+            start,
+            end,
+            returnEndsLine)) {
+      return IOUtils.toString(in, StandardCharsets.US_ASCII);
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.fileinput.text;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileContent;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopFileException;
@@ -56,6 +57,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -266,6 +268,66 @@ public class TextFileInputTest {
     deleteVfsFile(virtualFile);
   }
 
+  @Test
+  public void readInParallelBlocks() throws Exception {
+    StringBuilder content = new StringBuilder("col1,col2\n");
+    List<Object[]> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      content.append("r").append(i).append(",").append(i % 7 == 0 ? "" : "v" + i).append("\n");
+      expected.add(new Object[] {"r" + i, i % 7 == 0 ? null : "v" + i});
+    }
+    final String virtualFile = createVirtualFile("parallel-blocks.txt", content.toString());
+
+    for (int copies = 1; copies <= 4; copies++) {
+      List<Object[]> output = new ArrayList<>();
+      for (int copy = 0; copy < copies; copy++) {
+        TextFileInputMeta meta = createMetaObject(field("col1"), field("col2"));
+        meta.content.header = true;
+        meta.content.nrHeaderLines = 1;
+        TextFileInputData data = createDataObject(virtualFile, ",", "col1", "col2");
+        data.parallel = true;
+        data.splitInBlocks = true;
+        data.transformNumber = copy;
+        data.totalNumberOfTransforms = copies;
+
+        output.addAll(executeAll(meta, data));
+      }
+      PipelineTestingUtil.assertResult(expected, output);
+    }
+
+    deleteVfsFile(virtualFile);
+  }
+
+  @Test
+  public void readFilesInParallel() throws Exception {
+    String[] virtualFiles = {
+      createVirtualFile("parallel-0.txt", "0\n"),
+      createVirtualFile("parallel-1.txt", "1\n"),
+      createVirtualFile("parallel-2.txt", "2\n")
+    };
+
+    List<Object[]> output = new ArrayList<>();
+    for (int copy = 0; copy < 2; copy++) {
+      TextFileInputMeta meta = createMetaObject(field("col1"));
+      TextFileInputData data = createDataObject(virtualFiles[0], ",", "col1");
+      data.files.addFile(HopVfs.getFileObject(virtualFiles[1]));
+      data.files.addFile(HopVfs.getFileObject(virtualFiles[2]));
+      data.parallel = true;
+      data.transformNumber = copy;
+      data.totalNumberOfTransforms = 2;
+
+      output.addAll(executeAll(meta, data));
+    }
+    assertEquals(3, output.size());
+    PipelineTestingUtil.assertResult(new Object[] {"0"}, output.get(0));
+    PipelineTestingUtil.assertResult(new Object[] {"2"}, output.get(1));
+    PipelineTestingUtil.assertResult(new Object[] {"1"}, output.get(2));
+
+    for (String virtualFile : virtualFiles) {
+      deleteVfsFile(virtualFile);
+    }
+  }
+
   @Test
   public void testErrorHandlerLineNumber() throws Exception {
     final String content =
@@ -425,6 +487,29 @@ public class TextFileInputTest {
     assertEquals(0, mockTFID.lineBuffer.size());
   }
 
+  private static List<Object[]> executeAll(TextFileInputMeta meta, TextFileInputData data)
+      throws Exception {
+    TextFileInput input =
+        TransformMockUtil.getTransform(
+            TextFileInput.class,
+            meta,
+            data,
+            TextFileInputMeta.class,
+            TextFileInputData.class,
+            "test");
+    IRowSet rowSet = new BlockingRowSet(1000);
+    input.setOutputRowSets(Collections.singletonList(rowSet));
+    while (input.processRow()) {
+      // Read all the rows
+    }
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = rowSet.getRowImmediate()) != null) {
+      rows.add(row);
+    }
+    return rows;
+  }
+
   private TextFileInputMeta createMetaObject(BaseFileField... fields) {
     TextFileInputMeta meta = new TextFileInputMeta();
     meta.content.fileCompression = "None";
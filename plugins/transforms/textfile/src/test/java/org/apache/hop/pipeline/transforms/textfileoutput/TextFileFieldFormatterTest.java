@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TextFileFieldFormatterTest {
+
+  @Test
+  public void testInteger() throws Exception {
+    for (String mask : new String[] {null, "#", "0", "000000", "#,##0", " 0000;-0000", "0.00"}) {
+      IValueMeta valueMeta = valueMeta(new ValueMetaInteger("i"), mask, "UTF-8");
+      assertTrue(mask, new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+      assertSameFormat(
+          valueMeta,
+          0L,
+          7L,
+          -7L,
+          123L,
+          -45L,
+          1000L,
+          -1234567L,
+          Long.MAX_VALUE,
+          -Long.MAX_VALUE,
+          Long.MIN_VALUE,
+          null);
+    }
+  }
+
+  @Test
+  public void testIntegerWithLength() throws Exception {
+    IValueMeta valueMeta = new ValueMetaInteger("i");
+    valueMeta.setLength(6);
+    valueMeta.setStringEncoding("UTF-8");
+    assertTrue(new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+    assertSameFormat(valueMeta, 0L, 42L, -42L, 123456789L);
+  }
+
+  @Test
+  public void testNumber() throws Exception {
+    for (String mask :
+        new String[] {null, "#.#", "0.00", "#,##0.###", "#.##############", "000.0#", "#.", "#"}) {
+      IValueMeta valueMeta = valueMeta(new ValueMetaNumber("n"), mask, "UTF-8");
+      assertTrue(mask, new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+      assertSameFormat(
+          valueMeta,
+          0.0,
+          -0.0,
+          1.5,
+          -0.1,
+          0.5,
+          2.25,
+          3.14159265358979,
+          123456789012345.0,
+          1234567890123456.0,
+          0.000000000000001,
+          1e-20,
+          1e300,
+          0.1 + 0.2,
+          1.005,
+          2.675,
+          -999.995,
+          Double.NaN,
+          Double.POSITIVE_INFINITY,
+          Double.NEGATIVE_INFINITY,
+          null);
+    }
+  }
+
+  @Test
+  public void testRandomNumbers() throws Exception {
+    Random random = new Random(1234);
+    IValueMeta defaultMeta = valueMeta(new ValueMetaNumber("n"), null, "UTF-8");
+    IValueMeta maskMeta = valueMeta(new ValueMetaNumber("n"), "#,##0.00", "UTF-8");
+    for (int i = 0; i < 10000; i++) {
+      double decimal =
+          BigDecimal.valueOf(random.nextLong() % 1000000000000L, random.nextInt(12))
+              .doubleValue();
+      double any = Double.longBitsToDouble(random.nextLong());
+      double scaled = random.nextDouble() * Math.pow(10, random.nextInt(20) - 5);
+      assertSameFormat(defaultMeta, decimal, any, scaled);
+      assertSameFormat(maskMeta, decimal, any, scaled);
+    }
+  }
+
+  @Test
+  public void testNumberWithLengthAndPrecision() throws Exception {
+    IValueMeta valueMeta = new ValueMetaNumber("n");
+    valueMeta.setLength(8, 3);
+    valueMeta.setStringEncoding("UTF-8");
+    assertTrue(new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+    assertSameFormat(valueMeta, 0.0, 1.5, -12.125, 0.0625, 123456.789);
+  }
+
+  @Test
+  public void testNumberWithCommaDecimal() throws Exception {
+    IValueMeta valueMeta = valueMeta(new ValueMetaNumber("n"), "#,##0.00", "ISO-8859-1");
+    valueMeta.setDecimalSymbol(",");
+    valueMeta.setGroupingSymbol(".");
+    assertTrue(new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+    assertSameFormat(valueMeta, 1.5, -12.25, 1000.5, 1234567.125);
+  }
+
+  @Test
+  public void testPercentIsNotFormattedDirectly() throws Exception {
+    IValueMeta valueMeta = valueMeta(new ValueMetaNumber("n"), "#%", "UTF-8");
+    assertFalse(new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+    assertSameFormat(valueMeta, 0.5);
+  }
+
+  @Test
+  public void testDate() throws Exception {
+    for (String mask :
+        new String[] {
+          null, "yyyy-MM-dd", "yyyyMMdd", "yyyy-MM-dd'T'HH:mm:ss.SSS", "HH:mm 'o''clock'"
+        }) {
+      IValueMeta valueMeta = valueMeta(new ValueMetaDate("d"), mask, "UTF-8");
+      valueMeta.setDateFormatTimeZone(TimeZone.getTimeZone("Europe/Brussels"));
+      assertTrue(mask, new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+      assertSameFormat(
+          valueMeta,
+          new Date(0L),
+          new Date(1614834367089L),
+          new Date(-62135769600000L),
+          new Date(253402300799999L),
+          new Date(300000000000000L),
+          null);
+    }
+  }
+
+  @Test
+  public void testTextDatesAreNotFormattedDirectly() throws Exception {
+    IValueMeta valueMeta = valueMeta(new ValueMetaDate("d"), "dd MMM yyyy", "UTF-8");
+    assertFalse(new TextFileFieldFormatter(valueMeta).isFormattingDirectly());
+    assertSameFormat(valueMeta, new Date(1614834367089L));
+  }
+
+  @Test
+  public void testOtherTypesAndEncodings() throws Exception {
+    IValueMeta string = valueMeta(new ValueMetaString("s"), null, "UTF-8");
+    assertFalse(new TextFileFieldFormatter(string).isFormattingDirectly());
+
+    IValueMeta bigNumber = valueMeta(new ValueMetaBigNumber("b"), null, "UTF-8");
+    assertFalse(new TextFileFieldFormatter(bigNumber).isFormattingDirectly());
+
+    IValueMeta utf16 = valueMeta(new ValueMetaInteger("i"), "#", "UTF-16LE");
+    assertFalse(new TextFileFieldFormatter(utf16).isFormattingDirectly());
+    assertSameFormat(utf16, 12L);
+  }
+
+  /** The formatter gives the same bytes as the regular formatting of the value */
+  private static void assertSameFormat(IValueMeta valueMeta, Object... values) throws Exception {
+    TextFileFieldFormatter formatter = new TextFileFieldFormatter(valueMeta);
+    for (Object value : values) {
+      byte[] expected = valueMeta.getBinaryString(value);
+      int length = formatter.format(value);
+      if (length >= 0) {
+        assertArrayEquals(
+            "[" + value + "] " + new String(expected, valueMeta.getStringEncoding()),
+            expected,
+            Arrays.copyOf(formatter.getBuffer(), length));
+      }
+    }
+  }
+
+  @Test
+  public void testCommonValuesAreFormattedDirectly() throws Exception {
+    assertEquals(
+        "-12345",
+        formatDirectly(valueMeta(new ValueMetaInteger("i"), null, "UTF-8"), -12345L));
+    assertEquals("2.25", formatDirectly(valueMeta(new ValueMetaNumber("n"), null, "UTF-8"), 2.25));
+    IValueMeta date = valueMeta(new ValueMetaDate("d"), "yyyy-MM-dd", "UTF-8");
+    date.setDateFormatTimeZone(TimeZone.getTimeZone("UTC"));
+    assertEquals("2021-03-04", formatDirectly(date, new Date(1614816000000L)));
+  }
+
+  private static String formatDirectly(IValueMeta valueMeta, Object value) throws Exception {
+    TextFileFieldFormatter formatter = new TextFileFieldFormatter(valueMeta);
+    int length = formatter.format(value);
+    assertTrue(length >= 0);
+    return new String(formatter.getBuffer(), 0, length, valueMeta.getStringEncoding());
+  }
+
+  private static IValueMeta valueMeta(IValueMeta valueMeta, String mask, String encoding) {
+    valueMeta.setConversionMask(mask);
+    valueMeta.setDecimalSymbol(".");
+    valueMeta.setStringEncoding(encoding);
+    return valueMeta;
+  }
+}
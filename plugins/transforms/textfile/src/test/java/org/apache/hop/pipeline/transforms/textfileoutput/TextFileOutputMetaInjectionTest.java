@@ -50,6 +50,7 @@ public class TextFileOutputMetaInjectionTest extends BaseMetadataInjectionTest<T
     check("FORMAT", () -> meta.getFileFormat());
     check("COMPRESSION", () -> meta.getFileCompression());
     check("SPLIT_EVERY", () -> meta.getSplitEvery());
+    check("BUFFER_SIZE", () -> meta.getBufferSize());
     check("APPEND", () -> meta.isFileAppended());
     check("INC_TRANSFORMNR_IN_FILENAME", () -> meta.isTransformNrInFilename());
     check("INC_PARTNR_IN_FILENAME", () -> meta.isPartNrInFilename());
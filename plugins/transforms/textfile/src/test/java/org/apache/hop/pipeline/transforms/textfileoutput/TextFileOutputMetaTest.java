@@ -77,6 +77,7 @@ public class TextFileOutputMetaTest {
         "pad",
         "fast_dump",
         "splitevery",
+        "buffer_size",
         "OutputFields");
   }
 
@@ -110,6 +111,7 @@ public class TextFileOutputMetaTest {
     getterMap.put("pad", "isPadded");
     getterMap.put("fast_dump", "isFastDump");
     getterMap.put("splitevery", "getSplitEvery");
+    getterMap.put("buffer_size", "getBufferSize");
     getterMap.put("OutputFields", "getOutputFields");
     return getterMap;
   }
@@ -144,6 +146,7 @@ public class TextFileOutputMetaTest {
     setterMap.put("pad", "setPadded");
     setterMap.put("fast_dump", "setFastDump");
     setterMap.put("splitevery", "setSplitEvery");
+    setterMap.put("buffer_size", "setBufferSize");
     setterMap.put("OutputFields", "setOutputFields");
     return setterMap;
   }
@@ -189,6 +192,37 @@ public class TextFileOutputMetaTest {
     assertEquals("foo_5.txt2", fileName);
   }
 
+  @Test
+  public void testBufferSize() {
+    TextFileOutputMeta meta = new TextFileOutputMeta();
+    meta.setDefault();
+    IVariables varSpace = new Variables();
+    assertEquals(1048576, meta.getBufferSize(varSpace));
+    meta.setBufferSize("${bufferVar}");
+    assertEquals(1048576, meta.getBufferSize(varSpace));
+    varSpace.setVariable("bufferVar", "8192");
+    assertEquals(8192, meta.getBufferSize(varSpace));
+    meta.setBufferSize("0");
+    assertEquals(1048576, meta.getBufferSize(varSpace));
+  }
+
+  /** Many files can be open with the file name in a field, each of them gets a small buffer. */
+  @Test
+  public void testBufferSizeWithFileNameInField() {
+    TextFileOutputMeta meta = new TextFileOutputMeta();
+    meta.setDefault();
+    meta.setFileNameInField(true);
+    IVariables varSpace = new Variables();
+    assertEquals(5000, meta.getBufferSize(varSpace));
+
+    // An old transform without a buffer size
+    meta.setBufferSize(null);
+    assertEquals(5000, meta.getBufferSize(varSpace));
+
+    meta.setBufferSize("65536");
+    assertEquals(65536, meta.getBufferSize(varSpace));
+  }
+
   public static class TextFileFieldLoadSaveValidator
       implements IFieldLoadSaveValidator<TextFileField> {
     Random rand = new Random();
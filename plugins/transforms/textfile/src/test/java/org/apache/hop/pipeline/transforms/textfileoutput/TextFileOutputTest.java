@@ -216,6 +216,8 @@ public class TextFileOutputTest {
     Mockito.when(transformMockHelper.iTransformMeta.getSeparator()).thenReturn(" ");
     Mockito.when(transformMockHelper.iTransformMeta.getEnclosure()).thenReturn("\"");
     Mockito.when(transformMockHelper.iTransformMeta.getNewline()).thenReturn("\n");
+    Mockito.when(transformMockHelper.iTransformMeta.getBufferSize(Mockito.any()))
+        .thenReturn(Integer.parseInt(TextFileOutputMeta.DEFAULT_BUFFER_SIZE));
     // Mockito.when( transformMockHelper.pipelineMeta.listVariables() ).thenReturn( new String[ 0 ]
     // );
 
@@ -105,10 +105,17 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
   private Button wForceUppercase;
   private Button wPreserveCase;
   private TextVar wPreferredSchema;
+  private TextVar wFetchSize;
   private TextVar wSqlStatements;
 
   private TableView wOptions;
 
+  private Button wUsingPool;
+  private TextVar wInitialPoolSize;
+  private TextVar wMaximumPoolSize;
+  private TextVar wPoolIdleTimeout;
+  private TextVar wPoolValidationQuery;
+
   private PropsUi props;
   private int middle;
   private int margin;
@@ -198,6 +205,7 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     addGeneralTab();
     addAdvancedTab();
     addOptionsTab();
+    addPoolingTab();
 
     // Select the general tab
     //
@@ -233,8 +241,15 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wForceUppercase.addListener(SWT.Selection, modifyListener);
     wPreserveCase.addListener(SWT.Selection, modifyListener);
     wPreferredSchema.addListener(SWT.Modify, modifyListener);
+    wFetchSize.addListener(SWT.Modify, modifyListener);
     wSqlStatements.addListener(SWT.Modify, modifyListener);
     wOptions.addListener(SWT.Modify, modifyListener);
+    wUsingPool.addListener(SWT.Selection, modifyListener);
+    wUsingPool.addListener(SWT.Selection, event -> enableFields());
+    wInitialPoolSize.addListener(SWT.Modify, modifyListener);
+    wMaximumPoolSize.addListener(SWT.Modify, modifyListener);
+    wPoolIdleTimeout.addListener(SWT.Modify, modifyListener);
+    wPoolValidationQuery.addListener(SWT.Modify, modifyListener);
   }
 
   private void addGeneralTab() {
@@ -623,6 +638,11 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wPreferredSchema.setLayoutData(fdPreferredSchema);
     lastControl = wPreferredSchema;
 
+    // The number of rows fetched per round trip
+    //
+    wFetchSize = addTextField(wAdvancedComp, lastControl, "DatabaseDialog.label.FetchSize");
+    lastControl = wFetchSize;
+
     // SQL Statements to run after connecting
     //
     Label wlSqlStatements = new Label(wAdvancedComp, SWT.LEFT);
@@ -727,6 +747,86 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wOptionsTab.setControl(wOptionsComp);
   }
 
+  private void addPoolingTab() {
+
+    CTabItem wPoolingTab = new CTabItem(wTabFolder, SWT.NONE);
+    wPoolingTab.setFont(GuiResource.getInstance().getFontDefault());
+    wPoolingTab.setText(
+        "   " + BaseMessages.getString(PKG, "DatabaseDialog.PoolingTab.title") + "   ");
+
+    Composite wPoolingComp = new Composite(wTabFolder, SWT.NONE);
+    PropsUi.setLook(wPoolingComp);
+
+    FormLayout poolingLayout = new FormLayout();
+    poolingLayout.marginWidth = PropsUi.getFormMargin() * 2;
+    poolingLayout.marginHeight = PropsUi.getFormMargin() * 2;
+    wPoolingComp.setLayout(poolingLayout);
+
+    // Use a connection pool?
+    //
+    Label wlUsingPool = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlUsingPool);
+    wlUsingPool.setText(BaseMessages.getString(PKG, "DatabaseDialog.label.UseConnectionPool"));
+    FormData fdlUsingPool = new FormData();
+    fdlUsingPool.top = new FormAttachment(0, 0);
+    fdlUsingPool.left = new FormAttachment(0, 0); // First one in the left top corner
+    fdlUsingPool.right = new FormAttachment(middle, 0);
+    wlUsingPool.setLayoutData(fdlUsingPool);
+    wUsingPool = new Button(wPoolingComp, SWT.CHECK | SWT.LEFT);
+    PropsUi.setLook(wUsingPool);
+    wUsingPool.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseDialog.label.UseConnectionPool.Tooltip"));
+    FormData fdUsingPool = new FormData();
+    fdUsingPool.top = new FormAttachment(wlUsingPool, 0, SWT.CENTER);
+    fdUsingPool.left = new FormAttachment(middle, margin); // To the right of the label
+    fdUsingPool.right = new FormAttachment(100, 0);
+    wUsingPool.setLayoutData(fdUsingPool);
+    Control lastControl = wUsingPool;
+
+    wInitialPoolSize =
+        addTextField(wPoolingComp, lastControl, "DatabaseDialog.label.InitialPoolSize");
+    lastControl = wInitialPoolSize;
+    wMaximumPoolSize =
+        addTextField(wPoolingComp, lastControl, "DatabaseDialog.label.MaximumPoolSize");
+    lastControl = wMaximumPoolSize;
+    wPoolIdleTimeout =
+        addTextField(wPoolingComp, lastControl, "DatabaseDialog.label.PoolIdleTimeout");
+    lastControl = wPoolIdleTimeout;
+    wPoolValidationQuery =
+        addTextField(wPoolingComp, lastControl, "DatabaseDialog.label.PoolValidationQuery");
+
+    FormData fdPoolingComp = new FormData();
+    fdPoolingComp.left = new FormAttachment(0, 0);
+    fdPoolingComp.top = new FormAttachment(0, 0);
+    fdPoolingComp.right = new FormAttachment(100, 0);
+    fdPoolingComp.bottom = new FormAttachment(100, 0);
+    wPoolingComp.setLayoutData(fdPoolingComp);
+
+    wPoolingComp.layout();
+    wPoolingTab.setControl(wPoolingComp);
+  }
+
+  private TextVar addTextField(Composite composite, Control lastControl, String labelKey) {
+    Label wlField = new Label(composite, SWT.RIGHT);
+    PropsUi.setLook(wlField);
+    wlField.setText(BaseMessages.getString(PKG, labelKey));
+    FormData fdlField = new FormData();
+    fdlField.top = new FormAttachment(lastControl, margin);
+    fdlField.left = new FormAttachment(0, 0);
+    fdlField.right = new FormAttachment(middle, 0);
+    wlField.setLayoutData(fdlField);
+    TextVar wField =
+        new TextVar(manager.getVariables(), composite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wField);
+    wField.setToolTipText(BaseMessages.getString(PKG, labelKey + ".Tooltip"));
+    FormData fdField = new FormData();
+    fdField.top = new FormAttachment(wlField, 0, SWT.CENTER);
+    fdField.left = new FormAttachment(middle, margin); // To the right of the label
+    fdField.right = new FormAttachment(100, 0);
+    wField.setLayoutData(fdField);
+    return wField;
+  }
+
   private void enableFields() {
     boolean manualUrl =
         StringUtils.isNotEmpty(wManualUrl.getText())
@@ -736,6 +836,12 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     //
     guiCompositeWidgets.enableWidgets(
         getMetadata().getIDatabase(), DatabaseMeta.GUI_PLUGIN_ELEMENT_PARENT_ID, !manualUrl);
+
+    boolean usingPool = wUsingPool.getSelection();
+    wInitialPoolSize.setEnabled(usingPool);
+    wMaximumPoolSize.setEnabled(usingPool);
+    wPoolIdleTimeout.setEnabled(usingPool);
+    wPoolValidationQuery.setEnabled(usingPool);
   }
 
   private void test() {
@@ -796,7 +902,13 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wForceUppercase.setSelection(databaseMeta.isForcingIdentifiersToUpperCase());
     wPreserveCase.setSelection(databaseMeta.preserveReservedCase());
     wPreferredSchema.setText(Const.NVL(databaseMeta.getPreferredSchemaName(), ""));
+    wFetchSize.setText(Const.NVL(databaseMeta.getFetchSize(), ""));
     wSqlStatements.setText(Const.NVL(databaseMeta.getConnectSql(), ""));
+    wUsingPool.setSelection(databaseMeta.isUsingConnectionPool());
+    wInitialPoolSize.setText(Const.NVL(databaseMeta.getInitialPoolSize(), ""));
+    wMaximumPoolSize.setText(Const.NVL(databaseMeta.getMaximumPoolSize(), ""));
+    wPoolIdleTimeout.setText(Const.NVL(databaseMeta.getPoolIdleTimeout(), ""));
+    wPoolValidationQuery.setText(Const.NVL(databaseMeta.getPoolValidationQuery(), ""));
 
     wOptions.clearAll(false);
     Map<String, String> optionsMap = databaseMeta.getExtraOptionsMap();
@@ -837,7 +949,13 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     meta.setForcingIdentifiersToUpperCase(wForceUppercase.getSelection());
     meta.setPreserveReservedCase(wPreserveCase.getSelection());
     meta.setPreferredSchemaName(wPreferredSchema.getText());
+    meta.setFetchSize(wFetchSize.getText());
     meta.setConnectSql(wSqlStatements.getText());
+    meta.setUsingConnectionPool(wUsingPool.getSelection());
+    meta.setInitialPoolSize(wInitialPoolSize.getText());
+    meta.setMaximumPoolSize(wMaximumPoolSize.getText());
+    meta.setPoolIdleTimeout(wPoolIdleTimeout.getText());
+    meta.setPoolValidationQuery(wPoolValidationQuery.getText());
 
     meta.getExtraOptions().clear();
     for (int i = 0; i < wOptions.nrNonEmpty(); i++) {